@@ -1,32 +1,197 @@
 package com.alessandragodoy.transactionms.adapter;
 
+import com.alessandragodoy.transactionms.configuration.AccountServiceRetryProperties;
+import com.alessandragodoy.transactionms.dto.ExecuteTransferDTO;
 import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
 import com.alessandragodoy.transactionms.dto.TransferResponseDTO;
 import com.alessandragodoy.transactionms.exception.ExternalServiceException;
-import lombok.RequiredArgsConstructor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Service client for handling transactions.
+ * Calls to the account service go through the {@code accountService} bulkhead, which caps the
+ * calls in flight, and circuit breaker, which fails fast while the service keeps failing or
+ * answering slowly and lets a few probe calls through before closing again. Both reject calls
+ * with an {@link ExternalServiceException} instead of waiting for the response timeout.
+ * Connection-level failures are retried with jittered exponential backoff and, when enabled, a
+ * hedged attempt is sent once the first one is slower than the 95th percentile of recent calls.
+ * Every attempt of a transfer carries the same {@code Idempotency-Key} header, so the account
+ * service executes it only once. Successful call latencies are published as
+ * {@code account.service.calls}, tagged with the called operation.
  */
 @Component
-@RequiredArgsConstructor
 public class AccountServiceClient {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AccountServiceClient.class);
+
+	private static final String ACCOUNT_SERVICE = "accountService";
+	private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+	private static final String LATENCY_METRIC = "account.service.calls";
+	private static final double HEDGE_PERCENTILE = 0.95;
 
 	private final WebClient webClient;
+	private final CircuitBreaker circuitBreaker;
+	private final Bulkhead bulkhead;
+	private final AccountServiceRetryProperties retry;
+	private final Timer transferLatency;
+	private final Timer batchLatency;
+
+	public AccountServiceClient(WebClient webClient, CircuitBreakerRegistry circuitBreakerRegistry,
+								BulkheadRegistry bulkheadRegistry,
+								AccountServiceRetryProperties retry, MeterRegistry meterRegistry) {
+		this.webClient = webClient;
+		this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(ACCOUNT_SERVICE);
+		this.bulkhead = bulkheadRegistry.bulkhead(ACCOUNT_SERVICE);
+		this.retry = retry;
+		this.transferLatency = latencyTimer(meterRegistry, "execute-transfer");
+		this.batchLatency = latencyTimer(meterRegistry, "execute-transfers");
+		this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+				LOGGER.warn("Account service circuit breaker changed state: {}",
+						event.getStateTransition()));
+	}
 
+	/**
+	 * Executes a transfer under a newly generated idempotency key.
+	 *
+	 * @param transferRequestDTO the transfer request
+	 * @return {@code Mono<TransferResponseDTO>} the account service response
+	 */
 	public Mono<TransferResponseDTO> transfer(TransferRequestDTO transferRequestDTO) {
+		return transfer(transferRequestDTO, null);
+	}
+
+	/**
+	 * Executes a transfer, sending the same idempotency key on every attempt.
+	 *
+	 * @param transferRequestDTO the transfer request
+	 * @param idempotencyKey     the key of the logical request, or {@code null} to generate one
+	 * @return {@code Mono<TransferResponseDTO>} the account service response
+	 */
+	public Mono<TransferResponseDTO> transfer(TransferRequestDTO transferRequestDTO,
+											  String idempotencyKey) {
 
-		return webClient.patch().uri("/execute-transfer")
+		String key = idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString();
+		return guarded(transferLatency, () -> webClient.patch().uri("/execute-transfer")
+				.header(IDEMPOTENCY_KEY_HEADER, key)
 				.bodyValue(transferRequestDTO)
 				.retrieve()
-				.bodyToMono(TransferResponseDTO.class)
+				.bodyToMono(TransferResponseDTO.class));
+	}
+
+	/**
+	 * Executes several transfers with one call. Every transfer carries its own idempotency key,
+	 * so retried and hedged calls execute each of them only once.
+	 *
+	 * @param transfers the transfers with their idempotency keys
+	 * @return {@code Mono<List<TransferResponseDTO>>} the account service responses, in request
+	 * order
+	 */
+	public Mono<List<TransferResponseDTO>> transferBatch(List<ExecuteTransferDTO> transfers) {
+
+		return guarded(batchLatency, () -> webClient.post().uri("/execute-transfers")
+				.bodyValue(transfers)
+				.retrieve()
+				.bodyToFlux(TransferResponseDTO.class)
+				.collectList());
+	}
+
+	/**
+	 * Runs a call through the bulkhead and circuit breaker, hedges it when enabled and retries
+	 * connection-level failures.
+	 *
+	 * @param latency the timer of the successful calls
+	 * @param call    the supplier of one attempt
+	 * @param <T>     the response type
+	 * @return {@code Mono<T>} the response of the first successful attempt
+	 */
+	private <T> Mono<T> guarded(Timer latency, Supplier<Mono<T>> call) {
+
+		Mono<T> attempt = Mono.defer(() -> timed(latency, call))
+				.transformDeferred(BulkheadOperator.of(bulkhead))
+				.transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+
+		return (retry.hedge().enabled() ? hedged(attempt, latency) : attempt)
+				.retryWhen(Retry.backoff(retry.maxRetries(), retry.minBackoff())
+						.maxBackoff(retry.maxBackoff())
+						.jitter(retry.jitter())
+						.filter(WebClientRequestException.class::isInstance)
+						.onRetryExhaustedThrow((spec, signal) -> signal.failure()))
 				.onErrorMap(
 						WebClientRequestException.class, error -> new ExternalServiceException(
-								"There is an error on the account service: " + error.getMessage()));
+								"There is an error on the account service: " + error.getMessage()))
+				.onErrorMap(CallNotPermittedException.class, error -> new ExternalServiceException(
+						"The account service is unavailable, calls are suspended for a while"))
+				.onErrorMap(BulkheadFullException.class, error -> new ExternalServiceException(
+						"Too many concurrent calls to the account service"));
+	}
+
+	private static <T> Mono<T> timed(Timer latency, Supplier<Mono<T>> call) {
+
+		long start = System.nanoTime();
+		return call.get()
+				.doOnNext(response -> latency.record(System.nanoTime() - start,
+						TimeUnit.NANOSECONDS));
+	}
+
+	/**
+	 * Races an attempt against a second one started after the hedge delay. A failed hedged
+	 * attempt never wins, so the outcome of the first attempt is kept in that case.
+	 *
+	 * @param attempt the attempt to hedge
+	 * @param latency the timer of the successful calls, whose 95th percentile sets the delay
+	 * @param <T>     the response type
+	 * @return the first response of either attempt
+	 */
+	private <T> Mono<T> hedged(Mono<T> attempt, Timer latency) {
+
+		return Mono.defer(() -> Mono.firstWithSignal(attempt,
+				Mono.delay(hedgeDelay(latency)).then(attempt.onErrorResume(error -> Mono.never()))));
+	}
+
+	private Duration hedgeDelay(Timer latency) {
+
+		AccountServiceRetryProperties.Hedge hedge = retry.hedge();
+		if (latency.count() < hedge.minSamples()) {
+			return hedge.initialDelay();
+		}
+		for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+			if (percentile.percentile() == HEDGE_PERCENTILE) {
+				Duration observed = Duration.ofNanos((long) percentile.value(TimeUnit.NANOSECONDS));
+				return observed.compareTo(hedge.minDelay()) > 0 ? observed : hedge.minDelay();
+			}
+		}
+		return hedge.initialDelay();
+	}
+
+	private static Timer latencyTimer(MeterRegistry meterRegistry, String operation) {
+
+		return Timer.builder(LATENCY_METRIC)
+				.description("Latency of successful calls to the account service")
+				.tag("operation", operation)
+				.publishPercentiles(HEDGE_PERCENTILE)
+				.register(meterRegistry);
 	}
 
 }
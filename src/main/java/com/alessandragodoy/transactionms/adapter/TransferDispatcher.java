@@ -0,0 +1,137 @@
+package com.alessandragodoy.transactionms.adapter;
+
+import com.alessandragodoy.transactionms.configuration.TransferDispatchProperties;
+import com.alessandragodoy.transactionms.dto.ExecuteTransferDTO;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.dto.TransferResponseDTO;
+import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import com.alessandragodoy.transactionms.utility.BatchPipeline;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sends transfers to the account service.
+ * When enabled, transfers from concurrent requests are collected for up to
+ * {@code account.ms.dispatch.max-size} transfers or {@code max-wait} and sent as one batched
+ * call, through a {@link BatchPipeline}. The responses come back in request order and every
+ * caller completes with its own one; a failed call fails every transfer of the batch. Each
+ * transfer keeps its own idempotency key inside the batch. A batched call serves several
+ * requests, so it is traced on its own rather than as part of one of them.
+ * When disabled, each transfer is sent on its own.
+ * Either way, transfers of the same source account are sent in order through the
+ * {@link TransferSequencer}.
+ */
+@Component
+public class TransferDispatcher {
+
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+	private final AccountServiceClient accountServiceClient;
+	private final TransferSequencer transferSequencer;
+	private final boolean enabled;
+	private final BatchPipeline<PendingTransfer> pipeline;
+
+	public TransferDispatcher(AccountServiceClient accountServiceClient,
+							  TransferSequencer transferSequencer,
+							  TransferDispatchProperties properties) {
+		this.accountServiceClient = accountServiceClient;
+		this.transferSequencer = transferSequencer;
+		this.enabled = properties.enabled();
+		this.pipeline = enabled
+				? new BatchPipeline<>(properties.maxSize(), properties.maxWait(),
+				properties.concurrency(), this::flush, PendingTransfer::fail)
+				: null;
+	}
+
+	/**
+	 * Executes a transfer once the earlier transfers of its source account are done, batched with
+	 * concurrent ones when enabled.
+	 *
+	 * @param transfer       the transfer request
+	 * @param idempotencyKey the key of the logical request, or {@code null} to generate one
+	 * @return {@code Mono<TransferResponseDTO>} the account service response for this transfer
+	 */
+	public Mono<TransferResponseDTO> dispatch(TransferRequestDTO transfer, String idempotencyKey) {
+
+		return transferSequencer.execute(transfer.getSourceAccountId(),
+				() -> send(transfer, idempotencyKey));
+	}
+
+	private Mono<TransferResponseDTO> send(TransferRequestDTO transfer, String idempotencyKey) {
+
+		if (!enabled) {
+			return accountServiceClient.transfer(transfer, idempotencyKey);
+		}
+		return Mono.defer(() -> {
+			String key = idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString();
+			Sinks.One<TransferResponseDTO> response = Sinks.one();
+			pipeline.submit(new PendingTransfer(new ExecuteTransferDTO(key, transfer), response));
+			return response.asMono();
+		});
+	}
+
+	/**
+	 * Stops accepting transfers and waits until the queued ones are sent.
+	 */
+	@PreDestroy
+	public void shutdown() {
+
+		if (pipeline != null) {
+			pipeline.shutdown(SHUTDOWN_TIMEOUT);
+		}
+	}
+
+	/**
+	 * Sends a batch with one call and completes every caller with the response at its position.
+	 *
+	 * @param batch the queued transfers
+	 * @return {@code Mono<Void>} completing once every caller is notified
+	 */
+	private Mono<Void> flush(List<PendingTransfer> batch) {
+
+		return accountServiceClient.transferBatch(
+						batch.stream().map(PendingTransfer::request).toList())
+				.doOnNext(responses -> complete(batch, responses))
+				.then()
+				.onErrorResume(error -> Mono.fromRunnable(
+						() -> batch.forEach(transfer -> transfer.fail(error))));
+	}
+
+	private static void complete(List<PendingTransfer> batch, List<TransferResponseDTO> responses) {
+
+		if (responses.size() != batch.size()) {
+			ExternalServiceException error = new ExternalServiceException(
+					"The account service answered " + responses.size() + " of " + batch.size()
+							+ " transfers");
+			batch.forEach(transfer -> transfer.fail(error));
+			return;
+		}
+		for (int i = 0; i < batch.size(); i++) {
+			batch.get(i).complete(responses.get(i));
+		}
+	}
+
+	/**
+	 * A queued transfer and the sink its caller waits on.
+	 *
+	 * @param request  the transfer with its idempotency key
+	 * @param response the sink completed with the account service response or its error
+	 */
+	private record PendingTransfer(ExecuteTransferDTO request,
+								   Sinks.One<TransferResponseDTO> response) {
+
+		void complete(TransferResponseDTO result) {
+			response.tryEmitValue(result);
+		}
+
+		void fail(Throwable error) {
+			response.tryEmitError(error);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.alessandragodoy.transactionms.adapter;
+
+import com.alessandragodoy.transactionms.configuration.TransferSequencerProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the account service calls of one source account strictly one after the other.
+ * When enabled, a call starts once the previous call with the same key has finished, while calls
+ * with other keys start right away: a slow call only holds back the calls of its own account,
+ * and the dispatcher can still batch the calls of every other account. Only the last call of
+ * each key is tracked, and it is dropped once it finished. The number of calls queued or running
+ * is published as {@code account.service.sequencer.queue.depth}. A call runs with the Reactor
+ * context of its caller, so the observations it makes keep their parent.
+ * When disabled, each call starts right away.
+ */
+@Component
+public class TransferSequencer {
+
+	private static final String QUEUE_DEPTH_METRIC = "account.service.sequencer.queue.depth";
+
+	private final boolean enabled;
+	private final Map<Object, Mono<Void>> lastCalls = new ConcurrentHashMap<>();
+	private final AtomicInteger depth = new AtomicInteger();
+
+	public TransferSequencer(TransferSequencerProperties properties, MeterRegistry meterRegistry) {
+		this.enabled = properties.enabled();
+		Gauge.builder(QUEUE_DEPTH_METRIC, depth, AtomicInteger::get)
+				.description("Account service calls queued behind an earlier call or running")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Runs a call after the calls already started for the same key.
+	 *
+	 * @param key  the key ordering the calls, e.g. the source account id
+	 * @param call the supplier of the actual call, invoked when the call reaches its turn
+	 * @param <T>  the result type
+	 * @return {@code Mono<T>} the result of the call
+	 */
+	public <T> Mono<T> execute(Object key, Supplier<Mono<T>> call) {
+
+		if (!enabled) {
+			return Mono.defer(call);
+		}
+		return Mono.defer(() -> {
+			Sinks.Empty<Void> finished = Sinks.empty();
+			Mono<Void> thisCall = finished.asMono();
+			Mono<Void> previousCall = lastCalls.put(key, thisCall);
+			depth.incrementAndGet();
+			return (previousCall == null ? Mono.<Void>empty() : previousCall)
+					.then(Mono.defer(call))
+					.doFinally(signal -> {
+						depth.decrementAndGet();
+						lastCalls.remove(key, thisCall);
+						finished.tryEmitEmpty();
+					});
+		});
+	}
+}
@@ -0,0 +1,125 @@
+package com.alessandragodoy.transactionms.cache;
+
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.exception.IdempotencyKeyConflictException;
+import com.alessandragodoy.transactionms.exception.InvalidParameterException;
+import com.alessandragodoy.transactionms.exception.TransferFailedException;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Makes transfers carrying an {@code Idempotency-Key} run at most once.
+ * Recently registered keys are answered from memory, without reading the database or calling
+ * the account service. Other keys are looked up in the database, and concurrent requests with a
+ * key that is still being processed wait on the first one instead of starting another transfer.
+ * The unique index on the key, which must exist before the service starts, rejects a second
+ * registration that slips past these checks; the stored transaction is then returned instead.
+ * A transaction is returned as stored, so a PENDING one is settled again by the caller. Hit, miss
+ * and eviction counts are published under the {@code idempotencyKeys} cache name.
+ */
+@Component
+public class IdempotencyKeyCache {
+
+	private static final String CACHE_NAME = "idempotencyKeys";
+	private static final String OPERATION = "registerTransfer";
+	private static final int MAX_KEY_LENGTH = 255;
+
+	private final TransactionRepository transactionRepository;
+	private final RequestCoalescer requestCoalescer;
+	private final Cache<String, Transaction> recentKeys;
+
+	public IdempotencyKeyCache(TransactionRepository transactionRepository,
+							   RequestCoalescer requestCoalescer, MeterRegistry meterRegistry,
+							   @Value("${transaction.idempotency.maximum-size:100000}")
+							   long maximumSize,
+							   @Value("${transaction.idempotency.ttl:24h}") Duration ttl) {
+		this.transactionRepository = transactionRepository;
+		this.requestCoalescer = requestCoalescer;
+		this.recentKeys = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build(), CACHE_NAME);
+	}
+
+	/**
+	 * Runs a transfer once per idempotency key. A replayed key returns the registered
+	 * transaction, or fails as the original request did when the transfer was not completed.
+	 *
+	 * @param idempotencyKey the key sent by the client, or {@code null} to always run the transfer
+	 * @param transfer       the transfer request
+	 * @param registration   the supplier of the actual transfer registration
+	 * @return {@code Mono<Transaction>} the registered transaction
+	 */
+	public Mono<Transaction> execute(String idempotencyKey, TransferRequestDTO transfer,
+									 Supplier<Mono<Transaction>> registration) {
+
+		if (idempotencyKey == null) {
+			return registration.get();
+		}
+		if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+			return Mono.error(new InvalidParameterException(
+					"Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters"));
+		}
+		Transaction recent = recentKeys.getIfPresent(idempotencyKey);
+		Mono<Transaction> registered = recent != null
+				? Mono.just(recent)
+				: requestCoalescer.coalesce(OPERATION, idempotencyKey,
+						() -> registerOnce(idempotencyKey, registration));
+		return registered.flatMap(transaction -> replay(idempotencyKey, transfer, transaction));
+	}
+
+	private Mono<Transaction> registerOnce(String idempotencyKey,
+										   Supplier<Mono<Transaction>> registration) {
+
+		return transactionRepository.findByIdempotencyKey(idempotencyKey)
+				.switchIfEmpty(Mono.defer(registration)
+						.onErrorResume(DuplicateKeyException.class, error ->
+								transactionRepository.findByIdempotencyKey(idempotencyKey)))
+				.doOnNext(this::remember);
+	}
+
+	private void remember(Transaction transaction) {
+
+		if (transaction.getStatus() != TransactionStatus.PENDING) {
+			recentKeys.put(transaction.getIdempotencyKey(), transaction);
+		}
+	}
+
+	private static Mono<Transaction> replay(String idempotencyKey, TransferRequestDTO transfer,
+											Transaction transaction) {
+
+		if (!matches(transfer, transaction)) {
+			return Mono.error(new IdempotencyKeyConflictException(
+					"Idempotency-Key " + idempotencyKey + " was already used for another transfer"));
+		}
+		if (transaction.getStatus() == TransactionStatus.FAILED) {
+			return Mono.error(new TransferFailedException(
+					"Transfer " + transaction.getTransactionId() + " already failed"));
+		}
+		return Mono.just(transaction);
+	}
+
+	private static boolean matches(TransferRequestDTO transfer, Transaction transaction) {
+
+		return transaction.getTransactionType() != null
+				&& transaction.getTransactionType().name().equals(transfer.getTransactionType())
+				&& Objects.equals(transaction.getAccountId(), transfer.getSourceAccountId())
+				&& Objects.equals(transaction.getRelatedAccountId(),
+				transfer.getDestinationAccountId())
+				&& Objects.equals(transaction.getAmount(), transfer.getAmount());
+	}
+}
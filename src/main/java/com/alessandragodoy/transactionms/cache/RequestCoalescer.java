@@ -0,0 +1,80 @@
+package com.alessandragodoy.transactionms.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight publisher between concurrent identical requests.
+ * The first caller for a key subscribes to the source; callers arriving while it is still running
+ * receive the same signals, replayed from the start. Once the source terminates, the key is
+ * released and the next call starts a new request.
+ * Only bounded results should be coalesced, since they are held until the source completes.
+ * Every caller receives the same element instances, so a caller must copy an element, e.g. map
+ * it to a DTO, before changing it.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestCoalescer {
+
+	private static final String COALESCED_METRIC = "transactions.requests.coalesced";
+
+	private final Map<String, Flux<?>> inFlight = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Coalesces a single-valued request.
+	 *
+	 * @param operation the operation name, used as metric tag and key prefix
+	 * @param key       the request key within the operation
+	 * @param source    the supplier of the actual request
+	 * @param <T>       the element type
+	 * @return {@code Mono<T>} the shared result
+	 */
+	public <T> Mono<T> coalesce(String operation, Object key, Supplier<Mono<T>> source) {
+		return coalesceMany(operation, key, () -> source.get().flux()).next();
+	}
+
+	/**
+	 * Coalesces a multi-valued request.
+	 *
+	 * @param operation the operation name, used as metric tag and key prefix
+	 * @param key       the request key within the operation
+	 * @param source    the supplier of the actual request
+	 * @param <T>       the element type
+	 * @return {@code Flux<T>} the shared result
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Flux<T> coalesceMany(String operation, Object key, Supplier<Flux<T>> source) {
+		String inFlightKey = operation + ":" + key;
+		return Flux.defer(() -> {
+			AtomicReference<Flux<T>> self = new AtomicReference<>();
+			// Only releases the key while it still maps to this request
+			Flux<T> created = source.get()
+					.doFinally(signal -> inFlight.remove(inFlightKey, self.get()))
+					.cache();
+			self.set(created);
+			Flux<?> shared = inFlight.putIfAbsent(inFlightKey, created);
+			if (shared == null) {
+				return created;
+			}
+			coalescedCounter(operation).increment();
+			return (Flux<T>) shared;
+		});
+	}
+
+	private Counter coalescedCounter(String operation) {
+		return Counter.builder(COALESCED_METRIC)
+				.description("Requests served by an identical request already in flight")
+				.tag("operation", operation)
+				.register(meterRegistry);
+	}
+}
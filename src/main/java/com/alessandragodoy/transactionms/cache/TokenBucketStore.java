@@ -0,0 +1,108 @@
+package com.alessandragodoy.transactionms.cache;
+
+import com.alessandragodoy.transactionms.configuration.TransferRateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory token buckets, one per key.
+ * Each bucket refills continuously up to its capacity and is updated with compare-and-set, so
+ * concurrent requests never lock. Buckets unused for {@code transaction.rate-limit.idle-timeout}
+ * are dropped; a dropped bucket would be full again anyway.
+ */
+@Component
+public class TokenBucketStore {
+
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final Cache<String, TokenBucket> buckets;
+	private final Ticker ticker;
+
+	@Autowired
+	public TokenBucketStore(TransferRateLimitProperties properties) {
+		this(properties, Ticker.systemTicker());
+	}
+
+	TokenBucketStore(TransferRateLimitProperties properties, Ticker ticker) {
+		this.ticker = ticker;
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(properties.maximumBuckets())
+				.expireAfterAccess(properties.idleTimeout())
+				.ticker(ticker)
+				.build();
+	}
+
+	/**
+	 * Takes one token from the bucket of a key, creating a full bucket on first use.
+	 *
+	 * @param key   the bucket key
+	 * @param limit the capacity and refill rate of the bucket
+	 * @return {@link Duration#ZERO} when a token was taken, otherwise the time until the next
+	 * token is available
+	 */
+	public Duration tryConsume(String key, TransferRateLimitProperties.Limit limit) {
+
+		long now = ticker.read();
+		return Duration.ofNanos(buckets.get(key, ignored -> new TokenBucket(limit.capacity(), now))
+				.tryConsume(limit, now));
+	}
+
+	/**
+	 * Puts back a token taken from the bucket of a key, up to its capacity, for a request that
+	 * was rejected by another limit after all.
+	 *
+	 * @param key   the bucket key
+	 * @param limit the capacity and refill rate of the bucket
+	 */
+	public void refund(String key, TransferRateLimitProperties.Limit limit) {
+
+		TokenBucket bucket = buckets.getIfPresent(key);
+		if (bucket != null) {
+			bucket.refund(limit);
+		}
+	}
+
+	/**
+	 * A bucket whose tokens and last refill time are replaced together.
+	 */
+	private static final class TokenBucket {
+
+		private final AtomicReference<State> state;
+
+		TokenBucket(double tokens, long now) {
+			this.state = new AtomicReference<>(new State(tokens, now));
+		}
+
+		long tryConsume(TransferRateLimitProperties.Limit limit, long now) {
+
+			while (true) {
+				State current = state.get();
+				double elapsed = Math.max(0, now - current.refilledAt());
+				double tokens = Math.min(limit.capacity(),
+						current.tokens() + elapsed * limit.refillPerSecond() / NANOS_PER_SECOND);
+				if (tokens < 1) {
+					return (long) Math.ceil((1 - tokens) * NANOS_PER_SECOND
+							/ limit.refillPerSecond());
+				}
+				if (state.compareAndSet(current, new State(tokens - 1, now))) {
+					return 0;
+				}
+			}
+		}
+
+		void refund(TransferRateLimitProperties.Limit limit) {
+			state.updateAndGet(current -> new State(
+					Math.min(limit.capacity(), current.tokens() + 1), current.refilledAt()));
+		}
+
+		private record State(double tokens, long refilledAt) {
+		}
+	}
+}
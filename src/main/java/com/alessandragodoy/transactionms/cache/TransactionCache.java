@@ -0,0 +1,110 @@
+package com.alessandragodoy.transactionms.cache;
+
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded, in-process read-through cache of transactions by id.
+ * COMPLETED and FAILED transactions never change, so they are kept much longer than PENDING
+ * ones. Hit, miss and eviction counts are published under the {@code transactions} cache name.
+ */
+@Component
+public class TransactionCache {
+
+	private static final String CACHE_NAME = "transactions";
+
+	private final AsyncCache<String, Transaction> cache;
+
+	@Autowired
+	public TransactionCache(MeterRegistry meterRegistry,
+							@Value("${transaction.cache.maximum-size:10000}") long maximumSize,
+							@Value("${transaction.cache.pending-ttl:5s}") Duration pendingTtl,
+							@Value("${transaction.cache.final-ttl:1h}") Duration finalTtl) {
+		this(meterRegistry, maximumSize, pendingTtl, finalTtl, Ticker.systemTicker());
+	}
+
+	TransactionCache(MeterRegistry meterRegistry, long maximumSize, Duration pendingTtl,
+					 Duration finalTtl, Ticker ticker) {
+		this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new StatusExpiry(pendingTtl, finalTtl))
+				.ticker(ticker)
+				.recordStats()
+				.buildAsync(), CACHE_NAME);
+	}
+
+	/**
+	 * Returns the cached transaction or loads it once, even when several callers miss at the
+	 * same time. Empty results are not cached.
+	 *
+	 * @param transactionId the transaction id
+	 * @param loader        the function that reads the transaction from the database
+	 * @return {@code Mono<Transaction>} the transaction, or empty if it does not exist
+	 */
+	public Mono<Transaction> get(String transactionId,
+								 Function<String, Mono<Transaction>> loader) {
+		return Mono.fromFuture(() -> cache.get(transactionId,
+				(id, executor) -> loader.apply(id).toFuture()), true);
+	}
+
+	/**
+	 * Stores the latest state of a transaction.
+	 *
+	 * @param transaction the saved transaction
+	 */
+	public void put(Transaction transaction) {
+		cache.put(transaction.getTransactionId(), CompletableFuture.completedFuture(transaction));
+	}
+
+	/**
+	 * Drops the cached state of a transaction whose status changed.
+	 *
+	 * @param transactionId the transaction id
+	 */
+	public void invalidate(String transactionId) {
+		cache.synchronous().invalidate(transactionId);
+	}
+
+	/**
+	 * Expires entries according to the status of the cached transaction.
+	 *
+	 * @param pendingTtl the time to live of PENDING transactions
+	 * @param finalTtl   the time to live of COMPLETED and FAILED transactions
+	 */
+	private record StatusExpiry(Duration pendingTtl, Duration finalTtl)
+			implements Expiry<String, Transaction> {
+
+		@Override
+		public long expireAfterCreate(String key, Transaction value, long currentTime) {
+			return value.getStatus() == TransactionStatus.PENDING
+					? pendingTtl.toNanos()
+					: finalTtl.toNanos();
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Transaction value, long currentTime,
+									  long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Transaction value, long currentTime,
+									long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
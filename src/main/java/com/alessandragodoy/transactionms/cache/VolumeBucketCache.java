@@ -0,0 +1,81 @@
+package com.alessandragodoy.transactionms.cache;
+
+import com.alessandragodoy.transactionms.model.BucketInterval;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionVolume;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded, in-process cache of the analytics rows of closed time buckets.
+ * A closed bucket no longer receives transactions, so its rows never expire and are only
+ * evicted by size. A bucket that still holds {@code PENDING} transfers may change when they
+ * settle, here or on another instance, so its rows are returned but not kept. Hit, miss and
+ * eviction counts are published under the {@code transactionVolumes} cache name.
+ */
+@Component
+public class VolumeBucketCache {
+
+	private static final String CACHE_NAME = "transactionVolumes";
+
+	private final AsyncCache<Key, List<TransactionVolume>> cache;
+
+	public VolumeBucketCache(MeterRegistry meterRegistry,
+							 @Value("${transaction.analytics.cache.maximum-size:10000}")
+							 long maximumSize) {
+		this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.recordStats()
+				.buildAsync(), CACHE_NAME);
+	}
+
+	/**
+	 * Returns the rows of every requested bucket, loading all missing buckets with a single call.
+	 * Buckets with pending transfers are loaded again on the next call.
+	 *
+	 * @param keys   the buckets to return
+	 * @param loader the function that reads the missing buckets, returning an entry for each
+	 * @return {@code Mono<Map<Key, List<TransactionVolume>>>} the rows by bucket
+	 */
+	public Mono<Map<Key, List<TransactionVolume>>> getAll(
+			Set<Key> keys, Function<Set<Key>, Mono<Map<Key, List<TransactionVolume>>>> loader) {
+		return Mono.fromFuture(() -> cache.getAll(keys,
+				(missing, executor) -> loader.apply(Set.copyOf(missing)).toFuture()), true)
+				.doOnNext(this::evictUnsettled);
+	}
+
+	private void evictUnsettled(Map<Key, List<TransactionVolume>> buckets) {
+
+		List<Key> unsettled = buckets.entrySet().stream()
+				.filter(bucket -> bucket.getValue().stream()
+						.anyMatch(row -> row.status() == TransactionStatus.PENDING))
+				.map(Map.Entry::getKey)
+				.toList();
+		if (!unsettled.isEmpty()) {
+			cache.synchronous().invalidateAll(unsettled);
+		}
+	}
+
+	/**
+	 * Identifies the rows of one closed bucket of a report.
+	 *
+	 * @param interval       the bucket width
+	 * @param start          the bucket start
+	 * @param accountId      the source account the report is restricted to, or {@code null}
+	 * @param groupByAccount whether the report has one row per source account
+	 */
+	public record Key(BucketInterval interval, LocalDateTime start, Integer accountId,
+					  boolean groupByAccount) {
+	}
+}
@@ -0,0 +1,29 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the connection pool used to call the account service, bound from
+ * {@code account.ms.pool.*}.
+ *
+ * @param maxConnections         the maximum number of open connections
+ * @param pendingAcquireMaxCount the maximum number of requests waiting for a free connection
+ * @param pendingAcquireTimeout  the longest time a request waits for a free connection
+ * @param maxIdleTime            the time after which an idle connection is closed
+ * @param maxLifeTime            the time after which a connection is closed once released
+ * @param evictionInterval       the interval of the background check for idle and expired
+ *                               connections
+ * @param keepAlive              whether connections are kept open between requests
+ */
+@ConfigurationProperties(prefix = "account.ms.pool")
+public record AccountServicePoolProperties(@DefaultValue("100") int maxConnections,
+										   @DefaultValue("500") int pendingAcquireMaxCount,
+										   @DefaultValue("2s") Duration pendingAcquireTimeout,
+										   @DefaultValue("30s") Duration maxIdleTime,
+										   @DefaultValue("5m") Duration maxLifeTime,
+										   @DefaultValue("30s") Duration evictionInterval,
+										   @DefaultValue("true") boolean keepAlive) {
+}
@@ -0,0 +1,40 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the retries and hedged requests sent to the account service, bound from
+ * {@code account.ms.retry.*}.
+ *
+ * @param maxRetries the maximum number of retries after a connection-level failure
+ * @param minBackoff the delay before the first retry, doubled on every further retry
+ * @param maxBackoff the longest delay between two retries
+ * @param jitter     the random share of each delay, between 0 and 1
+ * @param hedge      the hedged request settings
+ */
+@ConfigurationProperties(prefix = "account.ms.retry")
+public record AccountServiceRetryProperties(@DefaultValue("2") int maxRetries,
+											@DefaultValue("100ms") Duration minBackoff,
+											@DefaultValue("1s") Duration maxBackoff,
+											@DefaultValue("0.5") double jitter,
+											@DefaultValue Hedge hedge) {
+
+	/**
+	 * Settings of the hedged request, a second attempt sent while the first one is still
+	 * running and slower than usual. The first response wins and the other attempt is cancelled.
+	 *
+	 * @param enabled      whether hedged requests are sent
+	 * @param initialDelay the delay before the hedged request until enough latencies are known
+	 * @param minDelay     the shortest delay before the hedged request
+	 * @param minSamples   the number of recorded latencies needed to use their 95th percentile
+	 *                     as delay
+	 */
+	public record Hedge(@DefaultValue("false") boolean enabled,
+						@DefaultValue("500ms") Duration initialDelay,
+						@DefaultValue("20ms") Duration minDelay,
+						@DefaultValue("50") long minSamples) {
+	}
+}
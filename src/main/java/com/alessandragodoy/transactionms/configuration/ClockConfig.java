@@ -0,0 +1,18 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Provides the clock used to tell open time buckets from closed ones, so tests can fix the time.
+ */
+@Configuration
+public class ClockConfig {
+
+	@Bean
+	public Clock clock() {
+		return Clock.systemDefaultZone();
+	}
+}
@@ -0,0 +1,35 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the adaptive limit on concurrent API requests, bound from
+ * {@code transaction.concurrency-limit.*}.
+ *
+ * @param enabled      whether excess requests are shed
+ * @param initialLimit the limit before any latency was measured
+ * @param minLimit     the lowest limit
+ * @param maxLimit     the highest limit
+ * @param tolerance    how much slower than the long-term latency requests may get before the
+ *                     limit is lowered, e.g. 1.5 for 50% slower
+ * @param smoothing    the weight of each new limit estimate, between 0 and 1
+ * @param longWindow   the number of samples the long-term latency is averaged over
+ * @param cheapShare   the share of the limit usable by reads of single transactions and
+ *                     summaries
+ * @param bulkShare    the share of the limit usable by list scans and analytics; transfers may
+ *                     always use the whole limit
+ * @param batchShare   the share of the limit usable by batch transfer requests
+ */
+@ConfigurationProperties(prefix = "transaction.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("true") boolean enabled,
+										 @DefaultValue("100") int initialLimit,
+										 @DefaultValue("10") int minLimit,
+										 @DefaultValue("1000") int maxLimit,
+										 @DefaultValue("1.5") double tolerance,
+										 @DefaultValue("0.2") double smoothing,
+										 @DefaultValue("600") int longWindow,
+										 @DefaultValue("0.9") double cheapShare,
+										 @DefaultValue("0.6") double bulkShare,
+										 @DefaultValue("0.3") double batchShare) {
+}
@@ -0,0 +1,62 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import com.alessandragodoy.transactionms.model.Transaction;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.StreamSupport;
+
+/**
+ * Creates the unique index on the idempotency key of {@link Transaction} before the service
+ * accepts requests. Replayed transfers are only guaranteed to run once while this index exists,
+ * so it is created regardless of {@code transaction.indexes.verify-on-startup}, and the
+ * application fails to start when it cannot be created.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyIndexInitializer {
+	static final String INDEX_NAME = "idempotency_key_idx";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyIndexInitializer.class);
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	/**
+	 * Creates the idempotency key index, waiting until it is in place.
+	 *
+	 * @throws IllegalStateException if the index is not declared or cannot be created
+	 */
+	@PostConstruct
+	public void createIndex() {
+		IndexDefinition definition = resolveIndex();
+		try {
+			String name = mongoTemplate.indexOps(Transaction.class)
+					.createIndex(definition)
+					.block(TIMEOUT);
+			LOGGER.info("Index '{}' is in place.", name);
+		} catch (RuntimeException error) {
+			throw new IllegalStateException("Could not create the unique index '" + INDEX_NAME
+					+ "' the idempotency keys rely on", error);
+		}
+	}
+
+	private IndexDefinition resolveIndex() {
+		IndexResolver resolver = IndexResolver.create(
+				mongoTemplate.getConverter().getMappingContext());
+		return StreamSupport.stream(resolver.resolveIndexFor(Transaction.class).spliterator(), false)
+				.map(IndexDefinition.class::cast)
+				.filter(definition -> INDEX_NAME.equals(
+						definition.getIndexOptions().getString("name")))
+				.findFirst()
+				.orElseThrow(() -> new IllegalStateException(
+						"Index '" + INDEX_NAME + "' is not declared on " + Transaction.class));
+	}
+}
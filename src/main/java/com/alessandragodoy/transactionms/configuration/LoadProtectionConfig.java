@@ -0,0 +1,51 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import com.alessandragodoy.transactionms.cache.TokenBucketStore;
+import com.alessandragodoy.transactionms.filter.AdaptiveConcurrencyLimiter;
+import com.alessandragodoy.transactionms.filter.ConcurrencyLimitFilter;
+import com.alessandragodoy.transactionms.filter.TransferRateLimitFilter;
+import com.alessandragodoy.transactionms.filter.TransferRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Registers the web filters protecting the service from excess load ahead of the other web
+ * filters, so rejected requests cost as little as possible. Rate limited transfers are rejected
+ * before they take a slot of the concurrency limit.
+ */
+@Configuration
+public class LoadProtectionConfig {
+
+	@Bean
+	public TransferRateLimiter transferRateLimiter(TransferRateLimitProperties properties,
+												   TokenBucketStore tokenBucketStore,
+												   MeterRegistry meterRegistry) {
+		return new TransferRateLimiter(properties, tokenBucketStore, meterRegistry);
+	}
+
+	@Bean
+	@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+	public TransferRateLimitFilter transferRateLimitFilter(TransferRateLimiter rateLimiter,
+														   ObjectMapper objectMapper) {
+		return new TransferRateLimitFilter(rateLimiter, objectMapper);
+	}
+
+	@Bean
+	public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+			ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+		return new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+	}
+
+	@Bean
+	@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+	public ConcurrencyLimitFilter concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+														 AdaptiveConcurrencyLimiter limiter,
+														 ObjectMapper objectMapper,
+														 MeterRegistry meterRegistry) {
+		return new ConcurrencyLimitFilter(properties, limiter, objectMapper, meterRegistry);
+	}
+}
@@ -0,0 +1,64 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import com.alessandragodoy.transactionms.metrics.InMemorySpanExporter;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.otlp.OtlpTracingConnectionDetails;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+/**
+ * Configuration class for the observation of MongoDB commands and the export of spans.
+ * HTTP requests and account service calls are observed by Spring Boot; this class adds the
+ * MongoDB driver commands. The driver reads the current observation from the Reactor context of
+ * the calling pipeline, so each command becomes a child of the request or transfer stage that
+ * issued it. Spans are sampled by {@code management.tracing.sampling.probability} and exported
+ * over OTLP only when {@code OTLP_TRACING_ENDPOINT} is set; they can be kept in memory instead
+ * with {@code transaction.tracing.in-memory-exporter.enabled}.
+ */
+@Configuration
+public class ObservabilityConfig {
+
+	private static final String OTLP_TRACING_ENDPOINT = "OTLP_TRACING_ENDPOINT";
+
+	@Bean
+	public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(
+			ObservationRegistry observationRegistry) {
+		return builder -> builder
+				.contextProvider(ContextProviderFactory.create(observationRegistry))
+				.addCommandListener(new MongoObservationCommandListener(observationRegistry));
+	}
+
+	/**
+	 * Points the OTLP span exporter at {@code OTLP_TRACING_ENDPOINT}. Without this bean, or an
+	 * explicit {@code management.otlp.tracing.endpoint}, Spring Boot creates no OTLP exporter,
+	 * so an instance without a collector does not keep failing to send spans.
+	 *
+	 * @param endpoint the URL of the OTLP collector
+	 * @return the connection details of the collector
+	 */
+	@Bean
+	@ConditionalOnProperty(name = OTLP_TRACING_ENDPOINT)
+	public OtlpTracingConnectionDetails otlpTracingConnectionDetails(
+			@Value("${" + OTLP_TRACING_ENDPOINT + "}") String endpoint) {
+		return transport -> endpoint;
+	}
+
+	/**
+	 * Keeps the latest spans in memory, for local debugging or tests without a collector.
+	 *
+	 * @param capacity the number of spans kept
+	 * @return the in-memory span exporter
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "transaction.tracing.in-memory-exporter.enabled",
+			havingValue = "true")
+	public InMemorySpanExporter inMemorySpanExporter(
+			@Value("${transaction.tracing.in-memory-exporter.capacity:10000}") int capacity) {
+		return new InMemorySpanExporter(capacity);
+	}
+}
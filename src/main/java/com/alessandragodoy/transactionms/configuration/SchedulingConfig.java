@@ -0,0 +1,12 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled background tasks, such as the reconciliation of pending transfers.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
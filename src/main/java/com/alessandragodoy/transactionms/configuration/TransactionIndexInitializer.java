@@ -0,0 +1,132 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import com.alessandragodoy.transactionms.model.Transaction;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Creates or verifies the indexes declared on {@link Transaction} once the application is ready
+ * and logs which of them are missing or have not been used yet.
+ * The work is subscribed in the background so it never delays the readiness of the service.
+ * Index usage is counted by MongoDB since the index was created or the server restarted, so an
+ * unused index is only reported once it has been tracked for
+ * {@code transaction.indexes.unused-min-age}.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.indexes.verify-on-startup", havingValue = "true",
+		matchIfMissing = true)
+public class TransactionIndexInitializer {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TransactionIndexInitializer.class);
+	private static final AggregationOperation INDEX_STATS =
+			context -> new Document("$indexStats", new Document());
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final Clock clock;
+	private final Duration unusedMinAge;
+
+	public TransactionIndexInitializer(ReactiveMongoTemplate mongoTemplate, Clock clock,
+									   @Value("${transaction.indexes.unused-min-age:7d}")
+									   Duration unusedMinAge) {
+		this.mongoTemplate = mongoTemplate;
+		this.clock = clock;
+		this.unusedMinAge = unusedMinAge;
+	}
+
+	/**
+	 * Creates the managed indexes and reports their state.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void initializeIndexes() {
+		List<IndexDefinition> definitions = resolveManagedIndexes();
+
+		Flux.fromIterable(definitions)
+				.concatMap(definition -> mongoTemplate.indexOps(Transaction.class)
+						.createIndex(definition)
+						.doOnNext(name -> LOGGER.info("Index '{}' is in place.", name))
+						.onErrorResume(error -> {
+							LOGGER.error("Could not create index {}: {}",
+									definition.getIndexKeys(), error.getMessage());
+							return Mono.empty();
+						}))
+				.thenMany(readIndexStats())
+				.collectList()
+				.subscribe(stats -> reportIndexes(definitions, stats),
+						error -> LOGGER.error("Could not verify transaction indexes: {}",
+								error.getMessage()));
+	}
+
+	/**
+	 * Returns the indexes that have not been used since MongoDB started tracking them, at least
+	 * the minimum age ago.
+	 *
+	 * @param stats the {@code $indexStats} documents of the collection
+	 * @return the names of the unused indexes
+	 */
+	List<String> unusedIndexes(List<Document> stats) {
+		Instant trackedBefore = clock.instant().minus(unusedMinAge);
+		return stats.stream()
+				.filter(stat -> accessCount(stat) == 0)
+				.filter(stat -> trackedSince(stat).toInstant().isBefore(trackedBefore))
+				.map(stat -> stat.getString("name"))
+				.toList();
+	}
+
+	private List<IndexDefinition> resolveManagedIndexes() {
+		IndexResolver resolver = IndexResolver.create(
+				mongoTemplate.getConverter().getMappingContext());
+		return StreamSupport.stream(resolver.resolveIndexFor(Transaction.class).spliterator(), false)
+				.map(IndexDefinition.class::cast)
+				.toList();
+	}
+
+	private Flux<Document> readIndexStats() {
+		return mongoTemplate.aggregate(Aggregation.newAggregation(INDEX_STATS),
+				mongoTemplate.getCollectionName(Transaction.class), Document.class);
+	}
+
+	private void reportIndexes(List<IndexDefinition> definitions, List<Document> stats) {
+		Set<String> existing = stats.stream()
+				.map(stat -> stat.getString("name"))
+				.collect(Collectors.toSet());
+
+		definitions.stream()
+				.map(definition -> definition.getIndexOptions().getString("name"))
+				.filter(name -> !existing.contains(name))
+				.forEach(name -> LOGGER.warn("Managed index '{}' is missing on collection '{}'.",
+						name, mongoTemplate.getCollectionName(Transaction.class)));
+
+		unusedIndexes(stats).forEach(name -> LOGGER.warn(
+				"Index '{}' has not been used for at least {}.", name, unusedMinAge));
+	}
+
+	private static long accessCount(Document stat) {
+		Number ops = stat.get("accesses", Document.class).get("ops", Number.class);
+		return ops == null ? 0 : ops.longValue();
+	}
+
+	private static Date trackedSince(Document stat) {
+		return stat.get("accesses", Document.class).getDate("since");
+	}
+}
@@ -0,0 +1,23 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the write-behind batching of new transactions, bound from
+ * {@code transaction.write-batch.*}.
+ *
+ * @param enabled          whether saves are collected into bulk inserts; when disabled every
+ *                         transaction is saved on its own
+ * @param maxSize          the maximum number of transactions per bulk insert
+ * @param maxWait          the longest time a save waits for its bulk insert to fill
+ * @param flushConcurrency the number of bulk inserts running at a time
+ */
+@ConfigurationProperties(prefix = "transaction.write-batch")
+public record TransactionWriteBatchProperties(@DefaultValue("false") boolean enabled,
+											  @DefaultValue("100") int maxSize,
+											  @DefaultValue("5ms") Duration maxWait,
+											  @DefaultValue("4") int flushConcurrency) {
+}
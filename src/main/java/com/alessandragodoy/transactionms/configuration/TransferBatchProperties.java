@@ -0,0 +1,22 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the batch transfer endpoint, bound from {@code transaction.batch.*}.
+ *
+ * @param concurrency   the number of transfers executed against the account service at a time
+ * @param insertSize    the maximum number of transactions per bulk insert
+ * @param insertMaxWait the longest time an executed transfer waits for its bulk insert to fill
+ * @param maxSize       the maximum number of transfers per batch; the transfer past it is
+ *                      rejected and the rest of the batch is not read
+ */
+@ConfigurationProperties(prefix = "transaction.batch")
+public record TransferBatchProperties(@DefaultValue("16") int concurrency,
+									  @DefaultValue("500") int insertSize,
+									  @DefaultValue("200ms") Duration insertMaxWait,
+									  @DefaultValue("1000") int maxSize) {
+}
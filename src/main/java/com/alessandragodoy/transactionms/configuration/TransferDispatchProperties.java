@@ -0,0 +1,22 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the batching of account service calls, bound from {@code account.ms.dispatch.*}.
+ *
+ * @param enabled     whether concurrent transfers are sent as one batched call; requires the
+ *                    account service to support {@code POST /execute-transfers}
+ * @param maxSize     the maximum number of transfers per batched call
+ * @param maxWait     the longest time a transfer waits for its batch to fill
+ * @param concurrency the number of batched calls in flight at a time
+ */
+@ConfigurationProperties(prefix = "account.ms.dispatch")
+public record TransferDispatchProperties(@DefaultValue("false") boolean enabled,
+										 @DefaultValue("50") int maxSize,
+										 @DefaultValue("5ms") Duration maxWait,
+										 @DefaultValue("8") int concurrency) {
+}
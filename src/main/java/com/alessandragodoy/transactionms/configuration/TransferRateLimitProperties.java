@@ -0,0 +1,51 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import com.alessandragodoy.transactionms.model.TransactionType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings of the rate limiting of transfer registrations, bound from
+ * {@code transaction.rate-limit.*}. Transaction types without a limit are not limited.
+ *
+ * @param enabled        whether transfer registrations are rate limited
+ * @param idleTimeout    the time after which an unused bucket is dropped, i.e. refilled
+ * @param maximumBuckets the maximum number of buckets kept in memory
+ * @param client         the limits per API client, by transaction type
+ * @param account        the limits per source account, by transaction type
+ * @param batch          the limit of batch requests per API client, one token per request
+ * @param unclassified   the limit per API client of transfer requests whose body or
+ *                       transaction type cannot be read
+ */
+@ConfigurationProperties(prefix = "transaction.rate-limit")
+public record TransferRateLimitProperties(@DefaultValue("true") boolean enabled,
+										  @DefaultValue("10m") Duration idleTimeout,
+										  @DefaultValue("100000") long maximumBuckets,
+										  Map<TransactionType, Limit> client,
+										  Map<TransactionType, Limit> account,
+										  Limit batch,
+										  Limit unclassified) {
+
+	private static final Limit DEFAULT_BATCH = new Limit(10, 1.0);
+	private static final Limit DEFAULT_UNCLASSIFIED = new Limit(20, 2.0);
+
+	public TransferRateLimitProperties {
+		client = client == null ? Map.of() : Map.copyOf(client);
+		account = account == null ? Map.of() : Map.copyOf(account);
+		batch = batch == null ? DEFAULT_BATCH : batch;
+		unclassified = unclassified == null ? DEFAULT_UNCLASSIFIED : unclassified;
+	}
+
+	/**
+	 * A token bucket limit: bursts of up to {@code capacity} transfers, then
+	 * {@code refillPerSecond} transfers per second.
+	 *
+	 * @param capacity        the maximum number of tokens in the bucket
+	 * @param refillPerSecond the number of tokens added per second
+	 */
+	public record Limit(int capacity, double refillPerSecond) {
+	}
+}
@@ -0,0 +1,31 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the background reconciliation of transfers left {@code PENDING}, bound from
+ * {@code transaction.reconciler.*}. The run interval is read by the scheduler from
+ * {@code transaction.reconciler.interval}.
+ *
+ * @param enabled         whether pending transfers are reconciled
+ * @param minAge          the age a pending transfer must reach before it is reconciled. It must
+ *                        exceed the longest time a transfer can wait in the submission queue and
+ *                        settle, about queue capacity / parallelism x attempts x response timeout
+ *                        (1000 / 16 x 3 x 5s, roughly 16 minutes, with the defaults)
+ * @param retryBackoff    the delay before a transfer whose reconciliation failed is tried again,
+ *                        doubled after every further failure
+ * @param maxRetryBackoff the longest delay between two reconciliations of a transfer
+ * @param batchSize       the maximum number of pending transfers reconciled per run
+ * @param concurrency     the number of transfers reconciled at a time
+ */
+@ConfigurationProperties(prefix = "transaction.reconciler")
+public record TransferReconcilerProperties(@DefaultValue("true") boolean enabled,
+										   @DefaultValue("30m") Duration minAge,
+										   @DefaultValue("1m") Duration retryBackoff,
+										   @DefaultValue("1h") Duration maxRetryBackoff,
+										   @DefaultValue("100") int batchSize,
+										   @DefaultValue("4") int concurrency) {
+}
@@ -0,0 +1,14 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the per-account ordering of account service calls, bound from
+ * {@code account.ms.sequencer.*}.
+ *
+ * @param enabled whether transfers from the same source account are sent one after the other
+ */
+@ConfigurationProperties(prefix = "account.ms.sequencer")
+public record TransferSequencerProperties(@DefaultValue("true") boolean enabled) {
+}
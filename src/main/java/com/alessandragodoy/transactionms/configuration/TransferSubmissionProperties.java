@@ -0,0 +1,17 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the asynchronous transfer submission, bound from {@code transaction.async.*}.
+ *
+ * @param parallelism   the number of submitted transfers executed against the account service at
+ *                      a time
+ * @param queueCapacity the maximum number of submitted transfers waiting for or in execution;
+ *                      further submissions are rejected
+ */
+@ConfigurationProperties(prefix = "transaction.async")
+public record TransferSubmissionProperties(@DefaultValue("16") int parallelism,
+										   @DefaultValue("1000") int queueCapacity) {
+}
@@ -8,25 +8,55 @@ import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 
 /**
  * Configuration class for WebClient.
  * This class configures the WebClient bean with the base URL for the account microservice.
+ * Calls use a dedicated connection pool instead of the shared default one, so its limits can be
+ * sized to the account service traffic. The pool publishes its active, idle, pending and total
+ * connection gauges under {@code reactor.netty.connection.provider.*}, tagged with the
+ * {@code account-service} pool name.
  */
 @Configuration
 public class WebClientConfig {
 
+	private static final String POOL_NAME = "account-service";
+
 	@Value("${account.ms.url}")
 	private String accountMsUrl;
 
+	/**
+	 * Creates the connection pool used to call the account service.
+	 *
+	 * @param pool the pool settings
+	 * @return the connection provider
+	 */
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider accountServiceConnectionProvider(AccountServicePoolProperties pool) {
+		return ConnectionProvider.builder(POOL_NAME)
+				.maxConnections(pool.maxConnections())
+				.pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+				.pendingAcquireTimeout(pool.pendingAcquireTimeout())
+				.maxIdleTime(pool.maxIdleTime())
+				.maxLifeTime(pool.maxLifeTime())
+				.evictInBackground(pool.evictionInterval())
+				.metrics(true)
+				.build();
+	}
+
 	@Bean
-	public WebClient webClient(WebClient.Builder builder) {
+	public WebClient webClient(WebClient.Builder builder,
+							   ConnectionProvider accountServiceConnectionProvider,
+							   AccountServicePoolProperties pool) {
 		return builder.baseUrl(accountMsUrl)
 				.defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-				.clientConnector(new ReactorClientHttpConnector(HttpClient.create()
-						.responseTimeout(Duration.ofSeconds(5))))
+				.clientConnector(new ReactorClientHttpConnector(
+						HttpClient.create(accountServiceConnectionProvider)
+								.keepAlive(pool.keepAlive())
+								.responseTimeout(Duration.ofSeconds(5))))
 				.build();
 	}
 }
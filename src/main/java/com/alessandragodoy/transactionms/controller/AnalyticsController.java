@@ -0,0 +1,51 @@
+package com.alessandragodoy.transactionms.controller;
+
+import com.alessandragodoy.transactionms.api.AnalyticsApi;
+import com.alessandragodoy.transactionms.dto.TransactionVolumeDTO;
+import com.alessandragodoy.transactionms.model.BucketInterval;
+import com.alessandragodoy.transactionms.model.VolumeQuery;
+import com.alessandragodoy.transactionms.service.TransactionAnalyticsService;
+import com.alessandragodoy.transactionms.utility.DTOMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+
+import static com.alessandragodoy.transactionms.controller.TransactionController.toLocalDateTime;
+
+/**
+ * Controller for handling transaction analytics requests.
+ */
+@RestController
+@RequiredArgsConstructor
+public class AnalyticsController implements AnalyticsApi {
+
+	private final TransactionAnalyticsService transactionAnalyticsService;
+
+	/**
+	 * Reports the number and total amount of transactions per time bucket, type and status.
+	 *
+	 * @param interval       the bucket width
+	 * @param from           the start of the window, rounded down to a bucket start
+	 * @param to             the end of the window, rounded up to a bucket boundary
+	 * @param accountId      the source account to report on
+	 * @param groupByAccount whether to report one row per source account
+	 * @param exchange       the server web exchange
+	 * @return {@code ResponseEntity<Flux<TransactionVolumeDTO>>} the report rows, ordered by
+	 * bucket
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<TransactionVolumeDTO>>> getTransactionVolume(
+			BucketInterval interval, OffsetDateTime from, OffsetDateTime to, Integer accountId,
+			Boolean groupByAccount, ServerWebExchange exchange) {
+
+		VolumeQuery query = new VolumeQuery(interval, toLocalDateTime(from), toLocalDateTime(to),
+				accountId, Boolean.TRUE.equals(groupByAccount));
+		return Mono.just(ResponseEntity.ok(transactionAnalyticsService.getTransactionVolume(query)
+				.map(DTOMapper::convertToDTO)));
+	}
+}
@@ -1,21 +1,34 @@
 package com.alessandragodoy.transactionms.controller;
 
 import com.alessandragodoy.transactionms.api.TransactionApi;
+import com.alessandragodoy.transactionms.dto.AccountSummaryDTO;
+import com.alessandragodoy.transactionms.dto.BatchTransferResultDTO;
 import com.alessandragodoy.transactionms.dto.TransactionDTO;
 import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.model.TransactionFilter;
+import com.alessandragodoy.transactionms.model.TransactionPage;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.service.AccountSummaryService;
 import com.alessandragodoy.transactionms.service.TransactionService;
+import com.alessandragodoy.transactionms.service.TransferBatchService;
+import com.alessandragodoy.transactionms.utility.DTOMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import static com.alessandragodoy.transactionms.utility.DTOMapper.convertToDTO;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 
 /**
  * Controller for handling transaction-related requests.
@@ -23,21 +36,45 @@ import static com.alessandragodoy.transactionms.utility.DTOMapper.convertToDTO;
 @RestController
 @RequiredArgsConstructor
 public class TransactionController implements TransactionApi {
+	private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	private static final String RESULT_PATH = "/api/v1/transactions/{transactionId}/result";
+
 	private final TransactionService transactionService;
+	private final AccountSummaryService accountSummaryService;
+	private final TransferBatchService transferBatchService;
 
 	/**
 	 * Retrieves all transactions registered.
+	 * Without paging parameters the body is written as the transactions are read, either as a
+	 * JSON array or as a {@code application/x-ndjson} / {@code text/event-stream} stream.
+	 * The optional filters are evaluated by the database.
 	 *
-	 * @param exchange the server web exchange
+	 * @param size      the page size, enables pagination when present
+	 * @param cursor    the continuation token of the previous page, enables pagination when
+	 *                  present
+	 * @param from      the earliest transaction date, inclusive
+	 * @param to        the latest transaction date, exclusive
+	 * @param status    the transaction status
+	 * @param type      the transaction type
+	 * @param minAmount the minimum amount, inclusive
+	 * @param maxAmount the maximum amount, inclusive
+	 * @param exchange  the server web exchange
 	 * @return {@code ResponseEntity<Flux<TransactionDTO>>} a transactions list
 	 */
+	@Override
 	public Mono<ResponseEntity<Flux<TransactionDTO>>> getAllTransactions(
+			Integer size, String cursor, OffsetDateTime from, OffsetDateTime to,
+			TransactionStatus status, TransactionType type, Double minAmount, Double maxAmount,
 			ServerWebExchange exchange) {
 
-		return transactionService.getAllTransactions()
-				.map(transaction -> convertToDTO(transaction, TransactionDTO.class))
-				.collectList()
-				.map(transactions -> ResponseEntity.ok(Flux.fromIterable(transactions)));
+		TransactionFilter filter = new TransactionFilter(toLocalDateTime(from),
+				toLocalDateTime(to), status, type, minAmount, maxAmount);
+		if (size == null && cursor == null) {
+			return Mono.just(ResponseEntity.ok(transactionService.getAllTransactions(filter)
+					.map(DTOMapper::convertToDTO)));
+		}
+		return transactionService.getTransactionsPage(cursor, size, filter)
+				.map(page -> toPageResponse(page, exchange));
 	}
 
 	/**
@@ -47,46 +84,248 @@ public class TransactionController implements TransactionApi {
 	 * @param exchange      the server web exchange
 	 * @return {@code ResponseEntity<TransactionDTO>} the transaction details
 	 */
+	@Override
 	public Mono<ResponseEntity<TransactionDTO>> getTransactionById(
 			@PathVariable String transactionId, ServerWebExchange exchange) {
 
 		return transactionService.getTransactionById(transactionId)
 				.map(transaction -> ResponseEntity.ok(
-						convertToDTO(transaction, TransactionDTO.class)));
+						DTOMapper.convertToDTO(transaction)));
 	}
 
 	/**
 	 * Retrieves transactions by account ID.
+	 * Without paging parameters the body is written as the transactions are read, either as a
+	 * JSON array or as a {@code application/x-ndjson} / {@code text/event-stream} stream.
+	 * The optional filters are evaluated by the database.
+	 * The response carries an {@code ETag} derived from the latest modified transaction of the
+	 * account; when it matches {@code If-None-Match}, {@code 304 Not Modified} is returned
+	 * without querying the transactions.
 	 *
 	 * @param accountId the unique identifier of the account
+	 * @param size      the page size, enables pagination when present
+	 * @param cursor    the continuation token of the previous page, enables pagination when
+	 *                  present
+	 * @param from      the earliest transaction date, inclusive
+	 * @param to        the latest transaction date, exclusive
+	 * @param status    the transaction status
+	 * @param type      the transaction type
+	 * @param minAmount the minimum amount, inclusive
+	 * @param maxAmount the maximum amount, inclusive
 	 * @param exchange  the server web exchange
 	 * @return {@code ResponseEntity<Flux<TransactionDTO>>} a list of transactions for the account
 	 */
+	@Override
 	public Mono<ResponseEntity<Flux<TransactionDTO>>> getTransactionsByAccountId(
+			@PathVariable Integer accountId, Integer size, String cursor, OffsetDateTime from,
+			OffsetDateTime to, TransactionStatus status, TransactionType type, Double minAmount,
+			Double maxAmount, ServerWebExchange exchange) {
+
+		TransactionFilter filter = new TransactionFilter(toLocalDateTime(from),
+				toLocalDateTime(to), status, type, minAmount, maxAmount);
+		return transactionService.getAccountVersion(accountId)
+				.map(version -> "\"" + version + "\"")
+				.doOnNext(eTag -> exchange.getResponse().getHeaders().setETag(eTag))
+				.filter(exchange::checkNotModified)
+				.map(eTag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+						.<Flux<TransactionDTO>>build())
+				.switchIfEmpty(Mono.defer(() -> findTransactionsByAccountId(
+						accountId, size, cursor, filter, exchange)));
+	}
+
+	/**
+	 * Retrieves the transactions sent or received by an account, newest first.
+	 * The body is written as the transactions are read, either as a JSON array or as a
+	 * {@code application/x-ndjson} / {@code text/event-stream} stream.
+	 *
+	 * @param accountId the unique identifier of the account
+	 * @param limit     the maximum number of transactions to return
+	 * @param exchange  the server web exchange
+	 * @return {@code ResponseEntity<Flux<TransactionDTO>>} the account history
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<TransactionDTO>>> getAccountHistory(
+			@PathVariable Integer accountId, Integer limit, ServerWebExchange exchange) {
+
+		return Mono.just(ResponseEntity.ok(transactionService.getAccountHistory(accountId, limit)
+				.map(DTOMapper::convertToDTO)));
+	}
+
+	/**
+	 * Retrieves the running totals of the transactions sent or received by an account.
+	 *
+	 * @param accountId the unique identifier of the account
+	 * @param exchange  the server web exchange
+	 * @return {@code ResponseEntity<AccountSummaryDTO>} the account summary
+	 */
+	@Override
+	public Mono<ResponseEntity<AccountSummaryDTO>> getAccountSummary(
 			@PathVariable Integer accountId, ServerWebExchange exchange) {
 
-		return transactionService.getTransactionsByAccountId(accountId)
-				.map(transaction -> convertToDTO(transaction, TransactionDTO.class))
-				.collectList()
-				.map(transactions -> ResponseEntity.ok(Flux.fromIterable(transactions)));
+		return accountSummaryService.getAccountSummary(accountId)
+				.map(summary -> ResponseEntity.ok(DTOMapper.convertToDTO(summary)));
+	}
+
+	/**
+	 * Recomputes the summary of an account from its transactions.
+	 *
+	 * @param accountId the unique identifier of the account
+	 * @param exchange  the server web exchange
+	 * @return {@code ResponseEntity<AccountSummaryDTO>} the rebuilt account summary
+	 */
+	@Override
+	public Mono<ResponseEntity<AccountSummaryDTO>> rebuildAccountSummary(
+			@PathVariable Integer accountId, ServerWebExchange exchange) {
+
+		return accountSummaryService.rebuildAccountSummary(accountId)
+				.map(summary -> ResponseEntity.ok(DTOMapper.convertToDTO(summary)));
 	}
 
 	/**
 	 * Registers a transfer transaction.
 	 *
 	 * @param transferRequestDTO the transfer request data transfer object
+	 * @param idempotencyKey     the key identifying the logical request, if the client sent one
 	 * @param exchange           the server web exchange
 	 * @return {@code ResponseEntity<TransactionDTO>} containing the TransactionDTO
 	 */
+	@Override
 	public Mono<ResponseEntity<TransactionDTO>> registerTransfer(
-			@Valid @RequestBody Mono<TransferRequestDTO> transferRequestDTO,
+			@Valid @RequestBody Mono<TransferRequestDTO> transferRequestDTO, String idempotencyKey,
 			ServerWebExchange exchange) {
 
 		return transferRequestDTO
-				.flatMap(request -> transactionService.registerTransfer(request)
+				.flatMap(request -> transactionService.registerTransfer(request, idempotencyKey)
 						.map(transaction -> ResponseEntity
 								.status(HttpStatus.CREATED)
-								.body(convertToDTO(transaction, TransactionDTO.class))));
+								.body(DTOMapper.convertToDTO(transaction))));
+	}
+
+	/**
+	 * Submits a transfer transaction for asynchronous execution.
+	 * The response is sent once the transfer is stored as PENDING; its {@code Location} header
+	 * points to the final result.
+	 *
+	 * @param transferRequestDTO the transfer request data transfer object
+	 * @param idempotencyKey     the key identifying the logical request, if the client sent one
+	 * @param exchange           the server web exchange
+	 * @return {@code ResponseEntity<TransactionDTO>} containing the pending TransactionDTO
+	 */
+	@Override
+	public Mono<ResponseEntity<TransactionDTO>> submitTransfer(
+			@Valid @RequestBody Mono<TransferRequestDTO> transferRequestDTO, String idempotencyKey,
+			ServerWebExchange exchange) {
+
+		return transferRequestDTO
+				.flatMap(request -> transactionService.submitTransfer(request, idempotencyKey)
+						.map(transaction -> ResponseEntity
+								.accepted()
+								.location(UriComponentsBuilder
+										.fromUri(exchange.getRequest().getURI())
+										.replacePath(RESULT_PATH)
+										.replaceQuery(null)
+										.buildAndExpand(transaction.getTransactionId())
+										.toUri())
+								.body(DTOMapper.convertToDTO(transaction))));
+	}
+
+	/**
+	 * Retrieves a transaction once it is settled, waiting while it is still PENDING.
+	 *
+	 * @param transactionId the unique identifier of the transaction
+	 * @param wait          the maximum number of seconds to wait
+	 * @param exchange      the server web exchange
+	 * @return {@code ResponseEntity<TransactionDTO>} the settled transaction, or the pending one
+	 * with {@code 202 Accepted} when the wait ended first
+	 */
+	@Override
+	public Mono<ResponseEntity<TransactionDTO>> awaitTransaction(
+			@PathVariable String transactionId, Integer wait, ServerWebExchange exchange) {
+
+		return transactionService.awaitTransaction(transactionId, wait)
+				.map(transaction -> ResponseEntity
+						.status(transaction.getStatus() == TransactionStatus.PENDING
+								? HttpStatus.ACCEPTED
+								: HttpStatus.OK)
+						.body(DTOMapper.convertToDTO(transaction)));
+	}
+
+	/**
+	 * Registers a batch of transfer transactions.
+	 * Each transfer is validated on its own, so an invalid one is reported in its result instead
+	 * of rejecting the whole batch.
+	 *
+	 * @param transferRequestDTO the transfer requests
+	 * @param exchange           the server web exchange
+	 * @return {@code ResponseEntity<Flux<BatchTransferResultDTO>>} one result per transfer, in
+	 * completion order
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<BatchTransferResultDTO>>> registerTransfers(
+			@RequestBody Flux<TransferRequestDTO> transferRequestDTO, ServerWebExchange exchange) {
+
+		return Mono.just(ResponseEntity.ok(transferBatchService.registerTransfers(transferRequestDTO)
+				.map(DTOMapper::convertToDTO)));
+	}
+
+	/**
+	 * Reads the transactions of an account, streamed or as a single page.
+	 *
+	 * @param accountId the unique identifier of the account
+	 * @param size      the page size, enables pagination when present
+	 * @param cursor    the continuation token of the previous page, enables pagination when
+	 *                  present
+	 * @param filter    the conditions the transactions must match
+	 * @param exchange  the server web exchange
+	 * @return {@code ResponseEntity<Flux<TransactionDTO>>} the transactions of the account
+	 */
+	private Mono<ResponseEntity<Flux<TransactionDTO>>> findTransactionsByAccountId(
+			Integer accountId, Integer size, String cursor, TransactionFilter filter,
+			ServerWebExchange exchange) {
+
+		if (size == null && cursor == null) {
+			return Mono.just(ResponseEntity.ok(
+					transactionService.getTransactionsByAccountId(accountId, filter)
+							.map(DTOMapper::convertToDTO)));
+		}
+		return transactionService.getTransactionsPageByAccountId(accountId, cursor, size, filter)
+				.map(page -> toPageResponse(page, exchange));
+	}
+
+	/**
+	 * Converts a request instant to the local date time the transactions are stored with.
+	 *
+	 * @param instant the instant with its offset, or {@code null}
+	 * @return the local date time in the system time zone, or {@code null}
+	 */
+	static LocalDateTime toLocalDateTime(OffsetDateTime instant) {
+
+		return instant == null
+				? null
+				: instant.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+	}
+
+	/**
+	 * Builds the response for a page, adding the continuation headers when a next page exists.
+	 *
+	 * @param page     the page of transactions
+	 * @param exchange the server web exchange, used to build the next link
+	 * @return {@code ResponseEntity<Flux<TransactionDTO>>} the page response
+	 */
+	private ResponseEntity<Flux<TransactionDTO>> toPageResponse(TransactionPage page,
+																ServerWebExchange exchange) {
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (page.hasNext()) {
+			String next = UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+					.replaceQueryParam("cursor", page.nextCursor())
+					.build()
+					.toUriString();
+			response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+					.header(NEXT_CURSOR_HEADER, page.nextCursor());
+		}
+		return response.body(Flux.fromIterable(page.content())
+				.map(DTOMapper::convertToDTO));
 	}
 
 }
@@ -0,0 +1,40 @@
+package com.alessandragodoy.transactionms.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * A Data Transfer Object for the transaction summary of an account.
+ **/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSummaryDTO {
+
+	@Schema(description = "Account ID", example = "1")
+	Integer accountId;
+
+	@Schema(description = "Number of transactions sent by the account", example = "12")
+	Long sentCount;
+
+	@Schema(description = "Amount sent in completed transactions", example = "1500.0")
+	Double sentAmount;
+
+	@Schema(description = "Number of transactions received by the account", example = "4")
+	Long receivedCount;
+
+	@Schema(description = "Amount received in completed transactions", example = "300.0")
+	Double receivedAmount;
+
+	@Schema(description = "Number of transactions per status")
+	Map<String, Long> countByStatus;
+
+	@Schema(description = "Number of transactions per type")
+	Map<String, Long> countByType;
+}
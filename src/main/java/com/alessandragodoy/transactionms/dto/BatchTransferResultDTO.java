@@ -0,0 +1,37 @@
+package com.alessandragodoy.transactionms.dto;
+
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A Data Transfer Object for the outcome of one transfer of a batch.
+ **/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchTransferResultDTO {
+
+	@Schema(description = "Position of the transfer in the request, starting at 0", example = "0")
+	Long index;
+
+	@Schema(description = "Unique identifier of the registered transaction",
+			example = "6971004f05c9a61e36766dfa")
+	String transactionId;
+
+	@Schema(description = "State of the registered transaction", example = "COMPLETED")
+	TransactionStatus transactionStatus;
+
+	@Schema(description = "Reason the transfer did not complete", example = "INSUFFICIENT_FUNDS")
+	String errorCode;
+
+	@Schema(description = "Description of the error",
+			example = "The source account has insufficient funds.")
+	String errorMessage;
+}
@@ -0,0 +1,24 @@
+package com.alessandragodoy.transactionms.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A Data Transfer Object for one transfer of a batched call to the account service.
+ * The transfer fields are written inline next to the idempotency key.
+ **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecuteTransferDTO {
+
+	@Schema(description = "Key the account service uses to execute the transfer only once",
+			example = "3f2c1d9e-7b41-4a55-9c1e-2f6f0c1a8b7d")
+	String idempotencyKey;
+
+	@JsonUnwrapped
+	TransferRequestDTO transfer;
+}
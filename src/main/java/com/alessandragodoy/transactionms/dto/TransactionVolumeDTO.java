@@ -0,0 +1,40 @@
+package com.alessandragodoy.transactionms.dto;
+
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Data Transfer Object for the transaction volume of a time bucket.
+ **/
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionVolumeDTO {
+
+	@Schema(description = "Start of the time bucket", example = "2026-01-30T00:00:00")
+	LocalDateTime bucket;
+
+	@Schema(description = "Source account ID, only present when grouped by account",
+			example = "1")
+	Integer accountId;
+
+	@Schema(description = "Type of the transactions", example = "TRANSFER_OWN_ACCOUNT")
+	TransactionType transactionType;
+
+	@Schema(description = "State of the transactions", example = "COMPLETED")
+	TransactionStatus transactionStatus;
+
+	@Schema(description = "Number of transactions", example = "42")
+	Long count;
+
+	@Schema(description = "Sum of the transaction amounts", example = "12500.0")
+	Double totalAmount;
+}
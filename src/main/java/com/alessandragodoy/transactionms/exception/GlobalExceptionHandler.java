@@ -1,22 +1,33 @@
 package com.alessandragodoy.transactionms.exception;
 
 import com.alessandragodoy.transactionms.dto.CustomErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 
 /**
  * Global exception handler for handling custom exceptions.
+ * Every handled exception is counted as {@code transactions.errors}, tagged with the exception
+ * type and the response status.
  */
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+	private static final String ERROR_METRIC = "transactions.errors";
+
+	private final MeterRegistry meterRegistry;
+
 	/**
 	 * Handles TransactionNotFoundException.
 	 *
@@ -28,10 +39,7 @@ public class GlobalExceptionHandler {
 	public Mono<ResponseEntity<CustomErrorResponse>> handleTransactionNotFoundException(
 			TransactionNotFoundException ex, ServerWebExchange exchange) {
 
-		CustomErrorResponse err = new CustomErrorResponse(LocalDateTime.now(), ex.getMessage(),
-				exchange.getRequest().getPath().value());
-
-		return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(err));
+		return respond(ex, HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
 	}
 
 	/**
@@ -45,10 +53,7 @@ public class GlobalExceptionHandler {
 	public Mono<ResponseEntity<CustomErrorResponse>> handleAccountNotFoundException(
 			AccountNotFoundException ex, ServerWebExchange exchange) {
 
-		CustomErrorResponse err = new CustomErrorResponse(LocalDateTime.now(), ex.getMessage(),
-				exchange.getRequest().getPath().value());
-
-		return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(err));
+		return respond(ex, HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
 	}
 
 	/**
@@ -62,10 +67,21 @@ public class GlobalExceptionHandler {
 	public Mono<ResponseEntity<CustomErrorResponse>> handleInsufficientFundsException(
 			InsufficientFundsException ex, ServerWebExchange exchange) {
 
-		CustomErrorResponse err = new CustomErrorResponse(LocalDateTime.now(), ex.getMessage(),
-				exchange.getRequest().getPath().value());
+		return respond(ex, HttpStatus.CONFLICT, ex.getMessage(), exchange);
+	}
 
-		return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(err));
+	/**
+	 * Handles IdempotencyKeyConflictException.
+	 *
+	 * @param ex       the exception
+	 * @param exchange the server web exchange containing request details
+	 * @return the response entity with CONFLICT status and exception message
+	 */
+	@ExceptionHandler(IdempotencyKeyConflictException.class)
+	public Mono<ResponseEntity<CustomErrorResponse>> handleIdempotencyKeyConflictException(
+			IdempotencyKeyConflictException ex, ServerWebExchange exchange) {
+
+		return respond(ex, HttpStatus.CONFLICT, ex.getMessage(), exchange);
 	}
 
 	/**
@@ -79,10 +95,7 @@ public class GlobalExceptionHandler {
 	public Mono<ResponseEntity<CustomErrorResponse>> handleInvalidParameterException(
 			InvalidParameterException ex, ServerWebExchange exchange) {
 
-		CustomErrorResponse err = new CustomErrorResponse(LocalDateTime.now(), ex.getMessage(),
-				exchange.getRequest().getPath().value());
-
-		return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(err));
+		return respond(ex, HttpStatus.BAD_REQUEST, ex.getMessage(), exchange);
 	}
 
 	/**
@@ -96,10 +109,22 @@ public class GlobalExceptionHandler {
 	public Mono<ResponseEntity<CustomErrorResponse>> handleMethodArgumentNotValidException(
 			WebExchangeBindException ex, ServerWebExchange exchange) {
 
-		CustomErrorResponse err = new CustomErrorResponse(LocalDateTime.now(), ex.getMessage(),
-				exchange.getRequest().getPath().value());
+		return respond(ex, HttpStatus.BAD_REQUEST, ex.getMessage(), exchange);
+	}
 
-		return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(err));
+	/**
+	 * Handles ServerWebInputException, raised when a request parameter cannot be converted to
+	 * its declared type.
+	 *
+	 * @param ex       the exception
+	 * @param exchange the server web exchange containing request details
+	 * @return the response entity with BAD REQUEST status and exception reason.
+	 */
+	@ExceptionHandler(ServerWebInputException.class)
+	public Mono<ResponseEntity<CustomErrorResponse>> handleServerWebInputException(
+			ServerWebInputException ex, ServerWebExchange exchange) {
+
+		return respond(ex, HttpStatus.BAD_REQUEST, ex.getReason(), exchange);
 	}
 
 	/**
@@ -113,10 +138,7 @@ public class GlobalExceptionHandler {
 	public Mono<ResponseEntity<CustomErrorResponse>> handleExternalServiceException(
 			ExternalServiceException ex, ServerWebExchange exchange) {
 
-		CustomErrorResponse err = new CustomErrorResponse(LocalDateTime.now(), ex.getMessage(),
-				exchange.getRequest().getPath().value());
-
-		return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(err));
+		return respond(ex, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), exchange);
 	}
 
 	/**
@@ -130,10 +152,7 @@ public class GlobalExceptionHandler {
 	public Mono<ResponseEntity<CustomErrorResponse>> handleTransferFailedException(
 			TransferFailedException ex, ServerWebExchange exchange) {
 
-		CustomErrorResponse err = new CustomErrorResponse(LocalDateTime.now(), ex.getMessage(),
-				exchange.getRequest().getPath().value());
-
-		return Mono.just(ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(err));
+		return respond(ex, HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), exchange);
 	}
 
 	/**
@@ -147,9 +166,22 @@ public class GlobalExceptionHandler {
 	public Mono<ResponseEntity<CustomErrorResponse>> handleDefaultException(Exception ex,
 																			ServerWebExchange exchange) {
 
-		CustomErrorResponse err = new CustomErrorResponse(LocalDateTime.now(), ex.getMessage(),
+		return respond(ex, HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), exchange);
+	}
+
+	private Mono<ResponseEntity<CustomErrorResponse>> respond(Exception ex, HttpStatus status,
+															  String message,
+															  ServerWebExchange exchange) {
+
+		Counter.builder(ERROR_METRIC)
+				.description("Exceptions answered with an error response")
+				.tag("exception", ex.getClass().getSimpleName())
+				.tag("status", String.valueOf(status.value()))
+				.register(meterRegistry)
+				.increment();
+		CustomErrorResponse err = new CustomErrorResponse(LocalDateTime.now(), message,
 				exchange.getRequest().getPath().value());
 
-		return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(err));
+		return Mono.just(ResponseEntity.status(status).body(err));
 	}
 }
@@ -0,0 +1,10 @@
+package com.alessandragodoy.transactionms.exception;
+
+/**
+ * Exception thrown when an idempotency key is reused for a different transfer.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+	public IdempotencyKeyConflictException(String message) {
+		super(message);
+	}
+}
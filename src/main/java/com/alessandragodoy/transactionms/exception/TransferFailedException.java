@@ -4,7 +4,23 @@ package com.alessandragodoy.transactionms.exception;
  * Exception thrown when a transfer operation fails.
  */
 public class TransferFailedException extends RuntimeException {
+	private final String errorCode;
+
 	public TransferFailedException(String message) {
+		this(null, message);
+	}
+
+	public TransferFailedException(String errorCode, String message) {
 		super(message);
+		this.errorCode = errorCode;
+	}
+
+	/**
+	 * Returns the reason the account service gave for rejecting the transfer.
+	 *
+	 * @return the error code, or {@code null} if none was given
+	 */
+	public String getErrorCode() {
+		return errorCode;
 	}
 }
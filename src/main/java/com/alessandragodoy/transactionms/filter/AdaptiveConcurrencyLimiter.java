@@ -0,0 +1,96 @@
+package com.alessandragodoy.transactionms.filter;
+
+import com.alessandragodoy.transactionms.configuration.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of requests in flight, adapting the limit to the measured latency.
+ * Each completed request compares the latest latency with the long-term average: while requests
+ * are no slower than {@code tolerance} times the average the limit grows by about its square
+ * root, and once they get slower it shrinks in proportion, down to half per sample. The limit
+ * only grows while at least half of it is in use, so an idle service does not inflate it.
+ * Callers ask for a share of the limit, which lets less important requests be refused first.
+ * The limit and the requests in flight are published as
+ * {@code transactions.requests.concurrency.limit} and {@code .in.flight}.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	private static final String METRIC_PREFIX = "transactions.requests.concurrency";
+
+	private final ConcurrencyLimitProperties properties;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private volatile double limit;
+	private double longRtt;
+
+	public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties,
+									  MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.limit = properties.initialLimit();
+		Gauge.builder(METRIC_PREFIX + ".limit", this, AdaptiveConcurrencyLimiter::getLimit)
+				.description("Current adaptive limit of concurrent requests")
+				.register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".in.flight", inFlight, AtomicInteger::get)
+				.description("Requests currently holding a slot of the concurrency limit")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Takes a slot if fewer requests than the given share of the limit are in flight.
+	 *
+	 * @param share the share of the limit the request may use, between 0 and 1
+	 * @return whether a slot was taken; it must then be released once
+	 */
+	public boolean tryAcquire(double share) {
+
+		int allowed = Math.max(1, (int) (limit * share));
+		while (true) {
+			int current = inFlight.get();
+			if (current >= allowed) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Releases a slot and adapts the limit to the latency of its request.
+	 *
+	 * @param rttNanos the request latency, or a negative value to release without sampling
+	 */
+	public void release(long rttNanos) {
+
+		int inFlightBefore = inFlight.getAndDecrement();
+		if (rttNanos > 0) {
+			update(rttNanos, inFlightBefore);
+		}
+	}
+
+	public int getLimit() {
+		return (int) limit;
+	}
+
+	private synchronized void update(long rtt, int inFlightBefore) {
+
+		if (longRtt == 0) {
+			longRtt = rtt;
+			return;
+		}
+		longRtt += (rtt - longRtt) / properties.longWindow();
+		if (longRtt > 2.0 * rtt) {
+			// Recover faster once latency drops back after a slow period
+			longRtt = 0.95 * longRtt;
+		}
+		double gradient = Math.max(0.5, Math.min(1.0, properties.tolerance() * longRtt / rtt));
+		double estimate = limit * gradient + Math.sqrt(limit);
+		double smoothed = limit * (1 - properties.smoothing()) + estimate * properties.smoothing();
+		if (smoothed > limit && inFlightBefore < limit / 2) {
+			return;
+		}
+		limit = Math.max(properties.minLimit(), Math.min(properties.maxLimit(), smoothed));
+	}
+}
@@ -0,0 +1,124 @@
+package com.alessandragodoy.transactionms.filter;
+
+import com.alessandragodoy.transactionms.configuration.ConcurrencyLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.regex.Pattern;
+
+/**
+ * Sheds API requests beyond an {@link AdaptiveConcurrencyLimiter} with
+ * {@code 503 Service Unavailable}, before any work is done for them.
+ * Requests are ranked by cost and importance: batch transfers may only use
+ * {@code transaction.concurrency-limit.batch-share} of the limit, list scans and analytics
+ * {@code bulk-share}, reads of a single transaction or summary {@code cheap-share}, and transfers
+ * the whole limit, so under overload the batches are refused first and transfers last. A batch
+ * takes far longer than any other request, so its latency is not sampled into the limit. Long
+ * polls for a transfer result mostly wait, so they are not limited. Shed requests are counted in
+ * {@code transactions.requests.shed} by priority.
+ */
+public class ConcurrencyLimitFilter implements WebFilter {
+
+	private static final String API_PATH = "/api/v1/transactions";
+	private static final Pattern SINGLE_RESOURCE = Pattern.compile(
+			"^/api/v1/transactions/[^/]+$|^/api/v1/transactions/account/[^/]+/summary$");
+	private static final String RESULT_SUFFIX = "/result";
+	private static final String TRANSFER_PATH = API_PATH + "/transfer";
+	private static final String BATCH_PATH = TRANSFER_PATH + "/batch";
+	private static final long RETRY_AFTER_SECONDS = 1;
+	private static final String SHED_METRIC = "transactions.requests.shed";
+
+	private final ConcurrencyLimitProperties properties;
+	private final AdaptiveConcurrencyLimiter limiter;
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+
+	public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties,
+								  AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+								  MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.limiter = limiter;
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+		Priority priority = properties.enabled() ? classify(exchange.getRequest()) : null;
+		if (priority == null) {
+			return chain.filter(exchange);
+		}
+		if (!limiter.tryAcquire(share(priority))) {
+			shedCounter(priority).increment();
+			return ErrorResponses.write(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+					RETRY_AFTER_SECONDS, "The service is overloaded, try again later",
+					objectMapper);
+		}
+		long start = System.nanoTime();
+		return chain.filter(exchange)
+				.doFinally(signal -> limiter.release(
+						signal == SignalType.ON_COMPLETE && priority != Priority.BATCH
+								? System.nanoTime() - start
+								: -1));
+	}
+
+	/**
+	 * Ranks a request, or returns {@code null} if it is not limited.
+	 *
+	 * @param request the request
+	 * @return the priority of the request, or {@code null}
+	 */
+	static Priority classify(ServerHttpRequest request) {
+
+		String path = request.getPath().pathWithinApplication().value();
+		if (!path.startsWith(API_PATH) || path.endsWith(RESULT_SUFFIX)) {
+			return null;
+		}
+		if (request.getMethod() == HttpMethod.POST && path.equals(BATCH_PATH)) {
+			return Priority.BATCH;
+		}
+		if (request.getMethod() == HttpMethod.POST && path.startsWith(TRANSFER_PATH)) {
+			return Priority.TRANSFER;
+		}
+		if (request.getMethod() == HttpMethod.GET && SINGLE_RESOURCE.matcher(path).matches()) {
+			return Priority.CHEAP;
+		}
+		return Priority.BULK;
+	}
+
+	private double share(Priority priority) {
+		return switch (priority) {
+			case TRANSFER -> 1.0;
+			case CHEAP -> properties.cheapShare();
+			case BULK -> properties.bulkShare();
+			case BATCH -> properties.batchShare();
+		};
+	}
+
+	private Counter shedCounter(Priority priority) {
+		return Counter.builder(SHED_METRIC)
+				.description("Requests refused by the adaptive concurrency limit")
+				.tag("priority", priority.name().toLowerCase())
+				.register(meterRegistry);
+	}
+
+	/**
+	 * The ranks of limited requests, from the first to the last shed.
+	 */
+	enum Priority {
+		BATCH,
+		BULK,
+		CHEAP,
+		TRANSFER
+	}
+}
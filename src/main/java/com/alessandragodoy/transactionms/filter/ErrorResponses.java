@@ -0,0 +1,52 @@
+package com.alessandragodoy.transactionms.filter;
+
+import com.alessandragodoy.transactionms.dto.CustomErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes the error responses of the web filters, which run before the
+ * {@link com.alessandragodoy.transactionms.exception.GlobalExceptionHandler} could handle them.
+ */
+final class ErrorResponses {
+
+	private ErrorResponses() {
+	}
+
+	/**
+	 * Ends an exchange with a {@link CustomErrorResponse} body.
+	 *
+	 * @param exchange          the server web exchange
+	 * @param status            the response status
+	 * @param retryAfterSeconds the {@code Retry-After} value, or {@code null} to omit it
+	 * @param message           the error message
+	 * @param objectMapper      the mapper writing the body
+	 * @return {@code Mono<Void>} completing once the response is written
+	 */
+	static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, Long retryAfterSeconds,
+							String message, ObjectMapper objectMapper) {
+
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(status);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		if (retryAfterSeconds != null) {
+			response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		}
+		CustomErrorResponse err = new CustomErrorResponse(LocalDateTime.now(), message,
+				exchange.getRequest().getPath().value());
+		try {
+			return response.writeWith(Mono.just(
+					response.bufferFactory().wrap(objectMapper.writeValueAsBytes(err))));
+		} catch (JsonProcessingException e) {
+			return response.setComplete();
+		}
+	}
+}
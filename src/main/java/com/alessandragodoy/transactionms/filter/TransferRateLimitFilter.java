@@ -0,0 +1,147 @@
+package com.alessandragodoy.transactionms.filter;
+
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Rate limits transfer registrations with the {@link TransferRateLimiter} before they reach the
+ * controller. Requests are counted per API client, identified by the authenticated principal or
+ * else the remote address. A single transfer is charged from its body, including one whose body
+ * or transaction type cannot be read, before the controller reports the validation error. A
+ * batch request takes one token from the {@code batch} bucket of its client, and its client is
+ * passed on in the Reactor context so each of its transfers is charged as it is read. A request
+ * without tokens is answered with {@code 429 Too Many Requests} and a {@code Retry-After} header.
+ */
+public class TransferRateLimitFilter implements WebFilter {
+
+	private static final Set<String> TRANSFER_PATHS = Set.of(
+			"/api/v1/transactions/transfer", "/api/v1/transactions/transfer/async");
+	private static final String BATCH_PATH = "/api/v1/transactions/transfer/batch";
+	private static final int MAX_BODY_BYTES = 16 * 1024;
+
+	private final TransferRateLimiter rateLimiter;
+	private final ObjectMapper objectMapper;
+
+	public TransferRateLimitFilter(TransferRateLimiter rateLimiter, ObjectMapper objectMapper) {
+		this.rateLimiter = rateLimiter;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+		ServerHttpRequest request = exchange.getRequest();
+		String path = request.getPath().pathWithinApplication().value();
+		if (!rateLimiter.enabled() || request.getMethod() != HttpMethod.POST) {
+			return chain.filter(exchange);
+		}
+		if (BATCH_PATH.equals(path)) {
+			return clientId(exchange).flatMap(clientId -> proceedOrReject(exchange,
+					rateLimiter.tryAcquireBatch(clientId), () -> chain.filter(exchange)
+							.contextWrite(Context.of(TransferRateLimiter.CLIENT_ID, clientId))));
+		}
+		if (!TRANSFER_PATHS.contains(path)) {
+			return chain.filter(exchange);
+		}
+		return DataBufferUtils.join(request.getBody(), MAX_BODY_BYTES)
+				.map(TransferRateLimitFilter::toBytes)
+				.defaultIfEmpty(new byte[0])
+				.zipWith(clientId(exchange))
+				.flatMap(bodyAndClient -> proceedOrReject(exchange,
+						rateLimiter.tryAcquire(bodyAndClient.getT2(),
+								readTransfer(bodyAndClient.getT1())),
+						() -> chain.filter(exchange.mutate()
+								.request(withBody(request, bodyAndClient.getT1()))
+								.build())))
+				.onErrorResume(DataBufferLimitException.class,
+						error -> ErrorResponses.write(exchange, HttpStatus.PAYLOAD_TOO_LARGE, null,
+								"Transfer requests may have at most " + MAX_BODY_BYTES + " bytes",
+								objectMapper));
+	}
+
+	/**
+	 * Passes the request on if a token was taken, otherwise answers it with
+	 * {@code 429 Too Many Requests}.
+	 *
+	 * @param exchange   the current exchange
+	 * @param retryAfter the time to wait, or {@link Duration#ZERO} when a token was taken
+	 * @param proceed    passes the request on
+	 * @return {@code Mono<Void>} the handling of the request
+	 */
+	private Mono<Void> proceedOrReject(ServerWebExchange exchange, Duration retryAfter,
+									   Supplier<Mono<Void>> proceed) {
+
+		if (retryAfter.isZero()) {
+			return proceed.get();
+		}
+		long seconds = TransferRateLimiter.retryAfterSeconds(retryAfter);
+		return ErrorResponses.write(exchange, HttpStatus.TOO_MANY_REQUESTS, seconds,
+				"Too many transfer requests, retry after " + seconds + " seconds", objectMapper);
+	}
+
+	private TransferRequestDTO readTransfer(byte[] body) {
+
+		try {
+			return objectMapper.readValue(body, TransferRequestDTO.class);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Identifies the API client by its authenticated principal or else its remote address.
+	 *
+	 * @param exchange the current exchange
+	 * @return {@code Mono<String>} the client identifier
+	 */
+	private static Mono<String> clientId(ServerWebExchange exchange) {
+
+		InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+		return exchange.getPrincipal()
+				.map(Principal::getName)
+				.filter(name -> !name.isBlank())
+				.defaultIfEmpty(remoteAddress != null ? remoteAddress.getHostString() : "unknown");
+	}
+
+	private static byte[] toBytes(DataBuffer buffer) {
+
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		DataBufferUtils.release(buffer);
+		return bytes;
+	}
+
+	private static ServerHttpRequest withBody(ServerHttpRequest request, byte[] body) {
+
+		return new ServerHttpRequestDecorator(request) {
+			@Override
+			public Flux<DataBuffer> getBody() {
+				return body.length == 0
+						? Flux.empty()
+						: Flux.defer(() -> Flux.just(
+						DefaultDataBufferFactory.sharedInstance.wrap(body)));
+			}
+		};
+	}
+}
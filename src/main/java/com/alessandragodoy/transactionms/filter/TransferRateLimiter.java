@@ -0,0 +1,146 @@
+package com.alessandragodoy.transactionms.filter;
+
+import com.alessandragodoy.transactionms.cache.TokenBucketStore;
+import com.alessandragodoy.transactionms.configuration.TransferRateLimitProperties;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Token bucket limits of transfer registrations, configured under
+ * {@code transaction.rate-limit.*}. A transfer takes a token from the bucket of its API client
+ * and then from the bucket of its source account, both per transaction type; when the account
+ * bucket rejects it, the client token is put back. A transfer without a known transaction type
+ * takes a token from the {@code unclassified} bucket of its client instead. Every transfer of a
+ * batch is charged like a single one, on top of the token the batch request itself takes from
+ * the {@code batch} bucket. Rejections are counted in {@code transactions.requests.rate.limited}.
+ */
+public class TransferRateLimiter {
+
+	/**
+	 * The key of the Reactor context entry holding the API client of a batch request, so its
+	 * transfers can be charged one by one as they are read.
+	 */
+	public static final String CLIENT_ID = TransferRateLimiter.class.getName() + ".CLIENT_ID";
+
+	private static final String RATE_LIMITED_METRIC = "transactions.requests.rate.limited";
+	private static final String BATCH = "BATCH";
+	private static final String UNCLASSIFIED = "UNKNOWN";
+	private static final String CLIENT_SCOPE = "client";
+
+	private final TransferRateLimitProperties properties;
+	private final TokenBucketStore tokenBucketStore;
+	private final MeterRegistry meterRegistry;
+
+	public TransferRateLimiter(TransferRateLimitProperties properties,
+							   TokenBucketStore tokenBucketStore, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.tokenBucketStore = tokenBucketStore;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Tells whether transfer registrations are rate limited.
+	 *
+	 * @return {@code true} if the limits apply
+	 */
+	public boolean enabled() {
+		return properties.enabled();
+	}
+
+	/**
+	 * Takes a token from the batch bucket of a client.
+	 *
+	 * @param clientId the API client
+	 * @return {@link Duration#ZERO} when the batch may proceed, otherwise the time to wait
+	 */
+	public Duration tryAcquireBatch(String clientId) {
+
+		Duration wait = tokenBucketStore.tryConsume(clientKey(clientId, BATCH), properties.batch());
+		if (!wait.isZero()) {
+			rateLimitedCounter(CLIENT_SCOPE, BATCH).increment();
+		}
+		return wait;
+	}
+
+	/**
+	 * Takes a token from the client bucket and then from the account bucket of a transfer,
+	 * putting the client token back if the account bucket has none. A transfer without a known
+	 * type takes a token from the unclassified bucket of the client instead.
+	 *
+	 * @param clientId the API client
+	 * @param transfer the transfer, or {@code null} if the body is not a transfer
+	 * @return {@link Duration#ZERO} when the transfer may proceed, otherwise the time to wait
+	 */
+	public Duration tryAcquire(String clientId, TransferRequestDTO transfer) {
+
+		TransactionType type = transactionType(transfer);
+		if (type == null) {
+			Duration wait = tokenBucketStore.tryConsume(clientKey(clientId, UNCLASSIFIED),
+					properties.unclassified());
+			if (!wait.isZero()) {
+				rateLimitedCounter(CLIENT_SCOPE, UNCLASSIFIED).increment();
+			}
+			return wait;
+		}
+		String clientKey = clientKey(clientId, type.name());
+		TransferRateLimitProperties.Limit clientLimit = properties.client().get(type);
+		if (clientLimit != null) {
+			Duration wait = tokenBucketStore.tryConsume(clientKey, clientLimit);
+			if (!wait.isZero()) {
+				rateLimitedCounter(CLIENT_SCOPE, type.name()).increment();
+				return wait;
+			}
+		}
+		TransferRateLimitProperties.Limit accountLimit = properties.account().get(type);
+		if (accountLimit != null && transfer.getSourceAccountId() != null) {
+			Duration wait = tokenBucketStore.tryConsume(
+					"account:" + transfer.getSourceAccountId() + ":" + type, accountLimit);
+			if (!wait.isZero()) {
+				if (clientLimit != null) {
+					tokenBucketStore.refund(clientKey, clientLimit);
+				}
+				rateLimitedCounter("account", type.name()).increment();
+				return wait;
+			}
+		}
+		return Duration.ZERO;
+	}
+
+	/**
+	 * Rounds the time to wait up to the whole seconds of a {@code Retry-After} header.
+	 *
+	 * @param retryAfter the time to wait
+	 * @return the number of seconds to wait, at least 1
+	 */
+	public static long retryAfterSeconds(Duration retryAfter) {
+		return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+	}
+
+	private static TransactionType transactionType(TransferRequestDTO transfer) {
+
+		if (transfer == null || transfer.getTransactionType() == null) {
+			return null;
+		}
+		try {
+			return TransactionType.valueOf(transfer.getTransactionType());
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static String clientKey(String clientId, String type) {
+		return "client:" + clientId + ":" + type;
+	}
+
+	private Counter rateLimitedCounter(String scope, String type) {
+		return Counter.builder(RATE_LIMITED_METRIC)
+				.description("Transfer requests rejected by the rate limiter")
+				.tag("scope", scope)
+				.tag("type", type)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,63 @@
+package com.alessandragodoy.transactionms.metrics;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the latest finished spans in memory instead of sending them to a collector, so traces
+ * can be inspected locally or in tests without an OTLP endpoint. Only the newest
+ * {@code capacity} spans are kept.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+	private final int capacity;
+	private final Deque<SpanData> spans = new ArrayDeque<>();
+
+	public InMemorySpanExporter(int capacity) {
+		this.capacity = capacity;
+	}
+
+	@Override
+	public synchronized CompletableResultCode export(Collection<SpanData> exported) {
+
+		for (SpanData span : exported) {
+			if (spans.size() == capacity) {
+				spans.removeFirst();
+			}
+			spans.addLast(span);
+		}
+		return CompletableResultCode.ofSuccess();
+	}
+
+	/**
+	 * Returns the spans kept, oldest first.
+	 *
+	 * @return a copy of the spans kept
+	 */
+	public synchronized List<SpanData> spans() {
+		return List.copyOf(spans);
+	}
+
+	/**
+	 * Drops the spans kept.
+	 */
+	public synchronized void clear() {
+		spans.clear();
+	}
+
+	@Override
+	public CompletableResultCode flush() {
+		return CompletableResultCode.ofSuccess();
+	}
+
+	@Override
+	public CompletableResultCode shutdown() {
+		return CompletableResultCode.ofSuccess();
+	}
+}
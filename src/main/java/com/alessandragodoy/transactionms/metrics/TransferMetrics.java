@@ -0,0 +1,176 @@
+package com.alessandragodoy.transactionms.metrics;
+
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Records where the time of a transfer goes and which status it ends in.
+ * Every stage of a transfer is an observation named {@code transactions.transfer.stage}, tagged
+ * with the stage, the transaction type and the outcome: it is timed as a meter and, when tracing
+ * is enabled, becomes a span. A reactive stage takes the observation found in the Reactor
+ * context as its parent and puts itself there, so the account service and MongoDB calls it
+ * makes become its children. The statuses transfers reach are counted as
+ * {@code transactions.transfer.status}.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferMetrics {
+
+	public static final String SUCCESS = "success";
+	public static final String REJECTED = "rejected";
+	public static final String ERROR = "error";
+
+	private static final String STAGE_METRIC = "transactions.transfer.stage";
+	private static final String STATUS_METRIC = "transactions.transfer.status";
+	private static final String CANCELLED = "cancelled";
+	private static final String EMPTY = "empty";
+	private static final String UNKNOWN_TYPE = "unknown";
+
+	private final ObservationRegistry observationRegistry;
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Observes a synchronous stage whose result carries the transaction type, such as the mapping
+	 * of the request.
+	 *
+	 * @param stage the stage
+	 * @param type  extracts the transaction type from the result
+	 * @param work  the stage itself
+	 * @param <T>   the result type
+	 * @return the result of the stage
+	 */
+	public <T> T time(Stage stage, Function<T, TransactionType> type, Supplier<T> work) {
+
+		Observation observation = stageObservation(stage).start();
+		T result = null;
+		try (Observation.Scope scope = observation.openScope()) {
+			result = work.get();
+			return result;
+		} catch (RuntimeException error) {
+			observation.error(error);
+			throw error;
+		} finally {
+			stop(observation, result == null ? null : type.apply(result),
+					result == null ? ERROR : SUCCESS);
+		}
+	}
+
+	/**
+	 * Observes a reactive stage from subscription until it terminates or is cancelled.
+	 *
+	 * @param stage the stage
+	 * @param type  the transaction type
+	 * @param work  the stage itself
+	 * @param <T>   the result type
+	 * @return {@code Mono<T>} the observed stage
+	 */
+	public <T> Mono<T> time(Stage stage, TransactionType type, Mono<T> work) {
+		return time(stage, type, work, result -> SUCCESS);
+	}
+
+	/**
+	 * Observes a reactive stage whose outcome depends on its result, such as an account service
+	 * response that rejects the transfer.
+	 *
+	 * @param stage   the stage
+	 * @param type    the transaction type
+	 * @param work    the stage itself
+	 * @param outcome maps the result to the outcome tag
+	 * @param <T>     the result type
+	 * @return {@code Mono<T>} the observed stage
+	 */
+	public <T> Mono<T> time(Stage stage, TransactionType type, Mono<T> work,
+							Function<T, String> outcome) {
+
+		return Mono.deferContextual(context -> {
+			Observation observation = stageObservation(stage);
+			Observation parent = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+			if (parent != null) {
+				observation.parentObservation(parent);
+			}
+			observation.start();
+			AtomicBoolean stopped = new AtomicBoolean();
+			return work
+					.doOnSuccess(result -> stopOnce(observation, stopped, type,
+							result == null ? EMPTY : outcome.apply(result)))
+					.doOnError(error -> {
+						observation.error(error);
+						stopOnce(observation, stopped, type, ERROR);
+					})
+					.doOnCancel(() -> stopOnce(observation, stopped, type, CANCELLED))
+					.contextWrite(inner -> inner.put(ObservationThreadLocalAccessor.KEY,
+							observation));
+		});
+	}
+
+	/**
+	 * Counts a transfer that reached a status.
+	 *
+	 * @param status the status reached
+	 * @param type   the transaction type
+	 */
+	public void recordStatus(TransactionStatus status, TransactionType type) {
+
+		Counter.builder(STATUS_METRIC)
+				.description("Transfers that reached a status")
+				.tag("status", status.name())
+				.tag("type", typeTag(type))
+				.register(meterRegistry)
+				.increment();
+	}
+
+	private Observation stageObservation(Stage stage) {
+
+		return Observation.createNotStarted(STAGE_METRIC, observationRegistry)
+				.contextualName("transfer " + stage.tag)
+				.lowCardinalityKeyValue("stage", stage.tag);
+	}
+
+	private void stopOnce(Observation observation, AtomicBoolean stopped, TransactionType type,
+						  String outcome) {
+
+		if (stopped.compareAndSet(false, true)) {
+			stop(observation, type, outcome);
+		}
+	}
+
+	private static void stop(Observation observation, TransactionType type, String outcome) {
+
+		observation.lowCardinalityKeyValue("type", typeTag(type))
+				.lowCardinalityKeyValue("outcome", outcome)
+				.stop();
+	}
+
+	private static String typeTag(TransactionType type) {
+		return type == null ? UNKNOWN_TYPE : type.name();
+	}
+
+	/**
+	 * The observed stages of a transfer.
+	 */
+	public enum Stage {
+		MAPPING("mapping"),
+		SAVE("save"),
+		QUEUE("queue"),
+		ACCOUNT_SERVICE("account-service"),
+		STATUS_UPDATE("status-update");
+
+		private final String tag;
+
+		Stage(String tag) {
+			this.tag = tag;
+		}
+	}
+}
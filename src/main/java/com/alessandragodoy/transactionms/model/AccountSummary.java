@@ -0,0 +1,56 @@
+package com.alessandragodoy.transactionms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Running totals of the transactions sent or received by an account.
+ * The document is updated with {@code $inc} every time a transfer reaches its final status, so
+ * reading it never touches the transaction collection. Counts include COMPLETED and FAILED
+ * transactions, as PENDING ones are only recorded once settled; amounts only include COMPLETED
+ * transactions, which are the ones that actually moved money. The version is raised by every
+ * update, so a rebuild can tell whether the summary changed while it was recomputed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "account_summary")
+public class AccountSummary {
+
+	@Id
+	private Integer accountId;
+
+	@Field("sent_count")
+	private long sentCount;
+
+	@Field("sent_amount")
+	private double sentAmount;
+
+	@Field("received_count")
+	private long receivedCount;
+
+	@Field("received_amount")
+	private double receivedAmount;
+
+	@Field("count_by_status")
+	private Map<String, Long> countByStatus;
+
+	@Field("count_by_type")
+	private Map<String, Long> countByType;
+
+	@Field("last_updated")
+	private LocalDateTime lastUpdated;
+
+	@Field("version")
+	private Long version;
+
+}
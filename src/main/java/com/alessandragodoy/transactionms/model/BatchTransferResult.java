@@ -0,0 +1,27 @@
+package com.alessandragodoy.transactionms.model;
+
+/**
+ * Outcome of one transfer of a batch.
+ *
+ * @param index        the position of the transfer in the batch, starting at 0
+ * @param transaction  the registered transaction, or {@code null} if none was stored; it stays
+ *                     {@code PENDING} when the outcome of the transfer is unknown
+ * @param errorCode    the reason the transfer did not complete, or {@code null} if it did
+ * @param errorMessage the description of the error, or {@code null} if the transfer completed
+ */
+public record BatchTransferResult(long index, Transaction transaction, String errorCode,
+								  String errorMessage) {
+
+	/**
+	 * Creates the outcome of a transfer that was not registered.
+	 *
+	 * @param index        the position of the transfer in the batch
+	 * @param errorCode    the reason the transfer was not registered
+	 * @param errorMessage the description of the error
+	 * @return the outcome without transaction
+	 */
+	public static BatchTransferResult rejected(long index, String errorCode,
+											   String errorMessage) {
+		return new BatchTransferResult(index, null, errorCode, errorMessage);
+	}
+}
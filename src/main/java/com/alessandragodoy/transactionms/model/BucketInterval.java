@@ -0,0 +1,104 @@
+package com.alessandragodoy.transactionms.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Enum representing the width of the time buckets used by the transaction analytics.
+ */
+public enum BucketInterval {
+	HOUR("%Y-%m-%dT%H:00", ChronoUnit.HOURS, 24),
+	DAY("%Y-%m-%d", ChronoUnit.DAYS, 30);
+
+	private final String format;
+	private final ChronoUnit unit;
+	private final int defaultWindow;
+
+	BucketInterval(String format, ChronoUnit unit, int defaultWindow) {
+		this.format = format;
+		this.unit = unit;
+		this.defaultWindow = defaultWindow;
+	}
+
+	/**
+	 * Returns the {@code $dateToString} format that labels a date with its bucket.
+	 *
+	 * @return the MongoDB date format
+	 */
+	public String format() {
+		return format;
+	}
+
+	/**
+	 * Returns the number of buckets reported when no window start is given.
+	 *
+	 * @return the default number of buckets
+	 */
+	public int defaultWindow() {
+		return defaultWindow;
+	}
+
+	/**
+	 * Returns the start of the bucket that contains a date.
+	 *
+	 * @param dateTime the date
+	 * @return the bucket start
+	 */
+	public LocalDateTime truncate(LocalDateTime dateTime) {
+		return dateTime.truncatedTo(unit);
+	}
+
+	/**
+	 * Returns the start of the bucket that follows the one starting at the given date.
+	 *
+	 * @param bucketStart the bucket start
+	 * @return the start of the next bucket
+	 */
+	public LocalDateTime next(LocalDateTime bucketStart) {
+		return plus(bucketStart, 1);
+	}
+
+	/**
+	 * Moves a bucket start by a number of buckets.
+	 *
+	 * @param bucketStart the bucket start
+	 * @param buckets     the number of buckets, negative to move backwards
+	 * @return the start of the resulting bucket
+	 */
+	public LocalDateTime plus(LocalDateTime bucketStart, long buckets) {
+		return bucketStart.plus(buckets, unit);
+	}
+
+	/**
+	 * Counts the buckets between two bucket boundaries.
+	 *
+	 * @param start the first boundary, inclusive
+	 * @param end   the last boundary, exclusive
+	 * @return the number of buckets
+	 */
+	public long between(LocalDateTime start, LocalDateTime end) {
+		return unit.between(start, end);
+	}
+
+	/**
+	 * Returns the smallest bucket boundary that is not before a date.
+	 *
+	 * @param dateTime the date
+	 * @return the bucket boundary
+	 */
+	public LocalDateTime ceil(LocalDateTime dateTime) {
+		LocalDateTime start = truncate(dateTime);
+		return start.equals(dateTime) ? start : next(start);
+	}
+
+	/**
+	 * Parses a label produced with {@link #format()} back into the bucket start.
+	 *
+	 * @param label the bucket label
+	 * @return the bucket start
+	 */
+	public LocalDateTime parse(String label) {
+		return this == DAY ? LocalDate.parse(label).atStartOfDay() : LocalDateTime.parse(label);
+	}
+}
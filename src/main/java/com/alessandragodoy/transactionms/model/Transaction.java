@@ -3,24 +3,61 @@ package com.alessandragodoy.transactionms.model;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
 
 /**
  * Represents a transaction in the banking system.
  * This class is used to store transaction details such as account information, transaction type,
  * amount, and date.
+ * The declared indexes back the account history and keyset pagination queries (newest first),
+ * the version marker of an account's transactions (latest modification first), listings filtered
+ * by status, the lookup of transfers still in {@code PENDING} state and the uniqueness of the
+ * client supplied idempotency key.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Document(collection = "transaction")
+@CompoundIndexes({
+	@CompoundIndex(name = "account_date_idx",
+			def = "{'account_id': 1, 'transaction_date': -1, '_id': -1}"),
+	@CompoundIndex(name = "related_account_date_idx",
+			def = "{'related_account_id': 1, 'transaction_date': -1, '_id': -1}"),
+	@CompoundIndex(name = "account_modified_idx",
+			def = "{'account_id': 1, 'last_modified_date': -1, '_id': -1}"),
+	@CompoundIndex(name = "date_idx",
+			def = "{'transaction_date': -1, '_id': -1}"),
+	@CompoundIndex(name = "status_date_idx",
+			def = "{'status': 1, 'transaction_date': -1, '_id': -1}"),
+	@CompoundIndex(name = "pending_status_idx",
+			def = "{'status': 1, 'transaction_date': 1}",
+			partialFilter = "{'status': 'PENDING'}"),
+	@CompoundIndex(name = "idempotency_key_idx",
+			def = "{'idempotency_key': 1}",
+			unique = true,
+			partialFilter = "{'idempotency_key': {'$exists': true}}")
+})
 public class Transaction {
 
+	/**
+	 * Orders transactions newest first, matching the keyset pagination indexes.
+	 */
+	public static final Comparator<Transaction> NEWEST_FIRST = Comparator
+			.comparing(Transaction::getTransactionDate,
+					Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(Transaction::getTransactionId)
+			.reversed();
+
 	@Id
 	@EqualsAndHashCode.Include
 	private String transactionId;
@@ -44,4 +81,29 @@ public class Transaction {
 	@Field("status")
 	private TransactionStatus status;
 
+	@LastModifiedDate
+	@Field("last_modified_date")
+	private LocalDateTime lastModifiedDate;
+
+	@Field("idempotency_key")
+	private String idempotencyKey;
+
+	@Field("reconcile_attempts")
+	private Integer reconcileAttempts;
+
+	@Field("next_attempt_at")
+	private LocalDateTime nextAttemptAt;
+
+	/**
+	 * Builds the version marker of an account whose most recently modified transaction is this
+	 * one. Documents written before the modification date was tracked fall back to their
+	 * creation date.
+	 *
+	 * @return the version marker
+	 */
+	public String versionMarker() {
+		LocalDateTime modified = lastModifiedDate != null ? lastModifiedDate : transactionDate;
+		long millis = modified == null ? 0 : modified.toInstant(ZoneOffset.UTC).toEpochMilli();
+		return transactionId + "-" + Long.toHexString(millis);
+	}
 }
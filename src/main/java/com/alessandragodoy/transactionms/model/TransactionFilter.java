@@ -0,0 +1,49 @@
+package com.alessandragodoy.transactionms.model;
+
+import com.alessandragodoy.transactionms.exception.InvalidParameterException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional conditions a transaction listing must match. Every {@code null} component is ignored.
+ *
+ * @param from      the earliest transaction date, inclusive
+ * @param to        the latest transaction date, exclusive
+ * @param status    the transaction status
+ * @param type      the transaction type
+ * @param minAmount the minimum amount, inclusive
+ * @param maxAmount the maximum amount, inclusive
+ */
+public record TransactionFilter(LocalDateTime from, LocalDateTime to, TransactionStatus status,
+								TransactionType type, Double minAmount, Double maxAmount) {
+
+	/**
+	 * A filter that matches every transaction.
+	 */
+	public static final TransactionFilter NONE =
+			new TransactionFilter(null, null, null, null, null, null);
+
+	/**
+	 * Validates that both ranges are well-formed.
+	 */
+	public TransactionFilter {
+		if (from != null && to != null && !from.isBefore(to)) {
+			throw new InvalidParameterException(
+					"Filter 'from' must be before 'to': " + from + " - " + to);
+		}
+		if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+			throw new InvalidParameterException(
+					"Filter 'minAmount' must not exceed 'maxAmount': " + minAmount + " - "
+							+ maxAmount);
+		}
+	}
+
+	/**
+	 * Indicates whether the filter has no condition at all.
+	 *
+	 * @return {@code true} if every transaction matches
+	 */
+	public boolean isEmpty() {
+		return NONE.equals(this);
+	}
+}
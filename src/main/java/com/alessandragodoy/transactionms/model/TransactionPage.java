@@ -0,0 +1,21 @@
+package com.alessandragodoy.transactionms.model;
+
+import java.util.List;
+
+/**
+ * A page of transactions read with keyset pagination.
+ *
+ * @param content    the transactions of the page, newest first
+ * @param nextCursor the continuation token for the next page, or {@code null} on the last page
+ */
+public record TransactionPage(List<Transaction> content, String nextCursor) {
+
+	/**
+	 * Indicates whether there are more transactions after this page.
+	 *
+	 * @return {@code true} if a next page exists
+	 */
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+}
@@ -0,0 +1,17 @@
+package com.alessandragodoy.transactionms.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number and total amount of the transactions of one time bucket, type and status.
+ *
+ * @param bucket      the start of the time bucket
+ * @param accountId   the source account, or {@code null} when not grouped by account
+ * @param type        the transaction type
+ * @param status      the transaction status
+ * @param count       the number of transactions
+ * @param totalAmount the sum of the transaction amounts
+ */
+public record TransactionVolume(LocalDateTime bucket, Integer accountId, TransactionType type,
+								TransactionStatus status, long count, double totalAmount) {
+}
@@ -0,0 +1,18 @@
+package com.alessandragodoy.transactionms.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parameters of a transaction volume report.
+ *
+ * @param interval       the bucket width
+ * @param from           the start of the window, rounded down to a bucket start, or
+ *                       {@code null} for the default window
+ * @param to             the end of the window, rounded up to a bucket boundary, or {@code null}
+ *                       for the end of the current bucket
+ * @param accountId      the source account to report on, or {@code null} for every account
+ * @param groupByAccount whether the report has one row per source account
+ */
+public record VolumeQuery(BucketInterval interval, LocalDateTime from, LocalDateTime to,
+						  Integer accountId, boolean groupByAccount) {
+}
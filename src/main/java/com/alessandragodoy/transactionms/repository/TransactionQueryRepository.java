@@ -0,0 +1,28 @@
+package com.alessandragodoy.transactionms.repository;
+
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionFilter;
+import com.alessandragodoy.transactionms.utility.PageCursor;
+import org.springframework.data.domain.Limit;
+import reactor.core.publisher.Flux;
+
+/**
+ * Custom repository fragment for transaction queries built from optional filters.
+ */
+public interface TransactionQueryRepository {
+
+	/**
+	 * Find the transactions matching a filter, newest first. All conditions are evaluated by
+	 * MongoDB.
+	 *
+	 * @param accountId the account ID, or {@code null} for every account
+	 * @param filter    the conditions the transactions must match
+	 * @param after     the keyset position of the last transaction already returned, or
+	 *                  {@code null} to start from the newest
+	 * @param limit     the maximum number of transactions to return; a limited read is a page
+	 *                  and skips transactions without a date
+	 * @return a Flux of Transactions ordered by date and id descending
+	 */
+	Flux<Transaction> findFiltered(Integer accountId, TransactionFilter filter, PageCursor after,
+								   Limit limit);
+}
@@ -0,0 +1,89 @@
+package com.alessandragodoy.transactionms.repository;
+
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionFilter;
+import com.alessandragodoy.transactionms.utility.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds filtered transaction queries as MongoDB criteria.
+ * Equality conditions come first and ranges last, so the account, status and date indexes can
+ * serve both the match and the newest-first sort. Pages, i.e. limited reads, skip transactions
+ * without a date, which the following pages could not continue after.
+ */
+@RequiredArgsConstructor
+public class TransactionQueryRepositoryImpl implements TransactionQueryRepository {
+
+	private static final String TRANSACTION_ID = "transactionId";
+	private static final String TRANSACTION_DATE = "transactionDate";
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	@Override
+	public Flux<Transaction> findFiltered(Integer accountId, TransactionFilter filter,
+										  PageCursor after, Limit limit) {
+
+		List<Criteria> criteria = new ArrayList<>();
+		if (accountId != null) {
+			criteria.add(Criteria.where("accountId").is(accountId));
+		}
+		if (filter.status() != null) {
+			criteria.add(Criteria.where("status").is(filter.status()));
+		}
+		if (filter.type() != null) {
+			criteria.add(Criteria.where("transactionType").is(filter.type()));
+		}
+		criteria.addAll(rangeCriteria(filter));
+		if (limit.isLimited() && after == null && filter.from() == null && filter.to() == null) {
+			// A page cursor cannot point past a transaction without a date
+			criteria.add(Criteria.where(TRANSACTION_DATE).ne(null));
+		}
+		if (after != null) {
+			criteria.add(new Criteria().orOperator(
+					Criteria.where(TRANSACTION_DATE).lt(after.transactionDate()),
+					Criteria.where(TRANSACTION_DATE).is(after.transactionDate())
+							.and(TRANSACTION_ID).lt(after.transactionId())));
+		}
+
+		Query query = criteria.isEmpty()
+				? new Query()
+				: Query.query(new Criteria().andOperator(criteria));
+		query.with(Sort.by(Sort.Direction.DESC, TRANSACTION_DATE, TRANSACTION_ID)).limit(limit);
+		return mongoTemplate.find(query, Transaction.class);
+	}
+
+	private static List<Criteria> rangeCriteria(TransactionFilter filter) {
+
+		List<Criteria> criteria = new ArrayList<>();
+		if (filter.from() != null || filter.to() != null) {
+			Criteria date = Criteria.where(TRANSACTION_DATE);
+			if (filter.from() != null) {
+				date.gte(filter.from());
+			}
+			if (filter.to() != null) {
+				date.lt(filter.to());
+			}
+			criteria.add(date);
+		}
+		if (filter.minAmount() != null || filter.maxAmount() != null) {
+			Criteria amount = Criteria.where("amount");
+			if (filter.minAmount() != null) {
+				amount.gte(filter.minAmount());
+			}
+			if (filter.maxAmount() != null) {
+				amount.lte(filter.maxAmount());
+			}
+			criteria.add(amount);
+		}
+		return criteria;
+	}
+}
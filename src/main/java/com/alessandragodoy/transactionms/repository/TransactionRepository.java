@@ -1,15 +1,22 @@
 package com.alessandragodoy.transactionms.repository;
 
 import com.alessandragodoy.transactionms.model.Transaction;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
 
 /**
  * Repository interface for managing `Transaction` entities in MongoDB.
  */
 @Repository
-public interface TransactionRepository extends ReactiveMongoRepository<Transaction, String> {
+public interface TransactionRepository extends ReactiveMongoRepository<Transaction, String>,
+		TransactionQueryRepository, TransactionWriteRepository {
 
 	/**
 	 * Find transactions by account ID.
@@ -18,4 +25,109 @@ public interface TransactionRepository extends ReactiveMongoRepository<Transacti
 	 * @return a Flux of Transactions associated with the given account ID
 	 */
 	Flux<Transaction> findByAccountId(Integer accountId);
+
+	/**
+	 * Find the transaction registered with an idempotency key.
+	 *
+	 * @param idempotencyKey the key sent by the client
+	 * @return a Mono of the Transaction registered with the key, or empty if there is none
+	 */
+	Mono<Transaction> findByIdempotencyKey(String idempotencyKey);
+
+	/**
+	 * Find the most recently modified transaction of an account.
+	 *
+	 * @param accountId the account ID
+	 * @return a Mono of the last inserted or updated Transaction of the account
+	 */
+	Mono<Transaction> findFirstByAccountIdOrderByLastModifiedDateDescTransactionIdDesc(
+			Integer accountId);
+
+	/**
+	 * Find the first page of transactions, newest first. Transactions without a date are
+	 * skipped, as a page cursor cannot point past them.
+	 *
+	 * @param limit the maximum number of transactions to return
+	 * @return a Flux of Transactions ordered by date and id descending
+	 */
+	Flux<Transaction> findByTransactionDateNotNullOrderByTransactionDateDescTransactionIdDesc(
+			Limit limit);
+
+	/**
+	 * Find the transactions that come after the given keyset position, newest first.
+	 *
+	 * @param transactionDate the date of the last transaction already returned
+	 * @param transactionId   the id of the last transaction already returned
+	 * @param limit           the maximum number of transactions to return
+	 * @return a Flux of Transactions ordered by date and id descending
+	 */
+	@Query(value = "{ $or: [ { 'transaction_date': { $lt: ?0 } }, "
+			+ "{ 'transaction_date': ?0, '_id': { $lt: ?1 } } ] }",
+			sort = "{ 'transaction_date': -1, '_id': -1 }")
+	Flux<Transaction> findPageAfter(LocalDateTime transactionDate, ObjectId transactionId,
+									Limit limit);
+
+	/**
+	 * Find the transactions sent by an account, newest first.
+	 *
+	 * @param accountId the account ID
+	 * @param limit     the maximum number of transactions to return
+	 * @return a Flux of Transactions ordered by date and id descending
+	 */
+	Flux<Transaction> findByAccountIdOrderByTransactionDateDescTransactionIdDesc(
+			Integer accountId, Limit limit);
+
+	/**
+	 * Find the first page of transactions of an account, newest first. Transactions without a
+	 * date are skipped, as a page cursor cannot point past them.
+	 *
+	 * @param accountId the account ID
+	 * @param limit     the maximum number of transactions to return
+	 * @return a Flux of Transactions ordered by date and id descending
+	 */
+	Flux<Transaction> findByAccountIdAndTransactionDateNotNullOrderByTransactionDateDescTransactionIdDesc(
+			Integer accountId, Limit limit);
+
+	/**
+	 * Find the transactions received by an account, newest first.
+	 *
+	 * @param relatedAccountId the destination account ID
+	 * @param limit            the maximum number of transactions to return
+	 * @return a Flux of Transactions ordered by date and id descending
+	 */
+	Flux<Transaction> findByRelatedAccountIdOrderByTransactionDateDescTransactionIdDesc(
+			Integer relatedAccountId, Limit limit);
+
+	/**
+	 * Find the transactions of an account that come after the given keyset position, newest
+	 * first.
+	 *
+	 * @param accountId       the account ID
+	 * @param transactionDate the date of the last transaction already returned
+	 * @param transactionId   the id of the last transaction already returned
+	 * @param limit           the maximum number of transactions to return
+	 * @return a Flux of Transactions ordered by date and id descending
+	 */
+	@Query(value = "{ 'account_id': ?0, $or: [ { 'transaction_date': { $lt: ?1 } }, "
+			+ "{ 'transaction_date': ?1, '_id': { $lt: ?2 } } ] }",
+			sort = "{ 'transaction_date': -1, '_id': -1 }")
+	Flux<Transaction> findPageByAccountIdAfter(Integer accountId, LocalDateTime transactionDate,
+											   ObjectId transactionId, Limit limit);
+
+	/**
+	 * Find the {@code PENDING} transactions registered before a given date that are due for
+	 * reconciliation, oldest first. Transactions whose last reconciliation failed are skipped
+	 * until their next attempt date, so they do not hold back newer ones. The lookup is served by
+	 * the partial {@code pending_status_idx} index.
+	 *
+	 * @param registeredBefore the exclusive upper bound of the registration date
+	 * @param now              the current date
+	 * @param limit            the maximum number of transactions to return
+	 * @return a Flux of Transactions ordered by date ascending
+	 */
+	@Query(value = "{ 'status': 'PENDING', 'transaction_date': { $lt: ?0 }, "
+			+ "$or: [ { 'next_attempt_at': null }, { 'next_attempt_at': { $lte: ?1 } } ] }",
+			sort = "{ 'transaction_date': 1 }")
+	Flux<Transaction> findReconcilable(LocalDateTime registeredBefore, LocalDateTime now,
+									   Limit limit);
 }
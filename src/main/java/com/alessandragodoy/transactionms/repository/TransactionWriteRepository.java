@@ -0,0 +1,47 @@
+package com.alessandragodoy.transactionms.repository;
+
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Custom repository fragment for writing new transactions, optionally batched, and settling
+ * their status.
+ */
+public interface TransactionWriteRepository {
+
+	/**
+	 * Save a new transaction. When write batching is enabled, the insert is combined with those
+	 * of concurrent callers into a single bulk write; the returned Mono still completes only once
+	 * this transaction is written.
+	 *
+	 * @param transaction the new transaction
+	 * @return a Mono emitting the saved transaction
+	 */
+	Mono<Transaction> saveBatched(Transaction transaction);
+
+	/**
+	 * Move a {@code PENDING} transaction to its final status with a targeted update of the status
+	 * and modification date. The update only applies while the stored transaction is still
+	 * {@code PENDING}, so a transfer settled by a concurrent request or reconciliation is never
+	 * overwritten.
+	 *
+	 * @param transaction the pending transaction
+	 * @param status      the final status
+	 * @return a Mono emitting the updated transaction, or empty if it was no longer PENDING
+	 */
+	Mono<Transaction> updateStatus(Transaction transaction, TransactionStatus status);
+
+	/**
+	 * Count a failed reconciliation of a {@code PENDING} transaction and set when it may be
+	 * reconciled again. The update only applies while the stored transaction is still
+	 * {@code PENDING}.
+	 *
+	 * @param transaction   the pending transaction
+	 * @param nextAttemptAt the earliest date of the next reconciliation
+	 * @return a Mono emitting the updated transaction, or empty if it was no longer PENDING
+	 */
+	Mono<Transaction> deferReconciliation(Transaction transaction, LocalDateTime nextAttemptAt);
+}
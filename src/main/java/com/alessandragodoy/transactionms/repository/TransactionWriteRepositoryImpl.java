@@ -0,0 +1,191 @@
+package com.alessandragodoy.transactionms.repository;
+
+import com.alessandragodoy.transactionms.configuration.TransactionWriteBatchProperties;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.utility.BatchPipeline;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind stage for new transactions.
+ * When enabled, saves from concurrent requests are collected for up to
+ * {@code transaction.write-batch.max-size} documents or {@code max-wait} and flushed as one
+ * unordered bulk insert, through a {@link BatchPipeline}. Every caller still completes only once
+ * its own document is written, or fails with the error of its own document. The id and dates are
+ * assigned before queueing, since auditing does not set the creation date of documents that
+ * already have an id.
+ * When disabled, each transaction is saved on its own.
+ * Status changes and deferred reconciliations are written with a conditional update instead of
+ * saving the whole document again.
+ */
+public class TransactionWriteRepositoryImpl implements TransactionWriteRepository {
+
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+	private static final int DUPLICATE_KEY = 11000;
+	private static final String ID = "_id";
+	private static final String STATUS = "status";
+	private static final String LAST_MODIFIED_DATE = "last_modified_date";
+	private static final String RECONCILE_ATTEMPTS = "reconcile_attempts";
+	private static final String NEXT_ATTEMPT_AT = "next_attempt_at";
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final boolean enabled;
+	private final BatchPipeline<PendingWrite> pipeline;
+
+	public TransactionWriteRepositoryImpl(ReactiveMongoTemplate mongoTemplate,
+										  TransactionWriteBatchProperties properties) {
+		this.mongoTemplate = mongoTemplate;
+		this.enabled = properties.enabled();
+		this.pipeline = enabled
+				? new BatchPipeline<>(properties.maxSize(), properties.maxWait(),
+				properties.flushConcurrency(), this::flush, PendingWrite::fail)
+				: null;
+	}
+
+	@Override
+	public Mono<Transaction> saveBatched(Transaction transaction) {
+
+		if (!enabled) {
+			return mongoTemplate.save(transaction);
+		}
+		return Mono.defer(() -> {
+			LocalDateTime now = LocalDateTime.now();
+			if (transaction.getTransactionId() == null) {
+				transaction.setTransactionId(new ObjectId().toHexString());
+			}
+			if (transaction.getTransactionDate() == null) {
+				transaction.setTransactionDate(now);
+			}
+			transaction.setLastModifiedDate(now);
+			Sinks.One<Transaction> written = Sinks.one();
+			pipeline.submit(new PendingWrite(transaction, written));
+			return written.asMono();
+		});
+	}
+
+	@Override
+	public Mono<Transaction> updateStatus(Transaction transaction, TransactionStatus status) {
+
+		return Mono.defer(() -> {
+			LocalDateTime now = LocalDateTime.now();
+			return mongoTemplate.updateFirst(
+							Query.query(Criteria.where(ID).is(transaction.getTransactionId())
+									.and(STATUS).is(TransactionStatus.PENDING)),
+							new Update().set(STATUS, status).set(LAST_MODIFIED_DATE, now),
+							Transaction.class)
+					.filter(result -> result.getModifiedCount() > 0)
+					.map(result -> {
+						transaction.setStatus(status);
+						transaction.setLastModifiedDate(now);
+						return transaction;
+					});
+		});
+	}
+
+	@Override
+	public Mono<Transaction> deferReconciliation(Transaction transaction,
+												 LocalDateTime nextAttemptAt) {
+
+		return mongoTemplate.updateFirst(
+						Query.query(Criteria.where(ID).is(transaction.getTransactionId())
+								.and(STATUS).is(TransactionStatus.PENDING)),
+						new Update().inc(RECONCILE_ATTEMPTS, 1).set(NEXT_ATTEMPT_AT, nextAttemptAt),
+						Transaction.class)
+				.filter(result -> result.getModifiedCount() > 0)
+				.map(result -> {
+					int attempts = transaction.getReconcileAttempts() == null
+							? 0
+							: transaction.getReconcileAttempts();
+					transaction.setReconcileAttempts(attempts + 1);
+					transaction.setNextAttemptAt(nextAttemptAt);
+					return transaction;
+				});
+	}
+
+	/**
+	 * Stops accepting batched saves and waits until the queued transactions are written.
+	 */
+	@PreDestroy
+	public void shutdown() {
+
+		if (pipeline != null) {
+			pipeline.shutdown(SHUTDOWN_TIMEOUT);
+		}
+	}
+
+	/**
+	 * Writes a batch with one unordered bulk insert and completes every caller with the outcome
+	 * of its own document. Documents rejected by the database fail their caller with a
+	 * {@link DuplicateKeyException} or {@link DataIntegrityViolationException}, as a single save
+	 * would; any other error fails the whole batch.
+	 *
+	 * @param batch the queued saves
+	 * @return {@code Mono<Void>} completing once every caller is notified
+	 */
+	private Mono<Void> flush(List<PendingWrite> batch) {
+
+		return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class)
+				.insert(batch.stream().map(PendingWrite::transaction).toList())
+				.execute()
+				.doOnNext(result -> batch.forEach(PendingWrite::complete))
+				.then()
+				.onErrorResume(BulkOperationException.class,
+						error -> error.getErrors().isEmpty()
+								? Mono.error(error)
+								: Mono.fromRunnable(() -> completePartially(batch, error)))
+				.onErrorResume(error -> Mono.fromRunnable(
+						() -> batch.forEach(write -> write.fail(error))));
+	}
+
+	private static void completePartially(List<PendingWrite> batch, BulkOperationException error) {
+
+		Map<Integer, BulkWriteError> failed = error.getErrors().stream()
+				.collect(Collectors.toMap(BulkWriteError::getIndex, Function.identity()));
+		for (int i = 0; i < batch.size(); i++) {
+			BulkWriteError rejection = failed.get(i);
+			if (rejection != null) {
+				batch.get(i).fail(rejection.getCode() == DUPLICATE_KEY
+						? new DuplicateKeyException(rejection.getMessage())
+						: new DataIntegrityViolationException(rejection.getMessage()));
+			} else {
+				batch.get(i).complete();
+			}
+		}
+	}
+
+	/**
+	 * A queued save and the sink its caller waits on.
+	 *
+	 * @param transaction the transaction to write
+	 * @param written     the sink completed with the written transaction or its error
+	 */
+	private record PendingWrite(Transaction transaction, Sinks.One<Transaction> written) {
+
+		void complete() {
+			written.tryEmitValue(transaction);
+		}
+
+		void fail(Throwable error) {
+			written.tryEmitError(error);
+		}
+	}
+}
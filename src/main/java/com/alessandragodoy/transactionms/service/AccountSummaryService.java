@@ -0,0 +1,50 @@
+package com.alessandragodoy.transactionms.service;
+
+import com.alessandragodoy.transactionms.model.AccountSummary;
+import com.alessandragodoy.transactionms.model.Transaction;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Service interface for the per-account transaction summaries.
+ */
+public interface AccountSummaryService {
+
+	/**
+	 * Retrieves the summary of an account.
+	 *
+	 * @param accountId the ID of the account.
+	 * @return {@code Mono<AccountSummary>} the summary of the account.
+	 */
+	Mono<AccountSummary> getAccountSummary(Integer accountId);
+
+	/**
+	 * Adds a registered transaction to the summaries of its source and destination accounts.
+	 * Failures are logged and never propagated, since the transaction itself is already stored;
+	 * a rebuild brings the summary back in line.
+	 *
+	 * @param transaction the registered transaction.
+	 * @return {@code Mono<Void>} completing once both summaries are updated.
+	 */
+	Mono<Void> recordTransaction(Transaction transaction);
+
+	/**
+	 * Adds several registered transactions to the summaries of their accounts with a single
+	 * unordered bulk write. Failures are logged and never propagated, as for
+	 * {@link #recordTransaction(Transaction)}.
+	 *
+	 * @param transactions the registered transactions.
+	 * @return {@code Mono<Void>} completing once the bulk write is done.
+	 */
+	Mono<Void> recordTransactions(List<Transaction> transactions);
+
+	/**
+	 * Recomputes the summary of an account from the transaction collection and replaces the
+	 * stored one.
+	 *
+	 * @param accountId the ID of the account.
+	 * @return {@code Mono<AccountSummary>} the rebuilt summary.
+	 */
+	Mono<AccountSummary> rebuildAccountSummary(Integer accountId);
+}
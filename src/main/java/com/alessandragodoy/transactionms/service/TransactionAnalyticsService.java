@@ -0,0 +1,19 @@
+package com.alessandragodoy.transactionms.service;
+
+import com.alessandragodoy.transactionms.model.TransactionVolume;
+import com.alessandragodoy.transactionms.model.VolumeQuery;
+import reactor.core.publisher.Flux;
+
+/**
+ * Service interface for transaction analytics computed by the database.
+ */
+public interface TransactionAnalyticsService {
+
+	/**
+	 * Reports the number and total amount of transactions per time bucket, type and status.
+	 *
+	 * @param query the bucket width, window and account grouping of the report.
+	 * @return {@code Flux<TransactionVolume>} the report rows, ordered by bucket.
+	 */
+	Flux<TransactionVolume> getTransactionVolume(VolumeQuery query);
+}
@@ -2,6 +2,8 @@ package com.alessandragodoy.transactionms.service;
 
 import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
 import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionFilter;
+import com.alessandragodoy.transactionms.model.TransactionPage;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -11,11 +13,12 @@ import reactor.core.publisher.Mono;
 public interface TransactionService {
 
 	/**
-	 * Lists all transactions.
+	 * Lists all transactions matching a filter.
 	 *
-	 * @return {@code Flux<Transaction>} representing all transactions.
+	 * @param filter the conditions evaluated by the database, or {@link TransactionFilter#NONE}.
+	 * @return {@code Flux<Transaction>} representing all matching transactions.
 	 */
-	Flux<Transaction> getAllTransactions();
+	Flux<Transaction> getAllTransactions(TransactionFilter filter);
 
 	/**
 	 * Retrieves a transaction by its ID.
@@ -26,13 +29,61 @@ public interface TransactionService {
 	Mono<Transaction> getTransactionById(String transactionId);
 
 	/**
-	 * Lists all transactions for a specific account ID.
+	 * Lists all transactions for a specific account ID matching a filter.
 	 *
 	 * @param accountId the account ID to filter transactions.
+	 * @param filter    the conditions evaluated by the database, or
+	 *                  {@link TransactionFilter#NONE}.
 	 * @return {@code Flux<Transaction>} representing the transactions for the specified account
 	 * ID.
 	 */
-	Flux<Transaction> getTransactionsByAccountId(Integer accountId);
+	Flux<Transaction> getTransactionsByAccountId(Integer accountId, TransactionFilter filter);
+
+	/**
+	 * Lists the transactions sent or received by an account, newest first.
+	 *
+	 * @param accountId the account ID, matched as source or destination.
+	 * @param limit     the maximum number of transactions, or {@code null} for the default.
+	 * @return {@code Flux<Transaction>} representing the account history.
+	 */
+	Flux<Transaction> getAccountHistory(Integer accountId, Integer limit);
+
+	/**
+	 * Retrieves a version marker for the transactions of an account. The marker changes
+	 * whenever a transaction of the account is inserted or updated.
+	 *
+	 * @param accountId the ID of the account.
+	 * @return {@code Mono<String>} the version marker, or empty if the account has no
+	 * transactions.
+	 */
+	Mono<String> getAccountVersion(Integer accountId);
+
+	/**
+	 * Retrieves one page of transactions using keyset pagination, newest first.
+	 *
+	 * @param cursor the continuation token of the previous page, or {@code null} for the first
+	 *               page.
+	 * @param size   the page size, or {@code null} for the default size.
+	 * @param filter the conditions evaluated by the database, or {@link TransactionFilter#NONE}.
+	 * @return {@code Mono<TransactionPage>} representing the requested page.
+	 */
+	Mono<TransactionPage> getTransactionsPage(String cursor, Integer size,
+											  TransactionFilter filter);
+
+	/**
+	 * Retrieves one page of transactions for a specific account ID using keyset pagination,
+	 * newest first.
+	 *
+	 * @param accountId the account ID to filter transactions.
+	 * @param cursor    the continuation token of the previous page, or {@code null} for the
+	 *                  first page.
+	 * @param size      the page size, or {@code null} for the default size.
+	 * @param filter    the conditions evaluated by the database, or
+	 *                  {@link TransactionFilter#NONE}.
+	 * @return {@code Mono<TransactionPage>} representing the requested page.
+	 */
+	Mono<TransactionPage> getTransactionsPageByAccountId(Integer accountId, String cursor,
+														 Integer size, TransactionFilter filter);
 
 	/**
 	 * Registers a transfer transaction.
@@ -40,5 +91,40 @@ public interface TransactionService {
 	 * @param transfer the transfer request data transfer object.
 	 * @return {@code Mono<Transaction>} representing the registered transfer transaction.
 	 */
-	Mono<Transaction> registerTransfer(TransferRequestDTO transfer);
+	default Mono<Transaction> registerTransfer(TransferRequestDTO transfer) {
+		return registerTransfer(transfer, null);
+	}
+
+	/**
+	 * Registers a transfer transaction at most once per idempotency key. Repeating a key
+	 * returns the transaction registered first without executing the transfer again; when that
+	 * transaction is still PENDING, it is settled again under its transaction id, which the
+	 * account service executes at most once.
+	 *
+	 * @param transfer       the transfer request data transfer object.
+	 * @param idempotencyKey the key identifying the logical request, or {@code null}.
+	 * @return {@code Mono<Transaction>} representing the registered transfer transaction.
+	 */
+	Mono<Transaction> registerTransfer(TransferRequestDTO transfer, String idempotencyKey);
+
+	/**
+	 * Stores a transfer as PENDING and executes it in the background, at most once per
+	 * idempotency key like {@link #registerTransfer(TransferRequestDTO, String)}.
+	 *
+	 * @param transfer       the transfer request data transfer object.
+	 * @param idempotencyKey the key identifying the logical request, or {@code null}.
+	 * @return {@code Mono<Transaction>} the stored transaction, PENDING unless the key was
+	 * already used for a settled transfer.
+	 */
+	Mono<Transaction> submitTransfer(TransferRequestDTO transfer, String idempotencyKey);
+
+	/**
+	 * Retrieves a transaction once it has a final status, waiting while it is still PENDING.
+	 *
+	 * @param transactionId the ID of the transaction.
+	 * @param waitSeconds   the maximum number of seconds to wait, or {@code null} for the
+	 *                      default.
+	 * @return {@code Mono<Transaction>} the transaction, still PENDING if the wait ended first.
+	 */
+	Mono<Transaction> awaitTransaction(String transactionId, Integer waitSeconds);
 }
@@ -0,0 +1,20 @@
+package com.alessandragodoy.transactionms.service;
+
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.model.BatchTransferResult;
+import reactor.core.publisher.Flux;
+
+/**
+ * Service interface for registering transfers in bulk.
+ */
+public interface TransferBatchService {
+
+	/**
+	 * Validates, executes and registers a batch of transfers. Each transfer is handled on its own:
+	 * an invalid or failed transfer is reported in its result and does not stop the others.
+	 *
+	 * @param transfers the transfers, in request order.
+	 * @return {@code Flux<BatchTransferResult>} one result per transfer, in completion order.
+	 */
+	Flux<BatchTransferResult> registerTransfers(Flux<TransferRequestDTO> transfers);
+}
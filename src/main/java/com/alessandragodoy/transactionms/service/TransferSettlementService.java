@@ -0,0 +1,43 @@
+package com.alessandragodoy.transactionms.service;
+
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.model.Transaction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service interface for storing transfers as {@code PENDING} and settling them against the
+ * account service.
+ */
+public interface TransferSettlementService {
+
+	/**
+	 * Stores a transfer as {@code PENDING} under its idempotency key, before anything is sent to
+	 * the account service.
+	 *
+	 * @param transfer       the transfer request.
+	 * @param idempotencyKey the idempotency key of the request, or null.
+	 * @return {@code Mono<Transaction>} the stored pending transaction.
+	 */
+	Mono<Transaction> storePending(TransferRequestDTO transfer, String idempotencyKey);
+
+	/**
+	 * Executes a stored pending transfer and moves it to its final status. The transaction id is
+	 * sent as idempotency key, so settling the same transfer again never executes it twice.
+	 * When the account service cannot be reached the transfer stays PENDING for a later
+	 * reconciliation.
+	 *
+	 * @param transaction the stored pending transaction.
+	 * @return {@code Mono<Transaction>} the completed transaction, or an error if the transfer
+	 * failed or could not be executed.
+	 */
+	Mono<Transaction> settle(Transaction transaction);
+
+	/**
+	 * Emits every transfer this instance moves to a final status, as it happens. Subscribers
+	 * only see the transfers settled after they subscribed.
+	 *
+	 * @return {@code Flux<Transaction>} the settled transfers.
+	 */
+	Flux<Transaction> settledTransfers();
+}
@@ -0,0 +1,267 @@
+package com.alessandragodoy.transactionms.service.impl;
+
+import com.alessandragodoy.transactionms.exception.TransactionNotFoundException;
+import com.alessandragodoy.transactionms.model.AccountSummary;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.service.AccountSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of the AccountSummaryService interface.
+ * Registered transactions are applied with atomic {@code $inc} upserts, one per account, batches
+ * of transactions with one unordered bulk write, and a rebuild recomputes the totals with a
+ * single aggregation grouped by status and type. Transfers are only recorded once they reach
+ * their final status, so the rebuild skips the ones still {@code PENDING}. Every increment also
+ * raises the version of the summary, and a rebuild only replaces the version it read, so an
+ * increment applied while the totals are recomputed is never overwritten; the rebuild is retried
+ * instead.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountSummaryServiceImpl implements AccountSummaryService {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AccountSummaryServiceImpl.class);
+
+	private static final String TRANSACTION_COLLECTION = "transaction";
+	private static final String ID = "_id";
+	private static final String ACCOUNT_ID = "account_id";
+	private static final String RELATED_ACCOUNT_ID = "related_account_id";
+	private static final String STATUS = "status";
+	private static final String TRANSACTION_TYPE = "transaction_type";
+	private static final String AMOUNT = "amount";
+	private static final String COUNT = "count";
+	private static final String SENT_COUNT = "sent_count";
+	private static final String SENT_AMOUNT = "sent_amount";
+	private static final String RECEIVED_COUNT = "received_count";
+	private static final String RECEIVED_AMOUNT = "received_amount";
+	private static final String COUNT_BY_STATUS = "count_by_status.";
+	private static final String COUNT_BY_TYPE = "count_by_type.";
+	private static final String LAST_UPDATED = "last_updated";
+	private static final String VERSION = "version";
+	private static final int MAX_REBUILD_ATTEMPTS = 5;
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	@Override
+	public Mono<AccountSummary> getAccountSummary(Integer accountId) {
+
+		return mongoTemplate.findById(accountId, AccountSummary.class)
+				.switchIfEmpty(Mono.error(
+						new TransactionNotFoundException(
+								"No transactions found for account id: " + accountId)));
+	}
+
+	@Override
+	public Mono<Void> recordTransaction(Transaction transaction) {
+
+		return Flux.fromIterable(summaryUpdates(transaction).entrySet())
+				.flatMap(update -> upsert(update.getKey(), update.getValue()))
+				.then()
+				.onErrorResume(error -> {
+					LOGGER.warn("Could not update account summaries for transaction {}: {}",
+							transaction.getTransactionId(), error.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	@Override
+	public Mono<Void> recordTransactions(List<Transaction> transactions) {
+
+		if (transactions.isEmpty()) {
+			return Mono.empty();
+		}
+		ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+				AccountSummary.class);
+		transactions.forEach(transaction -> summaryUpdates(transaction)
+				.forEach((accountId, update) -> bulk.upsert(byAccount(accountId), update)));
+		return bulk.execute()
+				.then()
+				.onErrorResume(error -> {
+					LOGGER.warn("Could not update account summaries for {} transactions: {}",
+							transactions.size(), error.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	@Override
+	public Mono<AccountSummary> rebuildAccountSummary(Integer accountId) {
+
+		return Mono.defer(() -> mongoTemplate.findById(accountId, AccountSummary.class)
+						.map(summary -> Optional.ofNullable(summary.getVersion()))
+						.defaultIfEmpty(Optional.empty())
+						.flatMap(version -> rebuild(accountId, version.orElse(null))))
+				.retryWhen(Retry.max(MAX_REBUILD_ATTEMPTS - 1L)
+						.filter(DuplicateKeyException.class::isInstance)
+						.onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+	}
+
+	/**
+	 * Recomputes the summary of an account and replaces the stored one only if no increment was
+	 * applied since its version was read. Otherwise the upsert collides with the existing
+	 * summary and fails with a {@link DuplicateKeyException}, so the rebuild is retried.
+	 *
+	 * @param accountId the account ID
+	 * @param version   the version of the stored summary, or {@code null} if there is none
+	 * @return the rebuilt summary
+	 */
+	private Mono<AccountSummary> rebuild(Integer accountId, Long version) {
+
+		Query unchanged = Query.query(Criteria.where(ID).is(accountId).and(VERSION).is(version));
+		return mongoTemplate.aggregate(summaryAggregation(accountId), TRANSACTION_COLLECTION,
+						Document.class)
+				.collectList()
+				.flatMap(rows -> rows.isEmpty()
+						? mongoTemplate.remove(unchanged, AccountSummary.class)
+						.then(Mono.<AccountSummary>error(new TransactionNotFoundException(
+								"No transactions found for account id: " + accountId)))
+						: mongoTemplate.findAndReplace(unchanged,
+								toSummary(accountId, rows, version == null ? 1 : version + 1),
+								FindAndReplaceOptions.options().upsert().returnNew()));
+	}
+
+	/**
+	 * Builds the aggregation that totals the transactions of an account per status and type.
+	 * Pending transfers are left out, as they are only recorded once settled.
+	 *
+	 * @param accountId the account ID
+	 * @return the aggregation pipeline
+	 */
+	private static Aggregation summaryAggregation(Integer accountId) {
+
+		AggregationExpression sent = ComparisonOperators.Eq.valueOf(ACCOUNT_ID)
+				.equalToValue(accountId);
+		AggregationExpression received = ComparisonOperators.Eq.valueOf(RELATED_ACCOUNT_ID)
+				.equalToValue(accountId);
+		AggregationExpression completed = ComparisonOperators.Eq.valueOf(STATUS)
+				.equalToValue(TransactionStatus.COMPLETED.name());
+
+		return Aggregation.newAggregation(
+				Aggregation.match(Criteria.where(STATUS).ne(TransactionStatus.PENDING.name())
+						.orOperator(
+								Criteria.where(ACCOUNT_ID).is(accountId),
+								Criteria.where(RELATED_ACCOUNT_ID).is(accountId))),
+				Aggregation.group(STATUS, TRANSACTION_TYPE)
+						.count().as(COUNT)
+						.sum(ConditionalOperators.when(sent).then(1).otherwise(0)).as(SENT_COUNT)
+						.sum(settledAmount(sent, completed)).as(SENT_AMOUNT)
+						.sum(ConditionalOperators.when(received).then(1).otherwise(0))
+						.as(RECEIVED_COUNT)
+						.sum(settledAmount(received, completed)).as(RECEIVED_AMOUNT));
+	}
+
+	private static AggregationExpression settledAmount(AggregationExpression direction,
+													   AggregationExpression completed) {
+
+		return ConditionalOperators.when(BooleanOperators.And.and(direction, completed))
+				.thenValueOf(AMOUNT)
+				.otherwise(0);
+	}
+
+	private static AccountSummary toSummary(Integer accountId, List<Document> rows,
+											long version) {
+
+		AccountSummary summary = AccountSummary.builder()
+				.accountId(accountId)
+				.version(version)
+				.countByStatus(new HashMap<>())
+				.countByType(new HashMap<>())
+				.lastUpdated(LocalDateTime.now())
+				.build();
+		for (Document row : rows) {
+			Document group = row.get(ID, Document.class);
+			long count = row.get(COUNT, Number.class).longValue();
+			summary.getCountByStatus().merge(group.getString(STATUS), count, Long::sum);
+			summary.getCountByType().merge(group.getString(TRANSACTION_TYPE), count, Long::sum);
+			summary.setSentCount(summary.getSentCount()
+					+ row.get(SENT_COUNT, Number.class).longValue());
+			summary.setSentAmount(summary.getSentAmount()
+					+ row.get(SENT_AMOUNT, Number.class).doubleValue());
+			summary.setReceivedCount(summary.getReceivedCount()
+					+ row.get(RECEIVED_COUNT, Number.class).longValue());
+			summary.setReceivedAmount(summary.getReceivedAmount()
+					+ row.get(RECEIVED_AMOUNT, Number.class).doubleValue());
+		}
+		return summary;
+	}
+
+	/**
+	 * Builds the summary updates of a transaction, one per account it involves. A transfer to
+	 * the same account is counted as sent and received in a single update.
+	 *
+	 * @param transaction the registered transaction
+	 * @return the updates by account ID
+	 */
+	private static Map<Integer, Update> summaryUpdates(Transaction transaction) {
+
+		double settledAmount = transaction.getStatus() == TransactionStatus.COMPLETED
+				? transaction.getAmount()
+				: 0;
+		Integer source = transaction.getAccountId();
+		Integer destination = transaction.getRelatedAccountId();
+		Update sent = countedUpdate(transaction)
+				.inc(SENT_COUNT, 1)
+				.inc(SENT_AMOUNT, settledAmount);
+
+		Map<Integer, Update> updates = new LinkedHashMap<>();
+		if (destination == null) {
+			updates.put(source, sent);
+		} else if (destination.equals(source)) {
+			updates.put(source, received(sent, settledAmount));
+		} else {
+			updates.put(source, sent);
+			updates.put(destination, received(countedUpdate(transaction), settledAmount));
+		}
+		return updates;
+	}
+
+	private static Update countedUpdate(Transaction transaction) {
+
+		return new Update()
+				.inc(COUNT_BY_STATUS + transaction.getStatus().name(), 1)
+				.inc(COUNT_BY_TYPE + transaction.getTransactionType().name(), 1)
+				.inc(VERSION, 1)
+				.currentDate(LAST_UPDATED);
+	}
+
+	private static Update received(Update update, double settledAmount) {
+
+		return update.inc(RECEIVED_COUNT, 1).inc(RECEIVED_AMOUNT, settledAmount);
+	}
+
+	private Mono<Void> upsert(Integer accountId, Update update) {
+
+		return mongoTemplate.upsert(byAccount(accountId), update, AccountSummary.class).then();
+	}
+
+	private static Query byAccount(Integer accountId) {
+
+		return Query.query(Criteria.where(ID).is(accountId));
+	}
+}
@@ -0,0 +1,236 @@
+package com.alessandragodoy.transactionms.service.impl;
+
+import com.alessandragodoy.transactionms.cache.VolumeBucketCache;
+import com.alessandragodoy.transactionms.exception.InvalidParameterException;
+import com.alessandragodoy.transactionms.model.BucketInterval;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.model.TransactionVolume;
+import com.alessandragodoy.transactionms.model.VolumeQuery;
+import com.alessandragodoy.transactionms.service.TransactionAnalyticsService;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the TransactionAnalyticsService interface.
+ * Rows are computed by an aggregation pipeline that labels every transaction with its bucket and
+ * groups by bucket, type, status and, optionally, account. Buckets that ended longer ago than the
+ * closed bucket delay no longer receive transactions, so once their transfers are settled they
+ * are served from {@link VolumeBucketCache}; only the missing or unsettled closed buckets and the
+ * still open ones reach the database.
+ */
+@Service
+public class TransactionAnalyticsServiceImpl implements TransactionAnalyticsService {
+
+	private static final int MAX_BUCKETS = 1000;
+	private static final String TRANSACTION_COLLECTION = "transaction";
+	private static final String ID = "_id";
+	private static final String TRANSACTION_DATE = "transaction_date";
+	private static final String ACCOUNT_ID = "account_id";
+	private static final String TRANSACTION_TYPE = "transaction_type";
+	private static final String STATUS = "status";
+	private static final String AMOUNT = "amount";
+	private static final String BUCKET = "bucket";
+	private static final String COUNT = "count";
+	private static final String TOTAL_AMOUNT = "total_amount";
+	private static final Comparator<TransactionVolume> REPORT_ORDER = Comparator
+			.comparing(TransactionVolume::bucket)
+			.thenComparing(TransactionVolume::accountId,
+					Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(TransactionVolume::type)
+			.thenComparing(TransactionVolume::status);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final VolumeBucketCache volumeBucketCache;
+	private final Clock clock;
+	private final Duration closedBucketDelay;
+
+	public TransactionAnalyticsServiceImpl(ReactiveMongoTemplate mongoTemplate,
+										   VolumeBucketCache volumeBucketCache, Clock clock,
+										   @Value("${transaction.analytics.closed-bucket-delay:5m}")
+										   Duration closedBucketDelay) {
+		this.mongoTemplate = mongoTemplate;
+		this.volumeBucketCache = volumeBucketCache;
+		this.clock = clock;
+		this.closedBucketDelay = closedBucketDelay;
+	}
+
+	@Override
+	public Flux<TransactionVolume> getTransactionVolume(VolumeQuery query) {
+
+		return Flux.defer(() -> {
+			BucketInterval interval = query.interval();
+			LocalDateTime now = LocalDateTime.now(clock);
+			LocalDateTime end = query.to() != null
+					? interval.ceil(query.to())
+					: interval.next(interval.truncate(now));
+			LocalDateTime start = query.from() != null
+					? interval.truncate(query.from())
+					: interval.plus(end, -interval.defaultWindow());
+			validateWindow(interval, start, end);
+
+			LocalDateTime closedEnd = interval.truncate(now.minus(closedBucketDelay));
+			if (closedEnd.isAfter(end)) {
+				closedEnd = end;
+			} else if (closedEnd.isBefore(start)) {
+				closedEnd = start;
+			}
+			Flux<TransactionVolume> open = closedEnd.isBefore(end)
+					? aggregate(query, closedEnd, end)
+					: Flux.empty();
+			return Flux.merge(closedBuckets(query, start, closedEnd), open).sort(REPORT_ORDER);
+		});
+	}
+
+	/**
+	 * Rejects empty windows and windows with more buckets than a report may hold.
+	 *
+	 * @param interval the bucket width
+	 * @param start    the first bucket start
+	 * @param end      the window end
+	 */
+	private static void validateWindow(BucketInterval interval, LocalDateTime start,
+									   LocalDateTime end) {
+
+		if (!start.isBefore(end)) {
+			throw new InvalidParameterException("'from' must be before 'to'");
+		}
+		if (interval.between(start, end) > MAX_BUCKETS) {
+			throw new InvalidParameterException(
+					"The window may hold at most " + MAX_BUCKETS + " buckets");
+		}
+	}
+
+	/**
+	 * Reads the closed buckets of a window through the cache. Missing buckets are computed with a
+	 * single aggregation spanning all of them, and buckets without transactions are cached as
+	 * empty so they are not queried again.
+	 *
+	 * @param query     the report parameters
+	 * @param start     the first bucket start
+	 * @param closedEnd the end of the last closed bucket
+	 * @return the rows of the closed buckets
+	 */
+	private Flux<TransactionVolume> closedBuckets(VolumeQuery query, LocalDateTime start,
+												  LocalDateTime closedEnd) {
+
+		BucketInterval interval = query.interval();
+		Set<VolumeBucketCache.Key> keys = new LinkedHashSet<>();
+		for (LocalDateTime bucket = start; bucket.isBefore(closedEnd);
+			 bucket = interval.next(bucket)) {
+			keys.add(keyOf(query, bucket));
+		}
+		if (keys.isEmpty()) {
+			return Flux.empty();
+		}
+		return volumeBucketCache.getAll(keys, missing -> loadBuckets(query, missing))
+				.flatMapIterable(Map::values)
+				.flatMapIterable(rows -> rows);
+	}
+
+	private Mono<Map<VolumeBucketCache.Key, List<TransactionVolume>>> loadBuckets(
+			VolumeQuery query, Set<VolumeBucketCache.Key> missing) {
+
+		LocalDateTime first = Collections.min(missing,
+				Comparator.comparing(VolumeBucketCache.Key::start)).start();
+		LocalDateTime last = Collections.max(missing,
+				Comparator.comparing(VolumeBucketCache.Key::start)).start();
+		Map<VolumeBucketCache.Key, List<TransactionVolume>> loaded = new HashMap<>();
+		missing.forEach(key -> loaded.put(key, new ArrayList<>()));
+
+		return aggregate(query, first, query.interval().next(last))
+				.doOnNext(row -> {
+					List<TransactionVolume> rows = loaded.get(keyOf(query, row.bucket()));
+					if (rows != null) {
+						rows.add(row);
+					}
+				})
+				.then(Mono.fromCallable(() -> loaded));
+	}
+
+	private static VolumeBucketCache.Key keyOf(VolumeQuery query, LocalDateTime bucket) {
+		return new VolumeBucketCache.Key(query.interval(), bucket, query.accountId(),
+				query.groupByAccount());
+	}
+
+	/**
+	 * Computes the rows of the buckets between two bucket boundaries.
+	 *
+	 * @param query the report parameters
+	 * @param from  the first bucket start, inclusive
+	 * @param to    the last bucket end, exclusive
+	 * @return the rows of the buckets
+	 */
+	private Flux<TransactionVolume> aggregate(VolumeQuery query, LocalDateTime from,
+											  LocalDateTime to) {
+
+		return mongoTemplate.aggregate(volumeAggregation(query, from, to), TRANSACTION_COLLECTION,
+						Document.class)
+				.map(row -> toVolume(query, row));
+	}
+
+	/**
+	 * Builds the aggregation that labels each transaction with its bucket, in the zone the
+	 * transaction dates are written in, and totals the transactions per group.
+	 *
+	 * @param query the report parameters
+	 * @param from  the first bucket start, inclusive
+	 * @param to    the last bucket end, exclusive
+	 * @return the aggregation pipeline
+	 */
+	private static Aggregation volumeAggregation(VolumeQuery query, LocalDateTime from,
+										 LocalDateTime to) {
+
+		Criteria window = Criteria.where(TRANSACTION_DATE).gte(from).lt(to);
+		if (query.accountId() != null) {
+			window = window.and(ACCOUNT_ID).is(query.accountId());
+		}
+		String[] groupFields = query.groupByAccount()
+				? new String[]{BUCKET, TRANSACTION_TYPE, STATUS, ACCOUNT_ID}
+				: new String[]{BUCKET, TRANSACTION_TYPE, STATUS};
+
+		return Aggregation.newAggregation(
+				Aggregation.match(window),
+				Aggregation.project(TRANSACTION_TYPE, STATUS, AMOUNT, ACCOUNT_ID)
+						.and(DateOperators.DateToString.dateOf(TRANSACTION_DATE)
+								.toString(query.interval().format())
+								.withTimezone(DateOperators.Timezone.valueOf(
+										ZoneId.systemDefault().getId())))
+						.as(BUCKET),
+				Aggregation.group(groupFields)
+						.count().as(COUNT)
+						.sum(AMOUNT).as(TOTAL_AMOUNT));
+	}
+
+	private static TransactionVolume toVolume(VolumeQuery query, Document row) {
+
+		Document group = row.get(ID, Document.class);
+		return new TransactionVolume(
+				query.interval().parse(group.getString(BUCKET)),
+				query.groupByAccount() ? group.getInteger(ACCOUNT_ID) : null,
+				TransactionType.valueOf(group.getString(TRANSACTION_TYPE)),
+				TransactionStatus.valueOf(group.getString(STATUS)),
+				row.get(COUNT, Number.class).longValue(),
+				row.get(TOTAL_AMOUNT, Number.class).doubleValue());
+	}
+}
@@ -1,48 +1,81 @@
 package com.alessandragodoy.transactionms.service.impl;
 
-import com.alessandragodoy.transactionms.adapter.AccountServiceClient;
+import com.alessandragodoy.transactionms.cache.IdempotencyKeyCache;
+import com.alessandragodoy.transactionms.cache.RequestCoalescer;
+import com.alessandragodoy.transactionms.cache.TransactionCache;
 import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.exception.InvalidParameterException;
 import com.alessandragodoy.transactionms.exception.TransactionNotFoundException;
-import com.alessandragodoy.transactionms.exception.TransferFailedException;
 import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionFilter;
+import com.alessandragodoy.transactionms.model.TransactionPage;
 import com.alessandragodoy.transactionms.model.TransactionStatus;
-import com.alessandragodoy.transactionms.model.TransactionType;
 import com.alessandragodoy.transactionms.repository.TransactionRepository;
 import com.alessandragodoy.transactionms.service.TransactionService;
+import com.alessandragodoy.transactionms.service.TransferSettlementService;
+import com.alessandragodoy.transactionms.utility.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Implementation of the TransactionService interface.
  * This service handles the business logic for managing transactions.
+ * Concurrent identical bounded reads (by id, pages, limited history and account versions) share
+ * one database query; the unbounded listings are streamed per caller, since sharing them would
+ * keep every transaction read in memory until the slowest caller consumed it.
+ * Transfers are stored as {@code PENDING} before the account service is called and settled by
+ * the {@link TransferSettlementService} within the request or, for submitted transfers, in the
+ * background by the {@link TransferSubmissionQueue}.
  */
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+	private static final int DEFAULT_PAGE_SIZE = 50;
+	private static final int MAX_PAGE_SIZE = 500;
+	private static final int DEFAULT_HISTORY_LIMIT = 100;
+	private static final int MAX_HISTORY_LIMIT = 1000;
+	private static final int DEFAULT_WAIT_SECONDS = 30;
+	private static final int MAX_WAIT_SECONDS = 60;
+
 	private final TransactionRepository transactionRepository;
-	private final AccountServiceClient accountServiceClient;
+	private final TransactionCache transactionCache;
+	private final RequestCoalescer requestCoalescer;
+	private final IdempotencyKeyCache idempotencyKeyCache;
+	private final TransferSettlementService transferSettlementService;
+	private final TransferSubmissionQueue transferSubmissionQueue;
 
 	@Override
-	public Flux<Transaction> getAllTransactions() {
+	public Flux<Transaction> getAllTransactions(TransactionFilter filter) {
 
-		return transactionRepository.findAll();
+		return filter.isEmpty()
+				? transactionRepository.findAll()
+				: transactionRepository.findFiltered(null, filter, null, Limit.unlimited());
 	}
 
 	@Override
 	public Mono<Transaction> getTransactionById(String transactionId) {
 
-		return transactionRepository.findById(transactionId)
+		return requestCoalescer.coalesce("findById", transactionId,
+						() -> transactionCache.get(transactionId, transactionRepository::findById))
 				.switchIfEmpty(Mono.error(
 						new TransactionNotFoundException(
 								"Transaction not found with id: " + transactionId)));
 	}
 
 	@Override
-	public Flux<Transaction> getTransactionsByAccountId(Integer accountId) {
+	public Flux<Transaction> getTransactionsByAccountId(Integer accountId,
+														TransactionFilter filter) {
 
+		if (!filter.isEmpty()) {
+			return transactionRepository.findFiltered(accountId, filter, null, Limit.unlimited());
+		}
 		return transactionRepository.findByAccountId(accountId)
 				.switchIfEmpty(Flux.error(
 						new TransactionNotFoundException(
@@ -50,27 +83,200 @@ public class TransactionServiceImpl implements TransactionService {
 	}
 
 	@Override
-	public Mono<Transaction> registerTransfer(TransferRequestDTO transfer) {
-
-		Transaction transaction = Transaction.builder()
-				.transactionType(TransactionType.valueOf(transfer.getTransactionType()))
-				.accountId(transfer.getSourceAccountId())
-				.relatedAccountId(transfer.getDestinationAccountId())
-				.amount(transfer.getAmount())
-				.status(TransactionStatus.PENDING)
-				.build();
-
-		return accountServiceClient.transfer(transfer)
-				.flatMap(result -> {
-					transaction.setStatus(result.getSuccess()
-							? TransactionStatus.COMPLETED
-							: TransactionStatus.FAILED);
-					return transactionRepository.save(transaction)
-							.flatMap(savedTransaction -> result.getSuccess() ?
-									Mono.just(savedTransaction) :
-									Mono.error(new TransferFailedException(
-											result.getErrorCode() + " - " + result.getErrorMessage())));
-				});
+	public Flux<Transaction> getAccountHistory(Integer accountId, Integer limit) {
+
+		return requestCoalescer.coalesceMany("accountHistory", accountId + ":" + limit,
+				() -> findAccountHistory(accountId, limit));
+	}
+
+	@Override
+	public Mono<String> getAccountVersion(Integer accountId) {
+
+		return requestCoalescer.coalesce("accountVersion", accountId,
+						() -> transactionRepository
+								.findFirstByAccountIdOrderByLastModifiedDateDescTransactionIdDesc(
+										accountId))
+				.map(Transaction::versionMarker);
+	}
+
+	@Override
+	public Mono<TransactionPage> getTransactionsPage(String cursor, Integer size,
+													 TransactionFilter filter) {
+
+		return requestCoalescer.coalesce("transactionsPage", cursor + ":" + size + ":" + filter,
+				() -> findTransactionsPage(cursor, size, filter));
+	}
+
+	@Override
+	public Mono<TransactionPage> getTransactionsPageByAccountId(Integer accountId, String cursor,
+																Integer size,
+																TransactionFilter filter) {
+
+		return requestCoalescer.coalesce("accountTransactionsPage",
+				accountId + ":" + cursor + ":" + size + ":" + filter,
+				() -> findTransactionsPageByAccountId(accountId, cursor, size, filter));
+	}
+
+	@Override
+	public Mono<Transaction> registerTransfer(TransferRequestDTO transfer, String idempotencyKey) {
+
+		// A replayed key whose transfer was left PENDING is settled again; the account service
+		// sees the same transaction id, so the transfer is never executed twice. The replayed
+		// transaction may be shared with coalesced callers, so a copy is settled
+		return idempotencyKeyCache.execute(idempotencyKey, transfer,
+						() -> executeTransfer(transfer, idempotencyKey))
+				.flatMap(transaction -> transaction.getStatus() == TransactionStatus.PENDING
+						? transferSettlementService.settle(transaction.toBuilder().build())
+						: Mono.just(transaction));
+	}
+
+	@Override
+	public Mono<Transaction> submitTransfer(TransferRequestDTO transfer, String idempotencyKey) {
+
+		return idempotencyKeyCache.execute(idempotencyKey, transfer,
+				() -> transferSubmissionQueue.submit(
+						transferSettlementService.storePending(transfer, idempotencyKey)));
+	}
+
+	@Override
+	public Mono<Transaction> awaitTransaction(String transactionId, Integer waitSeconds) {
+
+		return Mono.defer(() -> {
+			Duration wait = Duration.ofSeconds(resolveLimit(waitSeconds, DEFAULT_WAIT_SECONDS,
+					MAX_WAIT_SECONDS, "Wait"));
+			// Listen for the settlement before reading, so it cannot happen in between unseen
+			return Flux.merge(transferSettlementService.settledTransfers()
+									.filter(settled -> transactionId.equals(
+											settled.getTransactionId())),
+							getTransactionById(transactionId))
+					.filter(transaction -> transaction.getStatus() != TransactionStatus.PENDING)
+					.next()
+					.timeout(wait, Mono.defer(() -> getTransactionById(transactionId)));
+		});
+	}
+
+	private Mono<Transaction> executeTransfer(TransferRequestDTO transfer, String idempotencyKey) {
+
+		return transferSettlementService.storePending(transfer, idempotencyKey)
+				.flatMap(transferSettlementService::settle);
+	}
+
+	private Flux<Transaction> findAccountHistory(Integer accountId, Integer limit) {
+
+		return Flux.defer(() -> {
+			int maxResults = resolveLimit(limit, DEFAULT_HISTORY_LIMIT, MAX_HISTORY_LIMIT,
+					"Limit");
+			Flux<Transaction> sent = transactionRepository
+					.findByAccountIdOrderByTransactionDateDescTransactionIdDesc(
+							accountId, Limit.of(maxResults));
+			Flux<Transaction> received = transactionRepository
+					.findByRelatedAccountIdOrderByTransactionDateDescTransactionIdDesc(
+							accountId, Limit.of(maxResults))
+					.filter(transaction -> !accountId.equals(transaction.getAccountId()));
+
+			return Flux.mergeComparing(Transaction.NEWEST_FIRST, sent, received)
+					.take(maxResults)
+					.switchIfEmpty(Flux.error(
+							new TransactionNotFoundException(
+									"No transactions found for account id: " + accountId)));
+		});
+	}
+
+	private Mono<TransactionPage> findTransactionsPage(String cursor, Integer size,
+													   TransactionFilter filter) {
+
+		return Mono.defer(() -> {
+			int pageSize = resolveLimit(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE, "Page size");
+			Limit limit = Limit.of(pageSize + 1);
+			PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
+			Flux<Transaction> transactions;
+			if (!filter.isEmpty()) {
+				transactions = transactionRepository.findFiltered(null, filter, after, limit);
+			} else if (after == null) {
+				transactions = transactionRepository
+						.findByTransactionDateNotNullOrderByTransactionDateDescTransactionIdDesc(
+								limit);
+			} else {
+				transactions = findPageAfter(after, limit);
+			}
+
+			return transactions.collectList()
+					.map(content -> toPage(content, pageSize));
+		});
+	}
+
+	private Mono<TransactionPage> findTransactionsPageByAccountId(Integer accountId,
+																  String cursor, Integer size,
+																  TransactionFilter filter) {
+
+		return Mono.defer(() -> {
+			int pageSize = resolveLimit(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE, "Page size");
+			Limit limit = Limit.of(pageSize + 1);
+			PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
+			Flux<Transaction> transactions;
+			if (!filter.isEmpty()) {
+				transactions = transactionRepository.findFiltered(accountId, filter, after, limit);
+			} else if (after == null) {
+				transactions = findFirstPageByAccountId(accountId, limit);
+			} else {
+				transactions = findPageByAccountIdAfter(accountId, after, limit);
+			}
+
+			return transactions.collectList()
+					.map(content -> toPage(content, pageSize));
+		});
+	}
+
+	private Flux<Transaction> findFirstPageByAccountId(Integer accountId, Limit limit) {
+
+		return transactionRepository
+				.findByAccountIdAndTransactionDateNotNullOrderByTransactionDateDescTransactionIdDesc(
+						accountId, limit)
+				.switchIfEmpty(Flux.error(
+						new TransactionNotFoundException(
+								"No transactions found for account id: " + accountId)));
+	}
+
+	private Flux<Transaction> findPageAfter(PageCursor cursor, Limit limit) {
+
+		return transactionRepository.findPageAfter(cursor.transactionDate(),
+				cursor.transactionId(), limit);
+	}
+
+	private Flux<Transaction> findPageByAccountIdAfter(Integer accountId, PageCursor cursor,
+													   Limit limit) {
+
+		return transactionRepository.findPageByAccountIdAfter(accountId, cursor.transactionDate(),
+				cursor.transactionId(), limit);
+	}
+
+	private static int resolveLimit(Integer requested, int defaultValue, int maxValue,
+									String name) {
+
+		if (requested == null) {
+			return defaultValue;
+		}
+		if (requested < 1 || requested > maxValue) {
+			throw new InvalidParameterException(
+					name + " must be between 1 and " + maxValue + ": " + requested);
+		}
+		return requested;
+	}
+
+	/**
+	 * Builds a page from a result that was read with one extra element, which only tells
+	 * whether a next page exists.
+	 *
+	 * @param content  the transactions read, at most one more than the page size
+	 * @param pageSize the requested page size
+	 * @return the page with its continuation token
+	 */
+	private static TransactionPage toPage(List<Transaction> content, int pageSize) {
 
+		if (content.size() <= pageSize) {
+			return new TransactionPage(content, null);
+		}
+		List<Transaction> page = content.subList(0, pageSize);
+		return new TransactionPage(page, PageCursor.after(page.get(pageSize - 1)).encode());
 	}
 }
@@ -0,0 +1,225 @@
+package com.alessandragodoy.transactionms.service.impl;
+
+import com.alessandragodoy.transactionms.configuration.TransferBatchProperties;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import com.alessandragodoy.transactionms.exception.TransferFailedException;
+import com.alessandragodoy.transactionms.filter.TransferRateLimiter;
+import com.alessandragodoy.transactionms.metrics.TransferMetrics;
+import com.alessandragodoy.transactionms.model.BatchTransferResult;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.service.TransferBatchService;
+import com.alessandragodoy.transactionms.service.TransferSettlementService;
+import com.alessandragodoy.transactionms.utility.DTOMapper;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of the TransferBatchService interface.
+ * Each transfer is charged to the rate limits of its client and source account as it is read, and
+ * at most {@code transaction.batch.max-size} transfers are read. Valid transfers get their id and
+ * date assigned here and are stored as {@code PENDING} in chunks with unordered bulk inserts,
+ * before anything is sent to the account service. A chunk is only formed once the settlements ask
+ * for more, so a chunk timing out while they are busy waits instead of overflowing. Each stored
+ * transfer is then settled through the {@link TransferSettlementService} with bounded
+ * concurrency, under its transaction id as idempotency key, which moves it to its final status,
+ * caches it and adds it to the account summaries. A transfer whose outcome is unknown stays
+ * PENDING for the reconciliation. Results are emitted as soon as the transfer is rejected or
+ * settled.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferBatchServiceImpl implements TransferBatchService {
+
+	private static final String INVALID_REQUEST = "INVALID_REQUEST";
+	private static final String SERVICE_UNAVAILABLE = "SERVICE_UNAVAILABLE";
+	private static final String TRANSFER_ERROR = "TRANSFER_ERROR";
+	private static final String PERSISTENCE_FAILED = "PERSISTENCE_FAILED";
+	private static final String RATE_LIMITED = "RATE_LIMITED";
+	private static final String BATCH_TOO_LARGE = "BATCH_TOO_LARGE";
+
+	private final TransferSettlementService transferSettlementService;
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final Validator validator;
+	private final TransferBatchProperties properties;
+	private final TransferMetrics transferMetrics;
+	private final TransferRateLimiter transferRateLimiter;
+
+	@Override
+	public Flux<BatchTransferResult> registerTransfers(Flux<TransferRequestDTO> transfers) {
+
+		return Flux.deferContextual(context -> transfers.take(properties.maxSize() + 1L)
+				.index()
+				.map(transfer -> admit(transfer.getT1(), transfer.getT2(),
+						context.getOrDefault(TransferRateLimiter.CLIENT_ID, null)))
+				.publish(results -> Flux.merge(
+						results.filter(result -> result.transaction() == null),
+						results.filter(result -> result.transaction() != null)
+								.bufferTimeout(properties.insertSize(),
+										properties.insertMaxWait(), true)
+								.concatMap(this::store)
+								.flatMap(this::settle, properties.concurrency()))));
+	}
+
+	/**
+	 * Charges one transfer to the rate limits of its API client and source account, like a
+	 * single transfer, and then validates it. The transfer past the maximum batch size is
+	 * rejected instead, and the rest of the batch is not read.
+	 *
+	 * @param index    the position of the transfer in the batch
+	 * @param transfer the transfer request
+	 * @param clientId the API client the rate limit filter passed on, or {@code null} if the
+	 *                 batch is not rate limited
+	 * @return the pending transfer, or the rejection of the transfer
+	 */
+	private BatchTransferResult admit(long index, TransferRequestDTO transfer, String clientId) {
+
+		if (index >= properties.maxSize()) {
+			return BatchTransferResult.rejected(index, BATCH_TOO_LARGE, "A batch may have at most "
+					+ properties.maxSize() + " transfers; this and the following transfers were "
+					+ "not registered");
+		}
+		if (clientId != null) {
+			Duration wait = transferRateLimiter.tryAcquire(clientId, transfer);
+			if (!wait.isZero()) {
+				return BatchTransferResult.rejected(index, RATE_LIMITED,
+						"Too many transfer requests, retry after "
+								+ TransferRateLimiter.retryAfterSeconds(wait) + " seconds");
+			}
+		}
+		return validate(index, transfer);
+	}
+
+	/**
+	 * Validates one transfer and builds its pending transaction. The transaction is not stored
+	 * yet.
+	 *
+	 * @param index    the position of the transfer in the batch
+	 * @param transfer the transfer request
+	 * @return the pending transfer, or the rejection of an invalid one
+	 */
+	private BatchTransferResult validate(long index, TransferRequestDTO transfer) {
+
+		Set<ConstraintViolation<TransferRequestDTO>> violations = validator.validate(transfer);
+		if (!violations.isEmpty()) {
+			return BatchTransferResult.rejected(index, INVALID_REQUEST,
+					violations.stream()
+							.map(violation -> violation.getPropertyPath() + ": "
+									+ violation.getMessage())
+							.sorted()
+							.collect(Collectors.joining(", ")));
+		}
+		LocalDateTime now = LocalDateTime.now();
+		Transaction transaction = DTOMapper.convertToEntity(transfer);
+		transaction.setTransactionId(new ObjectId().toHexString());
+		transaction.setTransactionDate(now);
+		transaction.setLastModifiedDate(now);
+		transaction.setStatus(TransactionStatus.PENDING);
+		return new BatchTransferResult(index, transaction, null, null);
+	}
+
+	/**
+	 * Stores a chunk of pending transfers with one unordered bulk insert. Documents the database
+	 * rejected are reported as not registered and are never executed.
+	 *
+	 * @param chunk the pending transfers
+	 * @return the stored pending transfers and the rejections of the others
+	 */
+	private Flux<BatchTransferResult> store(List<BatchTransferResult> chunk) {
+
+		List<Transaction> transactions = chunk.stream().map(BatchTransferResult::transaction)
+				.toList();
+		return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class)
+				.insert(transactions)
+				.execute()
+				.map(ignored -> Set.<Integer>of())
+				.onErrorResume(BulkOperationException.class, error -> Mono.just(
+						error.getErrors().stream()
+								.map(BulkWriteError::getIndex)
+								.collect(Collectors.toSet())))
+				.onErrorResume(error -> Mono.just(IntStream.range(0, chunk.size()).boxed()
+						.collect(Collectors.toSet())))
+				.flatMapMany(failed -> Flux.fromIterable(stored(chunk, failed)));
+	}
+
+	/**
+	 * Replaces the transfers of a chunk that were not stored by their rejection and counts the
+	 * stored ones as PENDING.
+	 *
+	 * @param chunk  the pending transfers
+	 * @param failed the positions within the chunk of the documents that were not stored
+	 * @return the results of the chunk
+	 */
+	private List<BatchTransferResult> stored(List<BatchTransferResult> chunk, Set<Integer> failed) {
+
+		List<BatchTransferResult> results = new ArrayList<>();
+		for (int i = 0; i < chunk.size(); i++) {
+			BatchTransferResult result = chunk.get(i);
+			if (failed.contains(i)) {
+				results.add(BatchTransferResult.rejected(result.index(), PERSISTENCE_FAILED,
+						"The transfer could not be registered and was not executed"));
+			} else {
+				transferMetrics.recordStatus(TransactionStatus.PENDING,
+						result.transaction().getTransactionType());
+				results.add(result);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Settles a stored pending transfer. A rejected transfer is reported as FAILED with the
+	 * reason of the account service; one whose outcome is unknown is reported as PENDING.
+	 *
+	 * @param result the stored pending transfer, or the rejection of a transfer not stored
+	 * @return the outcome of the transfer
+	 */
+	private Mono<BatchTransferResult> settle(BatchTransferResult result) {
+
+		Transaction pending = result.transaction();
+		if (pending == null) {
+			return Mono.just(result);
+		}
+		return transferSettlementService.settle(pending)
+				.map(settled -> new BatchTransferResult(result.index(), settled, null, null))
+				.onErrorResume(error -> Mono.just(unsettled(result.index(), pending, error)));
+	}
+
+	private static BatchTransferResult unsettled(long index, Transaction pending,
+												 Throwable error) {
+
+		if (error instanceof TransferFailedException failed) {
+			pending.setStatus(TransactionStatus.FAILED);
+			return new BatchTransferResult(index, pending,
+					failed.getErrorCode() == null ? TRANSFER_ERROR : failed.getErrorCode(),
+					error.getMessage());
+		}
+		if (error instanceof WebClientResponseException response
+				&& response.getStatusCode().is4xxClientError()) {
+			pending.setStatus(TransactionStatus.FAILED);
+			return new BatchTransferResult(index, pending, TRANSFER_ERROR, error.getMessage());
+		}
+		return new BatchTransferResult(index, pending,
+				error instanceof ExternalServiceException ? SERVICE_UNAVAILABLE : TRANSFER_ERROR,
+				error.getMessage());
+	}
+}
@@ -0,0 +1,93 @@
+package com.alessandragodoy.transactionms.service.impl;
+
+import com.alessandragodoy.transactionms.configuration.TransferReconcilerProperties;
+import com.alessandragodoy.transactionms.exception.TransferFailedException;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.repository.TransactionRepository;
+import com.alessandragodoy.transactionms.service.TransferSettlementService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Settles the transfers whose outcome stayed unknown. A scheduled run sends the transfers left
+ * PENDING again through the {@link TransferSettlementService}, under the same idempotency key,
+ * once they are older than {@code transaction.reconciler.min-age}. A transfer that still cannot
+ * be settled is deferred with an exponential backoff, so it does not block newer ones; it stays
+ * PENDING, since the account service may have executed it.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferReconciler {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TransferReconciler.class);
+	private static final int MAX_DOUBLINGS = 20;
+
+	private final TransferSettlementService transferSettlementService;
+	private final TransactionRepository transactionRepository;
+	private final TransferReconcilerProperties properties;
+	private final Clock clock;
+
+	/**
+	 * Settles one batch of transfers that stayed PENDING for longer than the configured age and
+	 * are due, oldest first. Transfers that still cannot be settled are deferred.
+	 *
+	 * @return {@code Mono<Long>} the number of transfers moved to a final status.
+	 */
+	@Scheduled(initialDelayString = "${transaction.reconciler.interval:30s}",
+			fixedDelayString = "${transaction.reconciler.interval:30s}")
+	public Mono<Long> reconcilePending() {
+
+		if (!properties.enabled()) {
+			return Mono.just(0L);
+		}
+		LocalDateTime now = LocalDateTime.now(clock);
+		return transactionRepository.findReconcilable(now.minus(properties.minAge()), now,
+						Limit.of(properties.batchSize()))
+				.flatMap(this::reconcile, properties.concurrency())
+				.filter(Boolean::booleanValue)
+				.count()
+				.doOnNext(settled -> {
+					if (settled > 0) {
+						LOGGER.info("Reconciled {} pending transfers", settled);
+					}
+				});
+	}
+
+	private Mono<Boolean> reconcile(Transaction transaction) {
+
+		return transferSettlementService.settle(transaction)
+				.thenReturn(true)
+				.onErrorResume(TransferFailedException.class, error -> Mono.just(true))
+				.onErrorResume(error -> {
+					LocalDateTime nextAttemptAt = LocalDateTime.now(clock)
+							.plus(backoff(transaction.getReconcileAttempts()));
+					LOGGER.warn("Could not reconcile pending transfer {}, retrying at {}: {}",
+							transaction.getTransactionId(), nextAttemptAt, error.getMessage());
+					return transactionRepository.deferReconciliation(transaction, nextAttemptAt)
+							.thenReturn(false);
+				});
+	}
+
+	/**
+	 * The delay before the next reconciliation of a transfer, doubled after every failed one.
+	 *
+	 * @param attempts the reconciliations that failed before, or {@code null} for none
+	 * @return the delay, at most {@code transaction.reconciler.max-retry-backoff}
+	 */
+	private Duration backoff(Integer attempts) {
+
+		int doublings = Math.min(attempts == null ? 0 : attempts, MAX_DOUBLINGS);
+		Duration delay = properties.retryBackoff().multipliedBy(1L << doublings);
+		return delay.compareTo(properties.maxRetryBackoff()) > 0
+				? properties.maxRetryBackoff()
+				: delay;
+	}
+}
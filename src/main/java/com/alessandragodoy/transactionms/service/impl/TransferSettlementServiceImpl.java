@@ -0,0 +1,134 @@
+package com.alessandragodoy.transactionms.service.impl;
+
+import com.alessandragodoy.transactionms.adapter.TransferDispatcher;
+import com.alessandragodoy.transactionms.cache.TransactionCache;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.dto.TransferResponseDTO;
+import com.alessandragodoy.transactionms.exception.TransferFailedException;
+import com.alessandragodoy.transactionms.metrics.TransferMetrics;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.repository.TransactionRepository;
+import com.alessandragodoy.transactionms.service.AccountSummaryService;
+import com.alessandragodoy.transactionms.service.TransferSettlementService;
+import com.alessandragodoy.transactionms.utility.DTOMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Implementation of the TransferSettlementService interface.
+ * A transfer is stored as {@code PENDING} before the account service is called, so an executed
+ * transfer is never lost, and cached for the short time to live of PENDING transactions. Its
+ * final status is then written with a conditional {@code $set}; only the request or
+ * reconciliation that performs this change refreshes the cached transaction and adds it to the
+ * account summaries. Transfers the account service rejected, or answered with a
+ * client error, become FAILED; when the outcome is unknown they stay PENDING for the
+ * {@link TransferReconciler}. Submitted transfers are settled by the
+ * {@link TransferSubmissionQueue}.
+ * The mapping, the storage, the account service call and the status update are timed, and the
+ * statuses reached counted, by {@link TransferMetrics}.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferSettlementServiceImpl implements TransferSettlementService {
+
+	private final TransferDispatcher transferDispatcher;
+	private final TransactionRepository transactionRepository;
+	private final TransactionCache transactionCache;
+	private final AccountSummaryService accountSummaryService;
+	private final TransferMetrics transferMetrics;
+	// Emissions are serialized by hand, so concurrent settlements never fail each other's emit
+	private final Sinks.Many<Transaction> settled =
+			Sinks.unsafe().many().multicast().directBestEffort();
+
+	@Override
+	public Mono<Transaction> storePending(TransferRequestDTO transfer, String idempotencyKey) {
+
+		return Mono.defer(() -> {
+			Transaction transaction = transferMetrics.time(TransferMetrics.Stage.MAPPING,
+					Transaction::getTransactionType, () -> DTOMapper.convertToEntity(transfer));
+			transaction.setStatus(TransactionStatus.PENDING);
+			transaction.setIdempotencyKey(idempotencyKey);
+			return transferMetrics.time(TransferMetrics.Stage.SAVE,
+							transaction.getTransactionType(),
+							transactionRepository.saveBatched(transaction))
+					.doOnNext(saved -> transferMetrics.recordStatus(TransactionStatus.PENDING,
+							saved.getTransactionType()))
+					.doOnNext(transactionCache::put);
+		});
+	}
+
+	@Override
+	public Mono<Transaction> settle(Transaction transaction) {
+
+		return transferMetrics.time(TransferMetrics.Stage.ACCOUNT_SERVICE,
+						transaction.getTransactionType(),
+						transferDispatcher.dispatch(DTOMapper.convertToRequest(transaction),
+								transaction.getTransactionId()),
+						result -> Boolean.TRUE.equals(result.getSuccess())
+								? TransferMetrics.SUCCESS
+								: TransferMetrics.REJECTED)
+				.onErrorResume(WebClientResponseException.class,
+						error -> error.getStatusCode().is4xxClientError()
+								? resolve(transaction, TransactionStatus.FAILED)
+								.then(Mono.error(error))
+								: Mono.error(error))
+				.flatMap(result -> Boolean.TRUE.equals(result.getSuccess())
+						? resolve(transaction, TransactionStatus.COMPLETED)
+						: resolve(transaction, TransactionStatus.FAILED)
+						.then(Mono.error(failure(result))));
+	}
+
+	@Override
+	public Flux<Transaction> settledTransfers() {
+		return settled.asFlux();
+	}
+
+	/**
+	 * Writes the final status of a transfer. When it was already settled elsewhere, the stored
+	 * transaction is returned and neither the cache nor the summaries are touched again.
+	 *
+	 * @param transaction the pending transaction
+	 * @param status      the final status
+	 * @return the settled transaction
+	 */
+	private Mono<Transaction> resolve(Transaction transaction, TransactionStatus status) {
+
+		return transferMetrics.time(TransferMetrics.Stage.STATUS_UPDATE,
+						transaction.getTransactionType(),
+						transactionRepository.updateStatus(transaction, status))
+				.doOnNext(updated -> transferMetrics.recordStatus(status,
+						updated.getTransactionType()))
+				.doOnNext(transactionCache::put)
+				.flatMap(updated -> accountSummaryService.recordTransaction(updated)
+						.thenReturn(updated))
+				.doOnNext(this::publish)
+				.switchIfEmpty(Mono.defer(() -> {
+					transactionCache.invalidate(transaction.getTransactionId());
+					return transactionRepository.findById(transaction.getTransactionId());
+				}));
+	}
+
+	/**
+	 * Tells the subscribers of {@link #settledTransfers()} about a settled transfer. A
+	 * subscriber that cannot keep up misses it and reads the transaction once its wait times out,
+	 * so a failed emission never fails the settlement itself.
+	 *
+	 * @param transaction the settled transaction
+	 */
+	private void publish(Transaction transaction) {
+
+		synchronized (settled) {
+			settled.tryEmitNext(transaction);
+		}
+	}
+
+	private static TransferFailedException failure(TransferResponseDTO result) {
+		return new TransferFailedException(result.getErrorCode(),
+				result.getErrorCode() + " - " + result.getErrorMessage());
+	}
+}
@@ -0,0 +1,126 @@
+package com.alessandragodoy.transactionms.service.impl;
+
+import com.alessandragodoy.transactionms.configuration.TransferSubmissionProperties;
+import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import com.alessandragodoy.transactionms.exception.TransferFailedException;
+import com.alessandragodoy.transactionms.metrics.TransferMetrics;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.service.TransferSettlementService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Settles submitted transfers in the background through the {@link TransferSettlementService}.
+ * Up to {@code transaction.async.parallelism} transfers are settled at a time; at most
+ * {@code queue-capacity} may be queued or running, further submissions are rejected before
+ * anything is stored. A transfer that cannot be settled stays PENDING for the
+ * {@link TransferReconciler}. The time a transfer waits in the queue is timed by
+ * {@link TransferMetrics} as the {@code queue} stage of the request that submitted it.
+ */
+@Component
+public class TransferSubmissionQueue {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TransferSubmissionQueue.class);
+	private static final Duration EMIT_TIMEOUT = Duration.ofSeconds(1);
+
+	private final TransferSettlementService transferSettlementService;
+	private final int queueCapacity;
+	private final AtomicInteger queuedTransfers = new AtomicInteger();
+	private final TransferMetrics transferMetrics;
+	private final Sinks.Many<Submitted> submittedTransfers =
+			Sinks.many().unicast().onBackpressureBuffer();
+	private final Disposable workers;
+
+	public TransferSubmissionQueue(TransferSettlementService transferSettlementService,
+								   TransferSubmissionProperties properties,
+								   TransferMetrics transferMetrics) {
+		this.transferSettlementService = transferSettlementService;
+		this.transferMetrics = transferMetrics;
+		this.queueCapacity = properties.queueCapacity();
+		this.workers = submittedTransfers.asFlux()
+				.flatMap(submitted -> settleSubmitted(submitted)
+								.doFinally(signal -> queuedTransfers.decrementAndGet()),
+						properties.parallelism())
+				.subscribe();
+	}
+
+	/**
+	 * Queues a pending transfer to be settled in the background. The pending transaction is only
+	 * stored when the queue has room, so a rejected submission leaves nothing behind.
+	 *
+	 * @param pendingTransaction the Mono storing the pending transaction, subscribed once a place
+	 *                           in the queue is reserved.
+	 * @return {@code Mono<Transaction>} the stored pending transaction, or an
+	 * ExternalServiceException if too many transfers are already queued.
+	 */
+	public Mono<Transaction> submit(Mono<Transaction> pendingTransaction) {
+
+		return Mono.defer(() -> {
+			if (queuedTransfers.incrementAndGet() > queueCapacity) {
+				queuedTransfers.decrementAndGet();
+				return Mono.error(new ExternalServiceException(
+						"Too many transfers are waiting for execution, try again later"));
+			}
+			AtomicBoolean queued = new AtomicBoolean();
+			return pendingTransaction
+					.flatMap(transaction -> Mono.deferContextual(context -> {
+						Sinks.Empty<Void> dequeued = Sinks.empty();
+						transferMetrics.time(TransferMetrics.Stage.QUEUE,
+										transaction.getTransactionType(),
+										dequeued.asMono().thenReturn(transaction))
+								.contextWrite(context)
+								.subscribe();
+						submittedTransfers.emitNext(new Submitted(transaction, dequeued),
+								Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+						queued.set(true);
+						return Mono.just(transaction);
+					}))
+					.doFinally(signal -> {
+						if (!queued.get()) {
+							queuedTransfers.decrementAndGet();
+						}
+					});
+		});
+	}
+
+	/**
+	 * Stops accepting submitted transfers; the queued ones that are not settled yet stay PENDING
+	 * for the reconciliation.
+	 */
+	@PreDestroy
+	public void shutdown() {
+
+		submittedTransfers.emitComplete(Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+		workers.dispose();
+	}
+
+	private Mono<Transaction> settleSubmitted(Submitted submitted) {
+
+		submitted.dequeued().tryEmitEmpty();
+		Transaction transaction = submitted.transaction();
+		return transferSettlementService.settle(transaction)
+				.onErrorResume(TransferFailedException.class, error -> Mono.empty())
+				.onErrorResume(error -> {
+					LOGGER.warn("Could not settle submitted transfer {}, left for reconciliation: {}",
+							transaction.getTransactionId(), error.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	/**
+	 * A submitted transfer waiting in the queue.
+	 *
+	 * @param transaction the stored pending transaction
+	 * @param dequeued    completed once a worker picks the transfer up, ending its queue stage
+	 */
+	private record Submitted(Transaction transaction, Sinks.Empty<Void> dequeued) {
+	}
+}
@@ -0,0 +1,171 @@
+package com.alessandragodoy.transactionms.utility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Collects items submitted by concurrent callers into batches of up to {@code maxSize} items or
+ * {@code maxWait}, and flushes up to {@code concurrency} batches at a time.
+ * A batch is only formed once a flush slot is free; until then the items wait in an unbounded
+ * multi-producer queue, so a slow flush delays the next batches instead of failing the pipeline.
+ * A flush is expected to notify the callers of its items itself; a flush that fails is reported
+ * to each of its items through the failure callback. Should the pipeline still terminate, every
+ * item not flushed yet is failed and a new pipeline is started.
+ * Shutting down flushes the queued items and waits for the last flushes to finish.
+ *
+ * @param <T> the item type
+ */
+public class BatchPipeline<T> {
+	private static final Logger LOGGER = LoggerFactory.getLogger(BatchPipeline.class);
+
+	private final int maxSize;
+	private final Duration maxWait;
+	private final int concurrency;
+	private final Function<List<T>, Mono<Void>> flush;
+	private final BiConsumer<T, Throwable> fail;
+	// Items may change while queued, so they are tracked through identity-based entries
+	private final Set<Entry<T>> unflushed = ConcurrentHashMap.newKeySet();
+	private volatile boolean shutdown;
+	private volatile Run<T> run;
+
+	/**
+	 * Creates and starts a pipeline.
+	 *
+	 * @param maxSize     the maximum number of items per batch
+	 * @param maxWait     the longest time an item waits for its batch to fill
+	 * @param concurrency the number of batches flushed at a time
+	 * @param flush       flushes a batch and notifies the callers of its items
+	 * @param fail        notifies the caller of an item that was not flushed
+	 */
+	public BatchPipeline(int maxSize, Duration maxWait, int concurrency,
+						 Function<List<T>, Mono<Void>> flush, BiConsumer<T, Throwable> fail) {
+		this.maxSize = maxSize;
+		this.maxWait = maxWait;
+		this.concurrency = concurrency;
+		this.flush = flush;
+		this.fail = fail;
+		this.run = start();
+	}
+
+	/**
+	 * Queues an item for the next batch.
+	 *
+	 * @param item the item
+	 * @throws IllegalStateException if the pipeline is shut down
+	 */
+	public void submit(T item) {
+
+		Entry<T> entry = new Entry<>(item);
+		unflushed.add(entry);
+		if (shutdown || run.entries.tryEmitNext(entry).isFailure()) {
+			unflushed.remove(entry);
+			throw new IllegalStateException("The batch pipeline is shut down");
+		}
+	}
+
+	/**
+	 * Stops accepting items, flushes the queued ones and waits for the running flushes.
+	 *
+	 * @param timeout the longest time to wait for the last flushes
+	 */
+	public void shutdown(Duration timeout) {
+
+		shutdown = true;
+		Run<T> current = run;
+		current.entries.tryEmitComplete();
+		try {
+			if (!current.terminated.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				LOGGER.warn("{} queued items were not flushed before shutdown", unflushed.size());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private Run<T> start() {
+
+		Run<T> started = new Run<>(Sinks.unsafe().many().unicast()
+				.onBackpressureBuffer(Queues.<Entry<T>>unboundedMultiproducer().get()),
+				new CountDownLatch(1));
+		started.entries.asFlux()
+				.bufferTimeout(maxSize, maxWait, true)
+				.flatMap(this::flushBatch, concurrency)
+				.subscribe(null,
+						error -> terminated(started, error),
+						() -> terminated(started,
+								new IllegalStateException("The batch pipeline stopped")));
+		return started;
+	}
+
+	private Mono<Void> flushBatch(List<Entry<T>> batch) {
+
+		List<T> items = batch.stream().map(Entry::item).toList();
+		return Mono.defer(() -> flush.apply(items))
+				.onErrorResume(error -> Mono.fromRunnable(
+						() -> items.forEach(item -> fail.accept(item, error))))
+				.doOnTerminate(() -> batch.forEach(unflushed::remove));
+	}
+
+	/**
+	 * Fails the items the terminated pipeline did not flush and, unless shutting down, starts a
+	 * new pipeline.
+	 *
+	 * @param terminated the terminated pipeline
+	 * @param error      the reason reported to the items left
+	 */
+	private void terminated(Run<T> terminated, Throwable error) {
+
+		if (!shutdown) {
+			LOGGER.error("Batch pipeline terminated, restarting it", error);
+		}
+		for (Entry<T> entry : unflushed) {
+			if (unflushed.remove(entry)) {
+				fail.accept(entry.item(), error);
+			}
+		}
+		if (!shutdown) {
+			run = start();
+		}
+		terminated.terminated.countDown();
+	}
+
+	/**
+	 * A queued item, compared by identity.
+	 *
+	 * @param <T> the item type
+	 */
+	private static final class Entry<T> {
+
+		private final T item;
+
+		Entry(T item) {
+			this.item = item;
+		}
+
+		T item() {
+			return item;
+		}
+	}
+
+	/**
+	 * One subscription of the pipeline: its queue and a latch released once it terminated.
+	 *
+	 * @param entries    the queue of the pipeline
+	 * @param terminated released once the pipeline terminated
+	 * @param <T>        the item type
+	 */
+	private record Run<T>(Sinks.Many<Entry<T>> entries, CountDownLatch terminated) {
+	}
+}
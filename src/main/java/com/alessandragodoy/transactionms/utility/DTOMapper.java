@@ -1,22 +1,118 @@
 package com.alessandragodoy.transactionms.utility;
 
+import com.alessandragodoy.transactionms.dto.AccountSummaryDTO;
+import com.alessandragodoy.transactionms.dto.BatchTransferResultDTO;
+import com.alessandragodoy.transactionms.dto.TransactionDTO;
+import com.alessandragodoy.transactionms.dto.TransactionVolumeDTO;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.model.AccountSummary;
+import com.alessandragodoy.transactionms.model.BatchTransferResult;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.model.TransactionVolume;
+import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 /**
  * Utility class for mapping between DTOs and domain models.
+ * Every field is copied explicitly, so no reflection is involved when mapping lists of
+ * transactions.
  */
-@NoArgsConstructor
-public class DTOMapper {
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DTOMapper {
 
-	private static final ModelMapper MAPPER = new ModelMapper();
+	/**
+	 * Maps a transaction document to its API representation.
+	 *
+	 * @param transaction the transaction document
+	 * @return the transaction DTO
+	 */
+	public static TransactionDTO convertToDTO(Transaction transaction) {
+		return new TransactionDTO(
+				transaction.getTransactionId(),
+				transaction.getTransactionType(),
+				transaction.getAccountId(),
+				transaction.getRelatedAccountId(),
+				transaction.getAmount(),
+				transaction.getStatus());
+	}
+
+	/**
+	 * Maps an account summary document to its API representation.
+	 *
+	 * @param accountSummary the account summary document
+	 * @return the account summary DTO
+	 */
+	public static AccountSummaryDTO convertToDTO(AccountSummary accountSummary) {
+		return new AccountSummaryDTO(
+				accountSummary.getAccountId(),
+				accountSummary.getSentCount(),
+				accountSummary.getSentAmount(),
+				accountSummary.getReceivedCount(),
+				accountSummary.getReceivedAmount(),
+				accountSummary.getCountByStatus(),
+				accountSummary.getCountByType());
+	}
+
+	/**
+	 * Maps a transaction volume report row to its API representation.
+	 *
+	 * @param transactionVolume the report row
+	 * @return the transaction volume DTO
+	 */
+	public static TransactionVolumeDTO convertToDTO(TransactionVolume transactionVolume) {
+		return new TransactionVolumeDTO(
+				transactionVolume.bucket(),
+				transactionVolume.accountId(),
+				transactionVolume.type(),
+				transactionVolume.status(),
+				transactionVolume.count(),
+				transactionVolume.totalAmount());
+	}
+
+	/**
+	 * Maps the outcome of a batched transfer to its API representation.
+	 *
+	 * @param batchTransferResult the outcome of the transfer
+	 * @return the batch transfer result DTO
+	 */
+	public static BatchTransferResultDTO convertToDTO(BatchTransferResult batchTransferResult) {
+		Transaction transaction = batchTransferResult.transaction();
+		return new BatchTransferResultDTO(
+				batchTransferResult.index(),
+				transaction == null ? null : transaction.getTransactionId(),
+				transaction == null ? null : transaction.getStatus(),
+				batchTransferResult.errorCode(),
+				batchTransferResult.errorMessage());
+	}
 
-	public static <D, E> D convertToDTO(E entity, Class<D> dtoClass) {
-		return MAPPER.map(entity, dtoClass);
+	/**
+	 * Maps a transfer request to a new transaction document without id, date or status.
+	 *
+	 * @param transferRequestDTO the transfer request
+	 * @return the transaction document
+	 */
+	public static Transaction convertToEntity(TransferRequestDTO transferRequestDTO) {
+		return Transaction.builder()
+				.transactionType(TransactionType.valueOf(transferRequestDTO.getTransactionType()))
+				.accountId(transferRequestDTO.getSourceAccountId())
+				.relatedAccountId(transferRequestDTO.getDestinationAccountId())
+				.amount(transferRequestDTO.getAmount())
+				.build();
 	}
 
-	public static <E, D> E convertToEntity(D dto, Class<E> entityClass) {
-		return MAPPER.map(dto, entityClass);
+	/**
+	 * Maps a stored transfer transaction back to the request sent to the account service.
+	 *
+	 * @param transaction the transaction document
+	 * @return the transfer request
+	 */
+	public static TransferRequestDTO convertToRequest(Transaction transaction) {
+		return new TransferRequestDTO(
+				transaction.getTransactionType().name(),
+				transaction.getAccountId(),
+				transaction.getRelatedAccountId(),
+				transaction.getAmount());
 	}
 
 }
@@ -0,0 +1,69 @@
+package com.alessandragodoy.transactionms.utility;
+
+import com.alessandragodoy.transactionms.exception.InvalidParameterException;
+import com.alessandragodoy.transactionms.model.Transaction;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position inside a list of transactions ordered by date and id (newest first).
+ * It is exchanged with clients as an opaque, URL-safe continuation token.
+ *
+ * @param transactionDate the date of the last transaction of the previous page
+ * @param transactionId   the id of the last transaction of the previous page
+ */
+public record PageCursor(LocalDateTime transactionDate, ObjectId transactionId) {
+
+	private static final String SEPARATOR = "|";
+
+	/**
+	 * Builds the cursor pointing right after the given transaction.
+	 * Pages skip transactions without a date, so the last one of a page always has one.
+	 *
+	 * @param transaction the last transaction of a page
+	 * @return the cursor for the following page
+	 * @throws IllegalArgumentException if the transaction has no date
+	 */
+	public static PageCursor after(Transaction transaction) {
+		if (transaction.getTransactionDate() == null) {
+			throw new IllegalArgumentException(
+					"Transaction " + transaction.getTransactionId() + " has no date to page after");
+		}
+		return new PageCursor(transaction.getTransactionDate(),
+				new ObjectId(transaction.getTransactionId()));
+	}
+
+	/**
+	 * Decodes a continuation token received from a client.
+	 *
+	 * @param token the opaque token
+	 * @return the decoded cursor
+	 * @throws InvalidParameterException if the token is malformed
+	 */
+	public static PageCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.indexOf(SEPARATOR);
+			return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+					new ObjectId(raw.substring(separator + 1)));
+		} catch (IllegalArgumentException | DateTimeParseException |
+				 StringIndexOutOfBoundsException ex) {
+			throw new InvalidParameterException("Invalid page cursor: " + token);
+		}
+	}
+
+	/**
+	 * Encodes this cursor as an opaque continuation token.
+	 *
+	 * @return the URL-safe token
+	 */
+	public String encode() {
+		String raw = transactionDate + SEPARATOR + transactionId.toHexString();
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
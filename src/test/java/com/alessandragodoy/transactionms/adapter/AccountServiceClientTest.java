@@ -0,0 +1,200 @@
+package com.alessandragodoy.transactionms.adapter;
+
+import com.alessandragodoy.transactionms.configuration.AccountServiceRetryProperties;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AccountServiceClient.
+ * Tests the circuit breaker, bulkhead, retries and hedged requests around the account service
+ * calls.
+ */
+class AccountServiceClientTest {
+
+	private static final AccountServiceRetryProperties NO_RETRIES =
+			new AccountServiceRetryProperties(0, Duration.ofMillis(1), Duration.ofMillis(1), 0.5,
+					new AccountServiceRetryProperties.Hedge(false, Duration.ofMillis(20),
+							Duration.ofMillis(1), 50));
+
+	private final List<String> idempotencyKeys = new CopyOnWriteArrayList<>();
+	private IntFunction<Mono<ClientResponse>> response;
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+
+	@BeforeEach
+	void setUp() {
+		circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+				.slidingWindowSize(4)
+				.minimumNumberOfCalls(4)
+				.failureRateThreshold(50)
+				.waitDurationInOpenState(Duration.ofMillis(50))
+				.permittedNumberOfCallsInHalfOpenState(1)
+				.recordExceptions(WebClientRequestException.class)
+				.build());
+	}
+
+	@Test
+	@DisplayName("transfer - returns the account service response")
+	void transfer_WithAvailableService_ReturnsResponse() {
+
+		response = attempt -> Mono.just(successResponse());
+
+		StepVerifier.create(createClient(NO_RETRIES).transfer(createTransferRequest()))
+				.assertNext(result -> assertThat(result.getSuccess()).isTrue())
+				.verifyComplete();
+		assertThat(idempotencyKeys).hasSize(1).doesNotContainNull();
+	}
+
+	@Test
+	@DisplayName("transfer - fails fast without calling the service once the breaker opens")
+	void transfer_WithRepeatedFailures_OpensCircuit() {
+
+		AccountServiceClient accountServiceClient = createClient(NO_RETRIES);
+		response = attempt -> Mono.error(connectionRefused());
+		for (int i = 0; i < 4; i++) {
+			StepVerifier.create(accountServiceClient.transfer(createTransferRequest()))
+					.expectError(ExternalServiceException.class)
+					.verify();
+		}
+
+		StepVerifier.create(accountServiceClient.transfer(createTransferRequest()))
+				.expectErrorMessage(
+						"The account service is unavailable, calls are suspended for a while")
+				.verify();
+
+		assertThat(idempotencyKeys).hasSize(4);
+		assertThat(accountServiceBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+
+	@Test
+	@DisplayName("transfer - closes the breaker again after a successful probe call")
+	void transfer_WithRecoveredService_ClosesCircuitAfterProbe() {
+
+		accountServiceBreaker().transitionToOpenState();
+		accountServiceBreaker().transitionToHalfOpenState();
+		response = attempt -> Mono.just(successResponse());
+
+		StepVerifier.create(createClient(NO_RETRIES).transfer(createTransferRequest()))
+				.expectNextCount(1)
+				.verifyComplete();
+
+		assertThat(accountServiceBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	@DisplayName("transfer - rejects calls above the concurrency limit")
+	void transfer_WithBulkheadFull_RejectsCall() {
+
+		AccountServiceClient accountServiceClient = createClient(NO_RETRIES);
+		response = attempt -> Mono.never();
+		Disposable first = accountServiceClient.transfer(createTransferRequest()).subscribe();
+		Disposable second = accountServiceClient.transfer(createTransferRequest()).subscribe();
+
+		StepVerifier.create(accountServiceClient.transfer(createTransferRequest()))
+				.expectErrorMessage("Too many concurrent calls to the account service")
+				.verify();
+
+		first.dispose();
+		second.dispose();
+		assertThat(idempotencyKeys).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("transfer - retries connection failures with the same idempotency key")
+	void transfer_WithTransientFailure_RetriesWithSameKey() {
+
+		AccountServiceRetryProperties retries = new AccountServiceRetryProperties(2,
+				Duration.ofMillis(1), Duration.ofMillis(5), 0.5, NO_RETRIES.hedge());
+		response = attempt -> attempt < 2
+				? Mono.error(connectionRefused())
+				: Mono.just(successResponse());
+
+		StepVerifier.create(createClient(retries).transfer(createTransferRequest(), "key-1"))
+				.expectNextCount(1)
+				.verifyComplete();
+
+		assertThat(idempotencyKeys).containsExactly("key-1", "key-1", "key-1");
+	}
+
+	@Test
+	@DisplayName("transfer - answers from the hedged attempt when the first one is slow")
+	void transfer_WithSlowFirstAttempt_ReturnsHedgedResponse() {
+
+		AccountServiceRetryProperties hedging = new AccountServiceRetryProperties(0,
+				Duration.ofMillis(1), Duration.ofMillis(1), 0.5,
+				new AccountServiceRetryProperties.Hedge(true, Duration.ofMillis(20),
+						Duration.ofMillis(1), 50));
+		response = attempt -> attempt == 0 ? Mono.never() : Mono.just(successResponse());
+
+		StepVerifier.create(createClient(hedging).transfer(createTransferRequest(), "key-1"))
+				.assertNext(result -> assertThat(result.getSuccess()).isTrue())
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+
+		assertThat(idempotencyKeys).containsExactly("key-1", "key-1");
+	}
+
+	private AccountServiceClient createClient(AccountServiceRetryProperties retry) {
+		WebClient webClient = WebClient.builder()
+				.baseUrl("http://account-ms")
+				.exchangeFunction(request -> {
+					idempotencyKeys.add(request.headers().getFirst("Idempotency-Key"));
+					return response.apply(idempotencyKeys.size() - 1);
+				})
+				.build();
+		BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+				.maxConcurrentCalls(2)
+				.maxWaitDuration(Duration.ZERO)
+				.build());
+		return new AccountServiceClient(webClient, circuitBreakerRegistry, bulkheadRegistry, retry,
+				new SimpleMeterRegistry());
+	}
+
+	private CircuitBreaker accountServiceBreaker() {
+		return circuitBreakerRegistry.circuitBreaker("accountService");
+	}
+
+	private static ClientResponse successResponse() {
+		return ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body("{\"success\":true,\"sourceAccountId\":1,\"destinationAccountId\":2}")
+				.build();
+	}
+
+	private static WebClientRequestException connectionRefused() {
+		return new WebClientRequestException(new IOException("Connection refused"),
+				HttpMethod.PATCH, URI.create("http://account-ms/execute-transfer"),
+				new HttpHeaders());
+	}
+
+	private static TransferRequestDTO createTransferRequest() {
+		return new TransferRequestDTO("TRANSFER_OWN_ACCOUNT", 1, 2, 100.0);
+	}
+}
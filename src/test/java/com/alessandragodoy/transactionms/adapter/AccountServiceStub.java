@@ -0,0 +1,104 @@
+package com.alessandragodoy.transactionms.adapter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.HttpMethod;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Local stand-in for the account service, serving {@code PATCH /execute-transfer} and
+ * {@code POST /execute-transfers} on a random port.
+ * Every transfer succeeds and its response echoes the accounts of the request, so callers can
+ * check they received their own response. The number of requests per endpoint is counted.
+ */
+public class AccountServiceStub implements AutoCloseable {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final DisposableServer server;
+	private int transferRequests;
+	private int batchRequests;
+
+	public AccountServiceStub() {
+		this.server = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.route(routes -> routes
+						.route(request -> request.method() == HttpMethod.PATCH
+								&& request.fullPath().equals("/execute-transfer"), (request, response) -> {
+							countTransfer();
+							return respond(request, response, this::executed);
+						})
+						.post("/execute-transfers", (request, response) -> {
+							countBatch();
+							return respond(request, response, this::executedAll);
+						}))
+				.bindNow();
+	}
+
+	public String baseUrl() {
+		return "http://localhost:" + server.port();
+	}
+
+	public synchronized int transferRequests() {
+		return transferRequests;
+	}
+
+	public synchronized int batchRequests() {
+		return batchRequests;
+	}
+
+	@Override
+	public void close() {
+		server.disposeNow();
+	}
+
+	private synchronized void countTransfer() {
+		transferRequests++;
+	}
+
+	private synchronized void countBatch() {
+		batchRequests++;
+	}
+
+	private Mono<Void> respond(HttpServerRequest request, HttpServerResponse response,
+							   UnaryOperator<JsonNode> handler) {
+		return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.sendString(request.receive().aggregate().asString()
+						.map(body -> handler.apply(read(body)).toString()))
+				.then();
+	}
+
+	private JsonNode executedAll(JsonNode transfers) {
+		ArrayNode responses = objectMapper.createArrayNode();
+		transfers.forEach(transfer -> responses.add(executed(transfer)));
+		return responses;
+	}
+
+	private JsonNode executed(JsonNode transfer) {
+		ObjectNode response = objectMapper.createObjectNode();
+		response.put("success", true);
+		response.set("sourceAccountId", transfer.get("sourceAccountId"));
+		response.set("destinationAccountId", transfer.get("destinationAccountId"));
+		return response;
+	}
+
+	private JsonNode read(String body) {
+		try {
+			return objectMapper.readTree(body);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
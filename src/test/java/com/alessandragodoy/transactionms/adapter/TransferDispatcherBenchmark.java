@@ -0,0 +1,94 @@
+package com.alessandragodoy.transactionms.adapter;
+
+import com.alessandragodoy.transactionms.configuration.AccountServiceRetryProperties;
+import com.alessandragodoy.transactionms.configuration.TransferDispatchProperties;
+import com.alessandragodoy.transactionms.configuration.TransferSequencerProperties;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time per transfer of single account service calls against batched ones, both
+ * sent to the local {@link AccountServiceStub}, so the difference is the HTTP overhead saved by
+ * batching. Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.includes=TransferDispatcherBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferDispatcherBenchmark {
+
+	private static final int TRANSFERS = 64;
+	private static final TransferSequencer NO_SEQUENCING = new TransferSequencer(
+			new TransferSequencerProperties(false), new SimpleMeterRegistry());
+
+	private AccountServiceStub accountService;
+	private TransferDispatcher singleCalls;
+	private TransferDispatcher batchedCalls;
+
+	@Setup
+	public void setUp() {
+		accountService = new AccountServiceStub();
+		AccountServiceClient client = new AccountServiceClient(
+				WebClient.builder().baseUrl(accountService.baseUrl()).build(),
+				CircuitBreakerRegistry.ofDefaults(),
+				BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(TRANSFERS).build()),
+				new AccountServiceRetryProperties(0, Duration.ofMillis(1), Duration.ofMillis(1),
+						0.5, new AccountServiceRetryProperties.Hedge(false, Duration.ofMillis(20),
+						Duration.ofMillis(1), 50)),
+				new SimpleMeterRegistry());
+		singleCalls = new TransferDispatcher(client, NO_SEQUENCING,
+				new TransferDispatchProperties(false, TRANSFERS, Duration.ofMillis(2), 4));
+		batchedCalls = new TransferDispatcher(client, NO_SEQUENCING,
+				new TransferDispatchProperties(true, TRANSFERS, Duration.ofMillis(2), 4));
+	}
+
+	@TearDown
+	public void tearDown() {
+		batchedCalls.shutdown();
+		accountService.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TRANSFERS)
+	public Long singleCalls() {
+		return dispatchAll(singleCalls);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TRANSFERS)
+	public Long batchedCalls() {
+		return dispatchAll(batchedCalls);
+	}
+
+	private static Long dispatchAll(TransferDispatcher dispatcher) {
+		return Flux.range(1, TRANSFERS)
+				.flatMap(account -> dispatcher.dispatch(
+						new TransferRequestDTO("TRANSFER_OWN_ACCOUNT", account, account + 1, 10.0),
+						null), TRANSFERS)
+				.count()
+				.block();
+	}
+}
@@ -0,0 +1,143 @@
+package com.alessandragodoy.transactionms.adapter;
+
+import com.alessandragodoy.transactionms.configuration.AccountServiceRetryProperties;
+import com.alessandragodoy.transactionms.configuration.TransferDispatchProperties;
+import com.alessandragodoy.transactionms.configuration.TransferSequencerProperties;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.dto.TransferResponseDTO;
+import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransferDispatcher.
+ * Tests the batching of concurrent transfers against a local account service stub.
+ */
+class TransferDispatcherTest {
+
+	private static final AccountServiceRetryProperties NO_RETRIES =
+			new AccountServiceRetryProperties(0, Duration.ofMillis(1), Duration.ofMillis(1), 0.5,
+					new AccountServiceRetryProperties.Hedge(false, Duration.ofMillis(20),
+							Duration.ofMillis(1), 50));
+
+	private static final TransferSequencer NO_SEQUENCING = new TransferSequencer(
+			new TransferSequencerProperties(false), new SimpleMeterRegistry());
+
+	private AccountServiceStub accountService;
+	private AccountServiceClient accountServiceClient;
+
+	@BeforeEach
+	void setUp() {
+		accountService = new AccountServiceStub();
+		accountServiceClient = new AccountServiceClient(
+				WebClient.builder().baseUrl(accountService.baseUrl()).build(),
+				CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), NO_RETRIES,
+				new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		accountService.close();
+	}
+
+	@Test
+	@DisplayName("dispatch - sends each transfer on its own when disabled")
+	void dispatch_WhenDisabled_SendsSingleCalls() {
+
+		TransferDispatcher dispatcher = new TransferDispatcher(accountServiceClient, NO_SEQUENCING,
+				new TransferDispatchProperties(false, 10, Duration.ofMillis(50), 1));
+
+		StepVerifier.create(dispatchAll(dispatcher, 3))
+				.expectNextCount(3)
+				.verifyComplete();
+
+		assertThat(accountService.transferRequests()).isEqualTo(3);
+		assertThat(accountService.batchRequests()).isZero();
+	}
+
+	@Test
+	@DisplayName("dispatch - groups concurrent transfers and returns each caller its response")
+	void dispatch_WithConcurrentTransfers_SendsOneBatch() {
+
+		TransferDispatcher dispatcher = new TransferDispatcher(accountServiceClient, NO_SEQUENCING,
+				new TransferDispatchProperties(true, 10, Duration.ofMillis(50), 1));
+
+		StepVerifier.create(dispatchAll(dispatcher, 10).collectList())
+				.assertNext(responses -> assertThat(responses)
+						.extracting(TransferResponseDTO::getSourceAccountId)
+						.containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6, 7, 8, 9, 10))
+				.verifyComplete();
+
+		assertThat(accountService.batchRequests()).isEqualTo(1);
+		assertThat(accountService.transferRequests()).isZero();
+		dispatcher.shutdown();
+	}
+
+	@Test
+	@DisplayName("dispatch - fails every transfer of a batch the account service did not answer")
+	void dispatch_WithIncompleteBatchResponse_FailsBatch() {
+
+		AccountServiceClient client = mock(AccountServiceClient.class);
+		when(client.transferBatch(anyList())).thenReturn(Mono.just(List.of(
+				TransferResponseDTO.builder().success(true).build())));
+		TransferDispatcher dispatcher = new TransferDispatcher(client, NO_SEQUENCING,
+				new TransferDispatchProperties(true, 2, Duration.ofMillis(50), 1));
+
+		StepVerifier.create(Flux.range(1, 2)
+						.flatMap(account -> dispatcher.dispatch(createTransferRequest(account), null)
+								.map(response -> "executed")
+								.onErrorResume(ExternalServiceException.class,
+										error -> Mono.just(error.getMessage()))))
+				.expectNext("The account service answered 1 of 2 transfers")
+				.expectNext("The account service answered 1 of 2 transfers")
+				.verifyComplete();
+		dispatcher.shutdown();
+	}
+
+	@Test
+	@DisplayName("dispatch - keeps batching while the account service is slow")
+	void dispatch_WithSlowAccountService_SendsEveryTransfer() {
+
+		AccountServiceClient client = mock(AccountServiceClient.class);
+		when(client.transferBatch(anyList())).thenAnswer(invocation -> Mono.delay(
+						Duration.ofMillis(20))
+				.thenReturn(invocation.<List<?>>getArgument(0).stream()
+						.map(transfer -> TransferResponseDTO.builder().success(true).build())
+						.toList()));
+		TransferDispatcher dispatcher = new TransferDispatcher(client, NO_SEQUENCING,
+				new TransferDispatchProperties(true, 5, Duration.ofMillis(2), 1));
+
+		StepVerifier.create(Flux.range(1, 40)
+						.delayElements(Duration.ofMillis(1))
+						.flatMap(account -> dispatcher.dispatch(createTransferRequest(account),
+								null)))
+				.expectNextCount(40)
+				.expectComplete()
+				.verify(Duration.ofSeconds(10));
+		dispatcher.shutdown();
+	}
+
+	private static Flux<TransferResponseDTO> dispatchAll(TransferDispatcher dispatcher, int count) {
+		return Flux.range(1, count)
+				.flatMap(account -> dispatcher.dispatch(createTransferRequest(account), null));
+	}
+
+	private static TransferRequestDTO createTransferRequest(int account) {
+		return new TransferRequestDTO("TRANSFER_OWN_ACCOUNT", account, account + 100, 10.0);
+	}
+}
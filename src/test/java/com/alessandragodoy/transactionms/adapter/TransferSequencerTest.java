@@ -0,0 +1,135 @@
+package com.alessandragodoy.transactionms.adapter;
+
+import com.alessandragodoy.transactionms.configuration.TransferSequencerProperties;
+import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TransferSequencer.
+ * Tests that calls with the same key run one after the other, that other keys are not held back
+ * and the published queue depth.
+ */
+class TransferSequencerTest {
+
+	private final List<String> started = new CopyOnWriteArrayList<>();
+	private SimpleMeterRegistry meterRegistry;
+	private TransferSequencer transferSequencer;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		transferSequencer = new TransferSequencer(new TransferSequencerProperties(true),
+				meterRegistry);
+	}
+
+	@Test
+	@DisplayName("execute - starts a call for the same key once the previous one finished")
+	void execute_WithSameKey_RunsInOrder() {
+
+		Sinks.One<String> first = Sinks.one();
+
+		StepVerifier firstCall = StepVerifier.create(
+						transferSequencer.execute(1, () -> tracked("first", first.asMono())))
+				.expectNext("one")
+				.expectComplete()
+				.verifyLater();
+		StepVerifier secondCall = StepVerifier.create(
+						transferSequencer.execute(1, () -> tracked("second", Mono.just("two"))))
+				.expectNext("two")
+				.expectComplete()
+				.verifyLater();
+
+		assertThat(started).containsExactly("first");
+		assertThat(queueDepth()).isEqualTo(2.0);
+
+		first.tryEmitValue("one");
+
+		firstCall.verify();
+		secondCall.verify();
+		assertThat(started).containsExactly("first", "second");
+		assertThat(queueDepth()).isZero();
+	}
+
+	@Test
+	@DisplayName("execute - does not hold back calls of another key")
+	void execute_WithOtherKey_RunsInParallel() {
+
+		Sinks.One<String> blocked = Sinks.one();
+		StepVerifier blockedCall = StepVerifier.create(
+						transferSequencer.execute(1, () -> tracked("blocked", blocked.asMono())))
+				.expectNext("late")
+				.expectComplete()
+				.verifyLater();
+
+		StepVerifier.create(transferSequencer.execute(2, () -> tracked("other", Mono.just("now"))))
+				.expectNext("now")
+				.verifyComplete();
+
+		blocked.tryEmitValue("late");
+		blockedCall.verify();
+	}
+
+	@Test
+	@DisplayName("execute - runs the call with the Reactor context of its caller")
+	void execute_WithCallerContext_PropagatesContext() {
+
+		StepVerifier.create(transferSequencer.execute(1,
+								() -> Mono.deferContextual(context ->
+										Mono.just(context.<String>get("trace"))))
+						.contextWrite(context -> context.put("trace", "request-1")))
+				.expectNext("request-1")
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("execute - passes errors to their caller and runs the next call of the key")
+	void execute_WithFailedCall_ContinuesWithNextCall() {
+
+		StepVerifier.create(transferSequencer.execute(1,
+						() -> Mono.<String>error(new ExternalServiceException("Service unavailable"))))
+				.expectError(ExternalServiceException.class)
+				.verify();
+
+		StepVerifier.create(transferSequencer.execute(1, () -> Mono.just("next")))
+				.expectNext("next")
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("execute - starts calls right away when disabled")
+	void execute_WhenDisabled_RunsDirectly() {
+
+		TransferSequencer disabled = new TransferSequencer(
+				new TransferSequencerProperties(false), meterRegistry);
+		Sinks.One<String> pending = Sinks.one();
+
+		disabled.execute(1, () -> tracked("first", pending.asMono())).subscribe();
+		disabled.execute(1, () -> tracked("second", Mono.just("two"))).subscribe();
+
+		assertThat(started).containsExactly("first", "second");
+	}
+
+	private Mono<String> tracked(String name, Mono<String> call) {
+		return Mono.defer(() -> {
+			started.add(name);
+			return call;
+		});
+	}
+
+	private double queueDepth() {
+		return meterRegistry.get("account.service.sequencer.queue.depth").gauges().stream()
+				.mapToDouble(gauge -> gauge.value())
+				.sum();
+	}
+}
@@ -0,0 +1,206 @@
+package com.alessandragodoy.transactionms.cache;
+
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.exception.IdempotencyKeyConflictException;
+import com.alessandragodoy.transactionms.exception.InvalidParameterException;
+import com.alessandragodoy.transactionms.exception.TransferFailedException;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IdempotencyKeyCache.
+ * Tests replays from memory and database, in-flight sharing and payload conflicts.
+ */
+class IdempotencyKeyCacheTest {
+
+	private final AtomicInteger registrations = new AtomicInteger();
+	private TransactionRepository transactionRepository;
+	private IdempotencyKeyCache idempotencyKeyCache;
+
+	@BeforeEach
+	void setUp() {
+		transactionRepository = mock(TransactionRepository.class);
+		when(transactionRepository.findByIdempotencyKey(any())).thenReturn(Mono.empty());
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		idempotencyKeyCache = new IdempotencyKeyCache(transactionRepository,
+				new RequestCoalescer(meterRegistry), meterRegistry, 100, Duration.ofHours(1));
+	}
+
+	@Test
+	@DisplayName("execute - runs the registration when no key is sent")
+	void execute_WithoutKey_RunsRegistration() {
+
+		Transaction transaction = createTransaction(null, TransactionStatus.COMPLETED);
+
+		StepVerifier.create(idempotencyKeyCache.execute(null, createTransferRequest(),
+						registrationOf(transaction)))
+				.expectNext(transaction)
+				.verifyComplete();
+
+		assertThat(registrations).hasValue(1);
+		verifyNoInteractions(transactionRepository);
+	}
+
+	@Test
+	@DisplayName("execute - replays a recent key without reading the database")
+	void execute_WithRecentKey_ReplaysFromMemory() {
+
+		Transaction transaction = createTransaction("key-1", TransactionStatus.COMPLETED);
+
+		StepVerifier.create(idempotencyKeyCache.execute("key-1", createTransferRequest(),
+						registrationOf(transaction)))
+				.expectNext(transaction)
+				.verifyComplete();
+		StepVerifier.create(idempotencyKeyCache.execute("key-1", createTransferRequest(),
+						registrationOf(transaction)))
+				.expectNext(transaction)
+				.verifyComplete();
+
+		assertThat(registrations).hasValue(1);
+		verify(transactionRepository, times(1)).findByIdempotencyKey("key-1");
+	}
+
+	@Test
+	@DisplayName("execute - replays a key stored by an earlier request")
+	void execute_WithStoredKey_ReplaysFromDatabase() {
+
+		Transaction stored = createTransaction("key-1", TransactionStatus.COMPLETED);
+		when(transactionRepository.findByIdempotencyKey("key-1")).thenReturn(Mono.just(stored));
+
+		StepVerifier.create(idempotencyKeyCache.execute("key-1", createTransferRequest(),
+						registrationOf(stored)))
+				.expectNext(stored)
+				.verifyComplete();
+
+		assertThat(registrations).hasValue(0);
+	}
+
+	@Test
+	@DisplayName("execute - concurrent requests with the same key share one registration")
+	void execute_WithConcurrentDuplicates_RegistersOnce() {
+
+		Transaction transaction = createTransaction("key-1", TransactionStatus.COMPLETED);
+		Sinks.One<Transaction> pending = Sinks.one();
+		Supplier<Mono<Transaction>> registration = () -> {
+			registrations.incrementAndGet();
+			return pending.asMono();
+		};
+
+		Mono<Transaction> first = idempotencyKeyCache.execute("key-1", createTransferRequest(),
+				registration);
+		Mono<Transaction> second = idempotencyKeyCache.execute("key-1", createTransferRequest(),
+				registration);
+
+		StepVerifier.create(first.zipWith(second))
+				.then(() -> pending.tryEmitValue(transaction))
+				.assertNext(results -> {
+					assertThat(results.getT1()).isSameAs(transaction);
+					assertThat(results.getT2()).isSameAs(transaction);
+				})
+				.verifyComplete();
+
+		assertThat(registrations).hasValue(1);
+	}
+
+	@Test
+	@DisplayName("execute - returns the stored transaction when the unique index rejects the save")
+	void execute_WithDuplicateKeyOnSave_ReturnsStoredTransaction() {
+
+		Transaction stored = createTransaction("key-1", TransactionStatus.COMPLETED);
+		when(transactionRepository.findByIdempotencyKey("key-1"))
+				.thenReturn(Mono.empty(), Mono.just(stored));
+
+		StepVerifier.create(idempotencyKeyCache.execute("key-1", createTransferRequest(),
+						() -> Mono.error(new DuplicateKeyException("E11000"))))
+				.expectNext(stored)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("execute - rejects a key reused for a different transfer")
+	void execute_WithDifferentPayload_ThrowsConflict() {
+
+		Transaction stored = createTransaction("key-1", TransactionStatus.COMPLETED);
+		when(transactionRepository.findByIdempotencyKey("key-1")).thenReturn(Mono.just(stored));
+		TransferRequestDTO otherTransfer = new TransferRequestDTO(
+				"TRANSFER_OWN_ACCOUNT", 1, 2, 999.0);
+
+		StepVerifier.create(idempotencyKeyCache.execute("key-1", otherTransfer,
+						registrationOf(stored)))
+				.expectError(IdempotencyKeyConflictException.class)
+				.verify();
+	}
+
+	@Test
+	@DisplayName("execute - replays a failed transfer as a failure")
+	void execute_WithFailedTransaction_ThrowsTransferFailed() {
+
+		Transaction stored = createTransaction("key-1", TransactionStatus.FAILED);
+		when(transactionRepository.findByIdempotencyKey("key-1")).thenReturn(Mono.just(stored));
+
+		StepVerifier.create(idempotencyKeyCache.execute("key-1", createTransferRequest(),
+						registrationOf(stored)))
+				.expectError(TransferFailedException.class)
+				.verify();
+
+		assertThat(registrations).hasValue(0);
+	}
+
+	@Test
+	@DisplayName("execute - rejects blank and oversized keys")
+	void execute_WithInvalidKey_ThrowsInvalidParameter() {
+
+		Transaction transaction = createTransaction(null, TransactionStatus.COMPLETED);
+
+		StepVerifier.create(idempotencyKeyCache.execute(" ", createTransferRequest(),
+						registrationOf(transaction)))
+				.expectError(InvalidParameterException.class)
+				.verify();
+		StepVerifier.create(idempotencyKeyCache.execute("k".repeat(256), createTransferRequest(),
+						registrationOf(transaction)))
+				.expectError(InvalidParameterException.class)
+				.verify();
+
+		assertThat(registrations).hasValue(0);
+	}
+
+	private Supplier<Mono<Transaction>> registrationOf(Transaction transaction) {
+		return () -> Mono.fromCallable(() -> {
+			registrations.incrementAndGet();
+			return transaction;
+		});
+	}
+
+	private TransferRequestDTO createTransferRequest() {
+		return new TransferRequestDTO("TRANSFER_OWN_ACCOUNT", 1, 2, 100.0);
+	}
+
+	private Transaction createTransaction(String idempotencyKey, TransactionStatus status) {
+		return Transaction.builder()
+				.transactionId("tx1")
+				.transactionType(TransactionType.TRANSFER_OWN_ACCOUNT)
+				.accountId(1)
+				.relatedAccountId(2)
+				.amount(100.0)
+				.status(status)
+				.idempotencyKey(idempotencyKey)
+				.build();
+	}
+}
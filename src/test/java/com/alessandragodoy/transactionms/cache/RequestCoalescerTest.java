@@ -0,0 +1,139 @@
+package com.alessandragodoy.transactionms.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RequestCoalescer.
+ * Tests sharing of in-flight requests, release of finished keys and the coalesced metric.
+ */
+class RequestCoalescerTest {
+
+	private final AtomicInteger subscriptions = new AtomicInteger();
+	private SimpleMeterRegistry meterRegistry;
+	private RequestCoalescer requestCoalescer;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		requestCoalescer = new RequestCoalescer(meterRegistry);
+	}
+
+	@Test
+	@DisplayName("coalesce - concurrent identical requests subscribe to the source once")
+	void coalesce_WithConcurrentRequests_SharesOneSubscription() {
+
+		Sinks.One<String> result = Sinks.one();
+
+		StepVerifier first = StepVerifier.create(
+						requestCoalescer.coalesce("findById", "tx1", () -> tracked(result.asMono())))
+				.expectNext("value")
+				.expectComplete()
+				.verifyLater();
+		StepVerifier second = StepVerifier.create(
+						requestCoalescer.coalesce("findById", "tx1", () -> tracked(result.asMono())))
+				.expectNext("value")
+				.expectComplete()
+				.verifyLater();
+
+		result.tryEmitValue("value");
+
+		first.verify();
+		second.verify();
+		assertThat(subscriptions).hasValue(1);
+		assertThat(coalescedCount("findById")).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("coalesce - starts a new request once the previous one finished")
+	void coalesce_WithSequentialRequests_SubscribesEachTime() {
+
+		StepVerifier.create(requestCoalescer.coalesce("findById", "tx1",
+						() -> tracked(Mono.just("value"))))
+				.expectNext("value")
+				.verifyComplete();
+		StepVerifier.create(requestCoalescer.coalesce("findById", "tx1",
+						() -> tracked(Mono.just("value"))))
+				.expectNext("value")
+				.verifyComplete();
+
+		assertThat(subscriptions).hasValue(2);
+		assertThat(meterRegistry.find("transactions.requests.coalesced").counter()).isNull();
+	}
+
+	@Test
+	@DisplayName("coalesceMany - keeps different keys independent")
+	void coalesceMany_WithDifferentKeys_DoesNotShare() {
+
+		Sinks.Many<Integer> first = Sinks.many().unicast().onBackpressureBuffer();
+
+		StepVerifier pending = StepVerifier.create(requestCoalescer.coalesceMany("history", 1,
+						() -> tracked(first.asFlux())))
+				.expectNext(1, 2)
+				.expectComplete()
+				.verifyLater();
+		StepVerifier.create(requestCoalescer.coalesceMany("history", 2,
+						() -> tracked(Flux.just(3))))
+				.expectNext(3)
+				.verifyComplete();
+
+		first.tryEmitNext(1);
+		first.tryEmitNext(2);
+		first.tryEmitComplete();
+
+		pending.verify();
+		assertThat(subscriptions).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("coalesceMany - shares errors and releases the key afterwards")
+	void coalesceMany_WithError_ReleasesKey() {
+
+		Sinks.Many<Integer> failing = Sinks.many().unicast().onBackpressureBuffer();
+
+		StepVerifier first = StepVerifier.create(requestCoalescer.coalesceMany("history", 1,
+						() -> tracked(failing.asFlux())))
+				.expectError(IllegalStateException.class)
+				.verifyLater();
+		StepVerifier second = StepVerifier.create(requestCoalescer.coalesceMany("history", 1,
+						() -> tracked(failing.asFlux())))
+				.expectError(IllegalStateException.class)
+				.verifyLater();
+
+		failing.tryEmitError(new IllegalStateException("boom"));
+
+		first.verify();
+		second.verify();
+		StepVerifier.create(requestCoalescer.coalesceMany("history", 1,
+						() -> tracked(Flux.just(1))))
+				.expectNext(1)
+				.verifyComplete();
+		assertThat(subscriptions).hasValue(2);
+		assertThat(coalescedCount("history")).isEqualTo(1.0);
+	}
+
+	private <T> Mono<T> tracked(Mono<T> source) {
+		return source.doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+	}
+
+	private <T> Flux<T> tracked(Flux<T> source) {
+		return source.doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+	}
+
+	private double coalescedCount(String operation) {
+		return meterRegistry.get("transactions.requests.coalesced")
+				.tag("operation", operation)
+				.counter()
+				.count();
+	}
+}
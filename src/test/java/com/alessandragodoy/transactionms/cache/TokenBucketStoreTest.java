@@ -0,0 +1,99 @@
+package com.alessandragodoy.transactionms.cache;
+
+import com.alessandragodoy.transactionms.configuration.TransferRateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TokenBucketStore.
+ * Tests bursts up to the capacity, the refill over time and concurrent consumption.
+ */
+class TokenBucketStoreTest {
+
+	private static final TransferRateLimitProperties.Limit TWO_PER_SECOND =
+			new TransferRateLimitProperties.Limit(2, 2.0);
+
+	private final AtomicLong nanos = new AtomicLong();
+	private TokenBucketStore tokenBucketStore;
+
+	@BeforeEach
+	void setUp() {
+		tokenBucketStore = new TokenBucketStore(new TransferRateLimitProperties(true,
+				Duration.ofMinutes(10), 100, Map.of(), Map.of(), null, null), nanos::get);
+	}
+
+	@Test
+	@DisplayName("tryConsume - allows a burst up to the capacity, then reports the wait")
+	void tryConsume_WithEmptyBucket_ReturnsWait() {
+
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND)).isZero();
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND)).isZero();
+
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND))
+				.isEqualTo(Duration.ofMillis(500));
+		assertThat(tokenBucketStore.tryConsume("client:b", TWO_PER_SECOND)).isZero();
+	}
+
+	@Test
+	@DisplayName("tryConsume - refills the bucket over time without exceeding the capacity")
+	void tryConsume_AfterWaiting_RefillsBucket() {
+
+		tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND);
+		tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND);
+
+		nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND)).isZero();
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND)).isPositive();
+
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(1));
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND)).isZero();
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND)).isZero();
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND)).isPositive();
+	}
+
+	@Test
+	@DisplayName("refund - puts a token back without exceeding the capacity")
+	void refund_AfterConsume_RestoresToken() {
+
+		tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND);
+		tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND);
+		tokenBucketStore.refund("client:a", TWO_PER_SECOND);
+		tokenBucketStore.refund("client:a", TWO_PER_SECOND);
+		tokenBucketStore.refund("client:a", TWO_PER_SECOND);
+
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND)).isZero();
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND)).isZero();
+		assertThat(tokenBucketStore.tryConsume("client:a", TWO_PER_SECOND)).isPositive();
+	}
+
+	@Test
+	@DisplayName("tryConsume - hands out each token once under concurrent requests")
+	void tryConsume_WithConcurrentRequests_NeverExceedsCapacity() throws InterruptedException {
+
+		TransferRateLimitProperties.Limit limit = new TransferRateLimitProperties.Limit(100, 0.0);
+		AtomicInteger granted = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		IntStream.range(0, 1000).forEach(i -> executor.execute(() -> {
+			if (tokenBucketStore.tryConsume("account:1", limit).isZero()) {
+				granted.incrementAndGet();
+			}
+		}));
+		executor.shutdown();
+
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(granted).hasValue(100);
+	}
+}
@@ -0,0 +1,124 @@
+package com.alessandragodoy.transactionms.cache;
+
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TransactionCache.
+ * Tests read-through loading, status based expiration and published metrics.
+ */
+class TransactionCacheTest {
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final AtomicInteger loads = new AtomicInteger();
+	private SimpleMeterRegistry meterRegistry;
+	private TransactionCache transactionCache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		transactionCache = new TransactionCache(meterRegistry, 100, Duration.ofSeconds(5),
+				Duration.ofHours(1), nanos::get);
+	}
+
+	@Test
+	@DisplayName("get - loads once and records hits and misses")
+	void get_WithRepeatedReads_LoadsOnce() {
+
+		Transaction transaction = createTransaction("tx1", TransactionStatus.COMPLETED);
+
+		StepVerifier.create(transactionCache.get("tx1", loaderOf(transaction)))
+				.expectNext(transaction)
+				.verifyComplete();
+		StepVerifier.create(transactionCache.get("tx1", loaderOf(transaction)))
+				.expectNext(transaction)
+				.verifyComplete();
+
+		assertThat(loads).hasValue(1);
+		assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter()
+				.count()).isEqualTo(1.0);
+		assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter()
+				.count()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("get - keeps final transactions longer than pending ones")
+	void get_WithDifferentStatuses_ExpiresPendingFirst() {
+
+		transactionCache.put(createTransaction("pending", TransactionStatus.PENDING));
+		transactionCache.put(createTransaction("completed", TransactionStatus.COMPLETED));
+
+		nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+
+		StepVerifier.create(transactionCache.get("pending", id -> Mono.empty()))
+				.verifyComplete();
+		StepVerifier.create(transactionCache.get("completed", id -> Mono.empty()))
+				.expectNextMatches(transaction -> transaction.getTransactionId().equals("completed"))
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("invalidate - forces the next read to load again")
+	void invalidate_WithCachedTransaction_ReloadsOnNextRead() {
+
+		Transaction transaction = createTransaction("tx1", TransactionStatus.COMPLETED);
+		transactionCache.put(transaction);
+
+		transactionCache.invalidate("tx1");
+
+		StepVerifier.create(transactionCache.get("tx1", loaderOf(transaction)))
+				.expectNext(transaction)
+				.verifyComplete();
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	@DisplayName("get - does not cache missing transactions")
+	void get_WithMissingTransaction_DoesNotCacheEmptyResult() {
+
+		StepVerifier.create(transactionCache.get("missing", id -> {
+					loads.incrementAndGet();
+					return Mono.empty();
+				}))
+				.verifyComplete();
+		StepVerifier.create(transactionCache.get("missing", id -> {
+					loads.incrementAndGet();
+					return Mono.empty();
+				}))
+				.verifyComplete();
+
+		assertThat(loads).hasValue(2);
+	}
+
+	private Function<String, Mono<Transaction>> loaderOf(Transaction transaction) {
+		return id -> Mono.fromCallable(() -> {
+			loads.incrementAndGet();
+			return transaction;
+		});
+	}
+
+	private Transaction createTransaction(String id, TransactionStatus status) {
+		return Transaction.builder()
+				.transactionId(id)
+				.transactionType(TransactionType.TRANSFER_OWN_ACCOUNT)
+				.accountId(1)
+				.relatedAccountId(2)
+				.amount(100.0)
+				.status(status)
+				.build();
+	}
+}
@@ -0,0 +1,111 @@
+package com.alessandragodoy.transactionms.cache;
+
+import com.alessandragodoy.transactionms.model.BucketInterval;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.model.TransactionVolume;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for VolumeBucketCache.
+ * Tests that only missing buckets are loaded and that loaded buckets are reused unless they
+ * hold pending transfers.
+ */
+class VolumeBucketCacheTest {
+
+	private final List<Set<VolumeBucketCache.Key>> loads = new ArrayList<>();
+	private final VolumeBucketCache volumeBucketCache =
+			new VolumeBucketCache(new SimpleMeterRegistry(), 100);
+
+	@Test
+	@DisplayName("getAll - loads only the buckets that are not cached, in a single call")
+	void getAll_WithPartiallyCachedBuckets_LoadsMissingOnes() {
+
+		VolumeBucketCache.Key first = key(1);
+		VolumeBucketCache.Key second = key(2);
+		VolumeBucketCache.Key third = key(3);
+
+		StepVerifier.create(volumeBucketCache.getAll(Set.of(first), loader()))
+				.expectNextMatches(rows -> rows.get(first).size() == 1)
+				.verifyComplete();
+		StepVerifier.create(volumeBucketCache.getAll(Set.of(first, second, third), loader()))
+				.expectNextMatches(rows -> rows.keySet().equals(Set.of(first, second, third)))
+				.verifyComplete();
+		StepVerifier.create(volumeBucketCache.getAll(Set.of(second, third), loader()))
+				.expectNextCount(1)
+				.verifyComplete();
+
+		assertThat(loads).containsExactly(Set.of(first), Set.of(second, third));
+	}
+
+	@Test
+	@DisplayName("getAll - keys differ by account grouping")
+	void getAll_WithDifferentGrouping_LoadsSeparately() {
+
+		VolumeBucketCache.Key total = key(1);
+		VolumeBucketCache.Key perAccount = new VolumeBucketCache.Key(BucketInterval.DAY,
+				total.start(), null, true);
+
+		volumeBucketCache.getAll(Set.of(total), loader()).block();
+		volumeBucketCache.getAll(Set.of(perAccount), loader()).block();
+
+		assertThat(loads).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("getAll - loads buckets with pending transfers again")
+	void getAll_WithPendingTransfers_DoesNotKeepBucket() {
+
+		VolumeBucketCache.Key settled = key(1);
+		VolumeBucketCache.Key pending = key(2);
+		Function<Set<VolumeBucketCache.Key>, Mono<Map<VolumeBucketCache.Key,
+				List<TransactionVolume>>>> loader = missing -> {
+			loads.add(missing);
+			return Mono.just(missing.stream().collect(Collectors.toMap(Function.identity(),
+					key -> List.of(volume(key, key.equals(pending)
+							? TransactionStatus.PENDING
+							: TransactionStatus.COMPLETED)))));
+		};
+
+		StepVerifier.create(volumeBucketCache.getAll(Set.of(settled, pending), loader))
+				.expectNextMatches(rows -> rows.get(pending).get(0).status()
+						== TransactionStatus.PENDING)
+				.verifyComplete();
+		volumeBucketCache.getAll(Set.of(settled, pending), loader).block();
+
+		assertThat(loads).containsExactly(Set.of(settled, pending), Set.of(pending));
+	}
+
+	private Function<Set<VolumeBucketCache.Key>, Mono<Map<VolumeBucketCache.Key,
+			List<TransactionVolume>>>> loader() {
+		return missing -> {
+			loads.add(missing);
+			return Mono.just(missing.stream().collect(Collectors.toMap(Function.identity(),
+					key -> List.of(volume(key, TransactionStatus.COMPLETED)))));
+		};
+	}
+
+	private TransactionVolume volume(VolumeBucketCache.Key key, TransactionStatus status) {
+		return new TransactionVolume(key.start(), null, TransactionType.TRANSFER_OWN_ACCOUNT,
+				status, 1, 10.0);
+	}
+
+	private VolumeBucketCache.Key key(int day) {
+		return new VolumeBucketCache.Key(BucketInterval.DAY, LocalDateTime.of(2026, 1, day, 0, 0),
+				null, false);
+	}
+}
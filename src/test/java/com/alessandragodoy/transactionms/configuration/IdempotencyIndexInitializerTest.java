@@ -0,0 +1,82 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import com.alessandragodoy.transactionms.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IdempotencyIndexInitializer.
+ * Tests that the unique idempotency key index is created and that a failure stops the startup.
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyIndexInitializerTest {
+
+	@Mock
+	private ReactiveMongoTemplate mongoTemplate;
+
+	@Mock
+	private MongoConverter converter;
+
+	@Mock
+	private ReactiveIndexOperations indexOperations;
+
+	private IdempotencyIndexInitializer initializer;
+
+	@BeforeEach
+	void setUp() {
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(
+				new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+		doReturn(mappingContext).when(converter).getMappingContext();
+		when(mongoTemplate.getConverter()).thenReturn(converter);
+		when(mongoTemplate.indexOps(Transaction.class)).thenReturn(indexOperations);
+		initializer = new IdempotencyIndexInitializer(mongoTemplate);
+	}
+
+	@Test
+	@DisplayName("createIndex - creates the unique idempotency key index")
+	void createIndex_WithDatabase_CreatesUniqueIndex() {
+
+		when(indexOperations.createIndex(any())).thenReturn(Mono.just("idempotency_key_idx"));
+
+		initializer.createIndex();
+
+		ArgumentCaptor<IndexDefinition> definition = ArgumentCaptor.forClass(IndexDefinition.class);
+		verify(indexOperations).createIndex(definition.capture());
+		assertThat(definition.getValue().getIndexOptions())
+				.containsEntry("name", "idempotency_key_idx")
+				.containsEntry("unique", true);
+		assertThat(definition.getValue().getIndexKeys()).containsKey("idempotency_key");
+	}
+
+	@Test
+	@DisplayName("createIndex - fails the startup when the index cannot be created")
+	void createIndex_WithDatabaseError_Fails() {
+
+		when(indexOperations.createIndex(any()))
+				.thenReturn(Mono.error(new IllegalArgumentException("duplicate key")));
+
+		assertThatThrownBy(() -> initializer.createIndex())
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("idempotency_key_idx");
+	}
+}
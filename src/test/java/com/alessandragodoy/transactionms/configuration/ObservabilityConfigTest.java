@@ -0,0 +1,80 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import com.alessandragodoy.transactionms.metrics.InMemorySpanExporter;
+import com.mongodb.MongoClientSettings;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.tracing.otlp.OtlpTracingConnectionDetails;
+import org.springframework.boot.actuate.autoconfigure.tracing.otlp.Transport;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for ObservabilityConfig.
+ * Tests that MongoDB commands are observed with the context of the calling pipeline and that
+ * spans are only exported to a configured endpoint or, when enabled, kept in memory.
+ */
+class ObservabilityConfigTest {
+
+	@Test
+	@DisplayName("mongoObservationCustomizer - adds the observation listener and context provider")
+	void mongoObservationCustomizer_WithRegistry_ObservesCommands() {
+
+		MongoClientSettings.Builder builder = MongoClientSettings.builder();
+
+		new ObservabilityConfig().mongoObservationCustomizer(ObservationRegistry.create())
+				.customize(builder);
+		MongoClientSettings settings = builder.build();
+
+		assertThat(settings.getCommandListeners())
+				.hasAtLeastOneElementOfType(MongoObservationCommandListener.class);
+		assertThat(settings.getContextProvider()).isNotNull();
+	}
+
+	@Test
+	@DisplayName("otlpTracingConnectionDetails - only points the exporter at a configured endpoint")
+	void otlpTracingConnectionDetails_WithEndpoint_UsesIt() {
+
+		ApplicationContextRunner runner = new ApplicationContextRunner()
+				.withBean(ObservationRegistry.class, ObservationRegistry::create)
+				.withUserConfiguration(ObservabilityConfig.class);
+
+		runner.run(context -> assertThat(context)
+				.doesNotHaveBean(OtlpTracingConnectionDetails.class)
+				.doesNotHaveBean(InMemorySpanExporter.class));
+		runner.withPropertyValues("OTLP_TRACING_ENDPOINT=http://collector:4318/v1/traces")
+				.run(context -> assertThat(context.getBean(OtlpTracingConnectionDetails.class)
+						.getUrl(Transport.HTTP)).isEqualTo("http://collector:4318/v1/traces"));
+	}
+
+	@Test
+	@DisplayName("inMemorySpanExporter - keeps the newest spans when enabled")
+	void inMemorySpanExporter_WhenEnabled_KeepsNewestSpans() {
+
+		new ApplicationContextRunner()
+				.withBean(ObservationRegistry.class, ObservationRegistry::create)
+				.withUserConfiguration(ObservabilityConfig.class)
+				.withPropertyValues("transaction.tracing.in-memory-exporter.enabled=true",
+						"transaction.tracing.in-memory-exporter.capacity=2")
+				.run(context -> {
+					InMemorySpanExporter exporter = context.getBean(InMemorySpanExporter.class);
+					SpanData first = mock(SpanData.class);
+					SpanData second = mock(SpanData.class);
+					SpanData third = mock(SpanData.class);
+
+					assertThat(exporter.export(List.of(first, second)).isSuccess()).isTrue();
+					exporter.export(List.of(third));
+
+					assertThat(exporter.spans()).containsExactly(second, third);
+					exporter.clear();
+					assertThat(exporter.spans()).isEmpty();
+				});
+	}
+}
@@ -0,0 +1,100 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import com.alessandragodoy.transactionms.model.Transaction;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransactionIndexInitializer.
+ * Tests that every managed index is created, that a failed index does not stop the others and
+ * that only indexes tracked for long enough are reported as unused.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionIndexInitializerTest {
+
+	private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+	@Mock
+	private ReactiveMongoTemplate mongoTemplate;
+
+	@Mock
+	private MongoConverter converter;
+
+	@Mock
+	private ReactiveIndexOperations indexOperations;
+
+	private TransactionIndexInitializer initializer;
+
+	@BeforeEach
+	void setUp() {
+		initializer = new TransactionIndexInitializer(mongoTemplate,
+				Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofDays(7));
+	}
+
+	@Test
+	@DisplayName("initializeIndexes - creates every managed index and reads their usage")
+	void initializeIndexes_WithManagedIndexes_CreatesEachIndex() {
+
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(
+				new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+		doReturn(mappingContext).when(converter).getMappingContext();
+		when(mongoTemplate.getConverter()).thenReturn(converter);
+		when(mongoTemplate.indexOps(Transaction.class)).thenReturn(indexOperations);
+		when(mongoTemplate.getCollectionName(Transaction.class)).thenReturn("transaction");
+		when(indexOperations.createIndex(any(IndexDefinition.class)))
+				.thenReturn(Mono.error(new IllegalStateException("Index build failed")))
+				.thenReturn(Mono.just("created"));
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq("transaction"), eq(Document.class)))
+				.thenReturn(Flux.just(stat("account_date_idx", 0, NOW.minus(Duration.ofDays(30)))));
+
+		initializer.initializeIndexes();
+
+		verify(indexOperations, times(7)).createIndex(any(IndexDefinition.class));
+		verify(mongoTemplate).aggregate(any(Aggregation.class), eq("transaction"),
+				eq(Document.class));
+	}
+
+	@Test
+	@DisplayName("unusedIndexes - reports only unused indexes tracked for the minimum age")
+	void unusedIndexes_WithRecentAndOldIndexes_ReportsOldUnusedOnes() {
+
+		List<Document> stats = List.of(
+				stat("old_unused_idx", 0, NOW.minus(Duration.ofDays(8))),
+				stat("new_unused_idx", 0, NOW.minus(Duration.ofDays(1))),
+				stat("old_used_idx", 42, NOW.minus(Duration.ofDays(8))));
+
+		assertThat(initializer.unusedIndexes(stats)).containsExactly("old_unused_idx");
+	}
+
+	private static Document stat(String name, long ops, Instant since) {
+		return new Document("name", name)
+				.append("accesses", new Document("ops", ops).append("since", Date.from(since)));
+	}
+}
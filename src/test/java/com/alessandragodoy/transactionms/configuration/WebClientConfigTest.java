@@ -0,0 +1,33 @@
+package com.alessandragodoy.transactionms.configuration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for WebClientConfig.
+ * Tests the connection pool built from the account service pool settings.
+ */
+class WebClientConfigTest {
+
+	@Test
+	@DisplayName("accountServiceConnectionProvider - builds a named pool with the configured limits")
+	void accountServiceConnectionProvider_WithProperties_AppliesLimits() {
+
+		AccountServicePoolProperties pool = new AccountServicePoolProperties(20, 40,
+				Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofMinutes(1),
+				Duration.ofSeconds(5), true);
+
+		ConnectionProvider provider = new WebClientConfig().accountServiceConnectionProvider(pool);
+		try {
+			assertThat(provider.name()).isEqualTo("account-service");
+			assertThat(provider.maxConnections()).isEqualTo(20);
+		} finally {
+			provider.dispose();
+		}
+	}
+}
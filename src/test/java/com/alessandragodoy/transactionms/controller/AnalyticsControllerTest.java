@@ -0,0 +1,119 @@
+package com.alessandragodoy.transactionms.controller;
+
+import com.alessandragodoy.transactionms.dto.TransactionVolumeDTO;
+import com.alessandragodoy.transactionms.exception.InvalidParameterException;
+import com.alessandragodoy.transactionms.model.BucketInterval;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.model.TransactionVolume;
+import com.alessandragodoy.transactionms.model.VolumeQuery;
+import com.alessandragodoy.transactionms.service.TransactionAnalyticsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AnalyticsController.
+ * Tests the transaction volume report endpoint.
+ */
+@WebFluxTest(AnalyticsController.class)
+@Import(SimpleMeterRegistry.class)
+class AnalyticsControllerTest {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@MockitoBean
+	private TransactionAnalyticsService transactionAnalyticsService;
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/analytics/volume - returns daily volume by default")
+	void getTransactionVolume_WithoutParameters_ReturnsDailyVolume() {
+
+		LocalDateTime bucket = LocalDateTime.of(2026, 1, 30, 0, 0);
+		when(transactionAnalyticsService.getTransactionVolume(
+				new VolumeQuery(BucketInterval.DAY, null, null, null, false)))
+				.thenReturn(Flux.just(new TransactionVolume(bucket, null,
+						TransactionType.TRANSFER_OWN_ACCOUNT, TransactionStatus.COMPLETED, 42,
+						12500.0)));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/analytics/volume")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(TransactionVolumeDTO.class)
+				.hasSize(1)
+				.contains(new TransactionVolumeDTO(bucket, null,
+						TransactionType.TRANSFER_OWN_ACCOUNT, TransactionStatus.COMPLETED, 42L,
+						12500.0));
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/analytics/volume - passes interval, window and account")
+	void getTransactionVolume_WithParameters_PassesQuery() {
+
+		OffsetDateTime from = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+		OffsetDateTime to = OffsetDateTime.parse("2026-01-02T00:00:00Z");
+		when(transactionAnalyticsService.getTransactionVolume(any())).thenReturn(Flux.empty());
+
+		webTestClient.get()
+				.uri(uriBuilder -> uriBuilder.path("/api/v1/transactions/analytics/volume")
+						.queryParam("interval", "HOUR")
+						.queryParam("from", from.toString())
+						.queryParam("to", to.toString())
+						.queryParam("accountId", 7)
+						.queryParam("groupByAccount", true)
+						.build())
+				.exchange()
+				.expectStatus().isOk();
+
+		verify(transactionAnalyticsService).getTransactionVolume(argThat(query -> {
+			assertThat(query).isEqualTo(new VolumeQuery(BucketInterval.HOUR,
+					from.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(),
+					to.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(), 7, true));
+			return true;
+		}));
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/analytics/volume - returns 400 for invalid windows")
+	void getTransactionVolume_WithInvalidWindow_ReturnsBadRequest() {
+
+		when(transactionAnalyticsService.getTransactionVolume(any()))
+				.thenReturn(Flux.error(new InvalidParameterException("'from' must be before 'to'")));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/analytics/volume?from=2026-01-02T00:00:00Z" +
+						"&to=2026-01-01T00:00:00Z")
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("'from' must be before 'to'");
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/analytics/volume - returns 400 for unknown intervals")
+	void getTransactionVolume_WithUnknownInterval_ReturnsBadRequest() {
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/analytics/volume?interval=WEEK")
+				.exchange()
+				.expectStatus().isBadRequest();
+
+		verifyNoInteractions(transactionAnalyticsService);
+	}
+}
@@ -1,27 +1,48 @@
 package com.alessandragodoy.transactionms.controller;
 
+import com.alessandragodoy.transactionms.dto.AccountSummaryDTO;
+import com.alessandragodoy.transactionms.dto.BatchTransferResultDTO;
 import com.alessandragodoy.transactionms.dto.TransactionDTO;
 import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.exception.IdempotencyKeyConflictException;
+import com.alessandragodoy.transactionms.exception.InvalidParameterException;
 import com.alessandragodoy.transactionms.exception.TransactionNotFoundException;
+import com.alessandragodoy.transactionms.model.AccountSummary;
+import com.alessandragodoy.transactionms.model.BatchTransferResult;
 import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionFilter;
+import com.alessandragodoy.transactionms.model.TransactionPage;
 import com.alessandragodoy.transactionms.model.TransactionStatus;
 import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.service.AccountSummaryService;
 import com.alessandragodoy.transactionms.service.TransactionService;
+import com.alessandragodoy.transactionms.service.TransferBatchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -30,14 +51,29 @@ import static org.mockito.Mockito.*;
  * Tests reactive REST endpoints for transaction management operations.
  */
 @WebFluxTest(TransactionController.class)
+@Import(SimpleMeterRegistry.class)
 class TransactionControllerTest {
 
 	@Autowired
 	private WebTestClient webTestClient;
 
+	@Autowired
+	private SimpleMeterRegistry meterRegistry;
+
 	@MockitoBean
 	private TransactionService transactionService;
 
+	@MockitoBean
+	private AccountSummaryService accountSummaryService;
+
+	@MockitoBean
+	private TransferBatchService transferBatchService;
+
+	@BeforeEach
+	void setUp() {
+		when(transactionService.getAccountVersion(any())).thenReturn(Mono.empty());
+	}
+
 	@Test
 	@DisplayName("GET /api/v1/transactions - returns list of all transactions")
 	void getAllTransactions_WithTransactions_ReturnsTransactionList() {
@@ -52,7 +88,7 @@ class TransactionControllerTest {
 				"tx3", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 3, 50.0,
 				TransactionStatus.COMPLETED);
 
-		when(transactionService.getAllTransactions())
+		when(transactionService.getAllTransactions(TransactionFilter.NONE))
 				.thenReturn(Flux.just(transaction1, transaction2, transaction3));
 
 		webTestClient.get()
@@ -71,14 +107,15 @@ class TransactionControllerTest {
 					assert transactions.get(2).getAmount().equals(50.0);
 				});
 
-		verify(transactionService).getAllTransactions();
+		verify(transactionService).getAllTransactions(TransactionFilter.NONE);
 	}
 
 	@Test
 	@DisplayName("GET /api/v1/transactions - returns empty list when no transactions")
 	void getAllTransactions_WithNoTransactions_ReturnsEmptyList() {
 
-		when(transactionService.getAllTransactions()).thenReturn(Flux.empty());
+		when(transactionService.getAllTransactions(TransactionFilter.NONE))
+				.thenReturn(Flux.empty());
 
 		webTestClient.get()
 				.uri("/api/v1/transactions")
@@ -89,7 +126,262 @@ class TransactionControllerTest {
 				.expectBodyList(TransactionDTO.class)
 				.hasSize(0);
 
-		verify(transactionService).getAllTransactions();
+		verify(transactionService).getAllTransactions(TransactionFilter.NONE);
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions - streams transactions as NDJSON")
+	void getAllTransactions_WithNdjsonAccept_StreamsTransactions() {
+
+		Transaction transaction1 = createTransaction(
+				"tx1", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 100.0,
+				TransactionStatus.COMPLETED);
+		Transaction transaction2 = createTransaction(
+				"tx2", TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, 2, 3, 200.0,
+				TransactionStatus.FAILED);
+
+		when(transactionService.getAllTransactions(TransactionFilter.NONE))
+				.thenReturn(Flux.just(transaction1, transaction2));
+
+		Flux<TransactionDTO> body = webTestClient.get()
+				.uri("/api/v1/transactions")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(TransactionDTO.class)
+				.getResponseBody();
+
+		StepVerifier.create(body)
+				.assertNext(dto -> assertThat(dto.getTransactionId()).isEqualTo("tx1"))
+				.assertNext(dto -> assertThat(dto.getTransactionStatus())
+						.isEqualTo(TransactionStatus.FAILED))
+				.verifyComplete();
+
+		verify(transactionService).getAllTransactions(TransactionFilter.NONE);
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/account/{accountId} - streams transactions as SSE")
+	void getTransactionsByAccountId_WithEventStreamAccept_StreamsTransactions() {
+
+		Integer accountId = 1;
+		Transaction transaction = createTransaction(
+				"tx1", TransactionType.TRANSFER_OWN_ACCOUNT, accountId, 2, 100.0,
+				TransactionStatus.COMPLETED);
+
+		when(transactionService.getTransactionsByAccountId(accountId, TransactionFilter.NONE))
+				.thenReturn(Flux.just(transaction));
+
+		Flux<TransactionDTO> body = webTestClient.get()
+				.uri("/api/v1/transactions/account/{accountId}", accountId)
+				.accept(MediaType.TEXT_EVENT_STREAM)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+				.returnResult(TransactionDTO.class)
+				.getResponseBody();
+
+		StepVerifier.create(body)
+				.assertNext(dto -> assertThat(dto.getAccountId()).isEqualTo(accountId))
+				.verifyComplete();
+
+		verify(transactionService).getTransactionsByAccountId(accountId, TransactionFilter.NONE);
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/account/{accountId} - returns 404 before streaming " +
+			"when no transactions")
+	void getTransactionsByAccountId_WithNdjsonAcceptAndNoTransactions_ReturnsNotFound() {
+
+		Integer accountId = 999;
+		when(transactionService.getTransactionsByAccountId(accountId, TransactionFilter.NONE))
+				.thenReturn(Flux.error(new TransactionNotFoundException(
+						"No transactions found for account id: " + accountId)));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/account/{accountId}", accountId)
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isNotFound();
+
+		verify(transactionService).getTransactionsByAccountId(accountId, TransactionFilter.NONE);
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions?size - returns a page with next link")
+	void getAllTransactions_WithPageSize_ReturnsPageWithNextLink() {
+
+		Transaction transaction1 = createTransaction(
+				"tx1", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 100.0,
+				TransactionStatus.COMPLETED);
+		Transaction transaction2 = createTransaction(
+				"tx2", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 3, 200.0,
+				TransactionStatus.COMPLETED);
+
+		when(transactionService.getTransactionsPage(null, 2, TransactionFilter.NONE))
+				.thenReturn(Mono.just(new TransactionPage(
+						List.of(transaction1, transaction2), "nextToken")));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions?size=2")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals("X-Next-Cursor", "nextToken")
+				.expectHeader().value(HttpHeaders.LINK, link -> assertThat(link)
+						.contains("/api/v1/transactions?size=2&cursor=nextToken")
+						.endsWith("; rel=\"next\""))
+				.expectBodyList(TransactionDTO.class)
+				.hasSize(2);
+
+		verify(transactionService).getTransactionsPage(null, 2, TransactionFilter.NONE);
+		verify(transactionService, never()).getAllTransactions(any());
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/account/{accountId}?cursor - returns last page " +
+			"without next link")
+	void getTransactionsByAccountId_WithCursorOnLastPage_ReturnsPageWithoutNextLink() {
+
+		Integer accountId = 1;
+		Transaction transaction = createTransaction(
+				"tx3", TransactionType.TRANSFER_OWN_ACCOUNT, accountId, 2, 100.0,
+				TransactionStatus.COMPLETED);
+
+		when(transactionService.getTransactionsPageByAccountId(accountId, "token", null,
+				TransactionFilter.NONE))
+				.thenReturn(Mono.just(new TransactionPage(List.of(transaction), null)));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/account/{accountId}?cursor=token", accountId)
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().doesNotExist(HttpHeaders.LINK)
+				.expectHeader().doesNotExist("X-Next-Cursor")
+				.expectBodyList(TransactionDTO.class)
+				.hasSize(1);
+
+		verify(transactionService).getTransactionsPageByAccountId(accountId, "token", null,
+				TransactionFilter.NONE);
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions?cursor - returns 400 for an invalid cursor")
+	void getAllTransactions_WithInvalidCursor_ReturnsBadRequest() {
+
+		when(transactionService.getTransactionsPage("bad", null, TransactionFilter.NONE))
+				.thenReturn(Mono.error(new InvalidParameterException("Invalid page cursor: bad")));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions?cursor=bad")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions?status&from&minAmount - passes the filters to the " +
+			"service")
+	void getAllTransactions_WithFilters_QueriesFilteredTransactions() {
+
+		Transaction transaction = createTransaction(
+				"tx1", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 100.0,
+				TransactionStatus.COMPLETED);
+		OffsetDateTime from = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+		TransactionFilter filter = new TransactionFilter(
+				from.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(), null,
+				TransactionStatus.COMPLETED, null, 50.0, null);
+
+		when(transactionService.getAllTransactions(filter)).thenReturn(Flux.just(transaction));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions?status=COMPLETED&from=2026-01-01T00:00:00Z"
+						+ "&minAmount=50")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(TransactionDTO.class)
+				.hasSize(1);
+
+		verify(transactionService).getAllTransactions(filter);
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/account/{accountId}?type&size - pages filtered " +
+			"transactions")
+	void getTransactionsByAccountId_WithFiltersAndSize_QueriesFilteredPage() {
+
+		Integer accountId = 1;
+		TransactionFilter filter = new TransactionFilter(null, null, null,
+				TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, null, 1000.0);
+
+		when(transactionService.getTransactionsPageByAccountId(accountId, null, 5, filter))
+				.thenReturn(Mono.just(new TransactionPage(List.of(), null)));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/account/{accountId}?size=5"
+						+ "&type=TRANSFER_THIRD_PARTY_ACCOUNT&maxAmount=1000", accountId)
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(TransactionDTO.class)
+				.hasSize(0);
+
+		verify(transactionService).getTransactionsPageByAccountId(accountId, null, 5, filter);
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions - returns 400 for inverted ranges and unknown statuses")
+	void getAllTransactions_WithInvalidFilters_ReturnsBadRequest() {
+
+		webTestClient.get()
+				.uri("/api/v1/transactions?minAmount=100&maxAmount=10")
+				.exchange()
+				.expectStatus().isBadRequest();
+		webTestClient.get()
+				.uri("/api/v1/transactions?from=2026-01-08T00:00:00Z&to=2026-01-01T00:00:00Z")
+				.exchange()
+				.expectStatus().isBadRequest();
+		webTestClient.get()
+				.uri("/api/v1/transactions?status=UNKNOWN")
+				.exchange()
+				.expectStatus().isBadRequest();
+
+		verify(transactionService, never()).getAllTransactions(any());
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/account/{accountId}/history - returns sent and " +
+			"received transactions")
+	void getAccountHistory_WithTransactions_ReturnsBothDirections() {
+
+		Integer accountId = 1;
+		Transaction received = createTransaction(
+				"tx2", TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, 5, accountId, 300.0,
+				TransactionStatus.COMPLETED);
+		Transaction sent = createTransaction(
+				"tx1", TransactionType.TRANSFER_OWN_ACCOUNT, accountId, 2, 100.0,
+				TransactionStatus.COMPLETED);
+
+		when(transactionService.getAccountHistory(accountId, 10))
+				.thenReturn(Flux.just(received, sent));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/account/{accountId}/history?limit=10", accountId)
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(TransactionDTO.class)
+				.hasSize(2)
+				.consumeWith(response -> {
+					var transactions = response.getResponseBody();
+					assertThat(transactions.get(0).getRelatedAccountId()).isEqualTo(accountId);
+					assertThat(transactions.get(1).getAccountId()).isEqualTo(accountId);
+				});
+
+		verify(transactionService).getAccountHistory(accountId, 10);
 	}
 
 	@Test
@@ -142,6 +434,9 @@ class TransactionControllerTest {
 				.expectStatus().isNotFound();
 
 		verify(transactionService).getTransactionById(nonExistentId);
+		assertThat(meterRegistry.get("transactions.errors")
+				.tags("exception", "TransactionNotFoundException", "status", "404")
+				.counter().count()).isPositive();
 	}
 
 	@Test
@@ -156,7 +451,7 @@ class TransactionControllerTest {
 				"tx2", TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, accountId, 3, 200.0,
 				TransactionStatus.FAILED);
 
-		when(transactionService.getTransactionsByAccountId(accountId))
+		when(transactionService.getTransactionsByAccountId(accountId, TransactionFilter.NONE))
 				.thenReturn(Flux.just(transaction1, transaction2));
 
 		webTestClient.get()
@@ -174,7 +469,136 @@ class TransactionControllerTest {
 					assert transactions.get(1).getAmount().equals(200.0);
 				});
 
-		verify(transactionService).getTransactionsByAccountId(accountId);
+		verify(transactionService).getTransactionsByAccountId(accountId, TransactionFilter.NONE);
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/account/{accountId} - returns the account version as ETag")
+	void getTransactionsByAccountId_WithVersion_ReturnsETag() {
+
+		Integer accountId = 1;
+		Transaction transaction = createTransaction(
+				"tx1", TransactionType.TRANSFER_OWN_ACCOUNT, accountId, 2, 100.0,
+				TransactionStatus.COMPLETED);
+
+		when(transactionService.getAccountVersion(accountId)).thenReturn(Mono.just("tx1-1a"));
+		when(transactionService.getTransactionsByAccountId(accountId, TransactionFilter.NONE))
+				.thenReturn(Flux.just(transaction));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/account/{accountId}", accountId)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"tx1-00\"")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"tx1-1a\"")
+				.expectBodyList(TransactionDTO.class)
+				.hasSize(1);
+
+		verify(transactionService).getTransactionsByAccountId(accountId, TransactionFilter.NONE);
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/account/{accountId} - returns not modified without " +
+			"querying transactions")
+	void getTransactionsByAccountId_WithMatchingETag_ReturnsNotModified() {
+
+		Integer accountId = 1;
+		when(transactionService.getAccountVersion(accountId)).thenReturn(Mono.just("tx1-1a"));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/account/{accountId}?size=10", accountId)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"tx1-1a\"")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isNotModified()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"tx1-1a\"")
+				.expectBody().isEmpty();
+
+		verify(transactionService, never()).getTransactionsByAccountId(any(), any());
+		verify(transactionService, never()).getTransactionsPageByAccountId(
+				any(), any(), any(), any());
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/account/{accountId} - adds ETag to paged responses")
+	void getTransactionsByAccountId_WithVersionAndSize_ReturnsPageWithETag() {
+
+		Integer accountId = 1;
+		Transaction transaction = createTransaction(
+				"tx1", TransactionType.TRANSFER_OWN_ACCOUNT, accountId, 2, 100.0,
+				TransactionStatus.COMPLETED);
+
+		when(transactionService.getAccountVersion(accountId)).thenReturn(Mono.just("tx1-1a"));
+		when(transactionService.getTransactionsPageByAccountId(accountId, null, 10,
+				TransactionFilter.NONE))
+				.thenReturn(Mono.just(new TransactionPage(List.of(transaction), null)));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/account/{accountId}?size=10", accountId)
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"tx1-1a\"")
+				.expectBodyList(TransactionDTO.class)
+				.hasSize(1);
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/account/{accountId}/summary - returns account totals")
+	void getAccountSummary_WithSummary_ReturnsSummary() {
+
+		AccountSummary summary = AccountSummary.builder()
+				.accountId(1)
+				.sentCount(2)
+				.sentAmount(150.0)
+				.countByStatus(Map.of("COMPLETED", 2L))
+				.build();
+		when(accountSummaryService.getAccountSummary(1)).thenReturn(Mono.just(summary));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/account/{accountId}/summary", 1)
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(AccountSummaryDTO.class)
+				.value(dto -> {
+					assertThat(dto.getSentCount()).isEqualTo(2L);
+					assertThat(dto.getSentAmount()).isEqualTo(150.0);
+					assertThat(dto.getCountByStatus()).containsEntry("COMPLETED", 2L);
+				});
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/account/{accountId}/summary - returns not found when " +
+			"account has no transactions")
+	void getAccountSummary_WithNoSummary_ReturnsNotFound() {
+
+		when(accountSummaryService.getAccountSummary(999)).thenReturn(Mono.error(
+				new TransactionNotFoundException("No transactions found for account id: 999")));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/account/{accountId}/summary", 999)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	@DisplayName("POST /api/v1/transactions/account/{accountId}/summary/rebuild - returns the " +
+			"rebuilt summary")
+	void rebuildAccountSummary_WithTransactions_ReturnsSummary() {
+
+		AccountSummary summary = AccountSummary.builder().accountId(1).receivedCount(3).build();
+		when(accountSummaryService.rebuildAccountSummary(1)).thenReturn(Mono.just(summary));
+
+		webTestClient.post()
+				.uri("/api/v1/transactions/account/{accountId}/summary/rebuild", 1)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(AccountSummaryDTO.class)
+				.value(dto -> assertThat(dto.getReceivedCount()).isEqualTo(3L));
+
+		verify(accountSummaryService).rebuildAccountSummary(1);
 	}
 
 	@Test
@@ -183,7 +607,7 @@ class TransactionControllerTest {
 	void getTransactionsByAccountId_WithNoTransactions_ReturnsNotFound() {
 
 		Integer accountId = 999;
-		when(transactionService.getTransactionsByAccountId(accountId))
+		when(transactionService.getTransactionsByAccountId(accountId, TransactionFilter.NONE))
 				.thenReturn(Flux.error(new TransactionNotFoundException(
 						"No transactions found for account id: " + accountId)));
 
@@ -193,7 +617,7 @@ class TransactionControllerTest {
 				.exchange()
 				.expectStatus().isNotFound();
 
-		verify(transactionService).getTransactionsByAccountId(accountId);
+		verify(transactionService).getTransactionsByAccountId(accountId, TransactionFilter.NONE);
 	}
 
 	@Test
@@ -206,7 +630,7 @@ class TransactionControllerTest {
 				"tx1", TransactionType.TRANSFER_OWN_ACCOUNT, accountId, 6, 500.0,
 				TransactionStatus.COMPLETED);
 
-		when(transactionService.getTransactionsByAccountId(accountId))
+		when(transactionService.getTransactionsByAccountId(accountId, TransactionFilter.NONE))
 				.thenReturn(Flux.just(transaction));
 
 		webTestClient.get()
@@ -217,7 +641,7 @@ class TransactionControllerTest {
 				.expectBodyList(TransactionDTO.class)
 				.hasSize(1);
 
-		verify(transactionService).getTransactionsByAccountId(accountId);
+		verify(transactionService).getTransactionsByAccountId(accountId, TransactionFilter.NONE);
 	}
 
 	@Test
@@ -232,7 +656,7 @@ class TransactionControllerTest {
 				"tx123", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 300.0,
 				TransactionStatus.COMPLETED);
 
-		when(transactionService.registerTransfer(any(TransferRequestDTO.class)))
+		when(transactionService.registerTransfer(any(TransferRequestDTO.class), isNull()))
 				.thenReturn(Mono.just(createdTransaction));
 
 		webTestClient.post()
@@ -253,7 +677,7 @@ class TransactionControllerTest {
 					assert dto.getTransactionStatus().equals(TransactionStatus.COMPLETED);
 				});
 
-		verify(transactionService).registerTransfer(any(TransferRequestDTO.class));
+		verify(transactionService).registerTransfer(any(TransferRequestDTO.class), isNull());
 	}
 
 	@Test
@@ -268,7 +692,7 @@ class TransactionControllerTest {
 				"tx456", TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, 1, 3, 500.0,
 				TransactionStatus.COMPLETED);
 
-		when(transactionService.registerTransfer(any(TransferRequestDTO.class)))
+		when(transactionService.registerTransfer(any(TransferRequestDTO.class), isNull()))
 				.thenReturn(Mono.just(createdTransaction));
 
 		webTestClient.post()
@@ -285,7 +709,7 @@ class TransactionControllerTest {
 					assert dto.getAmount().equals(500.0);
 				});
 
-		verify(transactionService).registerTransfer(any(TransferRequestDTO.class));
+		verify(transactionService).registerTransfer(any(TransferRequestDTO.class), isNull());
 	}
 
 	@ParameterizedTest
@@ -347,7 +771,8 @@ class TransactionControllerTest {
 						TransactionStatus.COMPLETED
 				));
 
-		when(transactionService.getAllTransactions()).thenReturn(manyTransactions);
+		when(transactionService.getAllTransactions(TransactionFilter.NONE))
+				.thenReturn(manyTransactions);
 
 		webTestClient.get()
 				.uri("/api/v1/transactions")
@@ -357,7 +782,7 @@ class TransactionControllerTest {
 				.expectBodyList(TransactionDTO.class)
 				.hasSize(100);
 
-		verify(transactionService).getAllTransactions();
+		verify(transactionService).getAllTransactions(TransactionFilter.NONE);
 	}
 
 	@Test
@@ -371,7 +796,7 @@ class TransactionControllerTest {
 				"tx789", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 0.01,
 				TransactionStatus.COMPLETED);
 
-		when(transactionService.registerTransfer(any(TransferRequestDTO.class)))
+		when(transactionService.registerTransfer(any(TransferRequestDTO.class), isNull()))
 				.thenReturn(Mono.just(createdTransaction));
 
 		webTestClient.post()
@@ -386,7 +811,7 @@ class TransactionControllerTest {
 					assert dto.getAmount().equals(0.01);
 				});
 
-		verify(transactionService).registerTransfer(any(TransferRequestDTO.class));
+		verify(transactionService).registerTransfer(any(TransferRequestDTO.class), isNull());
 	}
 
 	@Test
@@ -400,7 +825,7 @@ class TransactionControllerTest {
 				"tx999", TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, 1, 2, 999999.99,
 				TransactionStatus.COMPLETED);
 
-		when(transactionService.registerTransfer(any(TransferRequestDTO.class)))
+		when(transactionService.registerTransfer(any(TransferRequestDTO.class), isNull()))
 				.thenReturn(Mono.just(createdTransaction));
 
 		webTestClient.post()
@@ -415,7 +840,60 @@ class TransactionControllerTest {
 					assert dto.getAmount().equals(999999.99);
 				});
 
-		verify(transactionService).registerTransfer(any(TransferRequestDTO.class));
+		verify(transactionService).registerTransfer(any(TransferRequestDTO.class), isNull());
+	}
+
+	@Test
+	@DisplayName("POST /api/v1/transactions/transfer - passes the Idempotency-Key header")
+	void registerTransfer_WithIdempotencyKey_PassesKeyToService() {
+
+		TransferRequestDTO requestDTO = createTransferRequest(
+				"TRANSFER_OWN_ACCOUNT", 1, 2, 300.0);
+
+		Transaction createdTransaction = createTransaction(
+				"tx123", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 300.0,
+				TransactionStatus.COMPLETED);
+
+		when(transactionService.registerTransfer(any(TransferRequestDTO.class), eq("key-1")))
+				.thenReturn(Mono.just(createdTransaction));
+
+		webTestClient.post()
+				.uri("/api/v1/transactions/transfer")
+				.header("Idempotency-Key", "key-1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(requestDTO)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(TransactionDTO.class)
+				.consumeWith(response ->
+						assertThat(response.getResponseBody().getTransactionId())
+								.isEqualTo("tx123"));
+
+		verify(transactionService).registerTransfer(any(TransferRequestDTO.class), eq("key-1"));
+	}
+
+	@Test
+	@DisplayName("POST /api/v1/transactions/transfer - returns 409 when the key was used for " +
+			"another transfer")
+	void registerTransfer_WithReusedIdempotencyKey_ReturnsConflict() {
+
+		TransferRequestDTO requestDTO = createTransferRequest(
+				"TRANSFER_OWN_ACCOUNT", 1, 2, 300.0);
+
+		when(transactionService.registerTransfer(any(TransferRequestDTO.class), eq("key-1")))
+				.thenReturn(Mono.error(new IdempotencyKeyConflictException(
+						"Idempotency-Key key-1 was already used for another transfer")));
+
+		webTestClient.post()
+				.uri("/api/v1/transactions/transfer")
+				.header("Idempotency-Key", "key-1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(requestDTO)
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.CONFLICT)
+				.expectBody()
+				.jsonPath("$.message")
+				.isEqualTo("Idempotency-Key key-1 was already used for another transfer");
 	}
 
 	@Test
@@ -431,7 +909,7 @@ class TransactionControllerTest {
 				"tx2", TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, accountId, 12, 200.0,
 				TransactionStatus.COMPLETED);
 
-		when(transactionService.getTransactionsByAccountId(accountId))
+		when(transactionService.getTransactionsByAccountId(accountId, TransactionFilter.NONE))
 				.thenReturn(Flux.just(ownAccountTransfer, thirdPartyTransfer));
 
 		webTestClient.get()
@@ -451,7 +929,7 @@ class TransactionControllerTest {
 									.equals(TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT));
 				});
 
-		verify(transactionService).getTransactionsByAccountId(accountId);
+		verify(transactionService).getTransactionsByAccountId(accountId, TransactionFilter.NONE);
 	}
 
 	@Test
@@ -481,6 +959,115 @@ class TransactionControllerTest {
 	}
 
 
+	@Test
+	@DisplayName("POST /api/v1/transactions/transfer/batch - streams one result per transfer")
+	void registerTransfers_WithNdjson_StreamsResults() {
+
+		Transaction created = createTransaction("tx123", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2,
+				300.0, TransactionStatus.COMPLETED);
+		when(transferBatchService.registerTransfers(any())).thenAnswer(invocation -> {
+			Flux<TransferRequestDTO> requests = invocation.getArgument(0);
+			return requests.index().map(request -> request.getT2().getAmount() > 0
+					? new BatchTransferResult(request.getT1(), created, null, null)
+					: BatchTransferResult.rejected(request.getT1(), "INVALID_REQUEST",
+					"amount: must be greater than 0"));
+		});
+
+		webTestClient.post()
+				.uri("/api/v1/transactions/transfer/batch")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.accept(MediaType.APPLICATION_NDJSON)
+				.body(Flux.just(createTransferRequest("TRANSFER_OWN_ACCOUNT", 1, 2, 300.0),
+						createTransferRequest("TRANSFER_OWN_ACCOUNT", 1, 2, -5.0)),
+						TransferRequestDTO.class)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.expectBodyList(BatchTransferResultDTO.class)
+				.contains(
+						new BatchTransferResultDTO(0L, "tx123", TransactionStatus.COMPLETED, null,
+								null),
+						new BatchTransferResultDTO(1L, null, null, "INVALID_REQUEST",
+								"amount: must be greater than 0"));
+	}
+
+	@Test
+	@DisplayName("POST /api/v1/transactions/transfer/batch - accepts a JSON array")
+	void registerTransfers_WithJsonArray_ReturnsResults() {
+
+		when(transferBatchService.registerTransfers(any())).thenAnswer(invocation -> {
+			Flux<TransferRequestDTO> requests = invocation.getArgument(0);
+			return requests.index().map(request -> BatchTransferResult.rejected(request.getT1(),
+					"SERVICE_UNAVAILABLE", "Connection refused"));
+		});
+
+		webTestClient.post()
+				.uri("/api/v1/transactions/transfer/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(List.of(createTransferRequest("TRANSFER_OWN_ACCOUNT", 1, 2, 10.0),
+						createTransferRequest("TRANSFER_OWN_ACCOUNT", 3, 4, 20.0),
+						createTransferRequest("TRANSFER_OWN_ACCOUNT", 5, 6, 30.0)))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(3)
+				.jsonPath("$[2].index").isEqualTo(2)
+				.jsonPath("$[2].errorCode").isEqualTo("SERVICE_UNAVAILABLE")
+				.jsonPath("$[2].transactionId").doesNotExist();
+	}
+
+	@Test
+	@DisplayName("POST /api/v1/transactions/transfer/async - accepts the transfer and points to " +
+			"its result")
+	void submitTransfer_WithValidRequest_ReturnsAccepted() {
+
+		String mongoId = "6971004f05c9a61e36766dfc";
+		Transaction pending = createTransaction(mongoId, TransactionType.TRANSFER_OWN_ACCOUNT, 1,
+				2, 300.0, TransactionStatus.PENDING);
+		when(transactionService.submitTransfer(any(TransferRequestDTO.class), eq("key-1")))
+				.thenReturn(Mono.just(pending));
+
+		webTestClient.post()
+				.uri("/api/v1/transactions/transfer/async")
+				.contentType(MediaType.APPLICATION_JSON)
+				.header("Idempotency-Key", "key-1")
+				.bodyValue(createTransferRequest("TRANSFER_OWN_ACCOUNT", 1, 2, 300.0))
+				.exchange()
+				.expectStatus().isAccepted()
+				.expectHeader().value(HttpHeaders.LOCATION, location -> assertThat(location)
+						.endsWith("/api/v1/transactions/" + mongoId + "/result"))
+				.expectBody()
+				.jsonPath("$.transactionId").isEqualTo(mongoId)
+				.jsonPath("$.transactionStatus").isEqualTo("PENDING");
+	}
+
+	@Test
+	@DisplayName("GET /api/v1/transactions/{id}/result - returns 200 once settled and 202 while " +
+			"pending")
+	void awaitTransaction_WithSettledAndPendingTransactions_ReturnsMatchingStatus() {
+
+		when(transactionService.awaitTransaction("tx1", 10)).thenReturn(Mono.just(
+				createTransaction("tx1", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 100.0,
+						TransactionStatus.COMPLETED)));
+		when(transactionService.awaitTransaction("tx2", null)).thenReturn(Mono.just(
+				createTransaction("tx2", TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 100.0,
+						TransactionStatus.PENDING)));
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/tx1/result?wait=10")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.transactionStatus").isEqualTo("COMPLETED");
+
+		webTestClient.get()
+				.uri("/api/v1/transactions/tx2/result")
+				.exchange()
+				.expectStatus().isAccepted()
+				.expectBody()
+				.jsonPath("$.transactionStatus").isEqualTo("PENDING");
+	}
+
 	private Transaction createTransaction(String id, TransactionType type, Integer accountId,
 										  Integer relatedAccountId, Double amount,
 										  TransactionStatus status) {
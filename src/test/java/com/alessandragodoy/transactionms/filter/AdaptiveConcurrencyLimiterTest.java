@@ -0,0 +1,101 @@
+package com.alessandragodoy.transactionms.filter;
+
+import com.alessandragodoy.transactionms.configuration.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter.
+ * Tests the shares of the limit and how the limit follows the measured latency.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private SimpleMeterRegistry meterRegistry;
+	private AdaptiveConcurrencyLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		limiter = new AdaptiveConcurrencyLimiter(new ConcurrencyLimitProperties(true, 10, 2, 50,
+				1.5, 0.2, 100, 0.9, 0.5, 0.3), meterRegistry);
+	}
+
+	@Test
+	@DisplayName("tryAcquire - refuses requests beyond their share of the limit")
+	void tryAcquire_WithShares_RefusesLowerShareFirst() {
+
+		IntStream.range(0, 5).forEach(i -> assertThat(limiter.tryAcquire(0.5)).isTrue());
+
+		assertThat(limiter.tryAcquire(0.5)).isFalse();
+		IntStream.range(0, 5).forEach(i -> assertThat(limiter.tryAcquire(1.0)).isTrue());
+		assertThat(limiter.tryAcquire(1.0)).isFalse();
+		assertThat(meterRegistry.get("transactions.requests.concurrency.in.flight").gauge()
+				.value()).isEqualTo(10.0);
+	}
+
+	@Test
+	@DisplayName("release - grows the limit while busy and latency is stable")
+	void release_WithStableLatency_GrowsLimit() {
+
+		for (int i = 0; i < 20; i++) {
+			fill();
+			releaseAll(FAST);
+		}
+
+		assertThat(limiter.getLimit()).isGreaterThan(10);
+		assertThat(limiter.getLimit()).isLessThanOrEqualTo(50);
+	}
+
+	@Test
+	@DisplayName("release - lowers the limit once latency rises")
+	void release_WithRisingLatency_ShrinksLimit() {
+
+		for (int i = 0; i < 20; i++) {
+			fill();
+			releaseAll(FAST);
+		}
+		int grown = limiter.getLimit();
+
+		for (int i = 0; i < 5; i++) {
+			fill();
+			releaseAll(SLOW);
+		}
+
+		assertThat(limiter.getLimit()).isLessThan(grown);
+		assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("release - does not grow the limit while mostly idle")
+	void release_WhileIdle_KeepsLimit() {
+
+		for (int i = 0; i < 50; i++) {
+			limiter.tryAcquire(1.0);
+			limiter.release(FAST);
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(10);
+	}
+
+	private void fill() {
+		while (limiter.tryAcquire(1.0)) {
+			// take every slot
+		}
+	}
+
+	private void releaseAll(long rtt) {
+		int inFlight = (int) meterRegistry.get("transactions.requests.concurrency.in.flight")
+				.gauge().value();
+		IntStream.range(0, inFlight).forEach(i -> limiter.release(rtt));
+	}
+}
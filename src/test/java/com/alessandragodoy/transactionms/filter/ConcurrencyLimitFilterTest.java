@@ -0,0 +1,148 @@
+package com.alessandragodoy.transactionms.filter;
+
+import com.alessandragodoy.transactionms.configuration.ConcurrencyLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConcurrencyLimitFilter.
+ * Tests the ranking of requests, that batches and scans are shed before reads and transfers
+ * and that batches are not sampled into the limit.
+ */
+class ConcurrencyLimitFilterTest {
+
+	private final AtomicInteger handled = new AtomicInteger();
+	private final WebFilterChain chain = exchange -> Mono.fromRunnable(handled::incrementAndGet);
+	private SimpleMeterRegistry meterRegistry;
+	private AdaptiveConcurrencyLimiter limiter;
+	private ConcurrencyLimitFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties(true, 10, 2, 50,
+				1.5, 0.2, 100, 0.8, 0.5, 0.3);
+		limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+		filter = new ConcurrencyLimitFilter(properties, limiter,
+				new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+	}
+
+	@Test
+	@DisplayName("classify - ranks transfers, single reads and scans")
+	void classify_WithApiRequests_ReturnsPriority() {
+
+		assertThat(ConcurrencyLimitFilter.classify(
+				MockServerHttpRequest.post("/api/v1/transactions/transfer").build()))
+				.isEqualTo(ConcurrencyLimitFilter.Priority.TRANSFER);
+		assertThat(ConcurrencyLimitFilter.classify(
+				MockServerHttpRequest.post("/api/v1/transactions/transfer/async").build()))
+				.isEqualTo(ConcurrencyLimitFilter.Priority.TRANSFER);
+		assertThat(ConcurrencyLimitFilter.classify(
+				MockServerHttpRequest.post("/api/v1/transactions/transfer/batch").build()))
+				.isEqualTo(ConcurrencyLimitFilter.Priority.BATCH);
+		assertThat(ConcurrencyLimitFilter.classify(
+				MockServerHttpRequest.get("/api/v1/transactions/6971004f05c9a61e36766dfa").build()))
+				.isEqualTo(ConcurrencyLimitFilter.Priority.CHEAP);
+		assertThat(ConcurrencyLimitFilter.classify(
+				MockServerHttpRequest.get("/api/v1/transactions/account/1/summary").build()))
+				.isEqualTo(ConcurrencyLimitFilter.Priority.CHEAP);
+		assertThat(ConcurrencyLimitFilter.classify(
+				MockServerHttpRequest.get("/api/v1/transactions/account/1/history").build()))
+				.isEqualTo(ConcurrencyLimitFilter.Priority.BULK);
+		assertThat(ConcurrencyLimitFilter.classify(
+				MockServerHttpRequest.get("/api/v1/transactions").build()))
+				.isEqualTo(ConcurrencyLimitFilter.Priority.BULK);
+		assertThat(ConcurrencyLimitFilter.classify(
+				MockServerHttpRequest.get("/api/v1/transactions/tx1/result").build())).isNull();
+		assertThat(ConcurrencyLimitFilter.classify(
+				MockServerHttpRequest.get("/actuator/health").build())).isNull();
+	}
+
+	@Test
+	@DisplayName("filter - sheds scans with 503 while reads and transfers still get through")
+	void filter_WithBusyLimit_ShedsScansFirst() {
+
+		IntStream.range(0, 6).forEach(i -> limiter.tryAcquire(1.0));
+
+		MockServerWebExchange scan = MockServerWebExchange.from(
+				MockServerHttpRequest.get("/api/v1/transactions"));
+		StepVerifier.create(filter.filter(scan, chain)).verifyComplete();
+		StepVerifier.create(filter.filter(MockServerWebExchange.from(
+				MockServerHttpRequest.get("/api/v1/transactions/tx1")), chain)).verifyComplete();
+		StepVerifier.create(filter.filter(MockServerWebExchange.from(
+				MockServerHttpRequest.post("/api/v1/transactions/transfer")), chain))
+				.verifyComplete();
+
+		assertThat(scan.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(scan.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+				.isEqualTo("1");
+		assertThat(handled).hasValue(2);
+		assertThat(meterRegistry.get("transactions.requests.shed").tag("priority", "bulk")
+				.counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("filter - sheds batches before scans")
+	void filter_WithBusyLimit_ShedsBatchesBeforeScans() {
+
+		IntStream.range(0, 4).forEach(i -> limiter.tryAcquire(1.0));
+
+		MockServerWebExchange batch = MockServerWebExchange.from(
+				MockServerHttpRequest.post("/api/v1/transactions/transfer/batch"));
+		StepVerifier.create(filter.filter(batch, chain)).verifyComplete();
+		StepVerifier.create(filter.filter(MockServerWebExchange.from(
+				MockServerHttpRequest.get("/api/v1/transactions")), chain)).verifyComplete();
+
+		assertThat(batch.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(handled).hasValue(1);
+		assertThat(meterRegistry.get("transactions.requests.shed").tag("priority", "batch")
+				.counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("filter - keeps the latency of slow batches out of the limit")
+	void filter_WithSlowBatches_KeepsLimit() {
+
+		WebFilterChain slowChain = exchange -> Mono.delay(Duration.ofMillis(20)).then();
+		IntStream.range(0, 150).forEach(i -> StepVerifier.create(filter.filter(
+				MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/transactions/tx1")),
+				chain)).verifyComplete());
+		int limit = limiter.getLimit();
+
+		IntStream.range(0, 20).forEach(i -> StepVerifier.create(filter.filter(
+				MockServerWebExchange.from(MockServerHttpRequest.post(
+						"/api/v1/transactions/transfer/batch")), slowChain)).verifyComplete());
+
+		assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(limit);
+		assertThat(meterRegistry.get("transactions.requests.concurrency.in.flight").gauge()
+				.value()).isZero();
+	}
+
+	@Test
+	@DisplayName("filter - releases the slot once the request completes")
+	void filter_WithCompletedRequest_ReleasesSlot() {
+
+		StepVerifier.create(filter.filter(MockServerWebExchange.from(
+				MockServerHttpRequest.get("/api/v1/transactions")), chain)).verifyComplete();
+
+		assertThat(meterRegistry.get("transactions.requests.concurrency.in.flight").gauge()
+				.value()).isZero();
+	}
+}
@@ -0,0 +1,242 @@
+package com.alessandragodoy.transactionms.filter;
+
+import com.alessandragodoy.transactionms.cache.TokenBucketStore;
+import com.alessandragodoy.transactionms.configuration.TransferRateLimitProperties;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TransferRateLimitFilter.
+ * Tests the client and account limits per transaction type, the batch and unclassified limits,
+ * the refund of client tokens, that admitted requests keep their body and that the client of a
+ * batch is passed on.
+ */
+class TransferRateLimitFilterTest {
+
+	private static final TransferRateLimitProperties.Limit ONE_PER_MINUTE =
+			new TransferRateLimitProperties.Limit(1, 1.0 / 60);
+	private static final TransferRateLimitProperties.Limit UNLIMITED =
+			new TransferRateLimitProperties.Limit(1000, 1000.0);
+
+	private final List<String> forwardedBodies = new ArrayList<>();
+	private final WebFilterChain chain = exchange -> DataBufferUtils.join(
+					exchange.getRequest().getBody())
+			.map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+			.doOnNext(forwardedBodies::add)
+			.then();
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	@DisplayName("filter - rejects a client over its limit with 429 and Retry-After")
+	void filter_WithClientOverLimit_Returns429() {
+
+		TransferRateLimitFilter filter = filter(
+				Map.of(TransactionType.TRANSFER_OWN_ACCOUNT, ONE_PER_MINUTE), Map.of());
+
+		StepVerifier.create(filter.filter(transfer("10.0.0.1", 1), chain)).verifyComplete();
+		MockServerWebExchange rejected = transfer("10.0.0.1", 2);
+		StepVerifier.create(filter.filter(rejected, chain)).verifyComplete();
+		StepVerifier.create(filter.filter(transfer("10.0.0.2", 3), chain)).verifyComplete();
+
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+				.isEqualTo("60");
+		assertThat(forwardedBodies).hasSize(2);
+		assertThat(forwardedBodies.get(0)).contains("\"sourceAccountId\":1");
+		assertThat(meterRegistry.get("transactions.requests.rate.limited")
+				.tag("scope", "client").counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("filter - rejects transfers of an account over its limit from any client")
+	void filter_WithAccountOverLimit_Returns429() {
+
+		TransferRateLimitFilter filter = filter(
+				Map.of(TransactionType.TRANSFER_OWN_ACCOUNT, UNLIMITED),
+				Map.of(TransactionType.TRANSFER_OWN_ACCOUNT, ONE_PER_MINUTE));
+
+		StepVerifier.create(filter.filter(transfer("10.0.0.1", 1), chain)).verifyComplete();
+		MockServerWebExchange rejected = transfer("10.0.0.2", 1);
+		StepVerifier.create(filter.filter(rejected, chain)).verifyComplete();
+
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(forwardedBodies).hasSize(1);
+	}
+
+	@Test
+	@DisplayName("filter - does not limit transaction types without a configured limit")
+	void filter_WithUnconfiguredType_PassesRequests() {
+
+		TransferRateLimitFilter filter = filter(
+				Map.of(TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, ONE_PER_MINUTE), Map.of());
+
+		StepVerifier.create(filter.filter(transfer("10.0.0.1", 1), chain)).verifyComplete();
+		StepVerifier.create(filter.filter(transfer("10.0.0.1", 1), chain)).verifyComplete();
+
+		assertThat(forwardedBodies).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("filter - identifies the client by its principal rather than a header")
+	void filter_WithPrincipal_LimitsPerPrincipal() {
+
+		TransferRateLimitFilter filter = filter(
+				Map.of(TransactionType.TRANSFER_OWN_ACCOUNT, ONE_PER_MINUTE), Map.of());
+
+		StepVerifier.create(filter.filter(authenticated(transfer("10.0.0.1", 1), "alice"), chain))
+				.verifyComplete();
+		MockServerWebExchange rejected = transfer("10.0.0.2", 2);
+		StepVerifier.create(filter.filter(authenticated(rejected, "alice"), chain))
+				.verifyComplete();
+		MockServerWebExchange spoofed = MockServerWebExchange.from(MockServerHttpRequest
+				.post("/api/v1/transactions/transfer")
+				.remoteAddress(new InetSocketAddress("10.0.0.1", 443))
+				.header("X-Client-Id", "someone-else")
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(body(3)));
+		StepVerifier.create(filter.filter(spoofed, chain)).verifyComplete();
+
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(spoofed.getResponse().getStatusCode()).isNull();
+		assertThat(forwardedBodies).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("filter - gives the client token back when the account limit rejects")
+	void filter_WithAccountOverLimit_RefundsClientToken() {
+
+		TransferRateLimitFilter filter = filter(
+				Map.of(TransactionType.TRANSFER_OWN_ACCOUNT,
+						new TransferRateLimitProperties.Limit(2, 1.0 / 60)),
+				Map.of(TransactionType.TRANSFER_OWN_ACCOUNT, ONE_PER_MINUTE));
+
+		StepVerifier.create(filter.filter(transfer("10.0.0.1", 1), chain)).verifyComplete();
+		MockServerWebExchange rejected = transfer("10.0.0.1", 1);
+		StepVerifier.create(filter.filter(rejected, chain)).verifyComplete();
+		MockServerWebExchange otherAccount = transfer("10.0.0.1", 2);
+		StepVerifier.create(filter.filter(otherAccount, chain)).verifyComplete();
+
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(otherAccount.getResponse().getStatusCode()).isNull();
+		assertThat(forwardedBodies).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("filter - limits unreadable bodies and unknown types per client")
+	void filter_WithUnclassifiedBodies_LimitsPerClient() {
+
+		TransferRateLimitFilter filter = filter(
+				Map.of(TransactionType.TRANSFER_OWN_ACCOUNT, UNLIMITED), Map.of());
+
+		StepVerifier.create(filter.filter(request("/api/v1/transactions/transfer", "10.0.0.1",
+				"not json"), chain)).verifyComplete();
+		MockServerWebExchange rejected = request("/api/v1/transactions/transfer", "10.0.0.1",
+				"{\"transactionType\":\"NOT_A_TYPE\",\"sourceAccountId\":1}");
+		StepVerifier.create(filter.filter(rejected, chain)).verifyComplete();
+
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(forwardedBodies).containsExactly("not json");
+		assertThat(meterRegistry.get("transactions.requests.rate.limited")
+				.tag("type", "UNKNOWN").counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("filter - limits batch requests per client")
+	void filter_WithBatchOverLimit_Returns429() {
+
+		TransferRateLimitFilter filter = filter(
+				Map.of(TransactionType.TRANSFER_OWN_ACCOUNT, UNLIMITED), Map.of());
+		String batch = "[" + body(1) + "," + body(2) + "]";
+
+		StepVerifier.create(filter.filter(request("/api/v1/transactions/transfer/batch",
+				"10.0.0.1", batch), chain)).verifyComplete();
+		MockServerWebExchange rejected = request("/api/v1/transactions/transfer/batch",
+				"10.0.0.1", batch);
+		StepVerifier.create(filter.filter(rejected, chain)).verifyComplete();
+
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(forwardedBodies).containsExactly(batch);
+		assertThat(meterRegistry.get("transactions.requests.rate.limited")
+				.tag("type", "BATCH").counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("filter - passes the client of a batch on so its transfers can be charged")
+	void filter_WithBatch_PassesClientInContext() {
+
+		TransferRateLimitFilter filter = filter(Map.of(), Map.of());
+		List<String> clients = new ArrayList<>();
+		WebFilterChain contextChain = exchange -> Mono.deferContextual(context -> {
+			clients.add(context.get(TransferRateLimiter.CLIENT_ID));
+			return Mono.empty();
+		});
+
+		StepVerifier.create(filter.filter(authenticated(request(
+						"/api/v1/transactions/transfer/batch", "10.0.0.1", "[]"), "alice"),
+				contextChain)).verifyComplete();
+
+		assertThat(clients).containsExactly("alice");
+	}
+
+	private TransferRateLimitFilter filter(
+			Map<TransactionType, TransferRateLimitProperties.Limit> client,
+			Map<TransactionType, TransferRateLimitProperties.Limit> account) {
+		TransferRateLimitProperties properties = new TransferRateLimitProperties(true,
+				Duration.ofMinutes(10), 100, client, account, ONE_PER_MINUTE, ONE_PER_MINUTE);
+		return new TransferRateLimitFilter(new TransferRateLimiter(properties,
+				new TokenBucketStore(properties), meterRegistry),
+				new ObjectMapper().registerModule(new JavaTimeModule()));
+	}
+
+	private static MockServerWebExchange transfer(String remoteAddress, int sourceAccountId) {
+		return request("/api/v1/transactions/transfer", remoteAddress, body(sourceAccountId));
+	}
+
+	private static MockServerWebExchange request(String path, String remoteAddress,
+												 String body) {
+		return MockServerWebExchange.from(MockServerHttpRequest.post(path)
+				.remoteAddress(new InetSocketAddress(remoteAddress, 443))
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(body));
+	}
+
+	private static ServerWebExchange authenticated(MockServerWebExchange exchange, String name) {
+		Principal principal = () -> name;
+		return exchange.mutate().principal(Mono.just(principal)).build();
+	}
+
+	private static String body(int sourceAccountId) {
+		return "{\"transactionType\":\"TRANSFER_OWN_ACCOUNT\",\"sourceAccountId\":"
+				+ sourceAccountId + ",\"destinationAccountId\":9,\"amount\":10.0}";
+	}
+}
@@ -0,0 +1,125 @@
+package com.alessandragodoy.transactionms.metrics;
+
+import com.alessandragodoy.transactionms.model.TransactionType;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TransferMetrics.
+ * Tests that every stage is recorded exactly once with the outcome it ended with, and traced as
+ * a child of the observation of its caller.
+ */
+class TransferMetricsTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private SimpleTracer tracer;
+	private ObservationRegistry observationRegistry;
+	private TransferMetrics transferMetrics;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		tracer = new SimpleTracer();
+		observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig()
+				.observationHandler(new DefaultMeterObservationHandler(meterRegistry))
+				.observationHandler(new DefaultTracingObservationHandler(tracer));
+		transferMetrics = new TransferMetrics(observationRegistry, meterRegistry);
+	}
+
+	@Test
+	@DisplayName("time - records a failed mapping without a transaction type")
+	void time_WithFailingMapping_RecordsError() {
+
+		assertThatThrownBy(() -> transferMetrics.time(TransferMetrics.Stage.MAPPING,
+				type -> type, () -> TransactionType.valueOf("UNKNOWN_TYPE")))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		assertThat(stageCount("mapping", "unknown", "error")).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("time - records the outcome derived from the result")
+	void time_WithOutcomeFromResult_RecordsOutcome() {
+
+		StepVerifier.create(transferMetrics.time(TransferMetrics.Stage.ACCOUNT_SERVICE,
+						TransactionType.TRANSFER_OWN_ACCOUNT, Mono.just(false),
+						success -> success ? TransferMetrics.SUCCESS : TransferMetrics.REJECTED))
+				.expectNext(false)
+				.verifyComplete();
+
+		assertThat(stageCount("account-service", "TRANSFER_OWN_ACCOUNT", "rejected"))
+				.isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("time - records a cancelled stage once")
+	void time_WithCancelledStage_RecordsCancellation() {
+
+		StepVerifier.create(transferMetrics.time(TransferMetrics.Stage.SAVE,
+						TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, Mono.never()))
+				.thenCancel()
+				.verify();
+
+		assertThat(stageCount("save", "TRANSFER_THIRD_PARTY_ACCOUNT", "cancelled"))
+				.isEqualTo(1);
+		assertThat(meterRegistry.find("transactions.transfer.stage").timers()).hasSize(1);
+	}
+
+	@Test
+	@DisplayName("time - traces the stage under the caller and the calls made within it")
+	void time_WithObservationInContext_NestsSpans() {
+
+		Observation request = Observation.start("http.server.requests", observationRegistry);
+		Mono<Integer> accountServiceCall = Mono.deferContextual(context -> {
+			Observation.createNotStarted("http.client.requests", observationRegistry)
+					.parentObservation(context.get(ObservationThreadLocalAccessor.KEY))
+					.start()
+					.stop();
+			return Mono.just(1);
+		});
+
+		StepVerifier.create(transferMetrics.time(TransferMetrics.Stage.ACCOUNT_SERVICE,
+								TransactionType.TRANSFER_OWN_ACCOUNT, accountServiceCall)
+						.contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY,
+								request)))
+				.expectNext(1)
+				.verifyComplete();
+		request.stop();
+
+		Map<String, SimpleSpan> spans = tracer.getSpans().stream()
+				.collect(Collectors.toMap(SimpleSpan::getName, Function.identity()));
+		SimpleSpan root = spans.get("http.server.requests");
+		SimpleSpan stage = spans.get("transfer account-service");
+		SimpleSpan call = spans.get("http.client.requests");
+		assertThat(stage.getParentId()).isEqualTo(root.getSpanId());
+		assertThat(call.getParentId()).isEqualTo(stage.getSpanId());
+		assertThat(call.getTraceId()).isEqualTo(root.getTraceId());
+		assertThat(stage.getTags()).containsEntry("outcome", "success");
+	}
+
+	private long stageCount(String stage, String type, String outcome) {
+
+		return meterRegistry.get("transactions.transfer.stage")
+				.tags("stage", stage, "type", type, "outcome", outcome)
+				.timer().count();
+	}
+}
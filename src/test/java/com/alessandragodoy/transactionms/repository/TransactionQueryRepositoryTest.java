@@ -0,0 +1,125 @@
+package com.alessandragodoy.transactionms.repository;
+
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionFilter;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.utility.PageCursor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TransactionQueryRepositoryImpl.
+ * Tests the translation of filters and keyset positions into MongoDB queries.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionQueryRepositoryTest {
+
+	@Mock
+	private ReactiveMongoTemplate mongoTemplate;
+
+	@InjectMocks
+	private TransactionQueryRepositoryImpl transactionQueryRepository;
+
+	@Test
+	@DisplayName("findFiltered - translates every filter into criteria sorted newest first")
+	void findFiltered_WithAllFilters_BuildsCriteria() {
+
+		LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+		LocalDateTime to = LocalDateTime.of(2026, 1, 8, 0, 0);
+		TransactionFilter filter = new TransactionFilter(from, to, TransactionStatus.COMPLETED,
+				TransactionType.TRANSFER_OWN_ACCOUNT, 10.0, 500.0);
+
+		Query query = executeAndCapture(42, filter, null, Limit.of(20));
+
+		List<Document> conditions = conditionsOf(query);
+		assertThat(conditions).containsExactly(
+				new Document("accountId", 42),
+				new Document("status", TransactionStatus.COMPLETED),
+				new Document("transactionType", TransactionType.TRANSFER_OWN_ACCOUNT),
+				new Document("transactionDate", new Document("$gte", from).append("$lt", to)),
+				new Document("amount", new Document("$gte", 10.0).append("$lte", 500.0)));
+		assertThat(query.getSortObject())
+				.isEqualTo(new Document("transactionDate", -1).append("transactionId", -1));
+		assertThat(query.getLimit()).isEqualTo(20);
+	}
+
+	@Test
+	@DisplayName("findFiltered - continues after the keyset position with open-ended ranges")
+	void findFiltered_WithCursorAndOpenRanges_AddsKeysetCondition() {
+
+		LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+		PageCursor cursor = new PageCursor(LocalDateTime.of(2026, 1, 5, 0, 0),
+				new ObjectId("507f1f77bcf86cd799439011"));
+		TransactionFilter filter = new TransactionFilter(from, null, null, null, null, 500.0);
+
+		Query query = executeAndCapture(null, filter, cursor, Limit.of(11));
+
+		List<Document> conditions = conditionsOf(query);
+		assertThat(conditions).hasSize(3);
+		assertThat(conditions.get(0))
+				.isEqualTo(new Document("transactionDate", new Document("$gte", from)));
+		assertThat(conditions.get(1))
+				.isEqualTo(new Document("amount", new Document("$lte", 500.0)));
+		assertThat(conditions.get(2)).containsKey("$or");
+	}
+
+	@Test
+	@DisplayName("findFiltered - skips transactions without a date on a first page")
+	void findFiltered_WithFirstPageWithoutDateRange_RequiresDate() {
+
+		TransactionFilter filter = new TransactionFilter(null, null, TransactionStatus.PENDING,
+				null, null, null);
+
+		Query query = executeAndCapture(null, filter, null, Limit.of(11));
+
+		assertThat(conditionsOf(query)).containsExactly(
+				new Document("status", TransactionStatus.PENDING),
+				new Document("transactionDate", new Document("$ne", null)));
+	}
+
+	@Test
+	@DisplayName("findFiltered - reads without conditions when the filter is empty")
+	void findFiltered_WithEmptyFilter_BuildsUnconditionalQuery() {
+
+		Query query = executeAndCapture(null, TransactionFilter.NONE, null, Limit.unlimited());
+
+		assertThat(query.getQueryObject()).isEmpty();
+		assertThat(query.isLimited()).isFalse();
+	}
+
+	private Query executeAndCapture(Integer accountId, TransactionFilter filter, PageCursor after,
+									Limit limit) {
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		when(mongoTemplate.find(captor.capture(), eq(Transaction.class))).thenReturn(Flux.empty());
+
+		StepVerifier.create(transactionQueryRepository.findFiltered(accountId, filter, after, limit))
+				.verifyComplete();
+		return captor.getValue();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Document> conditionsOf(Query query) {
+		return (List<Document>) query.getQueryObject().get("$and");
+	}
+}
@@ -0,0 +1,266 @@
+package com.alessandragodoy.transactionms.repository;
+
+import com.alessandragodoy.transactionms.configuration.TransactionWriteBatchProperties;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransactionWriteRepositoryImpl.
+ * Tests that concurrent saves share bulk inserts, that each caller sees its own outcome and that
+ * status changes only apply to pending transactions.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionWriteRepositoryTest {
+
+	@Mock
+	private ReactiveMongoTemplate mongoTemplate;
+
+	@Mock
+	private ReactiveBulkOperations bulkOperations;
+
+	@Test
+	@DisplayName("saveBatched - saves each transaction on its own when batching is disabled")
+	void saveBatched_WhenDisabled_SavesDirectly() {
+
+		Transaction transaction = createTransaction(1);
+		when(mongoTemplate.save(transaction)).thenReturn(Mono.just(transaction));
+
+		StepVerifier.create(repository(false, 10, Duration.ofSeconds(1)).saveBatched(transaction))
+				.expectNext(transaction)
+				.verifyComplete();
+
+		verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class),
+				eq(Transaction.class));
+	}
+
+	@Test
+	@DisplayName("saveBatched - writes concurrent saves with one bulk insert")
+	void saveBatched_WithConcurrentSaves_UsesOneBulkInsert() {
+
+		stubBulk(Mono.just(mock(BulkWriteResult.class)));
+		TransactionWriteRepository repository = repository(true, 3, Duration.ofMinutes(1));
+
+		StepVerifier.create(Flux.merge(repository.saveBatched(createTransaction(1)),
+						repository.saveBatched(createTransaction(2)),
+						repository.saveBatched(createTransaction(3))))
+				.expectNextCount(3)
+				.verifyComplete();
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+		verify(bulkOperations).insert(inserted.capture());
+		assertThat(inserted.getValue()).hasSize(3).allSatisfy(transaction -> {
+			assertThat(transaction.getTransactionId()).matches("[a-f0-9]{24}");
+			assertThat(transaction.getTransactionDate()).isNotNull();
+			assertThat(transaction.getLastModifiedDate()).isNotNull();
+		});
+	}
+
+	@Test
+	@DisplayName("saveBatched - flushes an incomplete batch after the maximum wait")
+	void saveBatched_WithSingleSave_FlushesAfterMaxWait() {
+
+		stubBulk(Mono.just(mock(BulkWriteResult.class)));
+
+		StepVerifier.create(repository(true, 100, Duration.ofMillis(20))
+						.saveBatched(createTransaction(1)))
+				.expectNextMatches(transaction -> transaction.getAccountId() == 1)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("saveBatched - fails only the callers whose document was rejected")
+	void saveBatched_WithPartialBulkFailure_FailsOnlyRejectedDocuments() {
+
+		BulkOperationException failure = mock(BulkOperationException.class);
+		when(failure.getErrors())
+				.thenReturn(List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)));
+		stubBulk(Mono.error(failure));
+		TransactionWriteRepository repository = repository(true, 2, Duration.ofMinutes(1));
+
+		Mono<Transaction> first = repository.saveBatched(createTransaction(1)).cache();
+		Mono<Transaction> second = repository.saveBatched(createTransaction(2)).cache();
+		first.subscribe(transaction -> { }, error -> { });
+		second.subscribe(transaction -> { }, error -> { });
+
+		StepVerifier.create(first)
+				.expectNextCount(1)
+				.verifyComplete();
+		StepVerifier.create(second)
+				.expectErrorMatches(error -> error instanceof DataIntegrityViolationException
+						&& error.getMessage().equals("duplicate key"))
+				.verify();
+	}
+
+	@Test
+	@DisplayName("saveBatched - fails every caller when the bulk insert fails")
+	void saveBatched_WithDatabaseError_FailsWholeBatch() {
+
+		stubBulk(Mono.error(new IllegalStateException("Database unavailable")));
+
+		StepVerifier.create(repository(true, 1, Duration.ofMinutes(1))
+						.saveBatched(createTransaction(1)))
+				.expectErrorMessage("Database unavailable")
+				.verify();
+	}
+
+	@Test
+	@DisplayName("saveBatched - keeps writing while every bulk insert is still running")
+	void saveBatched_WithSlowBulkInserts_WritesEverySave() {
+
+		stubBulk(Mono.delay(Duration.ofMillis(20)).thenReturn(mock(BulkWriteResult.class)));
+		TransactionWriteRepository repository = repository(true, 5, Duration.ofMillis(2));
+
+		StepVerifier.create(Flux.range(1, 60)
+						.delayElements(Duration.ofMillis(1))
+						.flatMap(accountId -> repository.saveBatched(createTransaction(accountId))))
+				.expectNextCount(60)
+				.expectComplete()
+				.verify(Duration.ofSeconds(10));
+	}
+
+	@Test
+	@DisplayName("shutdown - waits until saves that are still queued are written")
+	void shutdown_WithQueuedSave_FlushesIt() {
+
+		stubBulk(Mono.delay(Duration.ofMillis(100)).thenReturn(mock(BulkWriteResult.class)));
+		TransactionWriteRepositoryImpl repository = repository(true, 100, Duration.ofMinutes(1));
+		Mono<Transaction> queued = repository.saveBatched(createTransaction(1)).cache();
+		queued.subscribe();
+
+		repository.shutdown();
+
+		StepVerifier.create(queued)
+				.expectNextCount(1)
+				.expectComplete()
+				.verify(Duration.ofMillis(50));
+	}
+
+	@Test
+	@DisplayName("updateStatus - sets the final status of a pending transaction")
+	void updateStatus_WithPendingTransaction_SetsStatus() {
+
+		Transaction transaction = createTransaction(1);
+		transaction.setTransactionId("tx1");
+		transaction.setStatus(TransactionStatus.PENDING);
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Transaction.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+		StepVerifier.create(repository(false, 10, Duration.ofSeconds(1))
+						.updateStatus(transaction, TransactionStatus.COMPLETED))
+				.assertNext(updated -> {
+					assertThat(updated.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+					assertThat(updated.getLastModifiedDate()).isNotNull();
+				})
+				.verifyComplete();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).updateFirst(query.capture(), any(Update.class),
+				eq(Transaction.class));
+		assertThat(query.getValue().getQueryObject())
+				.containsEntry("_id", "tx1")
+				.containsEntry("status", TransactionStatus.PENDING);
+	}
+
+	@Test
+	@DisplayName("updateStatus - leaves a transaction that is no longer pending unchanged")
+	void updateStatus_WithSettledTransaction_ReturnsEmpty() {
+
+		Transaction transaction = createTransaction(1);
+		transaction.setTransactionId("tx1");
+		transaction.setStatus(TransactionStatus.PENDING);
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Transaction.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+		StepVerifier.create(repository(false, 10, Duration.ofSeconds(1))
+						.updateStatus(transaction, TransactionStatus.FAILED))
+				.verifyComplete();
+
+		assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.PENDING);
+	}
+
+	@Test
+	@DisplayName("deferReconciliation - counts the attempt and sets the next one while pending")
+	void deferReconciliation_WithPendingTransaction_SetsNextAttempt() {
+
+		Transaction transaction = createTransaction(1);
+		transaction.setTransactionId("tx1");
+		transaction.setStatus(TransactionStatus.PENDING);
+		LocalDateTime nextAttemptAt = LocalDateTime.of(2026, 3, 1, 12, 0);
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Transaction.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+		StepVerifier.create(repository(false, 10, Duration.ofSeconds(1))
+						.deferReconciliation(transaction, nextAttemptAt))
+				.assertNext(deferred -> {
+					assertThat(deferred.getReconcileAttempts()).isEqualTo(1);
+					assertThat(deferred.getNextAttemptAt()).isEqualTo(nextAttemptAt);
+				})
+				.verifyComplete();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).updateFirst(query.capture(), update.capture(),
+				eq(Transaction.class));
+		assertThat(query.getValue().getQueryObject())
+				.containsEntry("status", TransactionStatus.PENDING);
+		assertThat(update.getValue().getUpdateObject())
+				.containsEntry("$inc", new Document("reconcile_attempts", 1))
+				.containsEntry("$set", new Document("next_attempt_at", nextAttemptAt));
+	}
+
+	private TransactionWriteRepositoryImpl repository(boolean enabled, int maxSize,
+													  Duration maxWait) {
+		return new TransactionWriteRepositoryImpl(mongoTemplate,
+				new TransactionWriteBatchProperties(enabled, maxSize, maxWait, 2));
+	}
+
+	private void stubBulk(Mono<BulkWriteResult> result) {
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class))
+				.thenReturn(bulkOperations);
+		when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+		when(bulkOperations.execute()).thenReturn(result);
+	}
+
+	private Transaction createTransaction(int accountId) {
+		return Transaction.builder()
+				.transactionType(TransactionType.TRANSFER_OWN_ACCOUNT)
+				.accountId(accountId)
+				.relatedAccountId(99)
+				.amount(10.0)
+				.status(TransactionStatus.COMPLETED)
+				.build();
+	}
+}
@@ -0,0 +1,327 @@
+package com.alessandragodoy.transactionms.service;
+
+import com.alessandragodoy.transactionms.exception.TransactionNotFoundException;
+import com.alessandragodoy.transactionms.model.AccountSummary;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.service.impl.AccountSummaryServiceImpl;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AccountSummaryServiceImpl.
+ * Tests the incremental summary updates and the rebuild from the transaction collection, which
+ * never overwrites a concurrent increment.
+ */
+@ExtendWith(MockitoExtension.class)
+class AccountSummaryServiceTest {
+
+	@Mock
+	private ReactiveMongoTemplate mongoTemplate;
+
+	@InjectMocks
+	private AccountSummaryServiceImpl accountSummaryService;
+
+	@Test
+	@DisplayName("getAccountSummary - returns the stored summary")
+	void getAccountSummary_WithSummary_ReturnsSummary() {
+
+		AccountSummary summary = AccountSummary.builder().accountId(1).sentCount(2).build();
+		when(mongoTemplate.findById(1, AccountSummary.class)).thenReturn(Mono.just(summary));
+
+		StepVerifier.create(accountSummaryService.getAccountSummary(1))
+				.expectNext(summary)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("getAccountSummary - throws exception when account has no summary")
+	void getAccountSummary_WithNoSummary_ThrowsException() {
+
+		when(mongoTemplate.findById(999, AccountSummary.class)).thenReturn(Mono.empty());
+
+		StepVerifier.create(accountSummaryService.getAccountSummary(999))
+				.expectError(TransactionNotFoundException.class)
+				.verify();
+	}
+
+	@Test
+	@DisplayName("recordTransaction - increments sent totals of the source and received totals " +
+			"of the destination")
+	void recordTransaction_WithCompletedTransfer_IncrementsBothAccounts() {
+
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		when(mongoTemplate.upsert(queries.capture(), updates.capture(), eq(AccountSummary.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+		StepVerifier.create(accountSummaryService.recordTransaction(
+						createTransaction(1, 2, TransactionStatus.COMPLETED)))
+				.verifyComplete();
+
+		assertThat(queries.getAllValues()).extracting(query -> query.getQueryObject().get("_id"))
+				.containsExactly(1, 2);
+		Document sent = updates.getAllValues().get(0).getUpdateObject().get("$inc", Document.class);
+		Document received = updates.getAllValues().get(1).getUpdateObject()
+				.get("$inc", Document.class);
+		assertThat(sent).containsEntry("sent_count", 1).containsEntry("sent_amount", 100.0)
+				.containsEntry("count_by_status.COMPLETED", 1)
+				.containsEntry("count_by_type.TRANSFER_OWN_ACCOUNT", 1)
+				.doesNotContainKey("received_count");
+		assertThat(received).containsEntry("received_count", 1)
+				.containsEntry("received_amount", 100.0)
+				.doesNotContainKey("sent_count");
+	}
+
+	@Test
+	@DisplayName("recordTransaction - counts failed transfers without adding their amount")
+	void recordTransaction_WithFailedSelfTransfer_UpdatesOneSummary() {
+
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		when(mongoTemplate.upsert(any(Query.class), updates.capture(), eq(AccountSummary.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+		StepVerifier.create(accountSummaryService.recordTransaction(
+						createTransaction(1, 1, TransactionStatus.FAILED)))
+				.verifyComplete();
+
+		Document inc = updates.getValue().getUpdateObject().get("$inc", Document.class);
+		assertThat(inc).containsEntry("sent_count", 1).containsEntry("sent_amount", 0.0)
+				.containsEntry("received_count", 1).containsEntry("received_amount", 0.0)
+				.containsEntry("count_by_status.FAILED", 1);
+	}
+
+	@Test
+	@DisplayName("recordTransaction - does not propagate update failures")
+	void recordTransaction_WithDatabaseError_CompletesEmpty() {
+
+		when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(AccountSummary.class)))
+				.thenReturn(Mono.error(new IllegalStateException("Database unavailable")));
+
+		Transaction transaction = createTransaction(1, null, TransactionStatus.COMPLETED);
+
+		StepVerifier.create(accountSummaryService.recordTransaction(transaction))
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("recordTransactions - upserts every affected summary in one bulk write")
+	void recordTransactions_WithSeveralTransactions_UsesOneBulkWrite() {
+
+		ReactiveBulkOperations bulk = mock(ReactiveBulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AccountSummary.class))
+				.thenReturn(bulk);
+		when(bulk.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+
+		StepVerifier.create(accountSummaryService.recordTransactions(List.of(
+						createTransaction(1, 2, TransactionStatus.COMPLETED),
+						createTransaction(3, 3, TransactionStatus.FAILED))))
+				.verifyComplete();
+
+		verify(bulk, times(3)).upsert(queries.capture(), any(Update.class));
+		assertThat(queries.getAllValues()).extracting(query -> query.getQueryObject().get("_id"))
+				.containsExactly(1, 2, 3);
+		verify(bulk).execute();
+		verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class),
+				eq(AccountSummary.class));
+	}
+
+	@Test
+	@DisplayName("recordTransactions - does not propagate bulk write failures")
+	void recordTransactions_WithDatabaseError_CompletesEmpty() {
+
+		ReactiveBulkOperations bulk = mock(ReactiveBulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AccountSummary.class))
+				.thenReturn(bulk);
+		when(bulk.execute()).thenReturn(Mono.error(new IllegalStateException("Database unavailable")));
+
+		StepVerifier.create(accountSummaryService.recordTransactions(List.of(
+						createTransaction(1, 2, TransactionStatus.COMPLETED))))
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("recordTransactions - skips the database for an empty batch")
+	void recordTransactions_WithNoTransactions_DoesNothing() {
+
+		StepVerifier.create(accountSummaryService.recordTransactions(List.of()))
+				.verifyComplete();
+
+		verifyNoInteractions(mongoTemplate);
+	}
+
+	@Test
+	@DisplayName("rebuildAccountSummary - folds the aggregated groups into one summary")
+	void rebuildAccountSummary_WithGroups_SavesSummary() {
+
+		Document completed = group("COMPLETED", "TRANSFER_OWN_ACCOUNT", 3, 2, 150.0, 1, 40.0);
+		Document failed = group("FAILED", "TRANSFER_OWN_ACCOUNT", 1, 1, 0.0, 0, 0.0);
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq("transaction"),
+				eq(Document.class))).thenReturn(Flux.just(completed, failed));
+		when(mongoTemplate.findById(1, AccountSummary.class)).thenReturn(Mono.empty());
+		when(mongoTemplate.findAndReplace(any(Query.class), any(AccountSummary.class),
+				any(FindAndReplaceOptions.class)))
+				.thenAnswer(invocation -> Mono.just(invocation.getArgument(1)));
+
+		StepVerifier.create(accountSummaryService.rebuildAccountSummary(1))
+				.assertNext(summary -> {
+					assertThat(summary.getAccountId()).isEqualTo(1);
+					assertThat(summary.getVersion()).isEqualTo(1L);
+					assertThat(summary.getSentCount()).isEqualTo(3);
+					assertThat(summary.getSentAmount()).isEqualTo(150.0);
+					assertThat(summary.getReceivedCount()).isEqualTo(1);
+					assertThat(summary.getReceivedAmount()).isEqualTo(40.0);
+					assertThat(summary.getCountByStatus())
+							.isEqualTo(Map.of("COMPLETED", 3L, "FAILED", 1L));
+					assertThat(summary.getCountByType())
+							.isEqualTo(Map.of("TRANSFER_OWN_ACCOUNT", 4L));
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("rebuildAccountSummary - removes the summary when the account has no transactions")
+	void rebuildAccountSummary_WithNoTransactions_RemovesSummary() {
+
+		when(mongoTemplate.findById(999, AccountSummary.class)).thenReturn(Mono.just(
+				AccountSummary.builder().accountId(999).version(4L).build()));
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq("transaction"),
+				eq(Document.class))).thenReturn(Flux.empty());
+		ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+		when(mongoTemplate.remove(removed.capture(), eq(AccountSummary.class)))
+				.thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+
+		StepVerifier.create(accountSummaryService.rebuildAccountSummary(999))
+				.expectError(TransactionNotFoundException.class)
+				.verify();
+
+		assertThat(removed.getValue().getQueryObject()).containsEntry("version", 4L);
+		verify(mongoTemplate, never()).findAndReplace(any(Query.class), any(AccountSummary.class),
+				any(FindAndReplaceOptions.class));
+	}
+
+	@Test
+	@DisplayName("rebuildAccountSummary - groups both settled directions of the account by " +
+			"status and type")
+	void rebuildAccountSummary_BuildsGroupedPipeline() {
+
+		ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+		when(mongoTemplate.findById(1, AccountSummary.class)).thenReturn(Mono.empty());
+		when(mongoTemplate.aggregate(aggregation.capture(), eq("transaction"),
+				eq(Document.class))).thenReturn(Flux.empty());
+		when(mongoTemplate.remove(any(Query.class), eq(AccountSummary.class)))
+				.thenReturn(Mono.just(DeleteResult.acknowledged(0)));
+
+		StepVerifier.create(accountSummaryService.rebuildAccountSummary(1))
+				.expectError(TransactionNotFoundException.class)
+				.verify();
+
+		List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+		assertThat(pipeline).hasSize(2);
+		assertThat(pipeline.get(0).toJson()).contains("\"account_id\": 1")
+				.contains("\"related_account_id\": 1")
+				.contains("\"status\": {\"$ne\": \"PENDING\"}");
+		Document group = pipeline.get(1).get("$group", Document.class);
+		assertThat(group.get("_id", Document.class))
+				.containsEntry("status", "$status")
+				.containsEntry("transaction_type", "$transaction_type");
+		assertThat(group).containsKeys("count", "sent_count", "sent_amount", "received_count",
+				"received_amount");
+	}
+
+	@Test
+	@DisplayName("rebuildAccountSummary - starts over when the summary was incremented meanwhile")
+	void rebuildAccountSummary_WithConcurrentIncrement_RetriesOnNewVersion() {
+
+		when(mongoTemplate.findById(1, AccountSummary.class))
+				.thenReturn(Mono.just(AccountSummary.builder().accountId(1).version(7L).build()))
+				.thenReturn(Mono.just(AccountSummary.builder().accountId(1).version(8L).build()));
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq("transaction"),
+				eq(Document.class))).thenReturn(Flux.just(
+				group("COMPLETED", "TRANSFER_OWN_ACCOUNT", 2, 2, 100.0, 0, 0.0)));
+		ArgumentCaptor<Query> replaced = ArgumentCaptor.forClass(Query.class);
+		when(mongoTemplate.findAndReplace(replaced.capture(), any(AccountSummary.class),
+				any(FindAndReplaceOptions.class)))
+				.thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key")))
+				.thenAnswer(invocation -> Mono.just(invocation.getArgument(1)));
+
+		StepVerifier.create(accountSummaryService.rebuildAccountSummary(1))
+				.assertNext(summary -> {
+					assertThat(summary.getVersion()).isEqualTo(9L);
+					assertThat(summary.getSentCount()).isEqualTo(2);
+				})
+				.verifyComplete();
+
+		assertThat(replaced.getAllValues()).extracting(query -> query.getQueryObject()
+				.get("version")).containsExactly(7L, 8L);
+	}
+
+	@Test
+	@DisplayName("recordTransaction - raises the version of the summary")
+	void recordTransaction_WithTransaction_IncrementsVersion() {
+
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		when(mongoTemplate.upsert(any(Query.class), updates.capture(), eq(AccountSummary.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+		StepVerifier.create(accountSummaryService.recordTransaction(
+						createTransaction(1, null, TransactionStatus.COMPLETED)))
+				.verifyComplete();
+
+		assertThat(updates.getValue().getUpdateObject().get("$inc", Document.class))
+				.containsEntry("version", 1);
+	}
+
+	private Document group(String status, String type, long count, long sentCount,
+						   double sentAmount, long receivedCount, double receivedAmount) {
+		return new Document("_id", new Document("status", status)
+				.append("transaction_type", type))
+				.append("count", count)
+				.append("sent_count", sentCount)
+				.append("sent_amount", sentAmount)
+				.append("received_count", receivedCount)
+				.append("received_amount", receivedAmount);
+	}
+
+	private Transaction createTransaction(Integer accountId, Integer relatedAccountId,
+										  TransactionStatus status) {
+		return Transaction.builder()
+				.transactionId("tx1")
+				.transactionType(TransactionType.TRANSFER_OWN_ACCOUNT)
+				.accountId(accountId)
+				.relatedAccountId(relatedAccountId)
+				.amount(100.0)
+				.status(status)
+				.build();
+	}
+}
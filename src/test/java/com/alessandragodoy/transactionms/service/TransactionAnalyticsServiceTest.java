@@ -0,0 +1,220 @@
+package com.alessandragodoy.transactionms.service;
+
+import com.alessandragodoy.transactionms.cache.VolumeBucketCache;
+import com.alessandragodoy.transactionms.exception.InvalidParameterException;
+import com.alessandragodoy.transactionms.model.BucketInterval;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.model.TransactionVolume;
+import com.alessandragodoy.transactionms.model.VolumeQuery;
+import com.alessandragodoy.transactionms.service.impl.TransactionAnalyticsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransactionAnalyticsServiceImpl.
+ * Tests the report window, the aggregation pipeline and the caching of closed buckets.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionAnalyticsServiceTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 10, 12, 0);
+
+	@Mock
+	private ReactiveMongoTemplate mongoTemplate;
+
+	private TransactionAnalyticsService transactionAnalyticsService;
+
+	@BeforeEach
+	void setUp() {
+		Clock clock = Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(),
+				ZoneId.systemDefault());
+		transactionAnalyticsService = new TransactionAnalyticsServiceImpl(mongoTemplate,
+				new VolumeBucketCache(new SimpleMeterRegistry(), 100), clock,
+				Duration.ofMinutes(5));
+	}
+
+	@Test
+	@DisplayName("getTransactionVolume - aggregates closed buckets only once")
+	void getTransactionVolume_WithClosedBuckets_AggregatesThemOnce() {
+
+		stubRows(row("2026-01-09", TransactionStatus.COMPLETED, 3, 300.0),
+				row("2026-01-10", TransactionStatus.PENDING, 1, 50.0),
+				row("2026-01-09", TransactionStatus.FAILED, 1, 20.0));
+		VolumeQuery query = new VolumeQuery(BucketInterval.DAY, LocalDateTime.of(2026, 1, 8, 9, 0),
+				null, null, false);
+
+		for (int call = 0; call < 2; call++) {
+			StepVerifier.create(transactionAnalyticsService.getTransactionVolume(query))
+					.expectNext(volume(LocalDateTime.of(2026, 1, 9, 0, 0),
+							TransactionStatus.COMPLETED, 3, 300.0))
+					.expectNext(volume(LocalDateTime.of(2026, 1, 9, 0, 0),
+							TransactionStatus.FAILED, 1, 20.0))
+					.expectNext(volume(LocalDateTime.of(2026, 1, 10, 0, 0),
+							TransactionStatus.PENDING, 1, 50.0))
+					.verifyComplete();
+		}
+
+		verify(mongoTemplate, times(3)).aggregate(any(Aggregation.class), eq("transaction"),
+				eq(Document.class));
+	}
+
+	@Test
+	@DisplayName("getTransactionVolume - reports the default window ending with the current " +
+			"bucket")
+	void getTransactionVolume_WithoutWindow_ReportsDefaultWindow() {
+
+		ArgumentCaptor<Aggregation> aggregations = ArgumentCaptor.forClass(Aggregation.class);
+		when(mongoTemplate.aggregate(aggregations.capture(), eq("transaction"),
+				eq(Document.class))).thenReturn(Flux.empty());
+
+		StepVerifier.create(transactionAnalyticsService.getTransactionVolume(
+						new VolumeQuery(BucketInterval.HOUR, null, null, null, false)))
+				.verifyComplete();
+
+		assertThat(aggregations.getAllValues()).extracting(this::window)
+				.containsExactlyInAnyOrder(
+						List.of(LocalDateTime.of(2026, 1, 9, 13, 0),
+								LocalDateTime.of(2026, 1, 10, 11, 0)),
+						List.of(LocalDateTime.of(2026, 1, 10, 11, 0),
+								LocalDateTime.of(2026, 1, 10, 13, 0)));
+	}
+
+	@Test
+	@DisplayName("getTransactionVolume - queries only the window for past periods")
+	void getTransactionVolume_WithPastWindow_DoesNotQueryOpenBuckets() {
+
+		stubRows();
+
+		StepVerifier.create(transactionAnalyticsService.getTransactionVolume(
+						new VolumeQuery(BucketInterval.DAY, LocalDateTime.of(2026, 1, 1, 0, 0),
+								LocalDateTime.of(2026, 1, 2, 6, 0), null, false)))
+				.verifyComplete();
+
+		verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq("transaction"),
+				eq(Document.class));
+	}
+
+	@Test
+	@DisplayName("getTransactionVolume - throws exception when from is not before to")
+	void getTransactionVolume_WithEmptyWindow_ThrowsException() {
+
+		LocalDateTime date = LocalDateTime.of(2026, 1, 5, 0, 0);
+
+		StepVerifier.create(transactionAnalyticsService.getTransactionVolume(
+						new VolumeQuery(BucketInterval.DAY, date, date, null, false)))
+				.expectError(InvalidParameterException.class)
+				.verify();
+		verifyNoInteractions(mongoTemplate);
+	}
+
+	@Test
+	@DisplayName("getTransactionVolume - throws exception when the window has too many buckets")
+	void getTransactionVolume_WithTooManyBuckets_ThrowsException() {
+
+		StepVerifier.create(transactionAnalyticsService.getTransactionVolume(
+						new VolumeQuery(BucketInterval.HOUR, LocalDateTime.of(2025, 1, 1, 0, 0),
+								null, null, false)))
+				.expectError(InvalidParameterException.class)
+				.verify();
+		verifyNoInteractions(mongoTemplate);
+	}
+
+	@Test
+	@DisplayName("getTransactionVolume - filters and groups by account when requested")
+	void getTransactionVolume_WithAccount_FiltersAndGroupsByAccount() {
+
+		ArgumentCaptor<Aggregation> aggregations = ArgumentCaptor.forClass(Aggregation.class);
+		when(mongoTemplate.aggregate(aggregations.capture(), eq("transaction"),
+				eq(Document.class))).thenReturn(Flux.empty());
+
+		StepVerifier.create(transactionAnalyticsService.getTransactionVolume(
+						new VolumeQuery(BucketInterval.DAY, LocalDateTime.of(2026, 1, 10, 0, 0),
+								null, 7, true)))
+				.verifyComplete();
+
+		List<Document> pipeline = aggregations.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+		assertThat(pipeline.get(0).get("$match", Document.class).get("account_id"))
+				.isEqualTo(7);
+		assertThat(pipeline.get(1).toJson()).contains("$dateToString", "%Y-%m-%d");
+		assertThat(pipeline.get(2).get("$group", Document.class).get("_id", Document.class))
+				.containsKeys("bucket", "transaction_type", "status", "account_id");
+	}
+
+	@Test
+	@DisplayName("getTransactionVolume - reports the account of each row when grouped by " +
+			"account")
+	void getTransactionVolume_GroupedByAccount_ReturnsAccountIds() {
+
+		Document grouped = row("2026-01-10", TransactionStatus.COMPLETED, 2, 80.0);
+		grouped.get("_id", Document.class).append("account_id", 7);
+		stubRows(grouped);
+
+		StepVerifier.create(transactionAnalyticsService.getTransactionVolume(
+						new VolumeQuery(BucketInterval.DAY, LocalDateTime.of(2026, 1, 10, 0, 0),
+								null, null, true)))
+				.expectNext(new TransactionVolume(LocalDateTime.of(2026, 1, 10, 0, 0), 7,
+						TransactionType.TRANSFER_OWN_ACCOUNT, TransactionStatus.COMPLETED, 2, 80.0))
+				.verifyComplete();
+	}
+
+	/**
+	 * Answers every aggregation with the given rows whose bucket lies in the matched window.
+	 *
+	 * @param rows the grouped rows
+	 */
+	private void stubRows(Document... rows) {
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq("transaction"),
+				eq(Document.class))).thenAnswer(invocation -> {
+			List<LocalDateTime> window = window(invocation.getArgument(0, Aggregation.class));
+			return Flux.fromArray(rows).filter(row -> {
+				LocalDateTime bucket = BucketInterval.DAY.parse(
+						row.get("_id", Document.class).getString("bucket"));
+				return !bucket.isBefore(window.get(0)) && bucket.isBefore(window.get(1));
+			});
+		});
+	}
+
+	private List<LocalDateTime> window(Aggregation aggregation) {
+		Document dates = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT).get(0)
+				.get("$match", Document.class)
+				.get("transaction_date", Document.class);
+		return List.of((LocalDateTime) dates.get("$gte"), (LocalDateTime) dates.get("$lt"));
+	}
+
+	private Document row(String bucket, TransactionStatus status, long count, double amount) {
+		return new Document("_id", new Document("bucket", bucket)
+				.append("transaction_type", TransactionType.TRANSFER_OWN_ACCOUNT.name())
+				.append("status", status.name()))
+				.append("count", count)
+				.append("total_amount", amount);
+	}
+
+	private TransactionVolume volume(LocalDateTime bucket, TransactionStatus status, long count,
+									 double amount) {
+		return new TransactionVolume(bucket, null, TransactionType.TRANSFER_OWN_ACCOUNT, status,
+				count, amount);
+	}
+}
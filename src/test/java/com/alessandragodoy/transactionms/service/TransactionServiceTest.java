@@ -1,28 +1,46 @@
 package com.alessandragodoy.transactionms.service;
 
-import com.alessandragodoy.transactionms.adapter.AccountServiceClient;
+import com.alessandragodoy.transactionms.adapter.TransferDispatcher;
+import com.alessandragodoy.transactionms.cache.IdempotencyKeyCache;
+import com.alessandragodoy.transactionms.cache.RequestCoalescer;
+import com.alessandragodoy.transactionms.cache.TransactionCache;
+import com.alessandragodoy.transactionms.configuration.TransferSubmissionProperties;
 import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
 import com.alessandragodoy.transactionms.dto.TransferResponseDTO;
 import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import com.alessandragodoy.transactionms.exception.InvalidParameterException;
 import com.alessandragodoy.transactionms.exception.TransactionNotFoundException;
 import com.alessandragodoy.transactionms.exception.TransferFailedException;
+import com.alessandragodoy.transactionms.metrics.TransferMetrics;
 import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionFilter;
 import com.alessandragodoy.transactionms.model.TransactionStatus;
 import com.alessandragodoy.transactionms.model.TransactionType;
 import com.alessandragodoy.transactionms.repository.TransactionRepository;
 import com.alessandragodoy.transactionms.service.impl.TransactionServiceImpl;
+import com.alessandragodoy.transactionms.service.impl.TransferSettlementServiceImpl;
+import com.alessandragodoy.transactionms.service.impl.TransferSubmissionQueue;
+import com.alessandragodoy.transactionms.utility.PageCursor;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -39,11 +57,51 @@ class TransactionServiceTest {
 	private TransactionRepository transactionRepository;
 
 	@Mock
-	private AccountServiceClient accountServiceClient;
+	private TransferDispatcher transferDispatcher;
+
+	@Spy
+	private TransactionCache transactionCache = new TransactionCache(new SimpleMeterRegistry(),
+			100, Duration.ofSeconds(5), Duration.ofHours(1));
+
+	@Spy
+	private RequestCoalescer requestCoalescer = new RequestCoalescer(new SimpleMeterRegistry());
+
+	@Mock
+	private AccountSummaryService accountSummaryService;
+
+	@Mock
+	private IdempotencyKeyCache idempotencyKeyCache;
+
+	private SimpleMeterRegistry meterRegistry;
 
-	@InjectMocks
 	private TransactionServiceImpl transactionService;
 
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig()
+				.observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+		TransferMetrics transferMetrics = new TransferMetrics(observationRegistry, meterRegistry);
+		TransferSettlementServiceImpl settlementService = new TransferSettlementServiceImpl(
+				transferDispatcher, transactionRepository, transactionCache, accountSummaryService,
+				transferMetrics);
+		transactionService = new TransactionServiceImpl(transactionRepository, transactionCache,
+				requestCoalescer, idempotencyKeyCache, settlementService,
+				new TransferSubmissionQueue(settlementService,
+						new TransferSubmissionProperties(4, 2), transferMetrics));
+		lenient().when(accountSummaryService.recordTransaction(any())).thenReturn(Mono.empty());
+		lenient().when(transactionRepository.updateStatus(any(), any()))
+				.thenAnswer(invocation -> {
+					Transaction pending = invocation.getArgument(0);
+					pending.setStatus(invocation.getArgument(1));
+					return Mono.just(pending);
+				});
+		lenient().when(idempotencyKeyCache.execute(any(), any(), any()))
+				.thenAnswer(invocation -> invocation.<Supplier<Mono<Transaction>>>getArgument(2)
+						.get());
+	}
+
 	@Test
 	@DisplayName("getAllTransactions - returns flux of all transactions")
 	void getAllTransactions_WithTransactions_ReturnsFlux() {
@@ -57,7 +115,7 @@ class TransactionServiceTest {
 
 		when(transactionRepository.findAll()).thenReturn(Flux.just(tx1, tx2, tx3));
 
-		StepVerifier.create(transactionService.getAllTransactions())
+		StepVerifier.create(transactionService.getAllTransactions(TransactionFilter.NONE))
 				.expectNext(tx1)
 				.expectNext(tx2)
 				.expectNext(tx3)
@@ -72,7 +130,7 @@ class TransactionServiceTest {
 
 		when(transactionRepository.findAll()).thenReturn(Flux.empty());
 
-		StepVerifier.create(transactionService.getAllTransactions())
+		StepVerifier.create(transactionService.getAllTransactions(TransactionFilter.NONE))
 				.expectNextCount(0)
 				.verifyComplete();
 
@@ -92,7 +150,7 @@ class TransactionServiceTest {
 
 		when(transactionRepository.findAll()).thenReturn(manyTransactions);
 
-		StepVerifier.create(transactionService.getAllTransactions())
+		StepVerifier.create(transactionService.getAllTransactions(TransactionFilter.NONE))
 				.expectNextCount(100)
 				.verifyComplete();
 
@@ -117,6 +175,27 @@ class TransactionServiceTest {
 		verify(transactionRepository).findById(transactionId);
 	}
 
+	@Test
+	@DisplayName("getTransactionById - serves repeated reads from the cache")
+	void getTransactionById_WithRepeatedReads_QueriesRepositoryOnce() {
+
+		String transactionId = "507f1f77bcf86cd799439011";
+		Transaction transaction = createTransaction(transactionId,
+				TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 150.0, TransactionStatus.COMPLETED);
+
+		when(transactionRepository.findById(transactionId))
+				.thenReturn(Mono.just(transaction));
+
+		StepVerifier.create(transactionService.getTransactionById(transactionId))
+				.expectNext(transaction)
+				.verifyComplete();
+		StepVerifier.create(transactionService.getTransactionById(transactionId))
+				.expectNext(transaction)
+				.verifyComplete();
+
+		verify(transactionRepository, times(1)).findById(transactionId);
+	}
+
 	@Test
 	@DisplayName("getTransactionById - throws exception when not found")
 	void getTransactionById_WithNonExistentId_ThrowsException() {
@@ -172,7 +251,8 @@ class TransactionServiceTest {
 		when(transactionRepository.findByAccountId(accountId))
 				.thenReturn(Flux.just(tx1, tx2));
 
-		StepVerifier.create(transactionService.getTransactionsByAccountId(accountId))
+		StepVerifier.create(transactionService.getTransactionsByAccountId(accountId,
+				TransactionFilter.NONE))
 				.expectNext(tx1)
 				.expectNext(tx2)
 				.verifyComplete();
@@ -187,7 +267,8 @@ class TransactionServiceTest {
 		Integer accountId = 999;
 		when(transactionRepository.findByAccountId(accountId)).thenReturn(Flux.empty());
 
-		StepVerifier.create(transactionService.getTransactionsByAccountId(accountId))
+		StepVerifier.create(transactionService.getTransactionsByAccountId(accountId,
+				TransactionFilter.NONE))
 				.expectErrorMatches(throwable ->
 						throwable instanceof TransactionNotFoundException &&
 								throwable.getMessage()
@@ -197,6 +278,36 @@ class TransactionServiceTest {
 		verify(transactionRepository).findByAccountId(accountId);
 	}
 
+	@Test
+	@DisplayName("getTransactionsByAccountId - streams the listing to each caller separately")
+	void getTransactionsByAccountId_WithConcurrentRequests_QueriesPerCaller() {
+
+		Integer accountId = 1;
+		Transaction tx1 = createTransaction("tx1", TransactionType.TRANSFER_OWN_ACCOUNT,
+				accountId, 2, 100.0, TransactionStatus.COMPLETED);
+		Sinks.Many<Transaction> listing = Sinks.many().replay().all();
+		when(transactionRepository.findByAccountId(accountId)).thenReturn(listing.asFlux());
+
+		StepVerifier first = StepVerifier.create(transactionService.getTransactionsByAccountId(
+						accountId, TransactionFilter.NONE))
+				.expectNext(tx1)
+				.expectComplete()
+				.verifyLater();
+		StepVerifier second = StepVerifier.create(transactionService.getTransactionsByAccountId(
+						accountId, TransactionFilter.NONE))
+				.expectNext(tx1)
+				.expectComplete()
+				.verifyLater();
+
+		listing.tryEmitNext(tx1);
+		listing.tryEmitComplete();
+
+		first.verify();
+		second.verify();
+		verify(transactionRepository, times(2)).findByAccountId(accountId);
+		verifyNoInteractions(requestCoalescer);
+	}
+
 	@Test
 	@DisplayName("getTransactionsByAccountId - verifies all transactions belong to account")
 	void getTransactionsByAccountId_VerifiesAccountOwnership() {
@@ -210,7 +321,8 @@ class TransactionServiceTest {
 		when(transactionRepository.findByAccountId(accountId))
 				.thenReturn(Flux.just(tx1, tx2));
 
-		StepVerifier.create(transactionService.getTransactionsByAccountId(accountId))
+		StepVerifier.create(transactionService.getTransactionsByAccountId(accountId,
+				TransactionFilter.NONE))
 				.assertNext(tx -> assertThat(tx.getAccountId()).isEqualTo(accountId))
 				.assertNext(tx -> assertThat(tx.getAccountId()).isEqualTo(accountId))
 				.verifyComplete();
@@ -218,6 +330,295 @@ class TransactionServiceTest {
 		verify(transactionRepository).findByAccountId(accountId);
 	}
 
+	@Test
+	@DisplayName("getAccountHistory - merges sent and received transactions newest first")
+	void getAccountHistory_WithBothDirections_MergesInOrder() {
+
+		Integer accountId = 1;
+		Transaction sentNewest = createPagedTransaction("507f1f77bcf86cd799439014", 1);
+		Transaction sentOldest = createPagedTransaction("507f1f77bcf86cd799439011", 4);
+		Transaction received = createPagedTransaction("507f1f77bcf86cd799439013", 2);
+		received.setAccountId(7);
+		received.setRelatedAccountId(accountId);
+
+		when(transactionRepository.findByAccountIdOrderByTransactionDateDescTransactionIdDesc(
+				accountId, Limit.of(3))).thenReturn(Flux.just(sentNewest, sentOldest));
+		when(transactionRepository.findByRelatedAccountIdOrderByTransactionDateDescTransactionIdDesc(
+				accountId, Limit.of(3))).thenReturn(Flux.just(received));
+
+		StepVerifier.create(transactionService.getAccountHistory(accountId, 3))
+				.expectNext(sentNewest, received, sentOldest)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("getAccountHistory - applies the limit to the merged result")
+	void getAccountHistory_WithLimit_TakesNewestOnly() {
+
+		Integer accountId = 1;
+		Transaction sent = createPagedTransaction("507f1f77bcf86cd799439011", 3);
+		Transaction received = createPagedTransaction("507f1f77bcf86cd799439012", 1);
+		received.setAccountId(9);
+		received.setRelatedAccountId(accountId);
+
+		when(transactionRepository.findByAccountIdOrderByTransactionDateDescTransactionIdDesc(
+				accountId, Limit.of(1))).thenReturn(Flux.just(sent));
+		when(transactionRepository.findByRelatedAccountIdOrderByTransactionDateDescTransactionIdDesc(
+				accountId, Limit.of(1))).thenReturn(Flux.just(received));
+
+		StepVerifier.create(transactionService.getAccountHistory(accountId, 1))
+				.expectNext(received)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("getAccountVersion - derives the version from the latest modified transaction")
+	void getAccountVersion_WithTransactions_ReturnsIdAndModificationTime() {
+
+		Transaction latest = createPagedTransaction("507f1f77bcf86cd799439011", 0);
+		latest.setLastModifiedDate(LocalDateTime.of(1970, 1, 1, 0, 0, 0, 26_000_000));
+
+		when(transactionRepository.findFirstByAccountIdOrderByLastModifiedDateDescTransactionIdDesc(1))
+				.thenReturn(Mono.just(latest));
+
+		StepVerifier.create(transactionService.getAccountVersion(1))
+				.expectNext("507f1f77bcf86cd799439011-1a")
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("getAccountVersion - falls back to the creation date and is empty without data")
+	void getAccountVersion_WithoutModificationDate_UsesTransactionDate() {
+
+		Transaction legacy = createPagedTransaction("507f1f77bcf86cd799439011", 0);
+		legacy.setTransactionDate(LocalDateTime.of(1970, 1, 1, 0, 0, 0, 16_000_000));
+
+		when(transactionRepository.findFirstByAccountIdOrderByLastModifiedDateDescTransactionIdDesc(1))
+				.thenReturn(Mono.just(legacy));
+		when(transactionRepository.findFirstByAccountIdOrderByLastModifiedDateDescTransactionIdDesc(2))
+				.thenReturn(Mono.empty());
+
+		StepVerifier.create(transactionService.getAccountVersion(1))
+				.expectNext("507f1f77bcf86cd799439011-10")
+				.verifyComplete();
+		StepVerifier.create(transactionService.getAccountVersion(2))
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("getAccountHistory - concurrent identical requests share one query")
+	void getAccountHistory_WithConcurrentRequests_QueriesOnce() {
+
+		Integer accountId = 1;
+		Transaction sent = createPagedTransaction("507f1f77bcf86cd799439011", 1);
+		Sinks.One<Transaction> pending = Sinks.one();
+
+		when(transactionRepository.findByAccountIdOrderByTransactionDateDescTransactionIdDesc(
+				accountId, Limit.of(5))).thenReturn(pending.asMono().flux());
+		when(transactionRepository.findByRelatedAccountIdOrderByTransactionDateDescTransactionIdDesc(
+				accountId, Limit.of(5))).thenReturn(Flux.empty());
+
+		StepVerifier first = StepVerifier.create(transactionService.getAccountHistory(accountId, 5))
+				.expectNext(sent)
+				.expectComplete()
+				.verifyLater();
+		StepVerifier second = StepVerifier.create(transactionService.getAccountHistory(accountId, 5))
+				.expectNext(sent)
+				.expectComplete()
+				.verifyLater();
+
+		pending.tryEmitValue(sent);
+
+		first.verify();
+		second.verify();
+		verify(transactionRepository, times(1))
+				.findByAccountIdOrderByTransactionDateDescTransactionIdDesc(accountId, Limit.of(5));
+	}
+
+	@Test
+	@DisplayName("getAccountHistory - throws exception when account has no transactions")
+	void getAccountHistory_WithNoTransactions_ThrowsException() {
+
+		Integer accountId = 999;
+		when(transactionRepository.findByAccountIdOrderByTransactionDateDescTransactionIdDesc(
+				accountId, Limit.of(100))).thenReturn(Flux.empty());
+		when(transactionRepository.findByRelatedAccountIdOrderByTransactionDateDescTransactionIdDesc(
+				accountId, Limit.of(100))).thenReturn(Flux.empty());
+
+		StepVerifier.create(transactionService.getAccountHistory(accountId, null))
+				.expectError(TransactionNotFoundException.class)
+				.verify();
+
+		StepVerifier.create(transactionService.getAccountHistory(accountId, 1001))
+				.expectError(InvalidParameterException.class)
+				.verify();
+	}
+
+	@Test
+	@DisplayName("getTransactionsPage - returns first page with a cursor to the next one")
+	void getTransactionsPage_WithMoreResults_ReturnsNextCursor() {
+
+		Transaction tx1 = createPagedTransaction("507f1f77bcf86cd799439013", 3);
+		Transaction tx2 = createPagedTransaction("507f1f77bcf86cd799439012", 2);
+		Transaction tx3 = createPagedTransaction("507f1f77bcf86cd799439011", 1);
+
+		when(transactionRepository
+				.findByTransactionDateNotNullOrderByTransactionDateDescTransactionIdDesc(
+						Limit.of(3))).thenReturn(Flux.just(tx1, tx2, tx3));
+
+		StepVerifier.create(transactionService.getTransactionsPage(null, 2, TransactionFilter.NONE))
+				.assertNext(page -> {
+					assertThat(page.content()).containsExactly(tx1, tx2);
+					assertThat(page.hasNext()).isTrue();
+					assertThat(PageCursor.decode(page.nextCursor()))
+							.isEqualTo(PageCursor.after(tx2));
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("getTransactionsPage - continues after the cursor position")
+	void getTransactionsPage_WithCursor_QueriesAfterKeyset() {
+
+		Transaction previous = createPagedTransaction("507f1f77bcf86cd799439012", 2);
+		Transaction last = createPagedTransaction("507f1f77bcf86cd799439011", 1);
+		PageCursor cursor = PageCursor.after(previous);
+
+		when(transactionRepository.findPageAfter(cursor.transactionDate(),
+				cursor.transactionId(), Limit.of(51))).thenReturn(Flux.just(last));
+
+		StepVerifier.create(transactionService.getTransactionsPage(cursor.encode(), null,
+				TransactionFilter.NONE))
+				.assertNext(page -> {
+					assertThat(page.content()).containsExactly(last);
+					assertThat(page.hasNext()).isFalse();
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("getAllTransactions - delegates filters to the database query")
+	void getAllTransactions_WithFilter_QueriesFiltered() {
+
+		TransactionFilter filter = new TransactionFilter(null, null, TransactionStatus.FAILED,
+				null, null, null);
+		Transaction failed = createPagedTransaction("507f1f77bcf86cd799439011", 1);
+
+		when(transactionRepository.findFiltered(null, filter, null, Limit.unlimited()))
+				.thenReturn(Flux.just(failed));
+
+		StepVerifier.create(transactionService.getAllTransactions(filter))
+				.expectNext(failed)
+				.verifyComplete();
+
+		verify(transactionRepository, never()).findAll();
+	}
+
+	@Test
+	@DisplayName("getTransactionsByAccountId - returns empty flux when no transaction matches " +
+			"the filter")
+	void getTransactionsByAccountId_WithFilterAndNoMatches_ReturnsEmptyFlux() {
+
+		TransactionFilter filter = new TransactionFilter(null, null, null, null, 1000.0, null);
+
+		when(transactionRepository.findFiltered(1, filter, null, Limit.unlimited()))
+				.thenReturn(Flux.empty());
+
+		StepVerifier.create(transactionService.getTransactionsByAccountId(1, filter))
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("getTransactionsPage - pages filtered transactions after the cursor position")
+	void getTransactionsPage_WithFilterAndCursor_QueriesFilteredAfterKeyset() {
+
+		Transaction previous = createPagedTransaction("507f1f77bcf86cd799439012", 2);
+		Transaction last = createPagedTransaction("507f1f77bcf86cd799439011", 1);
+		PageCursor cursor = PageCursor.after(previous);
+		TransactionFilter filter = new TransactionFilter(null, null, TransactionStatus.COMPLETED,
+				null, null, null);
+
+		when(transactionRepository.findFiltered(null, filter, cursor, Limit.of(11)))
+				.thenReturn(Flux.just(last));
+		when(transactionRepository.findFiltered(1, filter, null, Limit.of(11)))
+				.thenReturn(Flux.empty());
+
+		StepVerifier.create(transactionService.getTransactionsPage(cursor.encode(), 10, filter))
+				.assertNext(page -> assertThat(page.content()).containsExactly(last))
+				.verifyComplete();
+		StepVerifier.create(transactionService.getTransactionsPageByAccountId(1, null, 10, filter))
+				.assertNext(page -> assertThat(page.content()).isEmpty())
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("getTransactionsPage - rejects out of range sizes and malformed cursors")
+	void getTransactionsPage_WithInvalidParameters_ThrowsException() {
+
+		StepVerifier.create(transactionService.getTransactionsPage(null, 0, TransactionFilter.NONE))
+				.expectError(InvalidParameterException.class)
+				.verify();
+		StepVerifier.create(transactionService.getTransactionsPage(null, 501,
+				TransactionFilter.NONE))
+				.expectError(InvalidParameterException.class)
+				.verify();
+		StepVerifier.create(transactionService.getTransactionsPage("not-a-cursor", 10,
+				TransactionFilter.NONE))
+				.expectErrorMatches(throwable ->
+						throwable instanceof InvalidParameterException &&
+								throwable.getMessage().equals("Invalid page cursor: not-a-cursor"))
+				.verify();
+
+		verifyNoInteractions(transactionRepository);
+	}
+
+	@Test
+	@DisplayName("getTransactionsPageByAccountId - returns pages for the account")
+	void getTransactionsPageByAccountId_WithCursor_QueriesAfterKeyset() {
+
+		Integer accountId = 1;
+		Transaction first = createPagedTransaction("507f1f77bcf86cd799439012", 2);
+		Transaction second = createPagedTransaction("507f1f77bcf86cd799439011", 1);
+		PageCursor cursor = PageCursor.after(first);
+
+		when(transactionRepository
+				.findByAccountIdAndTransactionDateNotNullOrderByTransactionDateDescTransactionIdDesc(
+						accountId, Limit.of(2))).thenReturn(Flux.just(first, second));
+		when(transactionRepository.findPageByAccountIdAfter(accountId, cursor.transactionDate(),
+				cursor.transactionId(), Limit.of(2))).thenReturn(Flux.just(second));
+
+		StepVerifier.create(transactionService.getTransactionsPageByAccountId(accountId, null, 1,
+				TransactionFilter.NONE))
+				.assertNext(page -> {
+					assertThat(page.content()).containsExactly(first);
+					assertThat(page.nextCursor()).isEqualTo(cursor.encode());
+				})
+				.verifyComplete();
+		StepVerifier.create(transactionService.getTransactionsPageByAccountId(
+						accountId, cursor.encode(), 1, TransactionFilter.NONE))
+				.assertNext(page -> {
+					assertThat(page.content()).containsExactly(second);
+					assertThat(page.hasNext()).isFalse();
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("getTransactionsPageByAccountId - throws exception when account has no " +
+			"transactions")
+	void getTransactionsPageByAccountId_WithNoTransactions_ThrowsException() {
+
+		Integer accountId = 999;
+		when(transactionRepository
+				.findByAccountIdAndTransactionDateNotNullOrderByTransactionDateDescTransactionIdDesc(
+						accountId, Limit.of(51))).thenReturn(Flux.empty());
+
+		StepVerifier.create(transactionService.getTransactionsPageByAccountId(accountId, null,
+						null, TransactionFilter.NONE))
+				.expectError(TransactionNotFoundException.class)
+				.verify();
+	}
+
 	@Test
 	@DisplayName("registerTransfer - successfully registers transfer and saves with COMPLETED " +
 			"status")
@@ -231,9 +632,9 @@ class TransactionServiceTest {
 		Transaction savedTransaction = createTransaction("tx123",
 				TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 300.0, TransactionStatus.COMPLETED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(successResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -248,8 +649,136 @@ class TransactionServiceTest {
 				})
 				.verifyComplete();
 
-		verify(accountServiceClient).transfer(any(TransferRequestDTO.class));
-		verify(transactionRepository).save(any(Transaction.class));
+		verify(transferDispatcher).dispatch(any(TransferRequestDTO.class), any());
+		verify(transactionRepository).saveBatched(any(Transaction.class));
+		verify(accountSummaryService).recordTransaction(savedTransaction);
+	}
+
+	@Test
+	@DisplayName("registerTransfer - times each stage and counts the statuses reached")
+	void registerTransfer_WithSuccessfulTransfer_RecordsMetrics() {
+
+		TransferRequestDTO requestDTO = createTransferRequest(
+				"TRANSFER_OWN_ACCOUNT", 1, 2, 300.0);
+		Transaction savedTransaction = createTransaction("tx123",
+				TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 300.0, TransactionStatus.PENDING);
+
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
+				.thenReturn(Mono.just(createSuccessResponse(1, 2, 700.0, 800.0)));
+		when(transactionRepository.saveBatched(any(Transaction.class)))
+				.thenReturn(Mono.just(savedTransaction));
+
+		StepVerifier.create(transactionService.registerTransfer(requestDTO))
+				.expectNextCount(1)
+				.verifyComplete();
+
+		for (String stage : new String[]{"mapping", "save", "account-service", "status-update"}) {
+			assertThat(meterRegistry.get("transactions.transfer.stage")
+					.tag("stage", stage)
+					.tag("type", "TRANSFER_OWN_ACCOUNT")
+					.tag("outcome", "success")
+					.timer().count()).isEqualTo(1);
+		}
+		assertThat(meterRegistry.get("transactions.transfer.status").tag("status", "PENDING")
+				.counter().count()).isEqualTo(1.0);
+		assertThat(meterRegistry.get("transactions.transfer.status").tag("status", "COMPLETED")
+				.counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("registerTransfer - stores the idempotency key with the transaction")
+	void registerTransfer_WithIdempotencyKey_StoresKey() {
+
+		TransferRequestDTO requestDTO = createTransferRequest(
+				"TRANSFER_OWN_ACCOUNT", 1, 2, 300.0);
+
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), eq("tx123")))
+				.thenReturn(Mono.just(createSuccessResponse(1, 2, 700.0, 800.0)));
+		when(transactionRepository.saveBatched(any(Transaction.class)))
+				.thenAnswer(invocation -> {
+					Transaction saved = invocation.getArgument(0);
+					saved.setTransactionId("tx123");
+					return Mono.just(saved);
+				});
+
+		StepVerifier.create(transactionService.registerTransfer(requestDTO, "key-1"))
+				.assertNext(transaction ->
+						assertThat(transaction.getIdempotencyKey()).isEqualTo("key-1"))
+				.verifyComplete();
+
+		verify(idempotencyKeyCache).execute(eq("key-1"), eq(requestDTO), any());
+	}
+
+	@Test
+	@DisplayName("registerTransfer - settles a copy of a replayed transfer left PENDING")
+	void registerTransfer_WithPendingReplay_SettlesAgain() {
+
+		TransferRequestDTO requestDTO = createTransferRequest(
+				"TRANSFER_OWN_ACCOUNT", 1, 2, 300.0);
+		Transaction pending = createTransaction("tx123", TransactionType.TRANSFER_OWN_ACCOUNT,
+				1, 2, 300.0, TransactionStatus.PENDING);
+
+		doReturn(Mono.just(pending)).when(idempotencyKeyCache)
+				.execute(eq("key-1"), eq(requestDTO), any());
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), eq("tx123")))
+				.thenReturn(Mono.just(createSuccessResponse(1, 2, 700.0, 800.0)));
+
+		StepVerifier.create(transactionService.registerTransfer(requestDTO, "key-1"))
+				.assertNext(transaction -> {
+					assertThat(transaction.getTransactionId()).isEqualTo("tx123");
+					assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+				})
+				.verifyComplete();
+
+		verify(transactionRepository, never()).saveBatched(any());
+		verify(transactionRepository).updateStatus(any(Transaction.class),
+				eq(TransactionStatus.COMPLETED));
+		assertThat(pending.getStatus()).isEqualTo(TransactionStatus.PENDING);
+	}
+
+	@Test
+	@DisplayName("submitTransfer - returns a replayed transfer left PENDING without settling it")
+	void submitTransfer_WithPendingReplay_ReturnsPending() {
+
+		TransferRequestDTO requestDTO = createTransferRequest(
+				"TRANSFER_OWN_ACCOUNT", 1, 2, 300.0);
+		Transaction pending = createTransaction("tx123", TransactionType.TRANSFER_OWN_ACCOUNT,
+				1, 2, 300.0, TransactionStatus.PENDING);
+
+		doReturn(Mono.just(pending)).when(idempotencyKeyCache)
+				.execute(eq("key-1"), eq(requestDTO), any());
+
+		StepVerifier.create(transactionService.submitTransfer(requestDTO, "key-1"))
+				.assertNext(transaction ->
+						assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.PENDING))
+				.verifyComplete();
+
+		verifyNoInteractions(transferDispatcher);
+	}
+
+	@Test
+	@DisplayName("registerTransfer - caches the saved transaction")
+	void registerTransfer_WithSuccessfulTransfer_PopulatesCache() {
+
+		TransferRequestDTO requestDTO = createTransferRequest(
+				"TRANSFER_OWN_ACCOUNT", 1, 2, 300.0);
+		Transaction savedTransaction = createTransaction("507f1f77bcf86cd799439099",
+				TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 300.0, TransactionStatus.COMPLETED);
+
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
+				.thenReturn(Mono.just(createSuccessResponse(1, 2, 700.0, 800.0)));
+		when(transactionRepository.saveBatched(any(Transaction.class)))
+				.thenReturn(Mono.just(savedTransaction));
+
+		StepVerifier.create(transactionService.registerTransfer(requestDTO))
+				.expectNext(savedTransaction)
+				.verifyComplete();
+		StepVerifier.create(transactionService.getTransactionById("507f1f77bcf86cd799439099"))
+				.expectNext(savedTransaction)
+				.verifyComplete();
+
+		verify(transactionCache, times(2)).put(savedTransaction);
+		verify(transactionRepository, never()).findById(any(String.class));
 	}
 
 	@Test
@@ -265,9 +794,9 @@ class TransactionServiceTest {
 				TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, 5, 6, 500.0,
 				TransactionStatus.COMPLETED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(successResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -276,7 +805,7 @@ class TransactionServiceTest {
 
 		// Verify transaction was created with correct initial state
 		ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
-		verify(transactionRepository).save(transactionCaptor.capture());
+		verify(transactionRepository).saveBatched(transactionCaptor.capture());
 
 		Transaction capturedTransaction = transactionCaptor.getValue();
 		assertThat(capturedTransaction.getTransactionType()).isEqualTo(
@@ -299,9 +828,9 @@ class TransactionServiceTest {
 				TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, 10, 20, 1000.0,
 				TransactionStatus.COMPLETED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(successResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -313,8 +842,8 @@ class TransactionServiceTest {
 				})
 				.verifyComplete();
 
-		verify(accountServiceClient).transfer(any(TransferRequestDTO.class));
-		verify(transactionRepository).save(any(Transaction.class));
+		verify(transferDispatcher).dispatch(any(TransferRequestDTO.class), any());
+		verify(transactionRepository).saveBatched(any(Transaction.class));
 	}
 
 	@Test
@@ -330,9 +859,9 @@ class TransactionServiceTest {
 		Transaction savedTransaction = createTransaction("txFail",
 				TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 500.0, TransactionStatus.FAILED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(failedResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -342,8 +871,8 @@ class TransactionServiceTest {
 								throwable.getMessage().contains("Insufficient balance"))
 				.verify();
 
-		verify(accountServiceClient).transfer(any(TransferRequestDTO.class));
-		verify(transactionRepository).save(any(Transaction.class));
+		verify(transferDispatcher).dispatch(any(TransferRequestDTO.class), any());
+		verify(transactionRepository).saveBatched(any(Transaction.class));
 	}
 
 	@Test
@@ -359,9 +888,9 @@ class TransactionServiceTest {
 		Transaction savedTransaction = createTransaction("txFail2",
 				TransactionType.TRANSFER_OWN_ACCOUNT, 999, 2, 100.0, TransactionStatus.FAILED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(failedResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -370,8 +899,8 @@ class TransactionServiceTest {
 								throwable.getMessage().contains("SOURCE_ACCOUNT_NOT_FOUND"))
 				.verify();
 
-		verify(accountServiceClient).transfer(any(TransferRequestDTO.class));
-		verify(transactionRepository).save(any(Transaction.class));
+		verify(transferDispatcher).dispatch(any(TransferRequestDTO.class), any());
+		verify(transactionRepository).saveBatched(any(Transaction.class));
 	}
 
 	@Test
@@ -388,9 +917,9 @@ class TransactionServiceTest {
 				TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, 1, 5, 200.0,
 				TransactionStatus.FAILED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(failedResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -399,8 +928,8 @@ class TransactionServiceTest {
 								throwable.getMessage().contains("DESTINATION_ACCOUNT_INACTIVE"))
 				.verify();
 
-		verify(accountServiceClient).transfer(any(TransferRequestDTO.class));
-		verify(transactionRepository).save(any(Transaction.class));
+		verify(transferDispatcher).dispatch(any(TransferRequestDTO.class), any());
+		verify(transactionRepository).saveBatched(any(Transaction.class));
 	}
 
 	@Test
@@ -416,9 +945,9 @@ class TransactionServiceTest {
 		Transaction savedTransaction = createTransaction("txAlwaysSaved",
 				TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 300.0, TransactionStatus.FAILED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(failedResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -426,17 +955,22 @@ class TransactionServiceTest {
 				.verify();
 
 		// Verify transaction was saved despite failure
-		verify(transactionRepository).save(any(Transaction.class));
+		verify(transactionRepository).saveBatched(any(Transaction.class));
 	}
 
 	@Test
-	@DisplayName("registerTransfer - handles external service error gracefully")
+	@DisplayName("registerTransfer - handles external service error gracefully and keeps the " +
+			"transfer PENDING")
 	void registerTransfer_WithExternalServiceError_PropagatesError() {
 
 		TransferRequestDTO requestDTO = createTransferRequest(
 				"TRANSFER_OWN_ACCOUNT", 1, 2, 100.0);
+		Transaction pendingTransaction = createTransaction("txPending",
+				TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 100.0, TransactionStatus.PENDING);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
+				.thenReturn(Mono.just(pendingTransaction));
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.error(new ExternalServiceException("Service unavailable")));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -445,8 +979,10 @@ class TransactionServiceTest {
 								throwable.getMessage().equals("Service unavailable"))
 				.verify();
 
-		verify(accountServiceClient).transfer(any(TransferRequestDTO.class));
-		verify(transactionRepository, never()).save(any(Transaction.class));
+		verify(transferDispatcher).dispatch(any(TransferRequestDTO.class), eq("txPending"));
+		verify(transactionRepository).saveBatched(any(Transaction.class));
+		verify(transactionRepository, never()).updateStatus(any(), any());
+		verify(accountSummaryService, never()).recordTransaction(any());
 	}
 
 	@Test
@@ -461,9 +997,9 @@ class TransactionServiceTest {
 		Transaction savedTransaction = createTransaction("txSmall",
 				TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 0.01, TransactionStatus.COMPLETED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(successResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -487,9 +1023,9 @@ class TransactionServiceTest {
 				TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, 1, 2, 999999.99,
 				TransactionStatus.COMPLETED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(successResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -512,9 +1048,9 @@ class TransactionServiceTest {
 		Transaction savedTransaction = createTransaction("txIntegration",
 				TransactionType.TRANSFER_OWN_ACCOUNT, 10, 20, 500.0, TransactionStatus.COMPLETED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(successResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		// Full flow verification
@@ -530,10 +1066,13 @@ class TransactionServiceTest {
 				})
 				.verifyComplete();
 
-		// Verify interaction order
-		var inOrder = inOrder(accountServiceClient, transactionRepository);
-		inOrder.verify(accountServiceClient).transfer(any(TransferRequestDTO.class));
-		inOrder.verify(transactionRepository).save(any(Transaction.class));
+		// Verify interaction order: the PENDING transfer is stored before the upstream call
+		var inOrder = inOrder(transferDispatcher, transactionRepository);
+		inOrder.verify(transactionRepository).saveBatched(any(Transaction.class));
+		inOrder.verify(transferDispatcher).dispatch(any(TransferRequestDTO.class),
+				eq("txIntegration"));
+		inOrder.verify(transactionRepository).updateStatus(savedTransaction,
+				TransactionStatus.COMPLETED);
 	}
 
 	@Test
@@ -550,9 +1089,9 @@ class TransactionServiceTest {
 				TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT, 1, 2, 1000.0,
 				TransactionStatus.FAILED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(failedResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -562,9 +1101,9 @@ class TransactionServiceTest {
 								throwable.getMessage().contains("Insufficient balance"))
 				.verify();
 
-		// Verify transaction was still saved with FAILED status
+		// Verify the stored transaction was still moved to FAILED
 		ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
-		verify(transactionRepository).save(captor.capture());
+		verify(transactionRepository).updateStatus(captor.capture(), eq(TransactionStatus.FAILED));
 
 		Transaction capturedTx = captor.getValue();
 		assertThat(capturedTx.getStatus()).isEqualTo(TransactionStatus.FAILED);
@@ -583,9 +1122,9 @@ class TransactionServiceTest {
 		Transaction savedTransaction = createTransaction("txStatus",
 				TransactionType.TRANSFER_OWN_ACCOUNT, 1, 2, 200.0, TransactionStatus.COMPLETED);
 
-		when(accountServiceClient.transfer(any(TransferRequestDTO.class)))
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
 				.thenReturn(Mono.just(successResponse));
-		when(transactionRepository.save(any(Transaction.class)))
+		when(transactionRepository.saveBatched(any(Transaction.class)))
 				.thenReturn(Mono.just(savedTransaction));
 
 		StepVerifier.create(transactionService.registerTransfer(requestDTO))
@@ -594,13 +1133,88 @@ class TransactionServiceTest {
 
 		// Verify status was set correctly
 		ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
-		verify(transactionRepository).save(captor.capture());
+		verify(transactionRepository).saveBatched(captor.capture());
 
 		Transaction captured = captor.getValue();
 		assertThat(captured.getStatus()).isIn(TransactionStatus.COMPLETED,
 				TransactionStatus.PENDING);
 	}
 
+	@Test
+	@DisplayName("submitTransfer - answers with the PENDING transaction and settles it in the " +
+			"background")
+	void submitTransfer_WithPendingUpstreamCall_ReturnsPendingAndSettlesLater() {
+
+		TransferRequestDTO requestDTO = createTransferRequest(
+				"TRANSFER_OWN_ACCOUNT", 1, 2, 150.0);
+		Sinks.One<TransferResponseDTO> response = Sinks.one();
+
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), eq("txAsync")))
+				.thenReturn(response.asMono());
+		when(transactionRepository.saveBatched(any(Transaction.class)))
+				.thenAnswer(invocation -> {
+					Transaction saved = invocation.getArgument(0);
+					saved.setTransactionId("txAsync");
+					return Mono.just(saved);
+				});
+
+		StepVerifier.create(transactionService.submitTransfer(requestDTO, "key-async"))
+				.assertNext(transaction -> {
+					assertThat(transaction.getTransactionId()).isEqualTo("txAsync");
+					assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.PENDING);
+				})
+				.verifyComplete();
+
+		StepVerifier.create(transactionService.awaitTransaction("txAsync", 5))
+				.then(() -> response.tryEmitValue(createSuccessResponse(1, 2, 850.0, 1150.0)))
+				.assertNext(transaction ->
+						assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.COMPLETED))
+				.verifyComplete();
+
+		verify(idempotencyKeyCache).execute(eq("key-async"), eq(requestDTO), any());
+		verify(transactionRepository, never()).findById(any(String.class));
+	}
+
+	@Test
+	@DisplayName("awaitTransaction - returns a settled transaction right away")
+	void awaitTransaction_WithSettledTransaction_ReturnsIt() {
+
+		Transaction transaction = createTransaction("tx1", TransactionType.TRANSFER_OWN_ACCOUNT,
+				1, 2, 100.0, TransactionStatus.FAILED);
+		when(transactionRepository.findById("tx1")).thenReturn(Mono.just(transaction));
+
+		StepVerifier.create(transactionService.awaitTransaction("tx1", null))
+				.expectNext(transaction)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("awaitTransaction - returns the PENDING transaction when the wait ends first")
+	void awaitTransaction_WithPendingTransaction_ReturnsPendingAfterWait() {
+
+		Transaction transaction = createTransaction("tx1", TransactionType.TRANSFER_OWN_ACCOUNT,
+				1, 2, 100.0, TransactionStatus.PENDING);
+		when(transactionRepository.findById("tx1")).thenReturn(Mono.just(transaction));
+
+		StepVerifier.withVirtualTime(() -> transactionService.awaitTransaction("tx1", 2))
+				.expectSubscription()
+				.expectNoEvent(Duration.ofSeconds(2))
+				.assertNext(pending ->
+						assertThat(pending.getStatus()).isEqualTo(TransactionStatus.PENDING))
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("awaitTransaction - rejects a wait above the maximum")
+	void awaitTransaction_WithTooLongWait_ThrowsException() {
+
+		StepVerifier.create(transactionService.awaitTransaction("tx1", 61))
+				.expectError(InvalidParameterException.class)
+				.verify();
+
+		verify(transactionRepository, never()).findById(anyString());
+	}
+
 	private Transaction createTransaction(String id, TransactionType type, Integer accountId,
 										  Integer relatedAccountId, Double amount,
 										  TransactionStatus status) {
@@ -615,6 +1229,14 @@ class TransactionServiceTest {
 				.build();
 	}
 
+	private Transaction createPagedTransaction(String id, int minutesAgo) {
+		Transaction transaction = createTransaction(id, TransactionType.TRANSFER_OWN_ACCOUNT,
+				1, 2, 100.0, TransactionStatus.COMPLETED);
+		transaction.setTransactionDate(
+				LocalDateTime.of(2026, 1, 30, 10, 15, 30).minusMinutes(minutesAgo));
+		return transaction;
+	}
+
 	private TransferRequestDTO createTransferRequest(String type, Integer sourceId,
 													 Integer destId, Double amount) {
 		return new TransferRequestDTO(type, sourceId, destId, amount);
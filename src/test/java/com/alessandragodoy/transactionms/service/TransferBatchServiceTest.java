@@ -0,0 +1,274 @@
+package com.alessandragodoy.transactionms.service;
+
+import com.alessandragodoy.transactionms.cache.TokenBucketStore;
+import com.alessandragodoy.transactionms.configuration.TransferBatchProperties;
+import com.alessandragodoy.transactionms.configuration.TransferRateLimitProperties;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import com.alessandragodoy.transactionms.exception.TransferFailedException;
+import com.alessandragodoy.transactionms.filter.TransferRateLimiter;
+import com.alessandragodoy.transactionms.metrics.TransferMetrics;
+import com.alessandragodoy.transactionms.model.BatchTransferResult;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.service.impl.TransferBatchServiceImpl;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.validation.Validation;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransferBatchServiceImpl.
+ * Tests per-item validation, rate limiting and error reporting, the maximum batch size, that
+ * transfers are stored as PENDING before they are settled, bulk persistence and partial bulk
+ * failures.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransferBatchServiceTest {
+
+	@Mock
+	private TransferSettlementService transferSettlementService;
+
+	@Mock
+	private ReactiveMongoTemplate mongoTemplate;
+
+	@Mock
+	private ReactiveBulkOperations bulkOperations;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private TransferBatchService transferBatchService;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		transferBatchService = service(new TransferBatchProperties(4, 2, Duration.ofSeconds(5),
+				1000), Map.of(), Map.of());
+		lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class))
+				.thenReturn(bulkOperations);
+		lenient().when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+	}
+
+	@Test
+	@DisplayName("registerTransfers - stores valid transfers as PENDING, then settles and " +
+			"reports each one")
+	void registerTransfers_WithMixedTransfers_ReportsEachTransfer() {
+
+		when(bulkOperations.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+		when(transferSettlementService.settle(any())).thenAnswer(invocation -> {
+			Transaction pending = invocation.getArgument(0);
+			assertThat(pending.getStatus()).isEqualTo(TransactionStatus.PENDING);
+			return switch (pending.getAccountId()) {
+				case 1 -> {
+					pending.setStatus(TransactionStatus.COMPLETED);
+					yield Mono.just(pending);
+				}
+				case 2 -> Mono.error(new TransferFailedException("INSUFFICIENT_FUNDS",
+						"INSUFFICIENT_FUNDS - Insufficient funds"));
+				default -> Mono.error(new ExternalServiceException("Connection refused"));
+			};
+		});
+
+		List<BatchTransferResult> results = transferBatchService.registerTransfers(Flux.just(
+						createRequest(1, 100.0), createRequest(4, -1.0), createRequest(2, 200.0),
+						createRequest(3, 300.0)))
+				.collectSortedList(Comparator.comparingLong(BatchTransferResult::index))
+				.block();
+
+		assertThat(results).hasSize(4);
+		assertThat(results.get(0).transaction().getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+		assertThat(results.get(0).errorCode()).isNull();
+		assertThat(results.get(1).transaction()).isNull();
+		assertThat(results.get(1).errorCode()).isEqualTo("INVALID_REQUEST");
+		assertThat(results.get(1).errorMessage()).contains("amount");
+		assertThat(results.get(2).transaction().getStatus()).isEqualTo(TransactionStatus.FAILED);
+		assertThat(results.get(2).errorCode()).isEqualTo("INSUFFICIENT_FUNDS");
+		assertThat(results.get(3).transaction().getStatus()).isEqualTo(TransactionStatus.PENDING);
+		assertThat(results.get(3).errorCode()).isEqualTo("SERVICE_UNAVAILABLE");
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+		verify(bulkOperations, times(2)).insert(inserted.capture());
+		assertThat(inserted.getAllValues()).flatMap(chunk -> chunk).hasSize(3)
+				.allSatisfy(transaction -> {
+					assertThat(transaction.getTransactionId()).matches("[a-f0-9]{24}");
+					assertThat(transaction.getTransactionDate()).isNotNull();
+				});
+		verify(transferSettlementService, times(3)).settle(any());
+		assertThat(meterRegistry.get("transactions.transfer.status").tag("status", "PENDING")
+				.counter().count()).isEqualTo(3.0);
+	}
+
+	@Test
+	@DisplayName("registerTransfers - inserts pending transfers in chunks")
+	void registerTransfers_WithMoreTransfersThanChunkSize_InsertsInChunks() {
+
+		when(bulkOperations.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+		when(transferSettlementService.settle(any()))
+				.thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		StepVerifier.create(transferBatchService.registerTransfers(Flux.range(1, 5)
+						.map(account -> createRequest(account, 10.0))))
+				.expectNextCount(5)
+				.verifyComplete();
+
+		verify(bulkOperations, times(3)).execute();
+	}
+
+	@Test
+	@DisplayName("registerTransfers - does not execute documents rejected by the bulk insert")
+	void registerTransfers_WithPartialBulkFailure_ReportsRejectedDocuments() {
+
+		BulkOperationException bulkFailure = mock(BulkOperationException.class);
+		when(bulkFailure.getErrors())
+				.thenReturn(List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)));
+		when(bulkOperations.execute()).thenReturn(Mono.error(bulkFailure));
+		when(transferSettlementService.settle(any()))
+				.thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		List<BatchTransferResult> results = transferBatchService.registerTransfers(
+						Flux.just(createRequest(1, 10.0), createRequest(2, 20.0)))
+				.collectSortedList(Comparator.comparingLong(BatchTransferResult::index))
+				.block();
+
+		assertThat(results).extracting(BatchTransferResult::errorCode)
+				.containsExactly(null, "PERSISTENCE_FAILED");
+		verify(transferSettlementService).settle(argThat(transaction ->
+				transaction.getAccountId() == 1));
+		verifyNoMoreInteractions(transferSettlementService);
+	}
+
+	@Test
+	@DisplayName("registerTransfers - executes nothing when the bulk insert fails")
+	void registerTransfers_WithDatabaseError_ReportsChunkAsNotStored() {
+
+		when(bulkOperations.execute())
+				.thenReturn(Mono.error(new IllegalStateException("Database unavailable")));
+
+		StepVerifier.create(transferBatchService.registerTransfers(
+						Flux.just(createRequest(1, 10.0))))
+				.assertNext(result -> {
+					assertThat(result.transaction()).isNull();
+					assertThat(result.errorCode()).isEqualTo("PERSISTENCE_FAILED");
+				})
+				.verifyComplete();
+		verifyNoInteractions(transferSettlementService);
+	}
+
+	@Test
+	@DisplayName("registerTransfers - holds partial chunks back while settlements are slow")
+	void registerTransfers_WithSlowSettlement_DoesNotOverflow() {
+
+		transferBatchService = service(new TransferBatchProperties(1, 10, Duration.ofMillis(10),
+				1000), Map.of(), Map.of());
+		when(bulkOperations.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+		when(transferSettlementService.settle(any())).thenAnswer(invocation ->
+				Mono.delay(Duration.ofMillis(50)).thenReturn(invocation.getArgument(0)));
+
+		StepVerifier.create(transferBatchService.registerTransfers(Flux.range(1, 30)
+						.delayElements(Duration.ofMillis(5))
+						.map(account -> createRequest(account, 10.0))))
+				.expectNextCount(30)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("registerTransfers - charges each transfer to the limits of its client and " +
+			"source account")
+	void registerTransfers_WithClientOverLimit_RejectsExcessTransfers() {
+
+		transferBatchService = service(new TransferBatchProperties(4, 10, Duration.ofMillis(10),
+						1000),
+				Map.of(TransactionType.TRANSFER_OWN_ACCOUNT,
+						new TransferRateLimitProperties.Limit(3, 1.0 / 60)),
+				Map.of(TransactionType.TRANSFER_OWN_ACCOUNT,
+						new TransferRateLimitProperties.Limit(1, 1.0 / 60)));
+		when(bulkOperations.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+		when(transferSettlementService.settle(any()))
+				.thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		List<BatchTransferResult> results = transferBatchService.registerTransfers(Flux.just(
+						createRequest(1, 10.0), createRequest(1, 10.0), createRequest(2, 10.0),
+						createRequest(3, 10.0), createRequest(4, 10.0)))
+				.contextWrite(Context.of(TransferRateLimiter.CLIENT_ID, "alice"))
+				.collectSortedList(Comparator.comparingLong(BatchTransferResult::index))
+				.block();
+
+		assertThat(results).extracting(BatchTransferResult::errorCode)
+				.containsExactly(null, "RATE_LIMITED", null, null, "RATE_LIMITED");
+		assertThat(results.get(1).errorMessage()).contains("retry after 60 seconds");
+		verify(transferSettlementService, times(3)).settle(any());
+		assertThat(meterRegistry.get("transactions.requests.rate.limited").tag("scope", "account")
+				.counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("registerTransfers - rejects the transfer past the maximum batch size and " +
+			"reads no further")
+	void registerTransfers_WithMoreThanMaxSize_StopsReading() {
+
+		transferBatchService = service(new TransferBatchProperties(4, 10, Duration.ofMillis(10),
+				2), Map.of(), Map.of());
+		when(bulkOperations.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+		when(transferSettlementService.settle(any()))
+				.thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+		AtomicInteger read = new AtomicInteger();
+
+		List<BatchTransferResult> results = transferBatchService.registerTransfers(
+						Flux.range(1, 10)
+								.map(account -> createRequest(account, 10.0))
+								.doOnNext(transfer -> read.incrementAndGet()))
+				.collectSortedList(Comparator.comparingLong(BatchTransferResult::index))
+				.block();
+
+		assertThat(results).extracting(BatchTransferResult::errorCode)
+				.containsExactly(null, null, "BATCH_TOO_LARGE");
+		assertThat(read).hasValue(3);
+		verify(transferSettlementService, times(2)).settle(any());
+	}
+
+	private TransferBatchService service(TransferBatchProperties properties,
+										 Map<TransactionType, TransferRateLimitProperties.Limit> client,
+										 Map<TransactionType, TransferRateLimitProperties.Limit> account) {
+		TransferRateLimitProperties rateLimits = new TransferRateLimitProperties(true,
+				Duration.ofMinutes(10), 100, client, account, null, null);
+		return new TransferBatchServiceImpl(transferSettlementService, mongoTemplate,
+				Validation.buildDefaultValidatorFactory().getValidator(), properties,
+				new TransferMetrics(ObservationRegistry.create(), meterRegistry),
+				new TransferRateLimiter(rateLimits, new TokenBucketStore(rateLimits),
+						meterRegistry));
+	}
+
+	private TransferRequestDTO createRequest(int sourceAccountId, double amount) {
+		return new TransferRequestDTO("TRANSFER_OWN_ACCOUNT", sourceAccountId, 99, amount);
+	}
+}
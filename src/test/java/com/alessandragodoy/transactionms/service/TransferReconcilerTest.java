@@ -0,0 +1,123 @@
+package com.alessandragodoy.transactionms.service;
+
+import com.alessandragodoy.transactionms.configuration.TransferReconcilerProperties;
+import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import com.alessandragodoy.transactionms.exception.TransferFailedException;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.repository.TransactionRepository;
+import com.alessandragodoy.transactionms.service.impl.TransferReconciler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransferReconciler.
+ * Tests that old pending transfers are settled again and unreachable ones are deferred with an
+ * exponential backoff.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransferReconcilerTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+	@Mock
+	private TransferSettlementService transferSettlementService;
+
+	@Mock
+	private TransactionRepository transactionRepository;
+
+	@Test
+	@DisplayName("reconcilePending - settles old pending transfers and defers unreachable ones")
+	void reconcilePending_WithPendingTransfers_SettlesReachableOnes() {
+
+		Transaction completed = createPendingTransaction("tx1");
+		Transaction rejected = createPendingTransaction("tx2");
+		Transaction unreachable = createPendingTransaction("tx3");
+		when(transactionRepository.findReconcilable(NOW.minusMinutes(30), NOW, Limit.of(10)))
+				.thenReturn(Flux.just(completed, rejected, unreachable));
+		when(transferSettlementService.settle(completed)).thenReturn(Mono.just(completed));
+		when(transferSettlementService.settle(rejected))
+				.thenReturn(Mono.error(new TransferFailedException("INSUFFICIENT_FUNDS")));
+		when(transferSettlementService.settle(unreachable))
+				.thenReturn(Mono.error(new ExternalServiceException("Service unavailable")));
+		when(transactionRepository.deferReconciliation(unreachable, NOW.plusMinutes(1)))
+				.thenReturn(Mono.just(unreachable));
+
+		StepVerifier.create(reconciler(true).reconcilePending())
+				.expectNext(2L)
+				.verifyComplete();
+
+		verify(transferSettlementService, times(3)).settle(any());
+		verify(transactionRepository).deferReconciliation(unreachable, NOW.plusMinutes(1));
+	}
+
+	@Test
+	@DisplayName("reconcilePending - doubles the delay of repeatedly failing transfers up to the " +
+			"maximum")
+	void reconcilePending_WithRepeatedFailures_BacksOffExponentially() {
+
+		Transaction thirdFailure = createPendingTransaction("tx1");
+		thirdFailure.setReconcileAttempts(3);
+		Transaction manyFailures = createPendingTransaction("tx2");
+		manyFailures.setReconcileAttempts(40);
+		when(transactionRepository.findReconcilable(any(), any(), any()))
+				.thenReturn(Flux.just(thirdFailure, manyFailures));
+		when(transferSettlementService.settle(any()))
+				.thenReturn(Mono.error(new ExternalServiceException("Service unavailable")));
+		when(transactionRepository.deferReconciliation(any(), any()))
+				.thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		StepVerifier.create(reconciler(true).reconcilePending())
+				.expectNext(0L)
+				.verifyComplete();
+
+		verify(transactionRepository).deferReconciliation(thirdFailure, NOW.plusMinutes(8));
+		verify(transactionRepository).deferReconciliation(manyFailures, NOW.plusHours(1));
+	}
+
+	@Test
+	@DisplayName("reconcilePending - does nothing when disabled")
+	void reconcilePending_WhenDisabled_DoesNothing() {
+
+		StepVerifier.create(reconciler(false).reconcilePending())
+				.expectNext(0L)
+				.verifyComplete();
+
+		verifyNoInteractions(transactionRepository, transferSettlementService);
+	}
+
+	private TransferReconciler reconciler(boolean enabled) {
+		return new TransferReconciler(transferSettlementService, transactionRepository,
+				new TransferReconcilerProperties(enabled, Duration.ofMinutes(30),
+						Duration.ofMinutes(1), Duration.ofHours(1), 10, 2),
+				Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+	}
+
+	private Transaction createPendingTransaction(String id) {
+		return Transaction.builder()
+				.transactionId(id)
+				.transactionType(TransactionType.TRANSFER_OWN_ACCOUNT)
+				.accountId(1)
+				.relatedAccountId(2)
+				.amount(100.0)
+				.transactionDate(NOW.minusHours(1))
+				.status(TransactionStatus.PENDING)
+				.build();
+	}
+}
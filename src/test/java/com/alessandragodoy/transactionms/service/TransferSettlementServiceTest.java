@@ -0,0 +1,234 @@
+package com.alessandragodoy.transactionms.service;
+
+import com.alessandragodoy.transactionms.adapter.TransferDispatcher;
+import com.alessandragodoy.transactionms.cache.TransactionCache;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.dto.TransferResponseDTO;
+import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import com.alessandragodoy.transactionms.exception.TransferFailedException;
+import com.alessandragodoy.transactionms.metrics.TransferMetrics;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.repository.TransactionRepository;
+import com.alessandragodoy.transactionms.service.impl.TransferSettlementServiceImpl;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransferSettlementServiceImpl.
+ * Tests that a transfer is cached while PENDING, the final statuses it is moved to, their
+ * metrics and that a transfer settled elsewhere is not recorded twice.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransferSettlementServiceTest {
+
+	@Mock
+	private TransferDispatcher transferDispatcher;
+
+	@Mock
+	private TransactionRepository transactionRepository;
+
+	@Mock
+	private TransactionCache transactionCache;
+
+	@Mock
+	private AccountSummaryService accountSummaryService;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private TransferMetrics transferMetrics;
+
+	private TransferSettlementServiceImpl settlementService;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig()
+				.observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+		transferMetrics = new TransferMetrics(observationRegistry, meterRegistry);
+		settlementService = new TransferSettlementServiceImpl(transferDispatcher,
+				transactionRepository, transactionCache, accountSummaryService, transferMetrics);
+		lenient().when(accountSummaryService.recordTransaction(any())).thenReturn(Mono.empty());
+		lenient().when(transactionRepository.updateStatus(any(), any()))
+				.thenAnswer(invocation -> {
+					Transaction pending = invocation.getArgument(0);
+					pending.setStatus(invocation.getArgument(1));
+					return Mono.just(pending);
+				});
+	}
+
+	@Test
+	@DisplayName("storePending - stores and caches the transfer as PENDING")
+	void storePending_WithTransfer_CachesPendingTransaction() {
+
+		when(transactionRepository.saveBatched(any(Transaction.class)))
+				.thenAnswer(invocation -> {
+					Transaction saved = invocation.getArgument(0);
+					saved.setTransactionId("tx1");
+					return Mono.just(saved);
+				});
+
+		StepVerifier.create(settlementService.storePending(new TransferRequestDTO(
+						"TRANSFER_OWN_ACCOUNT", 1, 2, 100.0), "key-1"))
+				.assertNext(stored -> {
+					assertThat(stored.getStatus()).isEqualTo(TransactionStatus.PENDING);
+					assertThat(stored.getIdempotencyKey()).isEqualTo("key-1");
+					verify(transactionCache).put(stored);
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("settle - completes an accepted transfer and publishes it")
+	void settle_WithAcceptedTransfer_CompletesAndPublishes() {
+
+		Transaction pending = createPendingTransaction("tx1");
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), eq("tx1")))
+				.thenReturn(Mono.just(TransferResponseDTO.builder().success(true).build()));
+
+		StepVerifier.create(settlementService.settledTransfers().next())
+				.then(() -> StepVerifier.create(settlementService.settle(pending))
+						.expectNextMatches(settled ->
+								settled.getStatus() == TransactionStatus.COMPLETED)
+						.verifyComplete())
+				.assertNext(settled -> assertThat(settled.getTransactionId()).isEqualTo("tx1"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+
+		verify(transactionCache).put(pending);
+		verify(accountSummaryService).recordTransaction(pending);
+	}
+
+	@Test
+	@DisplayName("settle - fails a rejected transfer and counts its status")
+	void settle_WithRejectedTransfer_FailsTransfer() {
+
+		Transaction pending = createPendingTransaction("tx1");
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), eq("tx1")))
+				.thenReturn(Mono.just(TransferResponseDTO.builder().success(false)
+						.errorCode("INSUFFICIENT_FUNDS").errorMessage("Insufficient balance")
+						.build()));
+
+		StepVerifier.create(settlementService.settle(pending))
+				.expectError(TransferFailedException.class)
+				.verify();
+
+		verify(transactionRepository).updateStatus(pending, TransactionStatus.FAILED);
+		assertThat(meterRegistry.get("transactions.transfer.stage")
+				.tags("stage", "account-service", "outcome", "rejected").timer().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.get("transactions.transfer.status").tag("status", "FAILED")
+				.counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("settle - leaves the transfer PENDING when the account service is unreachable")
+	void settle_WithUnreachableService_LeavesPending() {
+
+		Transaction pending = createPendingTransaction("tx1");
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), eq("tx1")))
+				.thenReturn(Mono.error(new ExternalServiceException("Service unavailable")));
+
+		StepVerifier.create(settlementService.settle(pending))
+				.expectError(ExternalServiceException.class)
+				.verify();
+
+		verify(transactionRepository, never()).updateStatus(any(), any());
+		assertThat(meterRegistry.get("transactions.transfer.stage")
+				.tags("stage", "account-service", "outcome", "error").timer().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("settle - returns the stored transaction without recording it again when it " +
+			"was settled elsewhere")
+	void settle_WithTransferSettledElsewhere_ReturnsStoredTransaction() {
+
+		Transaction pending = createPendingTransaction("tx1");
+		Transaction stored = createPendingTransaction("tx1");
+		stored.setStatus(TransactionStatus.COMPLETED);
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), eq("tx1")))
+				.thenReturn(Mono.just(TransferResponseDTO.builder().success(true).build()));
+		when(transactionRepository.updateStatus(pending, TransactionStatus.COMPLETED))
+				.thenReturn(Mono.empty());
+		when(transactionRepository.findById("tx1")).thenReturn(Mono.just(stored));
+
+		StepVerifier.create(settlementService.settle(pending))
+				.expectNext(stored)
+				.verifyComplete();
+
+		verify(transactionCache).invalidate("tx1");
+		verify(transactionCache, never()).put(any());
+		verify(accountSummaryService, never()).recordTransaction(any());
+	}
+
+	@Test
+	@DisplayName("settle - completes and publishes every transfer settled concurrently")
+	void settle_WithConcurrentSettlements_CompletesEveryTransfer() {
+
+		when(transferDispatcher.dispatch(any(TransferRequestDTO.class), any()))
+				.thenReturn(Mono.just(TransferResponseDTO.builder().success(true).build()));
+		List<Transaction> published = new CopyOnWriteArrayList<>();
+		Disposable subscription = settlementService.settledTransfers()
+				.subscribe(transaction -> {
+					if (published.isEmpty()) {
+						// Holds the first emission long enough for the others to contend
+						LockSupport.parkNanos(Duration.ofMillis(1500).toNanos());
+					}
+					published.add(transaction);
+				});
+
+		Scheduler scheduler = Schedulers.newParallel("settle-test", 8);
+		List<Transaction> settled = Flux.range(0, 200)
+				.parallel(8)
+				.runOn(scheduler)
+				.flatMap(i -> settlementService.settle(createPendingTransaction("tx" + i)))
+				.sequential()
+				.collectList()
+				.block(Duration.ofSeconds(10));
+		subscription.dispose();
+		scheduler.dispose();
+
+		assertThat(settled).hasSize(200)
+				.allMatch(transaction -> transaction.getStatus() == TransactionStatus.COMPLETED);
+		assertThat(published).hasSize(200);
+	}
+
+	private Transaction createPendingTransaction(String id) {
+		return Transaction.builder()
+				.transactionId(id)
+				.transactionType(TransactionType.TRANSFER_OWN_ACCOUNT)
+				.accountId(1)
+				.relatedAccountId(2)
+				.amount(100.0)
+				.transactionDate(LocalDateTime.now().minusMinutes(5))
+				.status(TransactionStatus.PENDING)
+				.build();
+	}
+}
@@ -0,0 +1,117 @@
+package com.alessandragodoy.transactionms.service;
+
+import com.alessandragodoy.transactionms.configuration.TransferSubmissionProperties;
+import com.alessandragodoy.transactionms.exception.ExternalServiceException;
+import com.alessandragodoy.transactionms.metrics.TransferMetrics;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import com.alessandragodoy.transactionms.service.impl.TransferSubmissionQueue;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransferSubmissionQueue.
+ * Tests the background settlement of submitted transfers and the bounded queue.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransferSubmissionQueueTest {
+
+	@Mock
+	private TransferSettlementService transferSettlementService;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private TransferSubmissionQueue submissionQueue;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig()
+				.observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+		submissionQueue = new TransferSubmissionQueue(transferSettlementService,
+				new TransferSubmissionProperties(4, 2),
+				new TransferMetrics(observationRegistry, meterRegistry));
+	}
+
+	@AfterEach
+	void tearDown() {
+		submissionQueue.shutdown();
+	}
+
+	@Test
+	@DisplayName("submit - answers with the stored transfer, settles it in the background and " +
+			"times its wait")
+	void submit_WithPendingTransfer_SettlesInBackground() {
+
+		Transaction pending = createPendingTransaction("tx1");
+		when(transferSettlementService.settle(pending)).thenReturn(Mono.just(pending));
+
+		StepVerifier.create(submissionQueue.submit(Mono.just(pending)))
+				.expectNext(pending)
+				.verifyComplete();
+
+		verify(transferSettlementService, timeout(5000)).settle(pending);
+		assertThat(meterRegistry.get("transactions.transfer.stage")
+				.tags("stage", "queue", "outcome", "success").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("submit - rejects transfers without storing them when the queue is full")
+	void submit_WithFullQueue_RejectsWithoutStoring() {
+
+		when(transferSettlementService.settle(any())).thenReturn(Mono.never());
+		submissionQueue.submit(Mono.just(createPendingTransaction("tx1"))).block();
+		submissionQueue.submit(Mono.just(createPendingTransaction("tx2"))).block();
+
+		StepVerifier.create(submissionQueue.submit(Mono.fromSupplier(() -> {
+					throw new AssertionError("The transfer must not be stored");
+				})))
+				.expectError(ExternalServiceException.class)
+				.verify();
+	}
+
+	@Test
+	@DisplayName("submit - frees the place of a transfer whose settlement failed")
+	void submit_WithFailedSettlement_FreesPlace() {
+
+		when(transferSettlementService.settle(any()))
+				.thenReturn(Mono.error(new ExternalServiceException("Service unavailable")));
+		submissionQueue.submit(Mono.just(createPendingTransaction("tx1"))).block();
+		submissionQueue.submit(Mono.just(createPendingTransaction("tx2"))).block();
+		verify(transferSettlementService, timeout(5000).times(2)).settle(any());
+
+		StepVerifier.create(submissionQueue.submit(Mono.just(createPendingTransaction("tx3"))))
+				.expectNextCount(1)
+				.verifyComplete();
+	}
+
+	private Transaction createPendingTransaction(String id) {
+		return Transaction.builder()
+				.transactionId(id)
+				.transactionType(TransactionType.TRANSFER_OWN_ACCOUNT)
+				.accountId(1)
+				.relatedAccountId(2)
+				.amount(100.0)
+				.transactionDate(LocalDateTime.now().minusMinutes(5))
+				.status(TransactionStatus.PENDING)
+				.build();
+	}
+}
@@ -0,0 +1,98 @@
+package com.alessandragodoy.transactionms.utility;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for BatchPipeline.
+ * Tests that slow flushes delay batches instead of stopping the pipeline, that failed flushes
+ * are reported per item and that shutdown waits for the last flush.
+ */
+class BatchPipelineTest {
+
+	private final List<Integer> flushed = new CopyOnWriteArrayList<>();
+	private final Map<Integer, Throwable> failed = new ConcurrentHashMap<>();
+	private BatchPipeline<Integer> pipeline;
+
+	@AfterEach
+	void tearDown() {
+		pipeline.shutdown(Duration.ofSeconds(5));
+	}
+
+	@Test
+	@DisplayName("submit - keeps forming batches while every flush slot is busy")
+	void submit_WithSlowFlush_FlushesEveryItem() throws InterruptedException {
+
+		CountDownLatch done = new CountDownLatch(100);
+		pipeline = pipeline(batch -> Mono.delay(Duration.ofMillis(20))
+				.then(Mono.fromRunnable(() -> batch.forEach(item -> {
+					flushed.add(item);
+					done.countDown();
+				}))));
+
+		for (int i = 0; i < 100; i++) {
+			pipeline.submit(i);
+			Thread.sleep(1);
+		}
+
+		assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(flushed).hasSize(100);
+		assertThat(failed).isEmpty();
+	}
+
+	@Test
+	@DisplayName("submit - reports a failed flush to its items and keeps running")
+	void submit_WithFailedFlush_FailsItsItemsOnly() throws InterruptedException {
+
+		CountDownLatch done = new CountDownLatch(1);
+		pipeline = pipeline(batch -> batch.contains(1)
+				? Mono.error(new IllegalStateException("Flush failed"))
+				: Mono.fromRunnable(() -> {
+					flushed.addAll(batch);
+					done.countDown();
+				}));
+
+		pipeline.submit(1);
+		Thread.sleep(50);
+		pipeline.submit(2);
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(failed).containsOnlyKeys(1);
+		assertThat(flushed).containsExactly(2);
+	}
+
+	@Test
+	@DisplayName("shutdown - waits for the queued items and rejects new ones")
+	void shutdown_WithQueuedItems_FlushesThemFirst() {
+
+		pipeline = new BatchPipeline<>(10, Duration.ofMinutes(1), 1,
+				batch -> Mono.delay(Duration.ofMillis(100))
+						.then(Mono.fromRunnable(() -> flushed.addAll(batch))),
+				failed::put);
+		pipeline.submit(1);
+		pipeline.submit(2);
+
+		pipeline.shutdown(Duration.ofSeconds(5));
+
+		assertThat(flushed).containsExactly(1, 2);
+		assertThatThrownBy(() -> pipeline.submit(3)).isInstanceOf(IllegalStateException.class);
+	}
+
+	private BatchPipeline<Integer> pipeline(Function<List<Integer>, Mono<Void>> flush) {
+		return new BatchPipeline<>(10, Duration.ofMillis(5), 1, flush, failed::put);
+	}
+}
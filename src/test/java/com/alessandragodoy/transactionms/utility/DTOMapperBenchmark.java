@@ -0,0 +1,59 @@
+package com.alessandragodoy.transactionms.utility;
+
+import com.alessandragodoy.transactionms.dto.TransactionDTO;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the explicit {@link DTOMapper} against the reflective ModelMapper it replaced.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DTOMapperBenchmark {
+
+	private final ModelMapper modelMapper = new ModelMapper();
+	private Transaction transaction;
+
+	@Setup
+	public void setUp() {
+		transaction = Transaction.builder()
+				.transactionId("6971004f05c9a61e36766dfa")
+				.transactionType(TransactionType.TRANSFER_OWN_ACCOUNT)
+				.accountId(1)
+				.relatedAccountId(2)
+				.amount(100.0)
+				.transactionDate(LocalDateTime.now())
+				.status(TransactionStatus.COMPLETED)
+				.build();
+	}
+
+	@Benchmark
+	public TransactionDTO modelMapper() {
+		return modelMapper.map(transaction, TransactionDTO.class);
+	}
+
+	@Benchmark
+	public TransactionDTO dtoMapper() {
+		return DTOMapper.convertToDTO(transaction);
+	}
+}
@@ -0,0 +1,121 @@
+package com.alessandragodoy.transactionms.utility;
+
+import com.alessandragodoy.transactionms.dto.AccountSummaryDTO;
+import com.alessandragodoy.transactionms.dto.BatchTransferResultDTO;
+import com.alessandragodoy.transactionms.dto.TransactionDTO;
+import com.alessandragodoy.transactionms.dto.TransferRequestDTO;
+import com.alessandragodoy.transactionms.model.AccountSummary;
+import com.alessandragodoy.transactionms.model.BatchTransferResult;
+import com.alessandragodoy.transactionms.model.Transaction;
+import com.alessandragodoy.transactionms.model.TransactionStatus;
+import com.alessandragodoy.transactionms.model.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for DTOMapper.
+ * Tests the explicit field mapping between transactions and their DTOs.
+ */
+class DTOMapperTest {
+
+	@Test
+	@DisplayName("convertToDTO - maps every field including status to transactionStatus")
+	void convertToDTO_MapsAllFields() {
+
+		Transaction transaction = Transaction.builder()
+				.transactionId("6971004f05c9a61e36766dfa")
+				.transactionType(TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT)
+				.accountId(1)
+				.relatedAccountId(2)
+				.amount(150.0)
+				.transactionDate(LocalDateTime.now())
+				.status(TransactionStatus.FAILED)
+				.build();
+
+		TransactionDTO dto = DTOMapper.convertToDTO(transaction);
+
+		assertThat(dto.getTransactionId()).isEqualTo("6971004f05c9a61e36766dfa");
+		assertThat(dto.getTransactionType()).isEqualTo(
+				TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT);
+		assertThat(dto.getAccountId()).isEqualTo(1);
+		assertThat(dto.getRelatedAccountId()).isEqualTo(2);
+		assertThat(dto.getAmount()).isEqualTo(150.0);
+		assertThat(dto.getTransactionStatus()).isEqualTo(TransactionStatus.FAILED);
+	}
+
+	@Test
+	@DisplayName("convertToEntity - maps source and destination accounts")
+	void convertToEntity_MapsTransferRequest() {
+
+		TransferRequestDTO request = new TransferRequestDTO("TRANSFER_OWN_ACCOUNT", 3, 4, 75.5);
+
+		Transaction transaction = DTOMapper.convertToEntity(request);
+
+		assertThat(transaction.getTransactionId()).isNull();
+		assertThat(transaction.getTransactionType()).isEqualTo(TransactionType.TRANSFER_OWN_ACCOUNT);
+		assertThat(transaction.getAccountId()).isEqualTo(3);
+		assertThat(transaction.getRelatedAccountId()).isEqualTo(4);
+		assertThat(transaction.getAmount()).isEqualTo(75.5);
+		assertThat(transaction.getStatus()).isNull();
+	}
+
+	@Test
+	@DisplayName("convertToDTO - maps every account summary total")
+	void convertToDTO_WithAccountSummary_MapsAllTotals() {
+
+		AccountSummary summary = AccountSummary.builder()
+				.accountId(1)
+				.sentCount(3)
+				.sentAmount(250.0)
+				.receivedCount(1)
+				.receivedAmount(40.0)
+				.countByStatus(Map.of("COMPLETED", 4L))
+				.countByType(Map.of("TRANSFER_OWN_ACCOUNT", 4L))
+				.build();
+
+		AccountSummaryDTO dto = DTOMapper.convertToDTO(summary);
+
+		assertThat(dto).isEqualTo(new AccountSummaryDTO(1, 3L, 250.0, 1L, 40.0,
+				Map.of("COMPLETED", 4L), Map.of("TRANSFER_OWN_ACCOUNT", 4L)));
+	}
+
+	@Test
+	@DisplayName("convertToDTO - maps batch results with and without transaction")
+	void convertToDTO_WithBatchTransferResult_MapsTransactionAndError() {
+
+		Transaction transaction = Transaction.builder()
+				.transactionId("6971004f05c9a61e36766dfa")
+				.status(TransactionStatus.FAILED)
+				.build();
+
+		assertThat(DTOMapper.convertToDTO(new BatchTransferResult(2, transaction,
+				"INSUFFICIENT_FUNDS", "Insufficient funds")))
+				.isEqualTo(new BatchTransferResultDTO(2L, "6971004f05c9a61e36766dfa",
+						TransactionStatus.FAILED, "INSUFFICIENT_FUNDS", "Insufficient funds"));
+		assertThat(DTOMapper.convertToDTO(BatchTransferResult.rejected(3, "INVALID_REQUEST",
+				"amount: must be greater than 0")))
+				.isEqualTo(new BatchTransferResultDTO(3L, null, null, "INVALID_REQUEST",
+						"amount: must be greater than 0"));
+	}
+
+	@Test
+	@DisplayName("convertToRequest - maps a stored transfer back to its request")
+	void convertToRequest_WithTransaction_MapsTransferFields() {
+
+		Transaction transaction = Transaction.builder()
+				.transactionType(TransactionType.TRANSFER_THIRD_PARTY_ACCOUNT)
+				.accountId(1)
+				.relatedAccountId(2)
+				.amount(150.0)
+				.status(TransactionStatus.PENDING)
+				.build();
+
+		assertThat(DTOMapper.convertToRequest(transaction))
+				.isEqualTo(new TransferRequestDTO("TRANSFER_THIRD_PARTY_ACCOUNT", 1, 2, 150.0));
+	}
+}